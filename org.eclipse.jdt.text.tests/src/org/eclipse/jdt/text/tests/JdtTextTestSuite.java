@@ -54,6 +54,9 @@ public class JdtTextTestSuite {
 		suite.addTest(SpellingTestSuite.suite());
 		suite.addTest(SemanticHighlightingTest.suite());
 		suite.addTest(AutoboxingSemanticHighlightingTest.suite());
+		suite.addTest(ViewportSemanticHighlightingTest.suite());
+		suite.addTest(LazyFoldingTest.suite());
+		suite.addTest(ReconcileDelayTest.suite());
 		suite.addTest(NewForLoopJavaContextTest.suite());
 		suite.addTest(JavaDoubleClickSelectorTest.suite());
 		suite.addTest(BreakContinueTargetFinderTest.suite());
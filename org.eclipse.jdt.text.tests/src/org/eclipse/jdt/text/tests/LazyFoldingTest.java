@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.text.tests.performance.DisplayHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.ui.text.folding.DefaultJavaFoldingStructureProvider;
+import org.eclipse.jdt.ui.text.folding.IJavaFoldingStructureProvider;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.ViewportWindow;
+
+
+/**
+ * Tests that the folding structure of huge compilation units is only computed exactly around
+ * the visible lines and filled in when the editor is scrolled.
+ *
+ * @since 3.8
+ */
+public class LazyFoldingTest extends TestCase {
+
+	private static final String PROJECT= "LazyFoldingTest";
+
+	private static final int METHOD_LINES= 6;
+
+	public static Test suite() {
+		return new TestSuite(LazyFoldingTest.class);
+	}
+
+	private IJavaProject fProject;
+	private IPackageFragment fPackage;
+	private JavaEditor fEditor;
+	private boolean fWasFoldingEnabled;
+
+	protected void setUp() throws Exception {
+		fWasFoldingEnabled= EditorTestHelper.enableFolding(true);
+		fProject= JavaProjectHelper.createJavaProject(PROJECT, "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		fPackage= root.createPackageFragment("test", true, null);
+	}
+
+	protected void tearDown() throws Exception {
+		EditorTestHelper.closeEditor(fEditor);
+		fEditor= null;
+		if (fProject != null) {
+			JavaProjectHelper.delete(fProject);
+			fProject= null;
+		}
+		EditorTestHelper.enableFolding(fWasFoldingEnabled);
+	}
+
+	private ICompilationUnit createCompilationUnit(int methods) throws JavaModelException {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test;\n");
+		buf.append("public class Huge {\n");
+		for (int i= 0; i < methods; i++) {
+			buf.append("    /**\n");
+			buf.append("     * Method " + i + ".\n");
+			buf.append("     */\n");
+			buf.append("    public void m" + i + "() {\n");
+			buf.append("        System.out.println(" + i + ");\n");
+			buf.append("    }\n");
+		}
+		buf.append("}\n");
+		return fPackage.createCompilationUnit("Huge.java", buf.toString(), true, new NullProgressMonitor());
+	}
+
+	private void openEditor(ICompilationUnit cu) throws Exception {
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor((IFile) cu.getResource(), true);
+		assertTrue(EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 0, 10000, 100));
+		EditorTestHelper.runEventQueue(fEditor, 100);
+	}
+
+	private Position[] getPlaceholders() {
+		Object provider= fEditor.getAdapter(IJavaFoldingStructureProvider.class);
+		assertTrue(provider instanceof DefaultJavaFoldingStructureProvider);
+		return (Position[]) new Accessor(provider, DefaultJavaFoldingStructureProvider.class).get("fPlaceholders");
+	}
+
+	private boolean hasPlaceholder(IMember member) throws JavaModelException {
+		ISourceRange range= member.getSourceRange();
+		Position[] placeholders= getPlaceholders();
+		for (int i= 0; i < placeholders.length; i++) {
+			if (!placeholders[i].isDeleted() && placeholders[i].overlapsWith(range.getOffset(), range.getLength()))
+				return true;
+		}
+		return false;
+	}
+
+	public void testSmallDocumentHasNoPlaceholders() throws Exception {
+		ICompilationUnit cu= createCompilationUnit(ViewportWindow.THRESHOLD / METHOD_LINES / 2);
+		openEditor(cu);
+
+		assertEquals(0, getPlaceholders().length);
+	}
+
+	public void testPlaceholdersOutsideWindow() throws Exception {
+		int methods= 2 * ViewportWindow.THRESHOLD / METHOD_LINES;
+		ICompilationUnit cu= createCompilationUnit(methods);
+		openEditor(cu);
+
+		IDocument document= EditorTestHelper.getDocument(fEditor);
+		assertTrue(document.getNumberOfLines() > ViewportWindow.THRESHOLD);
+		assertFalse(hasPlaceholder(cu.getType("Huge").getMethod("m0", new String[0])));
+		assertTrue(hasPlaceholder(cu.getType("Huge").getMethod("m" + (methods - 1), new String[0])));
+	}
+
+	public void testScrollingFillsInPlaceholders() throws Exception {
+		int methods= 2 * ViewportWindow.THRESHOLD / METHOD_LINES;
+		ICompilationUnit cu= createCompilationUnit(methods);
+		openEditor(cu);
+
+		final IMember last= cu.getType("Huge").getMethod("m" + (methods - 1), new String[0]);
+		assertTrue(hasPlaceholder(last));
+
+		IDocument document= EditorTestHelper.getDocument(fEditor);
+		fEditor.getViewer().setTopIndex(document.getLineOfOffset(last.getSourceRange().getOffset()));
+
+		DisplayHelper helper= new DisplayHelper() {
+			protected boolean condition() {
+				try {
+					return !hasPlaceholder(last);
+				} catch (JavaModelException e) {
+					return false;
+				}
+			}
+		};
+		assertTrue(helper.waitForCondition(EditorTestHelper.getActiveDisplay(), 10000));
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.internal.ui.text.ReconcileDelay;
+
+
+/**
+ * Tests for {@link ReconcileDelay}.
+ *
+ * @since 3.8
+ */
+public class ReconcileDelayTest extends TestCase {
+
+	private static final int BASE_DELAY= 500;
+
+	public static Test suite() {
+		return new TestSuite(ReconcileDelayTest.class);
+	}
+
+	private ReconcileDelay fDelay;
+
+	protected void setUp() throws Exception {
+		fDelay= new ReconcileDelay(BASE_DELAY);
+	}
+
+	private long type(long time, int keystrokes, int interval) {
+		for (int i= 0; i < keystrokes; i++) {
+			time+= interval;
+			fDelay.modified(time, false);
+		}
+		return time;
+	}
+
+	public void testInitialDelayIsBaseDelay() throws Exception {
+		assertEquals(BASE_DELAY, fDelay.getDelay());
+	}
+
+	public void testFastTypingKeepsBaseDelay() throws Exception {
+		type(0, 50, 30);
+		assertEquals(BASE_DELAY, fDelay.getDelay());
+	}
+
+	public void testSlowTypingIncreasesDelay() throws Exception {
+		type(0, 50, 400);
+		int delay= fDelay.getDelay();
+		assertTrue(delay > BASE_DELAY);
+		assertTrue(delay <= 800);
+	}
+
+	public void testPausesDoNotCountAsTyping() throws Exception {
+		type(0, 50, ReconcileDelay.TYPING_PAUSE + 1);
+		assertEquals(BASE_DELAY, fDelay.getDelay());
+	}
+
+	public void testExpensiveReconcileIncreasesDelay() throws Exception {
+		long time= type(0, 10, 30);
+		for (int i= 0; i < 20; i++)
+			fDelay.reconciled(1200);
+		assertTrue(fDelay.getDelay() > 1000);
+
+		type(time, 50, 30);
+		assertTrue(fDelay.getDelay() > 1000);
+	}
+
+	public void testCheapReconcileKeepsFloorWhileTyping() throws Exception {
+		for (int i= 0; i < 20; i++)
+			fDelay.reconciled(5);
+		type(0, 50, 30);
+		assertEquals(BASE_DELAY, fDelay.getDelay());
+	}
+
+	public void testDelayIsBounded() throws Exception {
+		for (int i= 0; i < 50; i++)
+			fDelay.reconciled(60000);
+		assertEquals(ReconcileDelay.MAX_DELAY, fDelay.getDelay());
+
+		fDelay.setBaseDelay(10);
+		for (int i= 0; i < 50; i++)
+			fDelay.reconciled(0);
+		assertEquals(ReconcileDelay.MIN_DELAY, fDelay.getDelay());
+	}
+
+	public void testBurstEditUsesMinimalDelay() throws Exception {
+		long time= type(0, 10, 30);
+		fDelay.modified(time + 30, true);
+		assertEquals(ReconcileDelay.MIN_DELAY, fDelay.getDelay());
+
+		// typing again restores the floor
+		type(time + 60, 1, 30);
+		assertEquals(BASE_DELAY, fDelay.getDelay());
+	}
+
+	public void testResetForgetsTypingCadence() throws Exception {
+		type(0, 50, 400);
+		fDelay.reset();
+		assertEquals(BASE_DELAY, fDelay.getDelay());
+	}
+}
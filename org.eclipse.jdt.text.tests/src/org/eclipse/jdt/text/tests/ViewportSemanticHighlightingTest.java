@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.text.tests.performance.DisplayHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.SourceViewer;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingPresenter;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings;
+import org.eclipse.jdt.internal.ui.text.ViewportWindow;
+
+
+/**
+ * Tests that the semantic highlighting positions of huge compilation units are only
+ * materialized around the visible lines and materialized when the editor is scrolled.
+ *
+ * @since 3.8
+ */
+public class ViewportSemanticHighlightingTest extends TestCase {
+
+	private static final String PROJECT= "ViewportSemanticHighlightingTest";
+
+	private static final int METHOD_LINES= 3;
+
+	public static Test suite() {
+		return new TestSuite(ViewportSemanticHighlightingTest.class);
+	}
+
+	private IJavaProject fProject;
+	private IPackageFragment fPackage;
+	private JavaEditor fEditor;
+	private SourceViewer fSourceViewer;
+
+	protected void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject(PROJECT, "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		fPackage= root.createPackageFragment("test", true, null);
+
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		store.setValue(getEnabledPreferenceKey(SemanticHighlightings.FIELD), true);
+	}
+
+	protected void tearDown() throws Exception {
+		EditorTestHelper.closeEditor(fEditor);
+		fEditor= null;
+		fSourceViewer= null;
+		if (fProject != null) {
+			JavaProjectHelper.delete(fProject);
+			fProject= null;
+		}
+
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		store.setToDefault(getEnabledPreferenceKey(SemanticHighlightings.FIELD));
+	}
+
+	private String getEnabledPreferenceKey(String preferenceKey) {
+		return PreferenceConstants.EDITOR_SEMANTIC_HIGHLIGHTING_PREFIX + preferenceKey + PreferenceConstants.EDITOR_SEMANTIC_HIGHLIGHTING_ENABLED_SUFFIX;
+	}
+
+	private ICompilationUnit createCompilationUnit(int methods) throws JavaModelException {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test;\n");
+		buf.append("public class Huge {\n");
+		buf.append("    int field;\n");
+		for (int i= 0; i < methods; i++) {
+			buf.append("    public void m" + i + "() {\n");
+			buf.append("        field= " + i + ";\n");
+			buf.append("    }\n");
+		}
+		buf.append("}\n");
+		return fPackage.createCompilationUnit("Huge.java", buf.toString(), true, new NullProgressMonitor());
+	}
+
+	private void openEditor(ICompilationUnit cu) throws Exception {
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor((IFile) cu.getResource(), true);
+		fSourceViewer= EditorTestHelper.getSourceViewer(fEditor);
+		assertTrue(EditorTestHelper.joinReconciler(fSourceViewer, 0, 10000, 100));
+		EditorTestHelper.runEventQueue(fEditor, 100);
+	}
+
+	private Position[] getSemanticHighlightingPositions() throws BadPositionCategoryException {
+		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(fEditor, JavaEditor.class).get("fSemanticManager");
+		SemanticHighlightingPresenter presenter= (SemanticHighlightingPresenter) new Accessor(manager, manager.getClass()).get("fPresenter");
+		String positionCategory= (String) new Accessor(presenter, presenter.getClass()).invoke("getPositionCategory", new Object[0]);
+		return fSourceViewer.getDocument().getPositions(positionCategory);
+	}
+
+	private boolean isHighlighted(IMember member) throws JavaModelException, BadPositionCategoryException {
+		ISourceRange range= member.getSourceRange();
+		Position[] positions= getSemanticHighlightingPositions();
+		for (int i= 0; i < positions.length; i++) {
+			if (!positions[i].isDeleted() && positions[i].overlapsWith(range.getOffset(), range.getLength()))
+				return true;
+		}
+		return false;
+	}
+
+	public void testSmallDocumentIsMaterialized() throws Exception {
+		int methods= ViewportWindow.THRESHOLD / METHOD_LINES / 2;
+		ICompilationUnit cu= createCompilationUnit(methods);
+		openEditor(cu);
+
+		assertTrue(isHighlighted(cu.getType("Huge").getMethod("m0", new String[0])));
+		assertTrue(isHighlighted(cu.getType("Huge").getMethod("m" + (methods - 1), new String[0])));
+	}
+
+	public void testPositionsOutsideWindowAreNotMaterialized() throws Exception {
+		int methods= 2 * ViewportWindow.THRESHOLD / METHOD_LINES;
+		ICompilationUnit cu= createCompilationUnit(methods);
+		openEditor(cu);
+
+		IDocument document= fSourceViewer.getDocument();
+		assertTrue(document.getNumberOfLines() > ViewportWindow.THRESHOLD);
+		assertTrue(isHighlighted(cu.getType("Huge").getMethod("m0", new String[0])));
+		assertFalse(isHighlighted(cu.getType("Huge").getMethod("m" + (methods - 1), new String[0])));
+	}
+
+	public void testScrollingMaterializesPositions() throws Exception {
+		int methods= 2 * ViewportWindow.THRESHOLD / METHOD_LINES;
+		ICompilationUnit cu= createCompilationUnit(methods);
+		openEditor(cu);
+
+		final IMember last= cu.getType("Huge").getMethod("m" + (methods - 1), new String[0]);
+		assertFalse(isHighlighted(last));
+
+		IDocument document= fSourceViewer.getDocument();
+		fSourceViewer.setTopIndex(document.getLineOfOffset(last.getSourceRange().getOffset()));
+
+		DisplayHelper helper= new DisplayHelper() {
+			protected boolean condition() {
+				try {
+					return isHighlighted(last);
+				} catch (JavaModelException e) {
+					return false;
+				} catch (BadPositionCategoryException e) {
+					return false;
+				}
+			}
+		};
+		assertTrue(helper.waitForCondition(EditorTestHelper.getActiveDisplay(), 10000));
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerStatistics;
+
+
+/**
+ * Tests for {@link CompletionProposalComputerStatistics}.
+ *
+ * @since 3.8
+ */
+public class CompletionProposalComputerStatisticsTest extends TestCase {
+
+	private static final long MILLIS= 1000 * 1000;
+
+	public static Test suite() {
+		return new TestSuite(CompletionProposalComputerStatisticsTest.class);
+	}
+
+	public void testEmpty() throws Exception {
+		CompletionProposalComputerStatistics statistics= new CompletionProposalComputerStatistics();
+		assertEquals(0, statistics.getComputationCount());
+		assertEquals(0, statistics.getLatency(50), 0);
+	}
+
+	public void testCounts() throws Exception {
+		CompletionProposalComputerStatistics statistics= new CompletionProposalComputerStatistics();
+		statistics.recordComputation(MILLIS, 10);
+		statistics.recordComputation(2 * MILLIS, 5);
+		statistics.recordTimeout();
+
+		assertEquals(2, statistics.getComputationCount());
+		assertEquals(15, statistics.getProposalCount());
+		assertEquals(1, statistics.getTimeoutCount());
+
+		statistics.reset();
+		assertEquals(0, statistics.getComputationCount());
+		assertEquals(0, statistics.getProposalCount());
+		assertEquals(0, statistics.getTimeoutCount());
+	}
+
+	public void testPercentiles() throws Exception {
+		CompletionProposalComputerStatistics statistics= new CompletionProposalComputerStatistics();
+		for (int i= 1; i <= 100; i++)
+			statistics.recordComputation(i * MILLIS, 0);
+
+		assertLatency(50, statistics.getLatency(50));
+		assertLatency(95, statistics.getLatency(95));
+		assertLatency(99, statistics.getLatency(99));
+		assertEquals(100, statistics.getLatency(100), 0);
+	}
+
+	public void testSlowComputation() throws Exception {
+		CompletionProposalComputerStatistics statistics= new CompletionProposalComputerStatistics();
+		statistics.recordComputation(120 * 1000 * MILLIS, 0);
+		assertEquals(120 * 1000, statistics.getLatency(50), 0);
+	}
+
+	private static void assertLatency(double expected, double actual) {
+		assertTrue(actual + " < " + expected, actual >= expected);
+		assertTrue(actual + " > " + expected * 1.25, actual <= expected * 1.25);
+	}
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.core.CompletionRequestor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.internal.ui.text.java.CompletionSessionCache;
+
+
+/**
+ * Tests for {@link CompletionSessionCache}.
+ *
+ * @since 3.8
+ */
+public class CompletionSessionCacheTest extends TestCase {
+
+	private static final String PROJECT= "CompletionSessionCacheTest";
+
+	public static Test suite() {
+		return new TestSuite(CompletionSessionCacheTest.class);
+	}
+
+	private IJavaProject fProject;
+	private ICompilationUnit fUnit;
+	private IDocument fDocument;
+	private int fOffset;
+	private CompletionSessionCache fCache;
+
+	protected void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject(PROJECT, "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		IPackageFragment pack= root.createPackageFragment("test", true, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test;\n");
+		buf.append("public class A {\n");
+		buf.append("    int fooBar;\n");
+		buf.append("    int fooBaz;\n");
+		buf.append("    int other;\n");
+		buf.append("    void m() {\n");
+		buf.append("        fo\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String contents= buf.toString();
+		fUnit= pack.createCompilationUnit("A.java", contents, true, new NullProgressMonitor());
+		fDocument= new Document(contents);
+		fOffset= contents.indexOf("fo\n") + 2;
+
+		CompletionSessionCache.RecordingRequestor requestor= new CompletionSessionCache.RecordingRequestor(new CompletionRequestor() {
+			public void accept(CompletionProposal proposal) {
+			}
+		});
+		fUnit.codeComplete(fOffset, requestor);
+		fCache= CompletionSessionCache.create(fDocument, fUnit, fOffset, requestor);
+		assertNotNull(fCache);
+	}
+
+	protected void tearDown() throws Exception {
+		if (fCache != null) {
+			fCache.dispose();
+			fCache= null;
+		}
+		if (fProject != null) {
+			JavaProjectHelper.delete(fProject);
+			fProject= null;
+		}
+	}
+
+	private static CompletionProposal findField(List<CompletionProposal> proposals, String name) {
+		for (Iterator<CompletionProposal> it= proposals.iterator(); it.hasNext();) {
+			CompletionProposal proposal= it.next();
+			if (proposal.getKind() == CompletionProposal.FIELD_REF && name.equals(String.valueOf(proposal.getName())))
+				return proposal;
+		}
+		return null;
+	}
+
+	public void testNoCacheForEmptyPrefix() throws Exception {
+		// in front of the brace that closes the method body, where the token is empty
+		int offset= fOffset + 1 + 4;
+		CompletionSessionCache.RecordingRequestor requestor= new CompletionSessionCache.RecordingRequestor(new CompletionRequestor() {
+			public void accept(CompletionProposal proposal) {
+			}
+		});
+		fUnit.codeComplete(offset, requestor);
+		assertNull(CompletionSessionCache.create(fDocument, fUnit, offset, requestor));
+	}
+
+	public void testHitAtInvocationOffset() throws Exception {
+		List<CompletionProposal> proposals= fCache.lookup(fDocument, fUnit, fOffset);
+		assertNotNull(proposals);
+		assertNotNull(findField(proposals, "fooBar"));
+		assertNotNull(findField(proposals, "fooBaz"));
+		assertNull(findField(proposals, "other"));
+		assertEquals("fo", String.valueOf(fCache.getContext().getToken()));
+	}
+
+	public void testHitForLongerPrefix() throws Exception {
+		fDocument.replace(fOffset, 0, "oBar");
+		int offset= fOffset + 4;
+
+		List<CompletionProposal> proposals= fCache.lookup(fDocument, fUnit, offset);
+		assertNotNull(proposals);
+		CompletionProposal fooBar= findField(proposals, "fooBar");
+		assertNotNull(fooBar);
+		assertNull(findField(proposals, "fooBaz"));
+
+		assertEquals(offset - 6, fooBar.getReplaceStart());
+		assertEquals(offset, fooBar.getReplaceEnd());
+		assertEquals("fooBar", String.valueOf(fCache.getContext().getToken()));
+		assertEquals(offset, fCache.getContext().getOffset());
+	}
+
+	public void testRelevanceForLongerPrefix() throws Exception {
+		List<CompletionProposal> proposals= fCache.lookup(fDocument, fUnit, fOffset);
+		int fooBarRelevance= findField(proposals, "fooBar").getRelevance();
+		assertEquals(fooBarRelevance, findField(proposals, "fooBaz").getRelevance());
+
+		fDocument.replace(fOffset, 0, "oBa");
+		proposals= fCache.lookup(fDocument, fUnit, fOffset + 3);
+		assertEquals(fooBarRelevance, findField(proposals, "fooBar").getRelevance());
+
+		fDocument.replace(fOffset + 3, 0, "r");
+		proposals= fCache.lookup(fDocument, fUnit, fOffset + 4);
+		assertTrue(findField(proposals, "fooBar").getRelevance() > fooBarRelevance);
+		assertNull(findField(proposals, "fooBaz"));
+
+		// back to the cached prefix
+		fDocument.replace(fOffset, 4, "");
+		proposals= fCache.lookup(fDocument, fUnit, fOffset);
+		assertEquals(fooBarRelevance, findField(proposals, "fooBar").getRelevance());
+		assertEquals(fOffset, findField(proposals, "fooBar").getReplaceEnd());
+	}
+
+	public void testMissForOtherOffset() throws Exception {
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset - 1));
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset + 1));
+	}
+
+	public void testMissForOtherDocument() throws Exception {
+		assertNull(fCache.lookup(new Document(fDocument.get()), fUnit, fOffset));
+	}
+
+	public void testMissForShorterPrefix() throws Exception {
+		fDocument.replace(fOffset - 1, 1, "");
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset - 1));
+	}
+
+	public void testMissForNonIdentifierPrefix() throws Exception {
+		fDocument.replace(fOffset, 0, "(");
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset + 1));
+	}
+
+	public void testInvalidatedByChangeBeforePrefix() throws Exception {
+		fDocument.replace(0, 0, " ");
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset + 1));
+
+		// the cache stays invalid when the change is undone
+		fDocument.replace(0, 1, "");
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset));
+	}
+
+	public void testInvalidatedByChangeAfterPrefix() throws Exception {
+		fDocument.replace(fOffset + 1, 0, "x");
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset));
+	}
+
+	public void testInvalidatedByDispose() throws Exception {
+		fCache.dispose();
+		assertNull(fCache.lookup(fDocument, fUnit, fOffset));
+	}
+}
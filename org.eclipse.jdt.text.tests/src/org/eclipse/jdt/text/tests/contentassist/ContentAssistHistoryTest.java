@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.text.tests.contentassist;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -239,6 +240,44 @@ public class ContentAssistHistoryTest extends TestCase {
 		assertEqualMap(map(LIST, list(ARRAY_LIST), COLLECTION, list(ARRAY_LIST), ITERABLE, list(ARRAY_LIST), CHAR_SEQUENCE, list(STRING)), loaded.getEntireHistory());
 	}
 
+	public void testLoadStoreFile() throws Exception {
+		ContentAssistHistory history= new ContentAssistHistory();
+
+		history.remember(fgListT, fgArrayListT);
+		history.remember(fgCharSequenceT, fgStringT);
+		history.remember(fgCharSequenceT, fgStringBufferT);
+
+		File file= File.createTempFile("history", ".dat");
+		try {
+			ContentAssistHistory.store(history, file);
+			ContentAssistHistory loaded= ContentAssistHistory.load(file);
+
+			assertEqualMap(map(LIST, list(ARRAY_LIST), COLLECTION, list(ARRAY_LIST), ITERABLE, list(ARRAY_LIST), CHAR_SEQUENCE, list(STRING, STRING_BUFFER)), loaded.getEntireHistory());
+			assertEquals(history.getHistory(CHAR_SEQUENCE).getRank(STRING), loaded.getHistory(CHAR_SEQUENCE).getRank(STRING), 0.001f);
+		} finally {
+			file.delete();
+		}
+		assertNull(ContentAssistHistory.load(file));
+	}
+
+	public void testGetRank() {
+		ContentAssistHistory history= new ContentAssistHistory();
+
+		history.remember(fgCharSequenceT, fgStringT);
+		history.remember(fgCharSequenceT, fgStringT);
+		history.remember(fgCharSequenceT, fgStringT);
+		history.remember(fgCharSequenceT, fgStringBufferT);
+
+		RHSHistory rhsHistory= history.getHistory(CHAR_SEQUENCE);
+		assertEquals("order not correct", list(STRING, STRING_BUFFER), rhsHistory.getTypes());
+		float stringRank= rhsHistory.getRank(STRING);
+		float stringBufferRank= rhsHistory.getRank(STRING_BUFFER);
+		assertTrue("frequently selected type must rank higher", stringRank > stringBufferRank);
+		assertTrue(stringBufferRank > 0.0f);
+		assertTrue(stringRank <= 1.0f);
+		assertEquals(0.0f, rhsHistory.getRank(LINKED_LIST), 0.0f);
+	}
+
 	private static void assertEqualMap(Map expected, Map actual) {
 		assertEqualMap("", expected, actual);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,9 @@ public class ContentAssistTestSuite {
 		suite.addTest(CamelCaseCompletionTest.suite());
 		suite.addTest(JavadocCompletionTest.suite());
 		suite.addTest(ContentAssistHistoryTest.suite());
+		suite.addTest(HippieWordIndexTest.suite());
+		suite.addTest(CompletionProposalComputerStatisticsTest.suite());
+		suite.addTest(CompletionSessionCacheTest.suite());
 		suite.addTest(MethodInsertCompletionTest.suite());
 		suite.addTest(MethodInsertionFormattedCompletionTest.suite());
 		suite.addTest(MethodOverwriteCompletionTest.suite());
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.internal.ui.text.java.HippieWordIndex;
+
+
+/**
+ * Tests for {@link HippieWordIndex}.
+ *
+ * @since 3.8
+ */
+public class HippieWordIndexTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(HippieWordIndexTest.class);
+	}
+
+	private static void assertWords(String[] expected, List<String> actual) {
+		assertEquals(Arrays.asList(expected), actual);
+	}
+
+	public void testGetWords() throws Exception {
+		assertWords(new String[] { "foo", "bar_1", "baz" }, HippieWordIndex.getWords("foo.bar_1(a, baz);"));
+	}
+
+	public void testPrefix() throws Exception {
+		IDocument document= new Document("value valueOf Value values");
+		HippieWordIndex index= HippieWordIndex.getIndex(document);
+
+		assertSame(index, HippieWordIndex.getIndex(document));
+		assertEquals(3, index.getWords("val").size());
+		assertWords(new String[] { "valueOf", "values" }, index.getWords("value"));
+		assertWords(new String[0], index.getWords("valueOf"));
+		assertWords(new String[] { "Value" }, index.getWords("V"));
+	}
+
+	public void testIncrementalUpdate() throws Exception {
+		IDocument document= new Document("int count= counter;");
+		HippieWordIndex index= HippieWordIndex.getIndex(document);
+		assertWords(new String[] { "count", "counter" }, index.getWords("co"));
+
+		// rename counter to countDown
+		document.replace(16, 2, "Down");
+		assertEquals("int count= countDown;", document.get());
+		assertWords(new String[] { "countDown", "count" }, index.getWords("co"));
+
+		// split count into co and unt
+		document.replace(6, 0, " ");
+		assertWords(new String[] { "countDown" }, index.getWords("co"));
+		assertWords(new String[] { "unt" }, index.getWords("u"));
+	}
+
+	public void testRecentFirst() throws Exception {
+		IDocument document= new Document("alpha alphabet");
+		HippieWordIndex index= HippieWordIndex.getIndex(document);
+
+		document.replace(document.getLength(), 0, " alphanumeric");
+		assertEquals("alphanumeric", index.getWords("alpha").get(0));
+
+		document.replace(0, 0, "alphabet ");
+		assertEquals("alphabet", index.getWords("alpha").get(0));
+	}
+
+	public void testOccurrences() throws Exception {
+		IDocument document= new Document("object object");
+		HippieWordIndex index= HippieWordIndex.getIndex(document);
+
+		document.replace(0, 7, "");
+		assertWords(new String[] { "object" }, index.getWords("ob"));
+		document.replace(0, document.getLength(), "");
+		assertWords(new String[0], index.getWords("ob"));
+	}
+
+	public void testRetainIndexes() throws Exception {
+		IDocument kept= new Document("alpha");
+		IDocument dropped= new Document("alpha");
+		HippieWordIndex keptIndex= HippieWordIndex.getIndex(kept);
+		HippieWordIndex droppedIndex= HippieWordIndex.getIndex(dropped);
+
+		HippieWordIndex.retainIndexes(Collections.singleton(kept));
+		assertSame(keptIndex, HippieWordIndex.getIndex(kept));
+
+		// the dropped index no longer listens to its document
+		dropped.replace(0, 0, "beta ");
+		assertWords(new String[0], droppedIndex.getWords("be"));
+
+		HippieWordIndex index= HippieWordIndex.getIndex(dropped);
+		assertNotSame(droppedIndex, index);
+		assertWords(new String[] { "beta" }, index.getWords("be"));
+	}
+
+	public void testWordBounds() throws Exception {
+		IDocument document= new Document("foo.barBaz(x)");
+		assertEquals(4, HippieWordIndex.getWordStart(document, 7));
+		assertEquals(10, HippieWordIndex.getWordEnd(document, 7));
+		assertEquals(0, HippieWordIndex.getWordStart(document, 3));
+		assertEquals(4, HippieWordIndex.getWordStart(document, 4));
+		assertEquals(3, HippieWordIndex.getWordEnd(document, 3));
+	}
+}
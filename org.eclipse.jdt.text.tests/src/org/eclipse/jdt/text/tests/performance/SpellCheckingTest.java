@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.text.tests.performance;
 
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Locale;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
@@ -39,9 +43,13 @@ import org.eclipse.ui.editors.text.EditorsUI;
 
 import org.eclipse.jdt.ui.PreferenceConstants;
 
+import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.LocaleSensitiveSpellDictionary;
+
 
 /**
- * Measures the time to spell check a large compilation unit.
+ * Measures the time to spell check a large compilation unit and the time and memory
+ * needed to load a dictionary.
  * 
  * @since 3.6
  */
@@ -55,6 +63,8 @@ public class SpellCheckingTest extends TextPerformanceTestCase {
 
 	private static final int MEASURED_RUNS= 50;
 
+	private static final int DICTIONARY_MEASURED_RUNS= 10;
+
 	private IDocument fDocument;
 
 	private SpellingContext fSpellingContext;
@@ -102,6 +112,40 @@ public class SpellCheckingTest extends TextPerformanceTestCase {
 		assertAllPerformance();
 	}
 
+	public void testLoadDictionary() throws Exception {
+		Enumeration<URL> locations= SpellCheckEngine.getDictionaryLocations();
+		assertTrue(locations != null && locations.hasMoreElements());
+		URL location= locations.nextElement();
+
+		measureLoadDictionary(location, getNullPerformanceMeter(), getWarmUpRuns(), true);
+		PerformanceMeter performanceMeter= createPerformanceMeter("Spelling: Load dictionary");
+		measureLoadDictionary(location, performanceMeter, DICTIONARY_MEASURED_RUNS, false);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measureLoadDictionary(URL location, PerformanceMeter performanceMeter, int runs, boolean printDebugInfo) {
+		for (int i= 0; i < runs; i++) {
+			LocaleSensitiveSpellDictionary dictionary= new LocaleSensitiveSpellDictionary(Locale.US, location);
+			Runtime runtime= Runtime.getRuntime();
+			System.gc();
+			long usedBefore= runtime.totalMemory() - runtime.freeMemory();
+
+			performanceMeter.start();
+			assertTrue(dictionary.isCorrect("dictionary"));
+			performanceMeter.stop();
+
+			System.gc();
+			long usedAfter= runtime.totalMemory() - runtime.freeMemory();
+			if (printDebugInfo && i == 0) {
+				System.out.println("Dictionary words : " + dictionary.getWordCount());
+				System.out.println("Dictionary store size (bytes) : " + dictionary.getMemorySize());
+				System.out.println("Dictionary heap delta (bytes) : " + (usedAfter - usedBefore));
+			}
+			dictionary.unload();
+		}
+	}
+
 	private void measure(PerformanceMeter performanceMeter, int runs, boolean printDebugInfo) {
 		SpellingService spellingService= EditorsUI.getSpellingService();
 		for (int i= 0; i < runs; i++) {
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.templates;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jface.preference.PreferenceStore;
+
+import org.eclipse.jface.text.templates.Template;
+import org.eclipse.jface.text.templates.persistence.TemplatePersistenceData;
+import org.eclipse.jface.text.templates.persistence.TemplateStore;
+
+import org.eclipse.jdt.internal.ui.text.template.contentassist.TemplateIndex;
+
+
+/**
+ * Tests for {@link TemplateIndex}.
+ *
+ * @since 3.8
+ */
+public class TemplateIndexTest extends TestCase {
+
+	private static final String KEY= "templates";
+	private static final String JAVA= "java";
+	private static final String JAVADOC= "javadoc";
+
+	public static Test suite() {
+		return new TestSuite(TemplateIndexTest.class);
+	}
+
+	private PreferenceStore fPreferenceStore;
+	private TemplateStore fStore;
+	private TemplateIndex fIndex;
+
+	protected void setUp() throws Exception {
+		fPreferenceStore= new PreferenceStore();
+		fStore= new TemplateStore(fPreferenceStore, KEY);
+		fIndex= new TemplateIndex(fStore, fPreferenceStore, KEY);
+	}
+
+	protected void tearDown() throws Exception {
+		fIndex.dispose();
+	}
+
+	private Template add(String name, String contextTypeId) {
+		Template template= new Template(name, "", contextTypeId, "", true);
+		fStore.add(new TemplatePersistenceData(template, true));
+		return template;
+	}
+
+	private static void assertTemplates(Template[] expected, Template[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i= 0; i < expected.length; i++)
+			assertSame(expected[i], actual[i]);
+	}
+
+	public void testPrefixMatch() throws Exception {
+		Template sysout= add("sysout", JAVA);
+		Template syserr= add("syserr", JAVA);
+		Template systrace= add("systrace", JAVA);
+		add("for", JAVA);
+
+		assertTemplates(new Template[] { sysout, syserr, systrace }, fIndex.getTemplates(new String[] { JAVA }, "sys"));
+		assertTemplates(new Template[] { sysout }, fIndex.getTemplates(new String[] { JAVA }, "sysout"));
+		assertTemplates(new Template[0], fIndex.getTemplates(new String[] { JAVA }, "sysouts"));
+		assertTemplates(new Template[0], fIndex.getTemplates(new String[] { JAVA }, "x"));
+	}
+
+	public void testIgnoreCase() throws Exception {
+		Template toString= add("toString", JAVA);
+
+		assertTemplates(new Template[] { toString }, fIndex.getTemplates(new String[] { JAVA }, "TOS"));
+		assertTemplates(new Template[] { toString }, fIndex.getTemplates(new String[] { JAVA }, "tostring"));
+	}
+
+	public void testContextTypes() throws Exception {
+		Template javaTemplate= add("author", JAVA);
+		Template javadocTemplate= add("author", JAVADOC);
+
+		assertTemplates(new Template[] { javaTemplate }, fIndex.getTemplates(new String[] { JAVA }, "a"));
+		assertTemplates(new Template[] { javadocTemplate }, fIndex.getTemplates(new String[] { JAVADOC }, "a"));
+		assertTemplates(new Template[] { javaTemplate, javadocTemplate }, fIndex.getTemplates(new String[] { JAVADOC, JAVA }, "a"));
+		assertTemplates(new Template[0], fIndex.getTemplates(new String[] { "unknown" }, "a"));
+	}
+
+	public void testEmptyPrefix() throws Exception {
+		Template one= add("b", JAVA);
+		Template two= add("a", JAVA);
+
+		assertTemplates(new Template[] { one, two }, fIndex.getTemplates(new String[] { JAVA }, ""));
+	}
+
+	public void testAllTemplates() throws Exception {
+		Template javaTemplate= add("b", JAVA);
+		Template javadocTemplate= add("a", JAVADOC);
+		Template disabled= new Template("c", "", JAVA, "", true);
+		fStore.add(new TemplatePersistenceData(disabled, false));
+
+		assertTemplates(new Template[] { javaTemplate, javadocTemplate }, fIndex.getTemplates());
+	}
+
+	public void testRebuildOnPreferenceChange() throws Exception {
+		Template sysout= add("sysout", JAVA);
+		assertTemplates(new Template[] { sysout }, fIndex.getTemplates(new String[] { JAVA }, "sys"));
+
+		Template syserr= add("syserr", JAVA);
+		assertTemplates(new Template[] { sysout }, fIndex.getTemplates(new String[] { JAVA }, "sys"));
+
+		// the template store persists its templates into the preference
+		fPreferenceStore.setValue(KEY, "changed");
+		assertTemplates(new Template[] { sysout, syserr }, fIndex.getTemplates(new String[] { JAVA }, "sys"));
+	}
+}
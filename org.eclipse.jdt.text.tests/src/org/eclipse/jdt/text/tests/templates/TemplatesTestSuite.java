@@ -25,6 +25,7 @@ public class TemplatesTestSuite {
 		TestSuite suite = new TestSuite("Test Suite for org.eclipse.jdt.internal.corext.template"); //$NON-NLS-1$
 		//$JUnit-BEGIN$
 		suite.addTest(TemplateContributionTest.suite());
+		suite.addTest(TemplateIndexTest.suite());
 		//$JUnit-END$
 		return suite;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodCallCache;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 
 import org.eclipse.jdt.internal.ui.callhierarchy.CallHierarchyContentProvider;
@@ -254,6 +255,48 @@ public class CallHierarchyContentProviderTest extends TestCase {
         assertEquals("third level hasChildren", false, fProvider.hasChildren(thirdLevelChildren[0]));
     }
 
+    /**
+     * Tests that getChildren on a caller node also finds the callers of its children.
+     *
+     * @throws JavaModelException
+     * @throws CoreException
+     */
+    public void testGetChildrenOfCallerFindsNextLevel() throws JavaModelException, CoreException {
+        helper.createSimpleClasses();
+
+        TreeRoot root= wrapCallerRoot(helper.getMethod1());
+        MethodWrapper rootWrapper= (MethodWrapper) fProvider.getChildren(root)[0];
+        Object[] secondLevelChildren= fProvider.getChildren(rootWrapper);
+        helper.assertCalls(new IMember[] { helper.getMethod2(), helper.getMethod3()}, secondLevelChildren);
+
+        MethodCallCache cache= rootWrapper.getMethodCache();
+        for (int i= 0; i < secondLevelChildren.length; i++) {
+            MethodWrapper wrapper= (MethodWrapper) secondLevelChildren[i];
+            assertNotNull("callers of " + wrapper.getMember().getElementName() + " not found", cache.get(wrapper.getMethodCall().getKey()));
+        }
+
+        MethodWrapper thirdLevelMethodWrapper= helper.findMethodWrapper(helper.getMethod3(), secondLevelChildren);
+        helper.assertCalls(new IMember[] { helper.getMethod4()}, fProvider.getChildren(thirdLevelMethodWrapper));
+    }
+
+    /**
+     * Tests that getChildren on a callee node only finds the callees of the node.
+     *
+     * @throws JavaModelException
+     * @throws CoreException
+     */
+    public void testGetChildrenOfCalleeFindsOneLevel() throws JavaModelException, CoreException {
+        helper.createSimpleClasses();
+
+        TreeRoot root= wrapCalleeRoot(helper.getMethod4());
+        MethodWrapper rootWrapper= (MethodWrapper) fProvider.getChildren(root)[0];
+        Object[] secondLevelChildren= fProvider.getChildren(rootWrapper);
+        helper.assertCalls(new IMember[] { helper.getMethod3()}, secondLevelChildren);
+
+        MethodWrapper wrapper= (MethodWrapper) secondLevelChildren[0];
+        assertNull("callees of method3 found", rootWrapper.getMethodCache().get(wrapper.getMethodCall().getKey()));
+    }
+
     private void assertCalleeMethodWrapperChildren(Object[] children) {
         for (int i= 0; i < children.length; i++) {
             assertTrue("Wrong class returned", children[i].getClass().getName().endsWith(".CalleeMethodWrapper"));
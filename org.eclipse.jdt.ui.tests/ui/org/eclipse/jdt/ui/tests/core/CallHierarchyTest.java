@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,19 +13,27 @@ package org.eclipse.jdt.ui.tests.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IInitializer;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 
+import org.eclipse.jdt.internal.corext.callhierarchy.CallGraphIndex;
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallLocation;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodCall;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodCallCache;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 
 import org.eclipse.jdt.ui.tests.callhierarchy.CallHierarchyTestHelper;
@@ -106,6 +114,188 @@ public class CallHierarchyTest extends TestCase {
         helper.assertCalls(expectedMethods, cachedCalls);
     }
 
+    public void testBreadthFirstCallers() throws Exception {
+        helper.createSimpleClasses();
+
+        MethodWrapper wrapper= getSingleCallerRoot(helper.getMethod1());
+        MethodWrapper.expandBreadthFirst(new MethodWrapper[] { wrapper }, 3, new NullProgressMonitor());
+
+        Collection expectedMethods= new ArrayList();
+        expectedMethods.add(helper.getMethod2());
+        expectedMethods.add(helper.getMethod3());
+        MethodWrapper[] calls= wrapper.getCalls(new NullProgressMonitor());
+        helper.assertCalls(expectedMethods, calls);
+
+        Collection expectedMethodsTo2= new ArrayList();
+        expectedMethodsTo2.add(helper.getMethod3());
+        helper.assertCalls(expectedMethodsTo2, helper.findMethodWrapper(helper.getMethod2(), calls).getCalls(new NullProgressMonitor()));
+
+        Collection expectedMethodsTo3= new ArrayList();
+        expectedMethodsTo3.add(helper.getMethod4());
+        MethodWrapper method3Wrapper= helper.findMethodWrapper(helper.getMethod3(), calls);
+        MethodWrapper[] method3Calls= method3Wrapper.getCalls(new NullProgressMonitor());
+        helper.assertCalls(expectedMethodsTo3, method3Calls);
+
+        helper.assertCalls(new ArrayList(), method3Calls[0].getCalls(new NullProgressMonitor()));
+    }
+
+    public void testBreadthFirstCallersPrefetchesBatchableCallers() throws Exception {
+        helper.createPackages();
+        ICompilationUnit cu= helper.getPackage1().createCompilationUnit("C.java",
+                "package pack1;\n" +
+                "public class C {\n" +
+                "    public C() { target(); }\n" +
+                "    public C(int i) { this(); }\n" +
+                "    private void hidden() { target(); }\n" +
+                "    public static void target() { }\n" +
+                "    public void create() { new C(); new D(); hidden(); }\n" +
+                "}\n" +
+                "class D extends C {\n" +
+                "    D() { super(); target(); }\n" +
+                "}\n", true, null);
+        IType typeC= cu.getType("C");
+        IMethod constructorC= typeC.getMethod("C", EMPTY);
+        IMethod constructorD= cu.getType("D").getMethod("D", EMPTY);
+        IMethod hidden= typeC.getMethod("hidden", EMPTY);
+        IMethod create= typeC.getMethod("create", EMPTY);
+
+        MethodWrapper wrapper= getSingleCallerRoot(typeC.getMethod("target", EMPTY));
+        MethodWrapper.expandBreadthFirst(new MethodWrapper[] { wrapper }, 2, new NullProgressMonitor());
+
+        Collection expectedCallers= new ArrayList();
+        expectedCallers.add(constructorC);
+        expectedCallers.add(constructorD);
+        expectedCallers.add(hidden);
+        MethodWrapper[] callers= wrapper.getCalls(new NullProgressMonitor());
+        helper.assertCalls(expectedCallers, callers);
+
+        // the constructors are searched in one batch, the private method is left for its expansion
+        MethodCallCache cache= wrapper.getMethodCache();
+        MethodWrapper constructorCWrapper= helper.findMethodWrapper(constructorC, callers);
+        MethodWrapper constructorDWrapper= helper.findMethodWrapper(constructorD, callers);
+        MethodWrapper hiddenWrapper= helper.findMethodWrapper(hidden, callers);
+        assertNotNull(cache.get(constructorCWrapper.getMethodCall().getKey()));
+        assertNotNull(cache.get(constructorDWrapper.getMethodCall().getKey()));
+        assertNull(cache.get(hiddenWrapper.getMethodCall().getKey()));
+
+        Collection expectedCallersToC= new ArrayList();
+        expectedCallersToC.add(typeC.getMethod("C", new String[] { "I" }));
+        expectedCallersToC.add(constructorD);
+        expectedCallersToC.add(create);
+        helper.assertCalls(expectedCallersToC, constructorCWrapper.getCalls(new NullProgressMonitor()));
+
+        Collection expectedCallersToCreate= new ArrayList();
+        expectedCallersToCreate.add(create);
+        helper.assertCalls(expectedCallersToCreate, constructorDWrapper.getCalls(new NullProgressMonitor()));
+        helper.assertCalls(expectedCallersToCreate, hiddenWrapper.getCalls(new NullProgressMonitor()));
+    }
+
+    public void testMethodCacheEviction() throws Exception {
+        helper.createSimpleClasses();
+
+        IMethod[] methods= { helper.getMethod1(), helper.getMethod2(), helper.getMethod3(), helper.getMethod4() };
+        Map[] calls= new Map[methods.length];
+        for (int i= 0; i < methods.length; i++) {
+            MethodCall methodCall= new MethodCall(methods[i]);
+            methodCall.addCallLocation(new CallLocation(methods[i], methods[i], 0, 1, 1));
+            calls[i]= new HashMap();
+            calls[i].put(methodCall.getKey(), methodCall);
+        }
+
+        MethodCallCache unbounded= new MethodCallCache(Long.MAX_VALUE);
+        unbounded.put(methods[0].getHandleIdentifier(), calls[0]);
+        long entryBytes= unbounded.getRetainedBytes();
+        assertTrue(entryBytes > 0);
+
+        MethodCallCache cache= new MethodCallCache(2 * entryBytes + entryBytes / 2);
+        cache.put(methods[0].getHandleIdentifier(), calls[0]);
+        cache.put(methods[1].getHandleIdentifier(), calls[1]);
+        assertEquals(2, cache.getSize());
+        assertNotNull(cache.get(methods[0].getHandleIdentifier()));
+
+        // method1 has been used more recently than method2
+        cache.put(methods[2].getHandleIdentifier(), calls[2]);
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(methods[1].getHandleIdentifier()));
+        assertNotNull(cache.get(methods[0].getHandleIdentifier()));
+        assertNotNull(cache.get(methods[2].getHandleIdentifier()));
+        assertTrue(cache.getRetainedBytes() <= cache.getMaxBytes());
+
+        cache.remove(methods[0].getHandleIdentifier());
+        cache.remove(methods[2].getHandleIdentifier());
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getRetainedBytes());
+    }
+
+    public void testCallGraphIndex() throws Exception {
+        helper.createSimpleClasses();
+
+        CallHierarchy.getDefault().setCallGraphIndexEnabled(true);
+        try {
+            Job.getJobManager().join(CallGraphIndex.FAMILY, null);
+            assertTrue(CallGraphIndex.getInstance().isReady());
+
+            Collection expectedCallers= new ArrayList();
+            expectedCallers.add(helper.getMethod2());
+            expectedCallers.add(helper.getMethod3());
+            MethodWrapper[] callers= getSingleCallerRoot(helper.getMethod1()).getCalls(new NullProgressMonitor());
+            helper.assertCalls(expectedCallers, callers);
+
+            Collection expectedCallersTo3= new ArrayList();
+            expectedCallersTo3.add(helper.getMethod4());
+            helper.assertCalls(expectedCallersTo3, helper.findMethodWrapper(helper.getMethod3(), callers).getCalls(new NullProgressMonitor()));
+
+            Collection expectedCallees= new ArrayList();
+            expectedCallees.add(helper.getMethod1());
+            expectedCallees.add(helper.getMethod2());
+            helper.assertCalls(expectedCallees, getSingleCalleeRoot(helper.getMethod3()).getCalls(new NullProgressMonitor()));
+        } finally {
+            CallHierarchy.getDefault().setCallGraphIndexEnabled(false);
+        }
+    }
+
+    public void testCallGraphIndexCallsThroughInterface() throws Exception {
+        helper.createPackages();
+        ICompilationUnit cu= helper.getPackage1().createCompilationUnit("I.java",
+                "package pack1;\n" +
+                "public interface I {\n" +
+                "    void m();\n" +
+                "}\n" +
+                "class C implements I {\n" +
+                "    public void m() { }\n" +
+                "}\n" +
+                "class U {\n" +
+                "    void viaInterface(I i) { i.m(); }\n" +
+                "    void direct(C c) { c.m(); }\n" +
+                "}\n", true, null);
+        IMethod interfaceMethod= cu.getType("I").getMethod("m", EMPTY);
+        IMethod classMethod= cu.getType("C").getMethod("m", EMPTY);
+        IMethod viaInterface= cu.getType("U").getMethod("viaInterface", new String[] { "QI;" });
+        IMethod direct= cu.getType("U").getMethod("direct", new String[] { "QC;" });
+
+        Collection expectedCallersToClassMethod= new ArrayList();
+        expectedCallersToClassMethod.add(viaInterface);
+        expectedCallersToClassMethod.add(direct);
+        Collection expectedCallersToInterfaceMethod= new ArrayList();
+        expectedCallersToInterfaceMethod.add(viaInterface);
+
+        // the search reports the calls through the interface as callers of the implementation
+        helper.assertCalls(expectedCallersToClassMethod, getSingleCallerRoot(classMethod).getCalls(new NullProgressMonitor()));
+        helper.assertCalls(expectedCallersToInterfaceMethod, getSingleCallerRoot(interfaceMethod).getCalls(new NullProgressMonitor()));
+
+        CallHierarchy.getDefault().setCallGraphIndexEnabled(true);
+        try {
+            Job.getJobManager().join(CallGraphIndex.FAMILY, null);
+            assertTrue(CallGraphIndex.getInstance().isReady());
+
+            helper.assertCalls(expectedCallersToClassMethod, getSingleCallerRoot(classMethod).getCalls(new NullProgressMonitor()));
+            helper.assertCalls(expectedCallersToInterfaceMethod, getSingleCallerRoot(interfaceMethod).getCalls(new NullProgressMonitor()));
+        } finally {
+            CallHierarchy.getDefault().setCallGraphIndexEnabled(false);
+        }
+    }
+
     public void testCallees() throws Exception {
         helper.createSimpleClasses();
 
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import org.eclipse.jdt.internal.corext.dom.CompositeASTVisitor;
+import org.eclipse.jdt.internal.corext.dom.GenericVisitor;
+
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
+
+public class CompositeASTVisitorTest extends TestCase {
+
+	private static class RecordingVisitor extends GenericVisitor {
+
+		private final List<String> fTrace= new ArrayList<String>();
+		private final Class<?> fSkipChildren;
+		private final Class<?> fSkipNode;
+
+		public RecordingVisitor(Class<?> skipChildren, Class<?> skipNode) {
+			super(true);
+			fSkipChildren= skipChildren;
+			fSkipNode= skipNode;
+		}
+
+		@Override
+		public boolean preVisit2(ASTNode node) {
+			fTrace.add("pre " + node.getClass().getName());
+			return !node.getClass().equals(fSkipNode);
+		}
+
+		@Override
+		public void postVisit(ASTNode node) {
+			fTrace.add("post " + node.getClass().getName());
+		}
+
+		@Override
+		protected boolean visitNode(ASTNode node) {
+			fTrace.add("visit " + node.getClass().getName());
+			return !node.getClass().equals(fSkipChildren);
+		}
+
+		@Override
+		protected void endVisitNode(ASTNode node) {
+			fTrace.add("end " + node.getClass().getName());
+		}
+
+		public List<String> getTrace() {
+			return fTrace;
+		}
+	}
+
+	private static final String SOURCE= ""
+			+ "package p;\n"
+			+ "/** Doc {@link Object} */\n"
+			+ "public class A {\n"
+			+ "    private int fField= 1 + 2;\n"
+			+ "    public void foo(int a) {\n"
+			+ "        if (a > 0) {\n"
+			+ "            foo(a - 1);\n"
+			+ "        }\n"
+			+ "    }\n"
+			+ "    class B {\n"
+			+ "        String bar() { return \"\" + fField; }\n"
+			+ "    }\n"
+			+ "}\n";
+
+	public static Test suite() {
+		return new TestSuite(CompositeASTVisitorTest.class);
+	}
+
+	private CompilationUnit createAST() {
+		ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
+		parser.setSource(SOURCE.toCharArray());
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	private void assertSameTraces(RecordingVisitor[] visitors, RecordingVisitor[] references) {
+		CompilationUnit ast= createAST();
+		ast.accept(new CompositeASTVisitor(visitors));
+		for (int i= 0; i < references.length; i++) {
+			ast.accept(references[i]);
+			assertEquals(references[i].getTrace(), visitors[i].getTrace());
+		}
+	}
+
+	public void testAllActive() {
+		assertSameTraces(
+				new RecordingVisitor[] { new RecordingVisitor(null, null), new RecordingVisitor(null, null) },
+				new RecordingVisitor[] { new RecordingVisitor(null, null), new RecordingVisitor(null, null) });
+	}
+
+	public void testSkipChildren() {
+		assertSameTraces(
+				new RecordingVisitor[] { new RecordingVisitor(MethodDeclaration.class, null), new RecordingVisitor(FieldDeclaration.class, null), new RecordingVisitor(null, null) },
+				new RecordingVisitor[] { new RecordingVisitor(MethodDeclaration.class, null), new RecordingVisitor(FieldDeclaration.class, null), new RecordingVisitor(null, null) });
+	}
+
+	public void testSkipInPreVisit() {
+		assertSameTraces(
+				new RecordingVisitor[] { new RecordingVisitor(null, Block.class), new RecordingVisitor(Block.class, MethodDeclaration.class) },
+				new RecordingVisitor[] { new RecordingVisitor(null, Block.class), new RecordingVisitor(Block.class, MethodDeclaration.class) });
+	}
+
+	public void testAllSkip() {
+		assertSameTraces(
+				new RecordingVisitor[] { new RecordingVisitor(MethodDeclaration.class, null), new RecordingVisitor(null, MethodDeclaration.class) },
+				new RecordingVisitor[] { new RecordingVisitor(MethodDeclaration.class, null), new RecordingVisitor(null, MethodDeclaration.class) });
+	}
+
+	private static RecordingVisitor createVisitorWithoutTags() {
+		return new RecordingVisitor(null, null) {
+			@Override
+			public boolean visit(Javadoc node) {
+				super.visit(node);
+				return false;
+			}
+		};
+	}
+
+	public void testJavadocTags() {
+		assertSameTraces(
+				new RecordingVisitor[] { createVisitorWithoutTags(), new RecordingVisitor(null, null) },
+				new RecordingVisitor[] { createVisitorWithoutTags(), new RecordingVisitor(null, null) });
+	}
+}
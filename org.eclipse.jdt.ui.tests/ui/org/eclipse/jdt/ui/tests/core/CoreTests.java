@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,6 +42,7 @@ public class CoreTests extends TestCase {
 		suite.addTest(ClassPathDetectorTest.suite());
 		suite.addTest(CodeFormatterUtilTest.suite());
 		suite.addTest(CodeFormatterTest.suite());
+		suite.addTest(CompositeASTVisitorTest.suite());
 		suite.addTest(HierarchicalASTVisitorTest.suite());
 		suite.addTest(ImportOrganizeTest.suite());
 		suite.addTest(JavaElementLabelsTest.suite());
@@ -53,6 +54,7 @@ public class CoreTests extends TestCase {
 		suite.addTest(OverrideTest.suite());
 		suite.addTest(PartialASTTest.suite());
 		suite.addTest(ScopeAnalyzerTest.suite());
+		suite.addTest(SuperTypeHierarchyCacheTest.suite());
 		suite.addTest(TemplateStoreTest.suite());
 		suite.addTest(TypeHierarchyTest.suite());
 		suite.addTest(TypeRulesTest.suite());
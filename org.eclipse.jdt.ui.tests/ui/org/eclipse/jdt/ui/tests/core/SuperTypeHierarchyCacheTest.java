@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+
+/**
+ * Tests for {@link SuperTypeHierarchyCache}.
+ *
+ * @since 3.8
+ */
+public class SuperTypeHierarchyCacheTest extends TestCase {
+
+	private static final Class THIS= SuperTypeHierarchyCacheTest.class;
+
+	private IJavaProject fJavaProject;
+	private IType fType;
+
+	public SuperTypeHierarchyCacheTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS));
+	}
+
+	public static Test setUpTest(Test test) {
+		return new ProjectTestSetup(test);
+	}
+
+	protected void setUp() throws Exception {
+		fJavaProject= ProjectTestSetup.getProject();
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJavaProject, "src");
+		IPackageFragment pack= root.createPackageFragment("pack", true, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package pack;\n");
+		buf.append("public class T {\n");
+		buf.append("    static class Base {}\n");
+		buf.append("    static class Sub1 extends Base {}\n");
+		buf.append("    static class Sub2 extends Base {}\n");
+		for (int i= 0; i < SuperTypeHierarchyCache.getCapacity(); i++) {
+			buf.append("    static class F" + i + " {}\n");
+		}
+		buf.append("}\n");
+		ICompilationUnit cu= pack.createCompilationUnit("T.java", buf.toString(), true, null);
+		fType= cu.getType("T");
+
+		SuperTypeHierarchyCache.clear();
+		SuperTypeHierarchyCache.resetStatistics();
+	}
+
+	protected void tearDown() throws Exception {
+		SuperTypeHierarchyCache.clear();
+		SuperTypeHierarchyCache.resetStatistics();
+		JavaProjectHelper.clear(fJavaProject, ProjectTestSetup.getDefaultClasspath());
+	}
+
+	private IType getType(String name) {
+		return fType.getType(name);
+	}
+
+	/*
+	 * Caches the hierarchies of Sub1 (accessed three times) and Sub2 and fills the cache with the
+	 * hierarchies of the filler types.
+	 */
+	private void fillCache() throws Exception {
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("Sub1"));
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("Sub1"));
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("Sub1"));
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("Sub2"));
+		for (int i= 0; i < SuperTypeHierarchyCache.getCapacity() - 2; i++) {
+			SuperTypeHierarchyCache.getTypeHierarchy(getType("F" + i));
+		}
+		assertEquals(SuperTypeHierarchyCache.getCapacity(), SuperTypeHierarchyCache.getSize());
+		assertEquals(0, SuperTypeHierarchyCache.getEvictionCount());
+	}
+
+	public void testHitsAndMisses() throws Exception {
+		IType base= getType("Base");
+		IType sub1= getType("Sub1");
+		assertFalse(SuperTypeHierarchyCache.hasInCache(sub1));
+
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(sub1);
+		assertEquals(1, SuperTypeHierarchyCache.getCacheMisses());
+		assertEquals(0, SuperTypeHierarchyCache.getCacheHits());
+		assertTrue(SuperTypeHierarchyCache.hasInCache(sub1));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(base));
+		assertFalse(SuperTypeHierarchyCache.hasInCache(getType("Sub2")));
+
+		assertSame(hierarchy, SuperTypeHierarchyCache.getTypeHierarchy(sub1));
+		assertSame(hierarchy, SuperTypeHierarchyCache.getTypeHierarchy(base));
+		assertEquals(1, SuperTypeHierarchyCache.getCacheMisses());
+		assertEquals(2, SuperTypeHierarchyCache.getCacheHits());
+
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("Sub2"));
+		assertEquals(2, SuperTypeHierarchyCache.getCacheMisses());
+		assertEquals(2, SuperTypeHierarchyCache.getSize());
+	}
+
+	public void testEvictionOrder() throws Exception {
+		fillCache();
+		int capacity= SuperTypeHierarchyCache.getCapacity();
+
+		// the least frequently accessed entries are evicted, the least recently accessed first
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("F" + (capacity - 2)));
+		assertEquals(1, SuperTypeHierarchyCache.getEvictionCount());
+		assertFalse(SuperTypeHierarchyCache.hasInCache(getType("Sub2")));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(getType("Sub1")));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(getType("F0")));
+
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("F" + (capacity - 1)));
+		assertEquals(2, SuperTypeHierarchyCache.getEvictionCount());
+		assertFalse(SuperTypeHierarchyCache.hasInCache(getType("F0")));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(getType("F1")));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(getType("Sub1")));
+		assertEquals(capacity, SuperTypeHierarchyCache.getSize());
+	}
+
+	public void testSharedTypeStaysCachedAfterEviction() throws Exception {
+		fillCache();
+		IType base= getType("Base");
+		ITypeHierarchy sub1Hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(getType("Sub1"));
+
+		// Sub2 is evicted, Base is still contained in the hierarchy of Sub1
+		SuperTypeHierarchyCache.getTypeHierarchy(getType("F" + (SuperTypeHierarchyCache.getCapacity() - 2)));
+		assertFalse(SuperTypeHierarchyCache.hasInCache(getType("Sub2")));
+		assertTrue(SuperTypeHierarchyCache.hasInCache(base));
+
+		int misses= SuperTypeHierarchyCache.getCacheMisses();
+		assertSame(sub1Hierarchy, SuperTypeHierarchyCache.getTypeHierarchy(base));
+		assertEquals(misses, SuperTypeHierarchyCache.getCacheMisses());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,8 @@ import junit.framework.TestSuite;
 
 import org.eclipse.jdt.testplugin.JavaProjectHelper;
 
+import org.eclipse.core.runtime.jobs.Job;
+
 import org.eclipse.jface.text.IDocument;
 
 import org.eclipse.ui.IEditorPart;
@@ -34,6 +36,9 @@ import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.SharedASTProvider;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.typehierarchy.ITypeHierarchyLifeCycleListener;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
+import org.eclipse.jdt.internal.ui.util.BusyIndicatorRunnableContext;
 
 
 public class TypeHierarchyTest extends TestCase {
@@ -286,7 +291,51 @@ public class TypeHierarchyTest extends TestCase {
 
 	}
 
+	public void testIncrementalHierarchy() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJavaProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("pack1", true, null);
+
+		ICompilationUnit cu1= pack1.getCompilationUnit("A.java");
+		IType type1= cu1.createType("public class A {\n}\n", null, true, null);
+		ICompilationUnit cu2= pack1.getCompilationUnit("B.java");
+		IType type2= cu2.createType("public class B extends A {\n}\n", null, true, null);
 
+		final int[] updateCount= new int[] {0};
 
+		TypeHierarchyLifeCycle lifeCycle= new TypeHierarchyLifeCycle(false);
+		lifeCycle.setIncrementalRefresh(true);
+		lifeCycle.addChangedListener(new ITypeHierarchyLifeCycleListener() {
+			public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchy, IType[] changedTypes) {
+				if (changedTypes == null)
+					updateCount[0]++;
+			}
+		});
+		try {
+			lifeCycle.ensureRefreshedTypeHierarchy(type1, new BusyIndicatorRunnableContext());
+			ITypeHierarchy hierarchy= lifeCycle.getHierarchy();
+			assertEquals(1, hierarchy.getSubclasses(type1).length);
+
+			// an added subtype is patched into the hierarchy
+			ICompilationUnit cu3= pack1.getCompilationUnit("C.java");
+			IType type3= cu3.createType("public class C extends B {\n}\n", null, true, null);
+			Job.getJobManager().join(TypeHierarchyLifeCycle.PATCH_FAMILY, null);
+			assertEquals(1, updateCount[0]);
+			assertSame(hierarchy, lifeCycle.getHierarchy());
+			assertTrue(hierarchy.contains(type3));
+			assertEquals(type2, hierarchy.getSuperclass(type3));
+			assertEquals(2, hierarchy.getAllSubtypes(type1).length);
+
+			// a removed subtype is removed with its subtypes
+			cu2.delete(true, null);
+			Job.getJobManager().join(TypeHierarchyLifeCycle.PATCH_FAMILY, null);
+			assertEquals(2, updateCount[0]);
+			assertSame(hierarchy, lifeCycle.getHierarchy());
+			assertFalse(hierarchy.contains(type2));
+			assertFalse(hierarchy.contains(type3));
+			assertEquals(0, hierarchy.getSubclasses(type1).length);
+		} finally {
+			lifeCycle.freeHierarchy();
+		}
+	}
 
 }
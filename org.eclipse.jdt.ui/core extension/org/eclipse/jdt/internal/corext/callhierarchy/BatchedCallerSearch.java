@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubProgressMonitor;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IOpenable;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+
+import org.eclipse.jdt.internal.corext.util.JdtFlags;
+import org.eclipse.jdt.internal.corext.util.SearchUtils;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+
+/**
+ * Searches the callers of several methods with one search engine query per batch of methods
+ * and fills the method cache of their wrappers.
+ * <p>
+ * The methods of a batch have distinct names, so that a match can be attributed to the method
+ * whose name is the selector at the match position. Constructors are searched in batches of their
+ * own, in which the declaring types have distinct names: a match of <code>new T(..)</code>,
+ * <code>this(..)</code> or <code>super(..)</code> is attributed to the constructor of the
+ * instantiated type, the caller's type or its superclass. If a match of a batch cannot be
+ * attributed, e.g. because there is no source or the constructor call is implicit, the wrappers
+ * of the batch are not cached and find their callers one by one. Private methods, fields and
+ * types are always left to the wrappers, since they need a different search scope or search
+ * pattern. Methods whose callers are in the {@link CallGraphIndex} are not searched at all.
+ * </p>
+ *
+ * @see MethodWrapper#expandBreadthFirst(MethodWrapper[], int, IProgressMonitor)
+ * @since 3.8
+ */
+class BatchedCallerSearch {
+
+	/** The maximal number of methods per search engine query */
+	private static final int BATCH_SIZE= 64;
+
+	/** The prefix of the keys of constructors in a batch */
+	private static final String CONSTRUCTOR_PREFIX= "new "; //$NON-NLS-1$
+
+	/**
+	 * Sorts the matches of a batch into the collectors of the searched methods.
+	 */
+	private static final class BatchRequestor extends MethodReferencesSearchRequestor {
+		/** The collectors by key, see {@link BatchedCallerSearch#getKey(IMethod)} */
+		private final Map<String, CallSearchResultCollector> fCollectors;
+		private boolean fIsComplete= true;
+
+		BatchRequestor(Map<String, CallSearchResultCollector> collectors) {
+			fCollectors= collectors;
+		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.corext.callhierarchy.MethodReferencesSearchRequestor#getSearchResults(org.eclipse.jdt.core.search.SearchMatch)
+		 */
+		@Override
+		protected CallSearchResultCollector getSearchResults(SearchMatch match) {
+			String key= getCallKey((IMember) match.getElement(), match.getOffset(), match.getLength());
+			CallSearchResultCollector collector= key != null ? fCollectors.get(key) : null;
+			if (collector == null)
+				fIsComplete= false;
+			return collector;
+		}
+
+		/**
+		 * Tells whether all matches have been attributed to a searched method.
+		 *
+		 * @return <code>true</code> if no match has been dropped
+		 */
+		boolean isComplete() {
+			return fIsComplete;
+		}
+	}
+
+	private BatchedCallerSearch() {
+	}
+
+	/**
+	 * Finds the callers of the given wrappers' methods and caches them in the wrappers'
+	 * hierarchies. Wrappers that cannot be searched in a batch are left uncached.
+	 *
+	 * @param wrappers the wrappers whose callers have not been found yet
+	 * @param monitor the progress monitor
+	 */
+	static void search(List<CallerMethodWrapper> wrappers, IProgressMonitor monitor) {
+		List<CallerMethodWrapper> unindexed= new ArrayList<CallerMethodWrapper>(wrappers.size());
+		for (int i= 0; i < wrappers.size(); i++) {
+			CallerMethodWrapper wrapper= wrappers.get(i);
+			Map<String, MethodCall> indexedCallers= CallGraphIndex.findCallers(wrapper.getMember());
+			if (indexedCallers != null)
+				wrapper.cacheCalls(indexedCallers);
+			else
+				unindexed.add(wrapper);
+		}
+
+		List<Map<String, CallerMethodWrapper>> batches= createBatches(unindexed);
+		monitor.beginTask("", batches.size()); //$NON-NLS-1$
+		try {
+			for (int i= 0; i < batches.size(); i++) {
+				Map<String, CallerMethodWrapper> batch= batches.get(i);
+				if (batch.size() > 1) {
+					searchBatch(batch, new SubProgressMonitor(monitor, 1));
+				} else {
+					// a single method costs one search either way
+					batch.values().iterator().next().getCalls(new SubProgressMonitor(monitor, 1));
+				}
+			}
+		} finally {
+			monitor.done();
+		}
+	}
+
+	private static List<Map<String, CallerMethodWrapper>> createBatches(List<CallerMethodWrapper> wrappers) {
+		// constructors are not mixed with methods, since an implicit constructor call
+		// is reported at a name that could be taken for a method's name
+		List<Map<String, CallerMethodWrapper>> methodBatches= new ArrayList<Map<String, CallerMethodWrapper>>();
+		List<Map<String, CallerMethodWrapper>> constructorBatches= new ArrayList<Map<String, CallerMethodWrapper>>();
+		Set<String> keys= new HashSet<String>();
+		IJavaSearchScope scope= CallHierarchy.getDefault().getSearchScope();
+		for (Iterator<CallerMethodWrapper> iter= wrappers.iterator(); iter.hasNext();) {
+			CallerMethodWrapper wrapper= iter.next();
+			if (!isBatchable(wrapper, scope) || !keys.add(wrapper.getMethodCall().getKey()))
+				continue;
+
+			String key= getKey((IMethod) wrapper.getMember());
+			List<Map<String, CallerMethodWrapper>> batches= key.startsWith(CONSTRUCTOR_PREFIX) ? constructorBatches : methodBatches;
+			Map<String, CallerMethodWrapper> target= null;
+			for (int i= 0; i < batches.size() && target == null; i++) {
+				Map<String, CallerMethodWrapper> batch= batches.get(i);
+				if (batch.size() < BATCH_SIZE && !batch.containsKey(key))
+					target= batch;
+			}
+			if (target == null) {
+				target= new HashMap<String, CallerMethodWrapper>();
+				batches.add(target);
+			}
+			target.put(key, wrapper);
+		}
+		methodBatches.addAll(constructorBatches);
+		return methodBatches;
+	}
+
+	private static boolean isBatchable(CallerMethodWrapper wrapper, IJavaSearchScope scope) {
+		IMember member= wrapper.getMember();
+		if (!(member instanceof IMethod) || !scope.equals(wrapper.getSearchScope()))
+			return false;
+		try {
+			return !JdtFlags.isPrivate(member);
+		} catch (JavaModelException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the key of the given method in a batch: the name of a method, or the name of the
+	 * declaring type of a constructor prefixed with {@link #CONSTRUCTOR_PREFIX}.
+	 *
+	 * @param method the method
+	 * @return the key
+	 */
+	private static String getKey(IMethod method) {
+		try {
+			if (method.isConstructor())
+				return CONSTRUCTOR_PREFIX + method.getDeclaringType().getElementName();
+		} catch (JavaModelException e) {
+			// handled like a method, the batch falls back if a match cannot be attributed
+		}
+		return method.getElementName();
+	}
+
+	private static void searchBatch(Map<String, CallerMethodWrapper> batch, IProgressMonitor monitor) {
+		SearchPattern pattern= null;
+		Map<String, CallSearchResultCollector> collectors= new HashMap<String, CallSearchResultCollector>();
+		for (Iterator<Map.Entry<String, CallerMethodWrapper>> iter= batch.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, CallerMethodWrapper> entry= iter.next();
+			SearchPattern methodPattern= SearchPattern.createPattern(entry.getValue().getMember(), IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+			if (methodPattern == null) {
+				monitor.done();
+				return;
+			}
+			pattern= pattern == null ? methodPattern : SearchPattern.createOrPattern(pattern, methodPattern);
+			collectors.put(entry.getKey(), new CallSearchResultCollector());
+		}
+
+		try {
+			BatchRequestor requestor= new BatchRequestor(collectors);
+			new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+					CallHierarchy.getDefault().getSearchScope(), requestor, monitor);
+			if (!requestor.isComplete())
+				return;
+
+			for (Iterator<Map.Entry<String, CallerMethodWrapper>> iter= batch.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<String, CallerMethodWrapper> entry= iter.next();
+				entry.getValue().cacheCalls(collectors.get(entry.getKey()).getCallers());
+			}
+		} catch (CoreException e) {
+			JavaPlugin.log(e);
+		}
+	}
+
+	/**
+	 * Reads the key of the called method or constructor at the given match position in the
+	 * source of the calling member, see {@link #getKey(IMethod)}.
+	 *
+	 * @param caller the member that contains the match
+	 * @param offset the offset of the match
+	 * @param length the length of the match
+	 * @return the key, or <code>null</code> if it cannot be read
+	 */
+	static String getCallKey(IMember caller, int offset, int length) {
+		try {
+			IOpenable openable= caller.getOpenable();
+			IBuffer buffer= openable != null ? openable.getBuffer() : null;
+			if (buffer == null || offset < 0)
+				return null;
+
+			int end= Math.min(offset + length, buffer.getLength());
+			// type arguments of a generic method invocation
+			int start= skipTypeArguments(buffer, skipWhitespace(buffer, offset, end), end);
+			int pos= skipIdentifier(buffer, start, end);
+			if (pos == start)
+				return null;
+
+			String selector= buffer.getText(start, pos - start);
+			if ("new".equals(selector)) { //$NON-NLS-1$
+				// the simple name of the instantiated type, e.g. 'C' in 'new a.B<T>.C()'
+				String typeName;
+				boolean isQualified;
+				do {
+					start= skipTypeArguments(buffer, skipWhitespace(buffer, pos, end), end);
+					pos= skipIdentifier(buffer, start, end);
+					if (pos == start)
+						return null;
+					typeName= buffer.getText(start, pos - start);
+					pos= skipTypeArguments(buffer, skipWhitespace(buffer, pos, end), end);
+					isQualified= pos < end && buffer.getChar(pos) == '.';
+					if (isQualified)
+						pos++;
+				} while (isQualified);
+				return CONSTRUCTOR_PREFIX + typeName;
+			}
+
+			IType type= caller instanceof IType ? (IType) caller : caller.getDeclaringType();
+			if ("this".equals(selector)) //$NON-NLS-1$
+				return type != null ? CONSTRUCTOR_PREFIX + type.getElementName() : null;
+			if ("super".equals(selector)) { //$NON-NLS-1$
+				String superclassName= type != null ? type.getSuperclassName() : null;
+				if (superclassName == null)
+					return null;
+				superclassName= Signature.getSimpleName(Signature.getTypeErasure(superclassName));
+				return CONSTRUCTOR_PREFIX + superclassName;
+			}
+			return selector;
+		} catch (JavaModelException e) {
+			return null;
+		}
+	}
+
+	private static int skipWhitespace(IBuffer buffer, int pos, int end) {
+		while (pos < end && Character.isWhitespace(buffer.getChar(pos)))
+			pos++;
+		return pos;
+	}
+
+	private static int skipTypeArguments(IBuffer buffer, int pos, int end) {
+		if (pos >= end || buffer.getChar(pos) != '<')
+			return pos;
+		int depth= 0;
+		do {
+			char c= buffer.getChar(pos++);
+			if (c == '<')
+				depth++;
+			else if (c == '>')
+				depth--;
+		} while (depth > 0 && pos < end);
+		return skipWhitespace(buffer, pos, end);
+	}
+
+	private static int skipIdentifier(IBuffer buffer, int pos, int end) {
+		if (pos >= end || !Character.isJavaIdentifierStart(buffer.getChar(pos)))
+			return pos;
+		pos++;
+		while (pos < end && Character.isJavaIdentifierPart(buffer.getChar(pos)))
+			pos++;
+		return pos;
+	}
+}
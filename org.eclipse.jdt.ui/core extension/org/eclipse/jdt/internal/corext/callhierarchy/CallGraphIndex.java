@@ -0,0 +1,861 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
+
+
+/**
+ * A workspace-wide index of the calls between the members of the source compilation units,
+ * which answers caller and callee queries of the call hierarchy without a search.
+ * <p>
+ * The index is built in the background with a {@link CalleeAnalyzerVisitor} run per member and
+ * stored in the plug-in's state location when the plug-in stops. Java element deltas queue the
+ * changed compilation units, and the units that call into them, for re-indexing. A unit whose
+ * modification stamp has changed while the workbench was closed is re-indexed on the next start.
+ * </p>
+ * <p>
+ * A call is attributed to the method declaration that the compiler binds it to, like in the callee
+ * hierarchy. Like the search, the callers of a method also include the calls of the declarations
+ * in its supertypes that it overrides, e.g. calls through an interface. The index only answers
+ * while it is complete and no editor has unsaved changes that it has not seen, otherwise and for
+ * binary members, or methods that override a binary method, the call hierarchy falls back to
+ * searching.
+ * </p>
+ * <p>
+ * The index holds each call in memory, which takes in the order of 200 bytes per call. A workspace
+ * with more than {@link #MAX_CALLS} calls is not indexed, and the call hierarchy searches as
+ * without the index.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @see CallHierarchy#isCallGraphIndexEnabled()
+ * @since 3.8
+ */
+public final class CallGraphIndex {
+
+	/** The job family of the update job */
+	public static final Object FAMILY= CallGraphIndex.class;
+
+	/** The index file in the state location */
+	private static final String FILE_NAME= "callgraph.index"; //$NON-NLS-1$
+
+	/** Magic number of index files */
+	private static final int MAGIC= 0x4A434749;
+
+	/** Format version, must be increased whenever the format of the index file changes */
+	private static final int VERSION= 1;
+
+	/** The maximal number of indexed calls */
+	static final int MAX_CALLS= 500000;
+
+	/**
+	 * A call of a member from a member of an indexed compilation unit.
+	 */
+	private static final class Call {
+		final String fCaller;
+		final String fCallee;
+		/** The handle of the callee's compilation unit, <code>null</code> if binary */
+		final String fCalleeUnit;
+		final int fStart;
+		final int fEnd;
+		final int fLine;
+
+		Call(String caller, String callee, String calleeUnit, int start, int end, int line) {
+			fCaller= caller;
+			fCallee= callee;
+			fCalleeUnit= calleeUnit;
+			fStart= start;
+			fEnd= end;
+			fLine= line;
+		}
+	}
+
+	/**
+	 * The members and calls of an indexed compilation unit.
+	 */
+	private static final class Unit {
+		final String fHandle;
+		/** The modification stamp of the unit's resource when it was indexed */
+		final long fStamp;
+		final String[] fMembers;
+		final Call[] fCalls;
+
+		Unit(String handle, long stamp, String[] members, Call[] calls) {
+			fHandle= handle;
+			fStamp= stamp;
+			fMembers= members;
+			fCalls= calls;
+		}
+	}
+
+	/**
+	 * Queues the compilation units that are affected by a change for re-indexing.
+	 */
+	private final class DeltaListener implements IElementChangedListener {
+		/*
+		 * @see org.eclipse.jdt.core.IElementChangedListener#elementChanged(org.eclipse.jdt.core.ElementChangedEvent)
+		 */
+		public void elementChanged(ElementChangedEvent event) {
+			Set<String> changed= new HashSet<String>();
+			int scan= processDelta(event.getDelta(), changed);
+			if (scan != SCAN_NONE || !changed.isEmpty())
+				markChanged(changed, scan);
+		}
+
+		private int processDelta(IJavaElementDelta delta, Set<String> changed) {
+			IJavaElement element= delta.getElement();
+			int kind= delta.getKind();
+			int flags= delta.getFlags();
+			switch (element.getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+					return processChildrenDelta(delta, changed);
+				case IJavaElement.JAVA_PROJECT:
+					if ((flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0)
+						return SCAN_ALL;
+					if (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0)
+						return SCAN_CHANGED;
+					return processChildrenDelta(delta, changed);
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+					if (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED)) != 0)
+						return SCAN_ALL;
+					return processChildrenDelta(delta, changed);
+				case IJavaElement.PACKAGE_FRAGMENT:
+					if (kind != IJavaElementDelta.CHANGED)
+						return SCAN_CHANGED;
+					return processChildrenDelta(delta, changed);
+				case IJavaElement.COMPILATION_UNIT:
+					ICompilationUnit unit= (ICompilationUnit) element;
+					if (JavaModelUtil.isPrimary(unit) && (kind != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_PRIMARY_RESOURCE)) != 0))
+						changed.add(unit.getHandleIdentifier());
+					return SCAN_NONE;
+				default:
+					return SCAN_NONE;
+			}
+		}
+
+		private int processChildrenDelta(IJavaElementDelta delta, Set<String> changed) {
+			int scan= SCAN_NONE;
+			IJavaElementDelta[] children= delta.getAffectedChildren();
+			for (int i= 0; i < children.length; i++)
+				scan= Math.max(scan, processDelta(children[i], changed));
+			return scan;
+		}
+	}
+
+	/**
+	 * Loads, scans and updates the index.
+	 */
+	private final class UpdateJob extends Job {
+		UpdateJob() {
+			super(CallHierarchyMessages.CallGraphIndex_job_name);
+			setPriority(Job.LONG);
+		}
+
+		/*
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			return update(monitor);
+		}
+
+		/*
+		 * @see org.eclipse.core.runtime.jobs.Job#belongsTo(java.lang.Object)
+		 */
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == FAMILY;
+		}
+	}
+
+	/** No scan of the workspace is needed */
+	private static final int SCAN_NONE= 0;
+	/** The workspace must be scanned for added, removed and modified compilation units */
+	private static final int SCAN_CHANGED= 1;
+	/** All compilation units must be re-indexed */
+	private static final int SCAN_ALL= 2;
+
+	private static CallGraphIndex fgInstance;
+
+	/**
+	 * Returns the call graph index.
+	 *
+	 * @return the call graph index
+	 */
+	public static synchronized CallGraphIndex getInstance() {
+		if (fgInstance == null)
+			fgInstance= new CallGraphIndex();
+		return fgInstance;
+	}
+
+	/**
+	 * Stores the index, if it has been started. Called when the plug-in stops.
+	 */
+	public static synchronized void shutdown() {
+		if (fgInstance == null)
+			return;
+		fgInstance.stop();
+		fgInstance.save();
+		fgInstance= null;
+	}
+
+	/**
+	 * Stops the index and deletes the stored index.
+	 */
+	static synchronized void discard() {
+		if (fgInstance != null) {
+			fgInstance.stop();
+			fgInstance= null;
+		}
+		File file= getFile();
+		if (file != null && file.exists() && !file.delete())
+			JavaPlugin.logErrorMessage("Could not delete " + file); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the callers of the given member from the index, if the index is enabled and can
+	 * answer the query.
+	 *
+	 * @param member the called member
+	 * @return a map from handle identifier ({@link String}) to {@link MethodCall}, or
+	 *         <code>null</code> if the callers must be searched
+	 */
+	static Map<String, MethodCall> findCallers(IMember member) {
+		if (!CallHierarchy.getDefault().isCallGraphIndexEnabled())
+			return null;
+		return getInstance().getCallers(member);
+	}
+
+	/**
+	 * Returns the callees of the given member from the index, if the index is enabled and can
+	 * answer the query.
+	 *
+	 * @param member the calling member
+	 * @return a map from handle identifier ({@link String}) to {@link MethodCall}, or
+	 *         <code>null</code> if the callees must be found from the AST
+	 */
+	static Map<String, MethodCall> findCallees(IMember member) {
+		if (!CallHierarchy.getDefault().isCallGraphIndexEnabled())
+			return null;
+		return getInstance().getCallees(member);
+	}
+
+	private static File getFile() {
+		JavaPlugin plugin= JavaPlugin.getDefault();
+		if (plugin == null)
+			return null;
+		return plugin.getStateLocation().append(FILE_NAME).toFile();
+	}
+
+	private static long getStamp(ICompilationUnit unit) {
+		IResource resource= unit.getResource();
+		return resource != null ? resource.getModificationStamp() : IResource.NULL_STAMP;
+	}
+
+	private final IElementChangedListener fDeltaListener= new DeltaListener();
+	private final Job fUpdateJob= new UpdateJob();
+
+	/** The indexed compilation units by handle */
+	private final Map<String, Unit> fUnits= new HashMap<String, Unit>();
+	/** The handles of the indexed members */
+	private final Set<String> fMembers= new HashSet<String>();
+	/** The calls by caller handle */
+	private final Map<String, List<Call>> fCallsByCaller= new HashMap<String, List<Call>>();
+	/** The calls by callee handle */
+	private final Map<String, List<Call>> fCallsByCallee= new HashMap<String, List<Call>>();
+	/** The handles of the units that call into a unit, by unit handle */
+	private final Map<String, Set<String>> fDependents= new HashMap<String, Set<String>>();
+	/** The handles of the units that must be (re-)indexed */
+	private final Set<String> fPending= new LinkedHashSet<String>();
+	/** The handle of the unit that is being indexed, or <code>null</code> */
+	private String fIndexing;
+	/** The number of indexed calls */
+	private int fCallCount;
+	private int fScan= SCAN_CHANGED;
+	private boolean fIsLoaded;
+	private boolean fIsStarted;
+	/** Tells whether the index has been dropped since the workspace has too many calls */
+	private boolean fIsOverflown;
+
+	private CallGraphIndex() {
+	}
+
+	/**
+	 * Starts to listen for changes and schedules the update of the index, if it is not complete.
+	 */
+	public synchronized void start() {
+		if (!fIsStarted) {
+			fIsStarted= true;
+			JavaCore.addElementChangedListener(fDeltaListener, ElementChangedEvent.POST_CHANGE);
+		}
+		if (!isReady() && !fIsOverflown)
+			fUpdateJob.schedule();
+	}
+
+	private synchronized void stop() {
+		if (fIsStarted) {
+			fIsStarted= false;
+			JavaCore.removeElementChangedListener(fDeltaListener);
+			fUpdateJob.cancel();
+		}
+	}
+
+	/**
+	 * Tells whether the index is complete and up to date with the saved compilation units.
+	 *
+	 * @return <code>true</code> if the index is complete
+	 */
+	public synchronized boolean isReady() {
+		return fIsStarted && fIsLoaded && !fIsOverflown && fScan == SCAN_NONE && fPending.isEmpty() && fIndexing == null;
+	}
+
+	private Map<String, MethodCall> getCallers(IMember member) {
+		if (!(member instanceof IMethod) || member.getCompilationUnit() == null)
+			return null;
+		IMethod method= (IMethod) member;
+		List<IMethod> overridden;
+		try {
+			if (method.isConstructor())
+				return null;
+			overridden= getOverriddenMethods(method);
+		} catch (JavaModelException e) {
+			return null;
+		}
+		if (overridden == null || hasUnsavedChanges())
+			return null;
+
+		List<Call> calls= getCalls(member, fCallsByCallee);
+		if (calls == null)
+			return null;
+		for (int i= 0; i < overridden.size(); i++) {
+			// calls through a supertype, which the search reports as well
+			List<Call> superCalls= getCalls(overridden.get(i), fCallsByCallee);
+			if (superCalls == null)
+				return null;
+			calls.addAll(superCalls);
+		}
+
+		IJavaSearchScope scope= CallHierarchy.getDefault().getSearchScope();
+		CallSearchResultCollector collector= new CallSearchResultCollector();
+		for (int i= 0; i < calls.size(); i++) {
+			Call call= calls.get(i);
+			IJavaElement caller= JavaCore.create(call.fCaller);
+			if (caller instanceof IMember && scope.encloses(caller))
+				collector.addMember((IMember) caller, (IMember) caller, call.fStart, call.fEnd, call.fLine);
+		}
+		return collector.getCallers();
+	}
+
+	/**
+	 * Returns the declarations in the supertypes of the method's declaring type that the method
+	 * overrides.
+	 *
+	 * @param method the method
+	 * @return the overridden methods, or <code>null</code> if one of them is binary: calls of
+	 *         binary methods are recorded per project, so the callers must be searched
+	 * @throws JavaModelException if the type hierarchy cannot be created
+	 */
+	private static List<IMethod> getOverriddenMethods(IMethod method) throws JavaModelException {
+		List<IMethod> overridden= new ArrayList<IMethod>();
+		int flags= method.getFlags();
+		if (Flags.isStatic(flags) || Flags.isPrivate(flags))
+			return overridden;
+
+		IType type= method.getDeclaringType();
+		MethodOverrideTester tester= SuperTypeHierarchyCache.getMethodOverrideTester(type);
+		IType[] supertypes= tester.getTypeHierarchy().getAllSupertypes(type);
+		for (int i= 0; i < supertypes.length; i++) {
+			IMethod overriddenMethod= tester.findOverriddenMethodInType(supertypes[i], method);
+			if (overriddenMethod != null) {
+				if (overriddenMethod.isBinary())
+					return null;
+				overridden.add(overriddenMethod);
+			}
+		}
+		return overridden;
+	}
+
+	private Map<String, MethodCall> getCallees(IMember member) {
+		if (CallHierarchy.getDefault().isSearchUsingImplementorsEnabled())
+			return null;
+		ICompilationUnit unit= member.getCompilationUnit();
+		if (unit == null || unit.hasUnsavedChanges())
+			return null;
+
+		List<Call> calls= getCalls(member, fCallsByCaller);
+		if (calls == null)
+			return null;
+
+		IJavaSearchScope scope= CallHierarchy.getDefault().getSearchScope();
+		CallSearchResultCollector collector= new CallSearchResultCollector();
+		for (int i= 0; i < calls.size(); i++) {
+			Call call= calls.get(i);
+			IJavaElement callee= JavaCore.create(call.fCallee);
+			if (callee instanceof IMember && (!(callee instanceof IMethod) || scope.encloses(callee)))
+				collector.addMember(member, (IMember) callee, call.fStart, call.fEnd, call.fLine);
+		}
+		return collector.getCallers();
+	}
+
+	private synchronized List<Call> getCalls(IMember member, Map<String, List<Call>> callsByMember) {
+		if (!isReady()) {
+			start();
+			return null;
+		}
+		String handle= member.getHandleIdentifier();
+		if (!fMembers.contains(handle))
+			return null;
+		List<Call> calls= callsByMember.get(handle);
+		return calls != null ? new ArrayList<Call>(calls) : new ArrayList<Call>(0);
+	}
+
+	private static boolean hasUnsavedChanges() {
+		ICompilationUnit[] workingCopies= JavaCore.getWorkingCopies(null);
+		for (int i= 0; i < workingCopies.length; i++) {
+			if (workingCopies[i].hasUnsavedChanges())
+				return true;
+		}
+		return false;
+	}
+
+	private synchronized void markChanged(Set<String> changed, int scan) {
+		if (fIsOverflown)
+			return;
+		for (Iterator<String> iter= changed.iterator(); iter.hasNext();)
+			markChanged(iter.next());
+		if (scan == SCAN_ALL)
+			fPending.addAll(fUnits.keySet());
+		fScan= Math.max(fScan, scan);
+		fUpdateJob.schedule();
+	}
+
+	private void markChanged(String handle) {
+		fPending.add(handle);
+		Set<String> dependents= fDependents.get(handle);
+		if (dependents != null)
+			fPending.addAll(dependents);
+	}
+
+	private IStatus update(IProgressMonitor monitor) {
+		monitor.beginTask(CallHierarchyMessages.CallGraphIndex_job_name, IProgressMonitor.UNKNOWN);
+		try {
+			boolean isLoaded;
+			synchronized (this) {
+				isLoaded= fIsLoaded;
+			}
+			if (!isLoaded) {
+				List<Unit> units= load();
+				synchronized (this) {
+					for (int i= 0; i < units.size(); i++)
+						addUnit(units.get(i));
+					fIsLoaded= true;
+					if (isOverflown())
+						return Status.OK_STATUS;
+				}
+			}
+
+			int scan;
+			synchronized (this) {
+				scan= fScan;
+				fScan= SCAN_NONE;
+			}
+			if (scan != SCAN_NONE) {
+				try {
+					scan(monitor);
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				}
+			}
+
+			while (true) {
+				String handle;
+				synchronized (this) {
+					if (fPending.isEmpty())
+						return Status.OK_STATUS;
+					handle= fPending.iterator().next();
+					fPending.remove(handle);
+					fIndexing= handle;
+				}
+				try {
+					if (monitor.isCanceled())
+						throw new OperationCanceledException();
+					Unit unit= createUnit(handle, monitor);
+					synchronized (this) {
+						removeUnit(handle);
+						if (unit != null)
+							addUnit(unit);
+						if (isOverflown())
+							return Status.OK_STATUS;
+					}
+					monitor.worked(1);
+				} catch (OperationCanceledException e) {
+					synchronized (this) {
+						fPending.add(handle);
+					}
+					return Status.CANCEL_STATUS;
+				} finally {
+					synchronized (this) {
+						fIndexing= null;
+					}
+				}
+			}
+		} finally {
+			monitor.done();
+		}
+	}
+
+	private void scan(IProgressMonitor monitor) {
+		Map<String, Long> stamps= new HashMap<String, Long>();
+		try {
+			IJavaProject[] projects= JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+			for (int i= 0; i < projects.length; i++) {
+				IPackageFragmentRoot[] roots= projects[i].getPackageFragmentRoots();
+				for (int j= 0; j < roots.length; j++) {
+					if (roots[j].getKind() != IPackageFragmentRoot.K_SOURCE)
+						continue;
+					IJavaElement[] fragments= roots[j].getChildren();
+					for (int k= 0; k < fragments.length; k++) {
+						if (monitor.isCanceled())
+							throw new OperationCanceledException();
+						ICompilationUnit[] units= ((IPackageFragment) fragments[k]).getCompilationUnits();
+						for (int l= 0; l < units.length; l++)
+							stamps.put(units[l].getHandleIdentifier(), new Long(getStamp(units[l])));
+					}
+				}
+			}
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+		} catch (OperationCanceledException e) {
+			synchronized (this) {
+				fScan= Math.max(fScan, SCAN_CHANGED);
+			}
+			throw e;
+		}
+
+		synchronized (this) {
+			for (Iterator<Map.Entry<String, Long>> iter= stamps.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<String, Long> entry= iter.next();
+				Unit unit= fUnits.get(entry.getKey());
+				if (unit == null || unit.fStamp != entry.getValue().longValue())
+					markChanged(entry.getKey());
+			}
+			for (Iterator<String> iter= new ArrayList<String>(fUnits.keySet()).iterator(); iter.hasNext();) {
+				String handle= iter.next();
+				if (!stamps.containsKey(handle))
+					markChanged(handle);
+			}
+		}
+	}
+
+	private Unit createUnit(String handle, IProgressMonitor monitor) {
+		IJavaElement element= JavaCore.create(handle);
+		if (!(element instanceof ICompilationUnit) || !element.exists())
+			return null;
+
+		ICompilationUnit unit= (ICompilationUnit) element;
+		long stamp= getStamp(unit);
+		ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
+		parser.setSource(unit);
+		parser.setResolveBindings(true);
+		CompilationUnit ast= (CompilationUnit) parser.createAST(null);
+
+		List<String> members= new ArrayList<String>();
+		List<Call> calls= new ArrayList<Call>();
+		try {
+			collectCalls(unit, ast, members, calls, monitor);
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+			return null;
+		}
+		return new Unit(handle, stamp, members.toArray(new String[members.size()]), calls.toArray(new Call[calls.size()]));
+	}
+
+	/**
+	 * Finds the calls of the members in the given parent, including the members of local and
+	 * anonymous types.
+	 *
+	 * @param parent the compilation unit or a member
+	 * @param ast the AST of the compilation unit
+	 * @param members the list to add the member handles to
+	 * @param calls the list to add the calls to
+	 * @param monitor the progress monitor
+	 * @throws JavaModelException if the children of an element cannot be accessed
+	 */
+	private static void collectCalls(IParent parent, CompilationUnit ast, List<String> members, List<Call> calls, IProgressMonitor monitor) throws JavaModelException {
+		IJavaElement[] children= parent.getChildren();
+		for (int i= 0; i < children.length; i++) {
+			IJavaElement child= children[i];
+			switch (child.getElementType()) {
+				case IJavaElement.METHOD:
+				case IJavaElement.FIELD:
+				case IJavaElement.INITIALIZER:
+					IMember member= (IMember) child;
+					String handle= member.getHandleIdentifier();
+					members.add(handle);
+
+					CallSearchResultCollector collector= new CallSearchResultCollector() {
+						@Override
+						protected boolean isIgnored(IMember enclosingElement) {
+							return false;
+						}
+					};
+					ast.accept(new CalleeAnalyzerVisitor(member, ast, collector, true, monitor));
+					for (Iterator<MethodCall> iter= collector.getCallers().values().iterator(); iter.hasNext();) {
+						MethodCall methodCall= iter.next();
+						IMember callee= methodCall.getMember();
+						ICompilationUnit calleeUnit= callee.getCompilationUnit();
+						String calleeUnitHandle= calleeUnit != null ? calleeUnit.getPrimary().getHandleIdentifier() : null;
+						for (Iterator<CallLocation> locations= methodCall.getCallLocations().iterator(); locations.hasNext();) {
+							CallLocation location= locations.next();
+							calls.add(new Call(handle, callee.getHandleIdentifier(), calleeUnitHandle, location.getStart(), location.getEnd(), location.getLineNumber()));
+						}
+					}
+					collectCalls(member, ast, members, calls, monitor);
+					break;
+				case IJavaElement.TYPE:
+					collectCalls((IParent) child, ast, members, calls, monitor);
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Drops the index if it holds more than {@link #MAX_CALLS} calls.
+	 *
+	 * @return <code>true</code> if the index has been dropped
+	 */
+	private boolean isOverflown() {
+		if (fCallCount <= MAX_CALLS)
+			return false;
+		fIsOverflown= true;
+		fUnits.clear();
+		fMembers.clear();
+		fCallsByCaller.clear();
+		fCallsByCallee.clear();
+		fDependents.clear();
+		fPending.clear();
+		fCallCount= 0;
+		JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), "The call graph index has been disabled, the workspace has more than " + MAX_CALLS + " calls")); //$NON-NLS-1$ //$NON-NLS-2$
+		return true;
+	}
+
+	private void addUnit(Unit unit) {
+		fUnits.put(unit.fHandle, unit);
+		fCallCount+= unit.fCalls.length;
+		for (int i= 0; i < unit.fMembers.length; i++)
+			fMembers.add(unit.fMembers[i]);
+		for (int i= 0; i < unit.fCalls.length; i++) {
+			Call call= unit.fCalls[i];
+			add(fCallsByCaller, call.fCaller, call);
+			add(fCallsByCallee, call.fCallee, call);
+			if (call.fCalleeUnit != null && !call.fCalleeUnit.equals(unit.fHandle)) {
+				Set<String> dependents= fDependents.get(call.fCalleeUnit);
+				if (dependents == null) {
+					dependents= new HashSet<String>();
+					fDependents.put(call.fCalleeUnit, dependents);
+				}
+				dependents.add(unit.fHandle);
+			}
+		}
+	}
+
+	private void removeUnit(String handle) {
+		Unit unit= fUnits.remove(handle);
+		if (unit == null)
+			return;
+		fCallCount-= unit.fCalls.length;
+		for (int i= 0; i < unit.fMembers.length; i++)
+			fMembers.remove(unit.fMembers[i]);
+		for (int i= 0; i < unit.fCalls.length; i++) {
+			Call call= unit.fCalls[i];
+			remove(fCallsByCaller, call.fCaller, call);
+			remove(fCallsByCallee, call.fCallee, call);
+			if (call.fCalleeUnit != null) {
+				Set<String> dependents= fDependents.get(call.fCalleeUnit);
+				if (dependents != null && dependents.remove(handle) && dependents.isEmpty())
+					fDependents.remove(call.fCalleeUnit);
+			}
+		}
+	}
+
+	private static void add(Map<String, List<Call>> callsByMember, String key, Call call) {
+		List<Call> calls= callsByMember.get(key);
+		if (calls == null) {
+			calls= new ArrayList<Call>(2);
+			callsByMember.put(key, calls);
+		}
+		calls.add(call);
+	}
+
+	private static void remove(Map<String, List<Call>> callsByMember, String key, Call call) {
+		List<Call> calls= callsByMember.get(key);
+		if (calls != null && calls.remove(call) && calls.isEmpty())
+			callsByMember.remove(key);
+	}
+
+	private void save() {
+		File file= getFile();
+		if (file == null)
+			return;
+
+		List<Unit> units;
+		synchronized (this) {
+			if (!fIsLoaded || fIsOverflown)
+				return;
+			units= new ArrayList<Unit>(fUnits.size());
+			for (Iterator<Unit> iter= fUnits.values().iterator(); iter.hasNext();) {
+				Unit unit= iter.next();
+				if (!fPending.contains(unit.fHandle) && !unit.fHandle.equals(fIndexing))
+					units.add(unit);
+			}
+		}
+
+		DataOutputStream out= null;
+		try {
+			out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(units.size());
+			for (int i= 0; i < units.size(); i++) {
+				Unit unit= units.get(i);
+				out.writeUTF(unit.fHandle);
+				out.writeLong(unit.fStamp);
+				Map<String, Integer> indexes= new HashMap<String, Integer>();
+				out.writeInt(unit.fMembers.length);
+				for (int j= 0; j < unit.fMembers.length; j++) {
+					out.writeUTF(unit.fMembers[j]);
+					indexes.put(unit.fMembers[j], new Integer(j));
+				}
+				out.writeInt(unit.fCalls.length);
+				for (int j= 0; j < unit.fCalls.length; j++) {
+					Call call= unit.fCalls[j];
+					out.writeInt(indexes.get(call.fCaller).intValue());
+					out.writeUTF(call.fCallee);
+					out.writeUTF(call.fCalleeUnit != null ? call.fCalleeUnit : ""); //$NON-NLS-1$
+					out.writeInt(call.fStart);
+					out.writeInt(call.fEnd);
+					out.writeInt(call.fLine);
+				}
+			}
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private static List<Unit> load() {
+		List<Unit> units= new ArrayList<Unit>();
+		File file= getFile();
+		if (file == null || !file.exists())
+			return units;
+
+		DataInputStream in= null;
+		try {
+			in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				return units;
+			int unitCount= in.readInt();
+			for (int i= 0; i < unitCount; i++) {
+				String handle= in.readUTF();
+				long stamp= in.readLong();
+				String[] members= new String[in.readInt()];
+				for (int j= 0; j < members.length; j++)
+					members[j]= in.readUTF();
+				Call[] calls= new Call[in.readInt()];
+				for (int j= 0; j < calls.length; j++) {
+					String caller= members[in.readInt()];
+					String callee= in.readUTF();
+					String calleeUnit= in.readUTF();
+					calls[j]= new Call(caller, callee, calleeUnit.length() > 0 ? calleeUnit : null, in.readInt(), in.readInt(), in.readInt());
+				}
+				units.add(new Unit(handle, stamp, members, calls));
+			}
+		} catch (IOException e) {
+			// a damaged index is rebuilt
+			JavaPlugin.log(e);
+			units.clear();
+		} catch (RuntimeException e) {
+			JavaPlugin.log(e);
+			units.clear();
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+		return units;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -45,6 +45,7 @@ public class CallHierarchy {
     private static final String PREF_USE_IMPLEMENTORS= "PREF_USE_IMPLEMENTORS"; //$NON-NLS-1$
     private static final String PREF_USE_FILTERS = "PREF_USE_FILTERS"; //$NON-NLS-1$
     private static final String PREF_FILTERS_LIST = "PREF_FILTERS_LIST"; //$NON-NLS-1$
+    private static final String PREF_USE_CALL_GRAPH_INDEX = "PREF_USE_CALL_GRAPH_INDEX"; //$NON-NLS-1$
 
     private static final String DEFAULT_IGNORE_FILTERS = "java.*,javax.*"; //$NON-NLS-1$
     private static CallHierarchy fgInstance;
@@ -225,6 +226,36 @@ public class CallHierarchy {
         settings.setValue(PREF_FILTERS_LIST, filters);
     }
 
+    /**
+     * Tells whether callers and callees are looked up in the call graph index.
+     *
+     * @return <code>true</code> if the call graph index is enabled
+     * @see CallGraphIndex
+     * @since 3.8
+     */
+    public boolean isCallGraphIndexEnabled() {
+        IPreferenceStore settings = JavaPlugin.getDefault().getPreferenceStore();
+        return settings.getBoolean(PREF_USE_CALL_GRAPH_INDEX);
+    }
+
+    /**
+     * Enables or disables the call graph index. Disabling the index discards it.
+     *
+     * @param enabled <code>true</code> to enable the call graph index
+     * @see CallGraphIndex
+     * @since 3.8
+     */
+    public void setCallGraphIndexEnabled(boolean enabled) {
+        IPreferenceStore settings = JavaPlugin.getDefault().getPreferenceStore();
+        settings.setValue(PREF_USE_CALL_GRAPH_INDEX, enabled);
+
+        if (enabled) {
+            CallGraphIndex.getInstance().start();
+        } else {
+            CallGraphIndex.discard();
+        }
+    }
+
     /**
      * Returns filters for packages which should not be included in the search results.
      *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -64,7 +64,7 @@ class CallSearchResultCollector {
      * @param enclosingElement
      * @return boolean
      */
-    private boolean isIgnored(IMember enclosingElement) {
+    protected boolean isIgnored(IMember enclosingElement) {
         String fullyQualifiedName = getTypeOfElement(enclosingElement)
                                         .getFullyQualifiedName();
 
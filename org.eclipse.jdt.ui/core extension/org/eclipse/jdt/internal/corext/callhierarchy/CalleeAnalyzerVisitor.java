@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -51,11 +51,33 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
     private final IMember fMember;
     private final CompilationUnit fCompilationUnit;
     private final IProgressMonitor fProgressMonitor;
+    /**
+     * <code>true</code> to find the called methods regardless of the search scope and the
+     * implementors setting of the call hierarchy
+     * @since 3.8
+     */
+    private final boolean fFindAll;
     private int fMethodEndPosition;
     private int fMethodStartPosition;
 
     CalleeAnalyzerVisitor(IMember member, CompilationUnit compilationUnit, IProgressMonitor progressMonitor) {
-        fSearchResults = new CallSearchResultCollector();
+        this(member, compilationUnit, new CallSearchResultCollector(), false, progressMonitor);
+    }
+
+    /**
+     * Creates a visitor that adds the calls of the given member to the given collector.
+     *
+     * @param member the calling member
+     * @param compilationUnit the AST of the member's compilation unit, with bindings
+     * @param searchResults the collector for the calls
+     * @param findAll <code>true</code> to find the called methods regardless of the search scope
+     *            and the implementors setting of the call hierarchy
+     * @param progressMonitor the progress monitor
+     * @since 3.8
+     */
+    CalleeAnalyzerVisitor(IMember member, CompilationUnit compilationUnit, CallSearchResultCollector searchResults, boolean findAll, IProgressMonitor progressMonitor) {
+        fSearchResults = searchResults;
+        fFindAll = findAll;
         this.fMember = member;
         this.fCompilationUnit= compilationUnit;
         this.fProgressMonitor = progressMonitor;
@@ -261,7 +283,7 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
                         referencedMember= calledType;
                     }
                 } else {
-                    if (calledType.isInterface()) {
+                    if (calledType.isInterface() && !fFindAll) {
                         calledMethod = findImplementingMethods(calledMethod);
                     }
 
@@ -292,7 +314,7 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
 	}
 
     private boolean isIgnoredBySearchScope(IMethod enclosingElement) {
-        if (enclosingElement != null) {
+        if (enclosingElement != null && !fFindAll) {
             return !getSearchScope().encloses(enclosingElement);
         } else {
             return false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -90,6 +90,10 @@ class CalleeMethodWrapper extends MethodWrapper {
     @Override
 	protected Map<String, MethodCall> findChildren(IProgressMonitor progressMonitor) {
     	IMember member= getMember();
+		Map<String, MethodCall> indexedCallees= CallGraphIndex.findCallees(member);
+		if (indexedCallees != null) {
+			return indexedCallees;
+		}
 		if (member.exists()) {
 			CompilationUnit cu= CallHierarchy.getCompilationUnitNode(member, true);
 		    if (progressMonitor != null) {
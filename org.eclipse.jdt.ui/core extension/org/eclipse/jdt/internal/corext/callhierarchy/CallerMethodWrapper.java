@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -105,6 +105,11 @@ public class CallerMethodWrapper extends MethodWrapper {
 			checkCanceled(progressMonitor);
 
 			IMember member= getMember();
+			Map<String, MethodCall> indexedCallers= CallGraphIndex.findCallers(member);
+			if (indexedCallers != null) {
+				return indexedCallers;
+			}
+
 			SearchPattern pattern= null;
 			IType type= null;
 			if (member instanceof IType) {
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Platform;
+
+
+/**
+ * The calls found for the members of a call hierarchy, shared by all wrappers of the hierarchy.
+ * <p>
+ * The cache is bounded by the approximate number of bytes that its entries retain. When an entry
+ * is added beyond the bound, the least recently used entries are evicted; their calls are found
+ * again when a wrapper asks for them. Wrappers copy the calls they get from the cache, so an
+ * eviction never changes an expanded tree.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @see MethodWrapper#getMethodCache()
+ * @since 3.8
+ */
+public final class MethodCallCache {
+
+	private static final boolean DEBUG= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.jdt.ui/debug/CallHierarchyCache")); //$NON-NLS-1$//$NON-NLS-2$
+
+	/** The default bound of the retained bytes of a cache */
+	public static final long DEFAULT_MAX_BYTES= 8 * 1024 * 1024;
+
+	/** Approximate size of an object header plus a reference */
+	private static final int OBJECT_BYTES= 16;
+	/** Approximate size of a string without its characters */
+	private static final int STRING_BYTES= 40;
+	/** Approximate size of a hash map entry, including its share of the table */
+	private static final int MAP_ENTRY_BYTES= 40;
+	/** Approximate size of a {@link MethodCall} with an empty list of locations */
+	private static final int METHOD_CALL_BYTES= 64;
+	/** Approximate size of a {@link CallLocation} and the member handles it refers to */
+	private static final int CALL_LOCATION_BYTES= 96;
+
+	/**
+	 * A cached entry.
+	 */
+	private static final class Entry {
+		final Map<String, MethodCall> fCalls;
+		final long fBytes;
+
+		Entry(Map<String, MethodCall> calls, long bytes) {
+			fCalls= calls;
+			fBytes= bytes;
+		}
+	}
+
+	/** The entries in access order, the least recently used first */
+	private final LinkedHashMap<String, Entry> fEntries= new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private final long fMaxBytes;
+	private long fBytes;
+	private long fEvictions;
+
+	/**
+	 * Creates a cache bounded by {@link #DEFAULT_MAX_BYTES}.
+	 */
+	public MethodCallCache() {
+		this(DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * Creates a cache bounded by the given number of bytes.
+	 *
+	 * @param maxBytes the maximal number of bytes that the entries may retain
+	 */
+	public MethodCallCache(long maxBytes) {
+		fMaxBytes= maxBytes;
+	}
+
+	/**
+	 * Returns the calls of the member with the given key.
+	 *
+	 * @param key the handle identifier of the member
+	 * @return an unmodifiable map from handle identifier ({@link String}) to {@link MethodCall},
+	 *         or <code>null</code> if the calls are not cached
+	 */
+	public synchronized Map<String, MethodCall> get(String key) {
+		Entry entry= fEntries.get(key);
+		return entry != null ? entry.fCalls : null;
+	}
+
+	/**
+	 * Caches the calls of the member with the given key and evicts the least recently used
+	 * entries if the cache grows beyond its bound. The most recently added entry is never
+	 * evicted.
+	 *
+	 * @param key the handle identifier of the member
+	 * @param calls a map from handle identifier ({@link String}) to {@link MethodCall}
+	 */
+	public void put(String key, Map<String, MethodCall> calls) {
+		Map<String, MethodCall> copy= Collections.unmodifiableMap(new HashMap<String, MethodCall>(calls));
+		long bytes= estimateBytes(key, copy);
+		synchronized (this) {
+			Entry old= fEntries.put(key, new Entry(copy, bytes));
+			if (old != null)
+				fBytes-= old.fBytes;
+			fBytes+= bytes;
+
+			int evicted= 0;
+			Iterator<Map.Entry<String, Entry>> iter= fEntries.entrySet().iterator();
+			while (fBytes > fMaxBytes && fEntries.size() > 1) {
+				Map.Entry<String, Entry> eldest= iter.next();
+				fBytes-= eldest.getValue().fBytes;
+				iter.remove();
+				evicted++;
+			}
+			fEvictions+= evicted;
+			if (DEBUG && evicted > 0)
+				System.out.println("MethodCallCache - evicted " + evicted + ", " + toString()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Removes the calls of the member with the given key.
+	 *
+	 * @param key the handle identifier of the member
+	 */
+	public synchronized void remove(String key) {
+		Entry entry= fEntries.remove(key);
+		if (entry != null)
+			fBytes-= entry.fBytes;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+		fBytes= 0;
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 *
+	 * @return the number of entries
+	 */
+	public synchronized int getSize() {
+		return fEntries.size();
+	}
+
+	/**
+	 * Returns the approximate number of bytes that the cached entries retain.
+	 *
+	 * @return the retained bytes
+	 */
+	public synchronized long getRetainedBytes() {
+		return fBytes;
+	}
+
+	/**
+	 * Returns the maximal number of bytes that the cached entries may retain.
+	 *
+	 * @return the bound of the retained bytes
+	 */
+	public long getMaxBytes() {
+		return fMaxBytes;
+	}
+
+	/**
+	 * Returns the number of entries that have been evicted to keep the cache within its bound.
+	 *
+	 * @return the number of evictions
+	 */
+	public synchronized long getEvictionCount() {
+		return fEvictions;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "entries: " + fEntries.size() + ", retained bytes: " + fBytes + "/" + fMaxBytes + ", evictions: " + fEvictions; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$//$NON-NLS-4$
+	}
+
+	private static long estimateBytes(String key, Map<String, MethodCall> calls) {
+		long bytes= MAP_ENTRY_BYTES + estimateBytes(key) + OBJECT_BYTES + MAP_ENTRY_BYTES;
+		for (Iterator<Map.Entry<String, MethodCall>> iter= calls.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, MethodCall> entry= iter.next();
+			bytes+= MAP_ENTRY_BYTES + estimateBytes(entry.getKey()) + METHOD_CALL_BYTES;
+			Collection<CallLocation> locations= entry.getValue().getCallLocations();
+			if (locations != null)
+				bytes+= locations.size() * (long) CALL_LOCATION_BYTES;
+		}
+		return bytes;
+	}
+
+	private static long estimateBytes(String string) {
+		return STRING_BYTES + 2L * string.length();
+	}
+}
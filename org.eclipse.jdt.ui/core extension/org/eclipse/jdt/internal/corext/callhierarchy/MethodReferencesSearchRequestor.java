@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -50,9 +50,23 @@ class MethodReferencesSearchRequestor extends SearchRequestor {
                 case IJavaElement.TYPE:
                 case IJavaElement.FIELD:
                 case IJavaElement.INITIALIZER:
-                    fSearchResults.addMember(member, member, match.getOffset(), match.getOffset()+match.getLength());
+                    CallSearchResultCollector searchResults= getSearchResults(match);
+                    if (searchResults != null) {
+                        searchResults.addMember(member, member, match.getOffset(), match.getOffset()+match.getLength());
+                    }
                     break;
             }
         }
     }
+
+    /**
+     * Returns the collector for the callers found by the given match.
+     *
+     * @param match an accurate match of a member
+     * @return the collector, or <code>null</code> to ignore the match
+     * @since 3.8
+     */
+    protected CallSearchResultCollector getSearchResults(SearchMatch match) {
+        return fSearchResults;
+    }
 }
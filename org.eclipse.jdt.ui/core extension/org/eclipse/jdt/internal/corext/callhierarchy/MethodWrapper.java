@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,14 +13,18 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.callhierarchy;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.PlatformObject;
+import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.ui.model.IWorkbenchAdapter;
 
@@ -41,9 +45,12 @@ public abstract class MethodWrapper extends PlatformObject {
     /*
      * A cache of previously found methods. This cache should be searched
      * before adding a "new" method object reference to the list of elements.
-     * This way previously found methods won't be searched again.
+     * This way previously found methods won't be searched again. The cache is
+     * shared by all wrappers of a hierarchy, may be filled from several
+     * threads, e.g. by DeferredMethodWrapper, and evicts the least recently
+     * used calls when it grows beyond its bound.
      */
-    private Map<String, Map<String, MethodCall>> fMethodCache;
+    private MethodCallCache fMethodCache;
     private final MethodCall fMethodCall;
     private final MethodWrapper fParent;
     private int fLevel;
@@ -57,7 +64,7 @@ public abstract class MethodWrapper extends PlatformObject {
         Assert.isNotNull(methodCall);
 
         if (parent == null) {
-            setMethodCache(new HashMap<String, Map<String, MethodCall>>());
+            setMethodCache(new MethodCallCache());
             fLevel = 1;
         } else {
             setMethodCache(parent.getMethodCache());
@@ -196,17 +203,12 @@ public abstract class MethodWrapper extends PlatformObject {
         return result;
     }
 
-    private void setMethodCache(Map<String, Map<String, MethodCall>> methodCache) {
+    private void setMethodCache(MethodCallCache methodCache) {
         fMethodCache = methodCache;
     }
 
     protected abstract String getTaskName();
 
-    private void addCallToCache(MethodCall methodCall) {
-        Map<String, MethodCall> cachedCalls = lookupMethod(this.getMethodCall());
-        cachedCalls.put(methodCall.getKey(), methodCall);
-    }
-
 	/**
 	 * Creates a method wrapper for the child of the receiver.
 	 * 
@@ -218,12 +220,10 @@ public abstract class MethodWrapper extends PlatformObject {
     private void doFindChildren(IProgressMonitor progressMonitor) {
         Map<String, MethodCall> existingResults = lookupMethod(getMethodCall());
 
-        if (existingResults != null && !existingResults.isEmpty()) {
+        if (existingResults != null) {
             fElements = new HashMap<String, MethodCall>();
             fElements.putAll(existingResults);
         } else {
-            initCalls();
-
             if (progressMonitor != null) {
                 progressMonitor.beginTask(getTaskName(), 100);
             }
@@ -278,16 +278,16 @@ public abstract class MethodWrapper extends PlatformObject {
      */
     protected abstract Map<String, MethodCall> findChildren(IProgressMonitor progressMonitor);
 
-    private Map<String, Map<String, MethodCall>> getMethodCache() {
+    /**
+     * Returns the cache of the calls found in the receiver's hierarchy.
+     *
+     * @return the method cache, shared by all wrappers of the hierarchy
+     * @since 3.8
+     */
+    public MethodCallCache getMethodCache() {
         return fMethodCache;
     }
 
-    private void initCalls() {
-        this.fElements = new HashMap<String, MethodCall>();
-
-        initCacheForMethod();
-    }
-
     /**
      * Looks up a previously created search result in the "global" cache.
      * @param methodCall the method call
@@ -298,23 +298,36 @@ public abstract class MethodWrapper extends PlatformObject {
     }
 
     private void performSearch(IProgressMonitor progressMonitor) {
-        fElements = findChildren(progressMonitor);
+        Map<String, MethodCall> elements = findChildren(progressMonitor);
+        checkCanceled(progressMonitor);
 
-        for (Iterator<String> iter = fElements.keySet().iterator(); iter.hasNext();) {
-            checkCanceled(progressMonitor);
+        cacheCalls(elements);
+        fElements = elements;
+    }
 
-            MethodCall methodCall = getMethodCallFromMap(fElements, iter.next());
-            addCallToCache(methodCall);
-        }
+    /**
+     * Tells whether the calls of the receiver's method are in the cache of the hierarchy.
+     *
+     * @return <code>true</code> if the calls have been found already
+     * @since 3.8
+     */
+    boolean isCached() {
+        return lookupMethod(getMethodCall()) != null;
     }
 
-    private MethodCall getMethodCallFromMap(Map<String, MethodCall> elements, String key) {
-        return elements.get(key);
+    /**
+     * Puts the calls of the receiver's method into the cache of the hierarchy, so that
+     * {@link #getCalls(IProgressMonitor)} does not search for them.
+     *
+     * @param calls a map from handle identifier ({@link String}) to {@link MethodCall}
+     * @since 3.8
+     */
+    void cacheCalls(Map<String, MethodCall> calls) {
+        getMethodCache().put(getMethodCall().getKey(), calls);
     }
 
-    private void initCacheForMethod() {
-        Map<String, MethodCall> cachedCalls = new HashMap<String, MethodCall>();
-        getMethodCache().put(this.getMethodCall().getKey(), cachedCalls);
+    private MethodCall getMethodCallFromMap(Map<String, MethodCall> elements, String key) {
+        return elements.get(key);
     }
 
     /**
@@ -359,6 +372,66 @@ public abstract class MethodWrapper extends PlatformObject {
         }
     }
 
+    /**
+     * Finds the calls of the given wrappers and of their calls down to the given number of
+     * levels, breadth-first, and caches them in their hierarchies. The callers of the methods of
+     * a level are searched together, with one search per batch of methods, see
+     * {@link BatchedCallerSearch}. Below the first level, only the wrappers whose calls have been
+     * found that way are expanded, the others are left to be searched one by one when they are
+     * expanded. Recursive calls are not expanded.
+     *
+     * @param wrappers the wrappers to expand
+     * @param levels the number of levels to expand
+     * @param progressMonitor the progress monitor, may be <code>null</code>
+     * @exception OperationCanceledException if cancelling the operation has been requested
+     * @since 3.8
+     */
+    public static void expandBreadthFirst(MethodWrapper[] wrappers, int levels, IProgressMonitor progressMonitor) {
+        if (progressMonitor == null) {
+            progressMonitor = new NullProgressMonitor();
+        }
+        progressMonitor.beginTask(CallHierarchyMessages.CallerMethodWrapper_taskname, levels);
+        try {
+            List<MethodWrapper> frontier = new ArrayList<MethodWrapper>();
+            for (int i = 0; i < wrappers.length; i++) {
+                frontier.add(wrappers[i]);
+            }
+
+            for (int level = 0; level < levels && !frontier.isEmpty(); level++) {
+                IProgressMonitor levelMonitor = new SubProgressMonitor(progressMonitor, 1);
+                levelMonitor.beginTask("", 2 * frontier.size()); //$NON-NLS-1$
+
+                List<CallerMethodWrapper> callers = new ArrayList<CallerMethodWrapper>();
+                for (Iterator<MethodWrapper> iter = frontier.iterator(); iter.hasNext();) {
+                    MethodWrapper wrapper = iter.next();
+                    if (!wrapper.canHaveChildren() || wrapper.isRecursive()) {
+                        iter.remove();
+                    } else if (wrapper instanceof CallerMethodWrapper && !wrapper.isCached()) {
+                        callers.add((CallerMethodWrapper) wrapper);
+                    }
+                }
+                BatchedCallerSearch.search(callers, new SubProgressMonitor(levelMonitor, frontier.size()));
+
+                List<MethodWrapper> next = new ArrayList<MethodWrapper>();
+                for (Iterator<MethodWrapper> iter = frontier.iterator(); iter.hasNext();) {
+                    MethodWrapper wrapper = iter.next();
+                    if (level > 0 && !wrapper.isCached()) {
+                        levelMonitor.worked(1);
+                        continue;
+                    }
+                    MethodWrapper[] calls = wrapper.getCalls(new SubProgressMonitor(levelMonitor, 1));
+                    for (int i = 0; i < calls.length; i++) {
+                        next.add(calls[i]);
+                    }
+                }
+                levelMonitor.done();
+                frontier = next;
+            }
+        } finally {
+            progressMonitor.done();
+        }
+    }
+
 	/**
 	 * Removes the given method call from the cache.
 	 *
@@ -0,0 +1,1466 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.dom;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeMemberDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.ArrayAccess;
+import org.eclipse.jdt.core.dom.ArrayCreation;
+import org.eclipse.jdt.core.dom.ArrayInitializer;
+import org.eclipse.jdt.core.dom.ArrayType;
+import org.eclipse.jdt.core.dom.AssertStatement;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BlockComment;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.BreakStatement;
+import org.eclipse.jdt.core.dom.CastExpression;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.ConstructorInvocation;
+import org.eclipse.jdt.core.dom.ContinueStatement;
+import org.eclipse.jdt.core.dom.DoStatement;
+import org.eclipse.jdt.core.dom.EmptyStatement;
+import org.eclipse.jdt.core.dom.EnhancedForStatement;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.ForStatement;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.InstanceofExpression;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.LabeledStatement;
+import org.eclipse.jdt.core.dom.LineComment;
+import org.eclipse.jdt.core.dom.MarkerAnnotation;
+import org.eclipse.jdt.core.dom.MemberRef;
+import org.eclipse.jdt.core.dom.MemberValuePair;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.MethodRef;
+import org.eclipse.jdt.core.dom.MethodRefParameter;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.NormalAnnotation;
+import org.eclipse.jdt.core.dom.NullLiteral;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.QualifiedType;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
+import org.eclipse.jdt.core.dom.SuperFieldAccess;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.SwitchCase;
+import org.eclipse.jdt.core.dom.SwitchStatement;
+import org.eclipse.jdt.core.dom.SynchronizedStatement;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TextElement;
+import org.eclipse.jdt.core.dom.ThisExpression;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+import org.eclipse.jdt.core.dom.TryStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.TypeLiteral;
+import org.eclipse.jdt.core.dom.TypeParameter;
+import org.eclipse.jdt.core.dom.UnionType;
+import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+import org.eclipse.jdt.core.dom.WildcardType;
+
+/**
+ * An AST visitor that forwards a single traversal to several visitors.
+ * <p>
+ * Each visitor sees the same calls as if it had been accepted on its own: if a visitor
+ * returns <code>false</code> from a <code>visit</code> or {@link ASTVisitor#preVisit2(ASTNode)}
+ * method, it does not see the children of that node, while the other visitors continue.
+ * The traversal only skips the children of a node if all visitors skip them.
+ * </p>
+ *
+ * @since 3.8
+ */
+public class CompositeASTVisitor extends ASTVisitor {
+
+	/** The visitors */
+	private final ASTVisitor[] fVisitors;
+
+	/**
+	 * The node whose children the visitor at the same index skips, or <code>null</code>
+	 * if the visitor is active
+	 */
+	private final ASTNode[] fSkipped;
+
+	/**
+	 * Tells whether the visitor at the same index has skipped the node in
+	 * {@link #fSkipped} itself, and not only its children
+	 */
+	private final boolean[] fSkippedInPreVisit;
+
+	/** The number of active visitors */
+	private int fActive;
+
+	/**
+	 * Creates a visitor that forwards to the given visitors.
+	 *
+	 * @param visitors the visitors, in the order they are called for each node
+	 */
+	public CompositeASTVisitor(ASTVisitor[] visitors) {
+		super(true);
+		fVisitors= visitors;
+		fSkipped= new ASTNode[visitors.length];
+		fSkippedInPreVisit= new boolean[visitors.length];
+		fActive= visitors.length;
+	}
+
+	/**
+	 * Returns whether the visitor at the given index currently visits nodes.
+	 *
+	 * @param index the visitor index
+	 * @return <code>true</code> if the visitor is active
+	 */
+	private boolean isActive(int index) {
+		return fSkipped[index] == null;
+	}
+
+	/**
+	 * Marks the visitor at the given index as skipping the children of the given node.
+	 *
+	 * @param index the visitor index
+	 * @param node the node
+	 * @param inPreVisit <code>true</code> if the node itself is skipped as well
+	 */
+	private void skip(int index, ASTNode node, boolean inPreVisit) {
+		fSkipped[index]= node;
+		fSkippedInPreVisit[index]= inPreVisit;
+		fActive--;
+	}
+
+	/**
+	 * Tells whether the visitor at the given index must be notified about the end of the visit
+	 * of the given node, and reactivates it if it skipped the children of the node.
+	 *
+	 * @param index the visitor index
+	 * @param node the node
+	 * @return <code>true</code> if the visitor must be notified
+	 */
+	private boolean endVisit(int index, ASTNode node) {
+		if (fSkipped[index] == null)
+			return true;
+		if (fSkipped[index] != node || fSkippedInPreVisit[index])
+			return false;
+		fSkipped[index]= null;
+		fActive++;
+		return true;
+	}
+
+	@Override
+	public boolean preVisit2(ASTNode node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].preVisit2(node))
+				skip(i, node, true);
+		}
+		return fActive > 0;
+	}
+
+	@Override
+	public void postVisit(ASTNode node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i)) {
+				fVisitors[i].postVisit(node);
+			} else if (fSkipped[i] == node) {
+				fSkipped[i]= null;
+				fActive++;
+				fVisitors[i].postVisit(node);
+			}
+		}
+	}
+	@Override
+	public boolean visit(AnnotationTypeDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(AnnotationTypeDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(AnnotationTypeMemberDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(AnnotationTypeMemberDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(AnonymousClassDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(AnonymousClassDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ArrayAccess node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ArrayAccess node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ArrayCreation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ArrayCreation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ArrayInitializer node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ArrayInitializer node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ArrayType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ArrayType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(AssertStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(AssertStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(Assignment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(Assignment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(Block node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(Block node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(BlockComment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(BlockComment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(BooleanLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(BooleanLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(BreakStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(BreakStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(CastExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(CastExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(CatchClause node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(CatchClause node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(CharacterLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(CharacterLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ClassInstanceCreation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ClassInstanceCreation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(CompilationUnit node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(CompilationUnit node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ConditionalExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ConditionalExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ConstructorInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ConstructorInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ContinueStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ContinueStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(DoStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(DoStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(EmptyStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(EmptyStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(EnhancedForStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(EnhancedForStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(EnumConstantDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(EnumConstantDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(EnumDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(EnumDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ExpressionStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ExpressionStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(FieldAccess node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(FieldAccess node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(FieldDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(FieldDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ForStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ForStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(IfStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(IfStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ImportDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ImportDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(InfixExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(InfixExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(Initializer node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(Initializer node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(InstanceofExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(InstanceofExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(Javadoc node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(Javadoc node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(LabeledStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(LabeledStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(LineComment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(LineComment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MarkerAnnotation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MarkerAnnotation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MemberRef node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MemberRef node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MemberValuePair node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MemberValuePair node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MethodDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MethodDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MethodInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MethodInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MethodRef node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MethodRef node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(MethodRefParameter node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(MethodRefParameter node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(Modifier node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(Modifier node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(NormalAnnotation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(NormalAnnotation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(NullLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(NullLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(NumberLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(NumberLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(PackageDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(PackageDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ParameterizedType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ParameterizedType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ParenthesizedExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ParenthesizedExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(PostfixExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(PostfixExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(PrefixExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(PrefixExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(PrimitiveType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(PrimitiveType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(QualifiedName node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(QualifiedName node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(QualifiedType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(QualifiedType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ReturnStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ReturnStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SimpleName node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SimpleName node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SimpleType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SimpleType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SingleMemberAnnotation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SingleMemberAnnotation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SingleVariableDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SingleVariableDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(StringLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(StringLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SuperConstructorInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SuperConstructorInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SuperFieldAccess node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SuperFieldAccess node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SuperMethodInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SuperMethodInvocation node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SwitchCase node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SwitchCase node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SwitchStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SwitchStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(SynchronizedStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(SynchronizedStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TagElement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TagElement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TextElement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TextElement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ThisExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ThisExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(ThrowStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(ThrowStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TryStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TryStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TypeDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TypeDeclaration node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TypeDeclarationStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TypeDeclarationStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TypeLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TypeLiteral node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(TypeParameter node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(TypeParameter node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(UnionType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(UnionType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(VariableDeclarationExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(VariableDeclarationExpression node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(VariableDeclarationFragment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(VariableDeclarationFragment node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(VariableDeclarationStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(VariableDeclarationStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(WhileStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(WhileStatement node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+	@Override
+	public boolean visit(WildcardType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (isActive(i) && !fVisitors[i].visit(node))
+				skip(i, node, false);
+		}
+		return fActive > 0;
+	}
+	@Override
+	public void endVisit(WildcardType node) {
+		for (int i= 0; i < fVisitors.length; i++) {
+			if (endVisit(i, node))
+				fVisitors[i].endVisit(node);
+		}
+	}
+}
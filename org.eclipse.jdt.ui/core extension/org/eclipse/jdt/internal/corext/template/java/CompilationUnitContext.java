@@ -111,6 +111,17 @@ public abstract class CompilationUnitContext extends DocumentTemplateContext {
 		fForceEvaluation= evaluate;
 	}
 
+	/**
+	 * Returns the ids of the context types whose templates this context can process.
+	 *
+	 * @return the ids of the compatible context types, including the id of the context type of
+	 *         this context
+	 * @since 3.8
+	 */
+	public String[] getCompatibleContextTypeIds() {
+		return new String[] { getContextType().getId() };
+	}
+
 	/**
 	 * Returns the multi-variable guess.
 	 *
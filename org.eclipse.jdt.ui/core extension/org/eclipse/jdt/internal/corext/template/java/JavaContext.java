@@ -141,6 +141,20 @@ public class JavaContext extends CompilationUnitContext {
 		fCompatibleContextTypeIds.add(contextTypeId);
 	}
 
+	/*
+	 * @see org.eclipse.jdt.internal.corext.template.java.CompilationUnitContext#getCompatibleContextTypeIds()
+	 * @since 3.8
+	 */
+	@Override
+	public String[] getCompatibleContextTypeIds() {
+		if (fCompatibleContextTypeIds == null)
+			return super.getCompatibleContextTypeIds();
+
+		Set<String> ids= new HashSet<String>(fCompatibleContextTypeIds);
+		ids.add(getContextType().getId());
+		return ids.toArray(new String[ids.size()]);
+	}
+
 
 	/**
 	 * Returns the indentation level at the position of code completion.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,10 +11,15 @@
 package org.eclipse.jdt.internal.corext.util;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Platform;
 
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeHierarchy;
@@ -23,36 +28,67 @@ import org.eclipse.jdt.core.JavaModelException;
 
 /**
  * A thread-safe cache for super type hierarchies.
+ * <p>
+ * The cached hierarchies are indexed by all the types they contain; a type that is contained in
+ * several hierarchies is found in the most recently cached one. The number of cached
+ * hierarchies depends on the maximal heap size. When the cache is full, the hierarchy that has
+ * been accessed least frequently is evicted. The access counts are halved on every eviction, so
+ * that hierarchies that were popular a long time ago do not stay forever. A hierarchy is removed
+ * as soon as it reports a change.
+ * </p>
  */
 public class SuperTypeHierarchyCache {
 
+	private static final boolean DEBUG= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.jdt.ui/debug/SuperTypeHierarchyCache")); //$NON-NLS-1$//$NON-NLS-2$
+
 	private static class HierarchyCacheEntry implements ITypeHierarchyChangedListener {
 
 		private ITypeHierarchy fTypeHierarchy;
+		private IType[] fTypes;
+		private int fAccessCount;
 		private long fLastAccess;
 
 		public HierarchyCacheEntry(ITypeHierarchy hierarchy) {
 			fTypeHierarchy= hierarchy;
+			fTypes= hierarchy.getAllTypes();
 			fTypeHierarchy.addTypeHierarchyChangedListener(this);
 			markAsAccessed();
 		}
 
 		public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
-			removeHierarchyEntryFromCache(this);
+			synchronized (fgHierarchyCache) {
+				if (fgHierarchyCache.contains(this)) {
+					fgInvalidations++;
+					removeHierarchyEntryFromCache(this);
+				}
+			}
 		}
 
 		public ITypeHierarchy getTypeHierarchy() {
 			return fTypeHierarchy;
 		}
 
+		public IType[] getTypes() {
+			return fTypes;
+		}
+
 		public void markAsAccessed() {
-			fLastAccess= System.currentTimeMillis();
+			fAccessCount++;
+			fLastAccess= ++fgAccessClock;
+		}
+
+		public int getAccessCount() {
+			return fAccessCount;
 		}
 
 		public long getLastAccess() {
 			return fLastAccess;
 		}
 
+		public void age() {
+			fAccessCount/= 2;
+		}
+
 		public void dispose() {
 			if (fTypeHierarchy != null) {
 				fTypeHierarchy.removeTypeHierarchyChangedListener(this);
@@ -71,13 +107,33 @@ public class SuperTypeHierarchyCache {
 	}
 
 
-	private static final int CACHE_SIZE= 8;
+	/** The smallest number of cached hierarchies */
+	private static final int MIN_CACHE_SIZE= 8;
+	/** The largest number of cached hierarchies */
+	private static final int MAX_CACHE_SIZE= 128;
+	/** The heap size that allows to cache one more hierarchy */
+	private static final long BYTES_PER_ENTRY= 8 * 1024 * 1024;
 
-	private static ArrayList<HierarchyCacheEntry> fgHierarchyCache= new ArrayList<HierarchyCacheEntry>(CACHE_SIZE);
+	private static final int CACHE_SIZE= computeCacheSize();
+
+	/** The cached hierarchies, guards all cache fields */
+	private static Set<HierarchyCacheEntry> fgHierarchyCache= new HashSet<HierarchyCacheEntry>(CACHE_SIZE * 2);
+	/** The cached hierarchies by the types they contain, the most recently cached last */
+	private static Map<IType, List<HierarchyCacheEntry>> fgTypeIndex= new HashMap<IType, List<HierarchyCacheEntry>>();
 	private static Map<IType, MethodOverrideTester> fgMethodOverrideTesterCache= new LRUMap<IType, MethodOverrideTester>(CACHE_SIZE);
 
+	private static long fgAccessClock= 0;
+
 	private static int fgCacheHits= 0;
 	private static int fgCacheMisses= 0;
+	private static long fgRebuildTime= 0;
+	private static int fgEvictions= 0;
+	private static int fgInvalidations= 0;
+
+	private static int computeCacheSize() {
+		long size= Runtime.getRuntime().maxMemory() / BYTES_PER_ENTRY;
+		return (int) Math.max(MIN_CACHE_SIZE, Math.min(MAX_CACHE_SIZE, size));
+	}
 
 	/**
 	 * Returns a super type hierarchy that contains the given type.
@@ -112,12 +168,15 @@ public class SuperTypeHierarchyCache {
 		return test;
 	}
 
-	private static void removeMethodOverrideTester(ITypeHierarchy hierarchy) {
+	private static void removeMethodOverrideTester(HierarchyCacheEntry entry) {
+		ITypeHierarchy hierarchy= entry.getTypeHierarchy();
+		IType[] types= entry.getTypes();
 		synchronized (fgMethodOverrideTesterCache) {
-			for (Iterator<MethodOverrideTester> iter= fgMethodOverrideTesterCache.values().iterator(); iter.hasNext();) {
-				MethodOverrideTester curr= iter.next();
-				if (curr.getTypeHierarchy().equals(hierarchy)) {
-					iter.remove();
+			// a tester is created for a type of its hierarchy
+			for (int i= 0; i < types.length; i++) {
+				MethodOverrideTester curr= fgMethodOverrideTesterCache.get(types[i]);
+				if (curr != null && curr.getTypeHierarchy().equals(hierarchy)) {
+					fgMethodOverrideTesterCache.remove(types[i]);
 				}
 			}
 		}
@@ -136,45 +195,65 @@ public class SuperTypeHierarchyCache {
 	 * @throws JavaModelException if a problem occurs
 	 */
 	public static ITypeHierarchy getTypeHierarchy(IType type, IProgressMonitor progressMonitor) throws JavaModelException {
-		ITypeHierarchy hierarchy= findTypeHierarchyInCache(type);
+		ITypeHierarchy hierarchy= findTypeHierarchyInCache(type, true);
 		if (hierarchy == null) {
-			fgCacheMisses++;
+			long start= System.nanoTime();
 			hierarchy= type.newSupertypeHierarchy(progressMonitor);
-			addTypeHierarchyToCache(hierarchy);
+			long time= System.nanoTime() - start;
+			synchronized (fgHierarchyCache) {
+				fgCacheMisses++;
+				fgRebuildTime+= time;
+				addTypeHierarchyToCache(hierarchy);
+			}
 		} else {
-			fgCacheHits++;
+			synchronized (fgHierarchyCache) {
+				fgCacheHits++;
+			}
 		}
 		return hierarchy;
 	}
 
 	private static void addTypeHierarchyToCache(ITypeHierarchy hierarchy) {
 		synchronized (fgHierarchyCache) {
-			int nEntries= fgHierarchyCache.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				HierarchyCacheEntry oldest= null;
-				ArrayList<HierarchyCacheEntry> obsoleteHierarchies= new ArrayList<HierarchyCacheEntry>(CACHE_SIZE);
-				for (int i= 0; i < nEntries; i++) {
-					HierarchyCacheEntry entry= fgHierarchyCache.get(i);
+			if (fgHierarchyCache.size() >= CACHE_SIZE) {
+				// find obsolete entries or remove entry that was least frequently accessed
+				HierarchyCacheEntry victim= null;
+				ArrayList<HierarchyCacheEntry> obsoleteHierarchies= new ArrayList<HierarchyCacheEntry>();
+				for (Iterator<HierarchyCacheEntry> iter= fgHierarchyCache.iterator(); iter.hasNext();) {
+					HierarchyCacheEntry entry= iter.next();
 					ITypeHierarchy curr= entry.getTypeHierarchy();
 					if (!curr.exists() || hierarchy.contains(curr.getType())) {
 						obsoleteHierarchies.add(entry);
-					} else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest= entry;
-						}
+					} else if (victim == null || entry.getAccessCount() < victim.getAccessCount()
+							|| entry.getAccessCount() == victim.getAccessCount() && entry.getLastAccess() < victim.getLastAccess()) {
+						victim= entry;
 					}
 				}
 				if (!obsoleteHierarchies.isEmpty()) {
 					for (int i= 0; i < obsoleteHierarchies.size(); i++) {
 						removeHierarchyEntryFromCache(obsoleteHierarchies.get(i));
 					}
-				} else if (oldest != null) {
-					removeHierarchyEntryFromCache(oldest);
+				} else if (victim != null) {
+					removeHierarchyEntryFromCache(victim);
+					fgEvictions++;
+					for (Iterator<HierarchyCacheEntry> iter= fgHierarchyCache.iterator(); iter.hasNext();) {
+						iter.next().age();
+					}
+					if (DEBUG)
+						System.out.println("SuperTypeHierarchyCache - evicted a hierarchy, " + getStatistics()); //$NON-NLS-1$
 				}
 			}
 			HierarchyCacheEntry newEntry= new HierarchyCacheEntry(hierarchy);
 			fgHierarchyCache.add(newEntry);
+			IType[] types= newEntry.getTypes();
+			for (int i= 0; i < types.length; i++) {
+				List<HierarchyCacheEntry> entries= fgTypeIndex.get(types[i]);
+				if (entries == null) {
+					entries= new ArrayList<HierarchyCacheEntry>(1);
+					fgTypeIndex.put(types[i], entries);
+				}
+				entries.add(newEntry);
+			}
 		}
 	}
 
@@ -185,33 +264,55 @@ public class SuperTypeHierarchyCache {
 	 * @return <code>true</code> if a hierarchy for the given type is cached
 	 */
 	public static boolean hasInCache(IType type) {
-		return findTypeHierarchyInCache(type) != null;
+		return findTypeHierarchyInCache(type, false) != null;
 	}
 
 
-	private static ITypeHierarchy findTypeHierarchyInCache(IType type) {
+	private static ITypeHierarchy findTypeHierarchyInCache(IType type, boolean markAsAccessed) {
 		synchronized (fgHierarchyCache) {
-			for (int i= fgHierarchyCache.size() - 1; i>= 0; i--) {
-				HierarchyCacheEntry curr= fgHierarchyCache.get(i);
-				ITypeHierarchy hierarchy= curr.getTypeHierarchy();
-				if (!hierarchy.exists()) {
-					removeHierarchyEntryFromCache(curr);
-				} else {
-					if (hierarchy.contains(type)) {
-						curr.markAsAccessed();
-						return hierarchy;
-					}
-				}
+			List<HierarchyCacheEntry> entries= fgTypeIndex.get(type);
+			if (entries == null)
+				return null;
+
+			HierarchyCacheEntry curr= entries.get(entries.size() - 1);
+
+			ITypeHierarchy hierarchy= curr.getTypeHierarchy();
+			if (!hierarchy.exists()) {
+				removeHierarchyEntryFromCache(curr);
+				return null;
 			}
+			if (markAsAccessed)
+				curr.markAsAccessed();
+			return hierarchy;
 		}
-		return null;
 	}
 
 	private static void removeHierarchyEntryFromCache(HierarchyCacheEntry entry) {
 		synchronized (fgHierarchyCache) {
-			removeMethodOverrideTester(entry.getTypeHierarchy());
+			if (!fgHierarchyCache.remove(entry))
+				return;
+			IType[] types= entry.getTypes();
+			for (int i= 0; i < types.length; i++) {
+				List<HierarchyCacheEntry> entries= fgTypeIndex.get(types[i]);
+				if (entries != null && entries.remove(entry) && entries.isEmpty())
+					fgTypeIndex.remove(types[i]);
+			}
+			removeMethodOverrideTester(entry);
 			entry.dispose();
-			fgHierarchyCache.remove(entry);
+		}
+	}
+
+	/**
+	 * Removes all hierarchies from the cache. The statistics are kept.
+	 *
+	 * @since 3.8
+	 */
+	public static void clear() {
+		synchronized (fgHierarchyCache) {
+			HierarchyCacheEntry[] entries= fgHierarchyCache.toArray(new HierarchyCacheEntry[fgHierarchyCache.size()]);
+			for (int i= 0; i < entries.length; i++) {
+				removeHierarchyEntryFromCache(entries[i]);
+			}
 		}
 	}
 
@@ -221,7 +322,9 @@ public class SuperTypeHierarchyCache {
 	 * @return Returns a int
 	 */
 	public static int getCacheHits() {
-		return fgCacheHits;
+		synchronized (fgHierarchyCache) {
+			return fgCacheHits;
+		}
 	}
 
 	/**
@@ -229,6 +332,108 @@ public class SuperTypeHierarchyCache {
 	 * @return Returns a int
 	 */
 	public static int getCacheMisses() {
-		return fgCacheMisses;
+		synchronized (fgHierarchyCache) {
+			return fgCacheMisses;
+		}
+	}
+
+	/**
+	 * Returns the ratio of the requests that have been served from the cache.
+	 *
+	 * @return the hit rate between 0 and 1, or 0 if there has been no request
+	 * @since 3.8
+	 */
+	public static double getHitRate() {
+		synchronized (fgHierarchyCache) {
+			int requests= fgCacheHits + fgCacheMisses;
+			return requests == 0 ? 0 : (double) fgCacheHits / requests;
+		}
+	}
+
+	/**
+	 * Returns the time spent building the hierarchies that were not in the cache.
+	 *
+	 * @return the total build time in milliseconds
+	 * @since 3.8
+	 */
+	public static long getRebuildTime() {
+		synchronized (fgHierarchyCache) {
+			return fgRebuildTime / 1000000;
+		}
+	}
+
+	/**
+	 * Returns the number of hierarchies that have been evicted because the cache was full.
+	 *
+	 * @return the number of evictions
+	 * @since 3.8
+	 */
+	public static int getEvictionCount() {
+		synchronized (fgHierarchyCache) {
+			return fgEvictions;
+		}
+	}
+
+	/**
+	 * Returns the number of hierarchies that have been removed because they changed.
+	 *
+	 * @return the number of invalidations
+	 * @since 3.8
+	 */
+	public static int getInvalidationCount() {
+		synchronized (fgHierarchyCache) {
+			return fgInvalidations;
+		}
+	}
+
+	/**
+	 * Returns the number of cached hierarchies.
+	 *
+	 * @return the number of cached hierarchies
+	 * @since 3.8
+	 */
+	public static int getSize() {
+		synchronized (fgHierarchyCache) {
+			return fgHierarchyCache.size();
+		}
+	}
+
+	/**
+	 * Returns the maximal number of cached hierarchies, which depends on the maximal heap size.
+	 *
+	 * @return the capacity of the cache
+	 * @since 3.8
+	 */
+	public static int getCapacity() {
+		return CACHE_SIZE;
+	}
+
+	/**
+	 * Resets the hit, miss, rebuild time, eviction and invalidation statistics. The cached
+	 * hierarchies are kept.
+	 *
+	 * @since 3.8
+	 */
+	public static void resetStatistics() {
+		synchronized (fgHierarchyCache) {
+			fgCacheHits= 0;
+			fgCacheMisses= 0;
+			fgRebuildTime= 0;
+			fgEvictions= 0;
+			fgInvalidations= 0;
+		}
+	}
+
+	/**
+	 * Returns a summary of the statistics for tracing.
+	 *
+	 * @return the statistics
+	 * @since 3.8
+	 */
+	public static String getStatistics() {
+		synchronized (fgHierarchyCache) {
+			return "hierarchies: " + fgHierarchyCache.size() + "/" + CACHE_SIZE + ", hits: " + fgCacheHits + ", misses: " + fgCacheMisses //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+					+ ", rebuild time: " + getRebuildTime() + " ms, evictions: " + fgEvictions + ", invalidations: " + fgInvalidations; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
 	}
 }
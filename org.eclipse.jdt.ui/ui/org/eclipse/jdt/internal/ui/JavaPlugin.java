@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -74,6 +75,7 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.manipulation.JavaManipulation;
 
+import org.eclipse.jdt.internal.corext.callhierarchy.CallGraphIndex;
 import org.eclipse.jdt.internal.corext.fix.CleanUpRegistry;
 import org.eclipse.jdt.internal.corext.javadoc.JavaDocLocations;
 import org.eclipse.jdt.internal.corext.template.java.AbstractJavaContextType;
@@ -104,6 +106,7 @@ import org.eclipse.jdt.internal.ui.text.folding.JavaFoldingStructureProviderRegi
 import org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory;
 import org.eclipse.jdt.internal.ui.text.java.hover.JavaEditorTextHoverDescriptor;
 import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.template.contentassist.TemplateIndex;
 import org.eclipse.jdt.internal.ui.viewsupport.ImageDescriptorRegistry;
 import org.eclipse.jdt.internal.ui.viewsupport.ImagesOnFileSystemRegistry;
 import org.eclipse.jdt.internal.ui.viewsupport.ProblemMarkerManager;
@@ -144,6 +147,11 @@ public class JavaPlugin extends AbstractUIPlugin {
 	 * @since 3.0
 	 */
 	private static final String CODE_TEMPLATES_MIGRATION_KEY= "org.eclipse.jdt.ui.text.code_templates_migrated"; //$NON-NLS-1$
+	/**
+	 * The name of the file in the state location that stores the content assist history.
+	 * @since 3.8
+	 */
+	private static final String CONTENT_ASSIST_HISTORY_FILE= "contentAssistHistory.dat"; //$NON-NLS-1$
 
 	private static JavaPlugin fgJavaPlugin;
 
@@ -171,6 +179,11 @@ public class JavaPlugin extends AbstractUIPlugin {
 	 * @since 3.0
 	 */
 	private TemplateStore fTemplateStore;
+	/**
+	 * The prefix index of the template store for the java editor.
+	 * @since 3.8
+	 */
+	private TemplateIndex fTemplateIndex;
 	/**
 	 * The coded template store for the java editor.
 	 * @since 3.0
@@ -572,12 +585,18 @@ public class JavaPlugin extends AbstractUIPlugin {
 			}
 
 			if (fContentAssistHistory != null) {
-				ContentAssistHistory.store(fContentAssistHistory, getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
+				ContentAssistHistory.store(fContentAssistHistory, getContentAssistHistoryFile());
+				getPluginPreferences().setToDefault(PreferenceConstants.CODEASSIST_LRU_HISTORY);
 				fContentAssistHistory= null;
 			}
 
 			uninstallPreferenceStoreBackwardsCompatibility();
 
+			if (fTemplateIndex != null) {
+				fTemplateIndex.dispose();
+				fTemplateIndex= null;
+			}
+
 			if (fTemplateStore != null) {
 				fTemplateStore.stopListeningForPreferenceChanges();
 				fTemplateStore= null;
@@ -617,6 +636,8 @@ public class JavaPlugin extends AbstractUIPlugin {
 
 			QualifiedTypeNameHistory.getDefault().save();
 
+			CallGraphIndex.shutdown();
+
 			// must add here to guarantee that it is the first in the listener list
 
 			OpenTypeHistory.shutdown();
@@ -877,6 +898,19 @@ public class JavaPlugin extends AbstractUIPlugin {
 		return fTemplateStore;
 	}
 
+	/**
+	 * Returns the prefix index of the templates in the template store for the java editor
+	 * templates.
+	 *
+	 * @return the index of the java editor templates
+	 * @since 3.8
+	 */
+	public TemplateIndex getTemplateIndex() {
+		if (fTemplateIndex == null)
+			fTemplateIndex= new TemplateIndex(getTemplateStore(), getPreferenceStore(), TEMPLATES_KEY);
+		return fTemplateIndex;
+	}
+
 	/**
 	 * Private deprecated method to avoid deprecation warnings
 	 * 
@@ -1024,7 +1058,9 @@ public class JavaPlugin extends AbstractUIPlugin {
 	public ContentAssistHistory getContentAssistHistory() {
 		if (fContentAssistHistory == null) {
 			try {
-				fContentAssistHistory= ContentAssistHistory.load(getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
+				fContentAssistHistory= ContentAssistHistory.load(getContentAssistHistoryFile());
+				if (fContentAssistHistory == null) // migrate the history of earlier versions
+					fContentAssistHistory= ContentAssistHistory.load(getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
 			} catch (CoreException x) {
 				log(x);
 			}
@@ -1035,6 +1071,16 @@ public class JavaPlugin extends AbstractUIPlugin {
 		return fContentAssistHistory;
 	}
 
+	/**
+	 * Returns the file that stores the Java content assist history.
+	 *
+	 * @return the content assist history file
+	 * @since 3.8
+	 */
+	private File getContentAssistHistoryFile() {
+		return getStateLocation().append(CONTENT_ASSIST_HISTORY_FILE).toFile();
+	}
+
 	/**
 	 * Returns a section in the Java plugin's dialog settings. If the section doesn't exist yet, it is created.
 	 *
@@ -210,7 +210,14 @@ public final class JavaUIMessages extends NLS {
 	public static String Spelling_disable_info;
 	public static String Spelling_case_label;
 	public static String Spelling_error_case_label;
+	public static String Spelling_check_job;
 	public static String AbstractSpellingDictionary_encodingError;
+	public static String DumpReconcileTraceHandler_title;
+	public static String DumpReconcileTraceHandler_disabled;
+	public static String DumpReconcileTraceHandler_written;
+	public static String DumpReconcileTraceHandler_error;
+
+	public static String DefaultJavaFoldingStructureProvider_fillIn_job;
 
 	public static String JavaAnnotationHover_multipleMarkersAtThisLine;
 	public static String JavaEditor_codeassist_noCompletions;
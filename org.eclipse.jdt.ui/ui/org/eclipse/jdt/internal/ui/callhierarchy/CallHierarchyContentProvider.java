@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import java.lang.reflect.InvocationTargetException;
 import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.jface.operation.IRunnableContext;
 import org.eclipse.jface.operation.IRunnableWithProgress;
@@ -59,6 +60,15 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 
 	private final static Object[] EMPTY_ARRAY= new Object[0];
 
+	/**
+	 * The number of levels of callers that are found when the children of a caller node are
+	 * fetched: the children and, in one batched search, their children, so that expanding a child
+	 * does not search again.
+	 *
+	 * @since 3.8
+	 */
+	private static final int CALLER_LEVELS= 2;
+
     private DeferredTreeContentManager fManager;
     private CallHierarchyViewPart fPart;
 
@@ -71,7 +81,7 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
         }
 
         public void run(IProgressMonitor pm) {
-        	fCalls= fMethodWrapper.getCalls(pm);
+        	fCalls= CallHierarchyContentProvider.getCalls(fMethodWrapper, pm);
         }
 
         MethodWrapper[] getCalls() {
@@ -309,6 +319,29 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 		return false;
 	}
 
+	/**
+	 * Returns the calls of the given method wrapper. The callers of a caller node are found
+	 * together with the callers of those callers that can be searched in batches, see
+	 * {@link MethodWrapper#expandBreadthFirst(MethodWrapper[], int, IProgressMonitor)}.
+	 *
+	 * @param methodWrapper the method wrapper
+	 * @param monitor the progress monitor
+	 * @return the calls of the method wrapper
+	 * @since 3.8
+	 */
+	static MethodWrapper[] getCalls(MethodWrapper methodWrapper, IProgressMonitor monitor) {
+		int levels= 1;
+		if (methodWrapper instanceof CallerMethodWrapper && methodWrapper.getLevel() < CallHierarchyUI.getDefault().getMaxCallDepth())
+			levels= CALLER_LEVELS;
+		monitor.beginTask("", 2); //$NON-NLS-1$
+		try {
+			MethodWrapper.expandBreadthFirst(new MethodWrapper[] { methodWrapper }, levels, new SubProgressMonitor(monitor, 1));
+			return methodWrapper.getCalls(new SubProgressMonitor(monitor, 1));
+		} finally {
+			monitor.done();
+		}
+	}
+
 	protected Object[] fetchChildren(final MethodWrapper methodWrapper) {
         IRunnableContext context= JavaPlugin.getActiveWorkbenchWindow();
         MethodWrapperRunnable runnable= new MethodWrapperRunnable(methodWrapper);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -239,6 +239,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
     private ExpandWithConstructorsAction fExpandWithConstructorsAction;
     private RemoveFromViewAction fRemoveFromViewAction;
     private ShowSearchInDialogAction fShowSearchInDialogAction;
+    private UseCallGraphIndexAction fUseCallGraphIndexAction;
     private CompositeActionGroup fActionGroups;
     private CallHierarchyViewer fCallHierarchyViewer;
     private boolean fShowCallDetails;
@@ -728,6 +729,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
         }
         viewMenu.add(fieldSubMenu);
         viewMenu.add(fShowSearchInDialogAction);
+        viewMenu.add(fUseCallGraphIndexAction);
     }
 
 	@Override
@@ -1067,6 +1069,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
         fCopyAction= new CopyCallHierarchyAction(this, fClipboard, fCallHierarchyViewer);
         fSearchScopeActions = new SearchScopeActionGroup(this, fDialogSettings);
         fShowSearchInDialogAction= new ShowSearchInDialogAction(this, fCallHierarchyViewer);
+        fUseCallGraphIndexAction= new UseCallGraphIndexAction();
         fFiltersActionGroup = new CallHierarchyFiltersActionGroup(this,
                 fCallHierarchyViewer);
         fHistoryDropDownAction = new HistoryDropDownAction(this);
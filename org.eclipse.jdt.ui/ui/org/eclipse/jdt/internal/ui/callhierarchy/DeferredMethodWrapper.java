@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -62,7 +62,7 @@ public class DeferredMethodWrapper extends MethodWrapperWorkbenchAdapter impleme
     }
 
     private Object getCalls(IProgressMonitor monitor) {
-        return getMethodWrapper().getCalls(monitor);
+        return CallHierarchyContentProvider.getCalls(getMethodWrapper(), monitor);
     }
 
     /*
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.callhierarchy;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IAction;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+
+
+/**
+ * Toggles whether the call hierarchy is answered from the call graph index.
+ *
+ * @see org.eclipse.jdt.internal.corext.callhierarchy.CallGraphIndex
+ * @since 3.8
+ */
+class UseCallGraphIndexAction extends Action {
+
+	/**
+	 * Creates the action.
+	 */
+	public UseCallGraphIndexAction() {
+		super(CallHierarchyMessages.UseCallGraphIndexAction_label, IAction.AS_CHECK_BOX);
+		setDescription(CallHierarchyMessages.UseCallGraphIndexAction_description);
+		setChecked(CallHierarchy.getDefault().isCallGraphIndexEnabled());
+	}
+
+	/*
+	 * @see org.eclipse.jface.action.Action#run()
+	 */
+	@Override
+	public void run() {
+		CallHierarchy.getDefault().setCallGraphIndexEnabled(isChecked());
+	}
+}
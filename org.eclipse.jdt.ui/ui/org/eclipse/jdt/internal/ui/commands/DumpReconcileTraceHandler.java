@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.commands;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.dialogs.MessageDialog;
+
+import org.eclipse.ui.handlers.HandlerUtil;
+
+import org.eclipse.jdt.internal.corext.util.Messages;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.JavaUIMessages;
+import org.eclipse.jdt.internal.ui.text.ReconcileTrace;
+import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
+
+/**
+ * A command handler that writes the recorded reconcile trace as JSON file into the
+ * plug-in's state location.
+ *
+ * @see ReconcileTrace
+ * @since 3.8
+ */
+public class DumpReconcileTraceHandler extends AbstractHandler {
+
+	private static final String FILE_PREFIX= "reconcile-trace-"; //$NON-NLS-1$
+	private static final String FILE_EXTENSION= ".json"; //$NON-NLS-1$
+
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		Shell shell= HandlerUtil.getActiveShell(event);
+		String title= JavaUIMessages.DumpReconcileTraceHandler_title;
+
+		if (!ReconcileTrace.ENABLED) {
+			MessageDialog.openInformation(shell, title, JavaUIMessages.DumpReconcileTraceHandler_disabled);
+			return null;
+		}
+
+		File file= JavaPlugin.getDefault().getStateLocation().append(FILE_PREFIX + System.currentTimeMillis() + FILE_EXTENSION).toFile();
+		Writer writer= null;
+		try {
+			writer= new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); //$NON-NLS-1$
+			writer.write(ReconcileTrace.toJSON());
+			writer.close();
+			writer= null;
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+			MessageDialog.openError(shell, title, Messages.format(JavaUIMessages.DumpReconcileTraceHandler_error, BasicElementLabels.getPathLabel(file)));
+			return null;
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+
+		MessageDialog.openInformation(shell, title, Messages.format(JavaUIMessages.DumpReconcileTraceHandler_written, BasicElementLabels.getPathLabel(file)));
+		return null;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.javaeditor;
 
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
@@ -20,6 +25,16 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+
 import org.eclipse.ui.IPartListener2;
 import org.eclipse.ui.IWindowListener;
 import org.eclipse.ui.IWorkbenchPart;
@@ -27,8 +42,13 @@ import org.eclipse.ui.IWorkbenchPartReference;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 
+import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
@@ -37,6 +57,7 @@ import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
+import org.eclipse.jdt.internal.corext.util.LRUMap;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.SharedASTProvider;
@@ -48,6 +69,12 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 /**
  * Provides a shared AST for clients. The shared AST is
  * the AST of the active Java editor's input element.
+ * <p>
+ * The ASTs of recently active Java editors are kept in a small,
+ * softly referenced LRU cache so that switching back to an editor
+ * whose input has not been modified does not require to build
+ * the AST again.
+ * </p>
  *
  * @since 3.0
  */
@@ -202,12 +229,102 @@ public final class ASTProvider {
 		}
 	}
 
+	/**
+	 * An AST of a formerly active editor, together with the modification
+	 * stamp its Java element had when the AST was cached.
+	 *
+	 * @since 3.8
+	 */
+	private static class InactiveAST {
+
+		final SoftReference<CompilationUnit> fAST;
+		final long fModificationStamp;
+
+		InactiveAST(CompilationUnit ast, long modificationStamp) {
+			fAST= new SoftReference<CompilationUnit>(ast);
+			fModificationStamp= modificationStamp;
+		}
+	}
+
+	/**
+	 * Drops the ASTs of inactive editors whose type roots have changed. Since the bindings of an
+	 * AST point into other type roots, all ASTs are dropped unless the change is local to the
+	 * bodies of compilation units.
+	 *
+	 * @since 3.8
+	 */
+	private class ElementChangedListener implements IElementChangedListener {
+
+		/**
+		 * The flags of a compilation unit delta that do not change its structure.
+		 */
+		private static final int BODY_CHANGE_FLAGS= IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED
+				| IJavaElementDelta.F_AST_AFFECTED | IJavaElementDelta.F_PRIMARY_RESOURCE | IJavaElementDelta.F_PRIMARY_WORKING_COPY;
+
+		/*
+		 * @see org.eclipse.jdt.core.IElementChangedListener#elementChanged(org.eclipse.jdt.core.ElementChangedEvent)
+		 */
+		public void elementChanged(ElementChangedEvent event) {
+			synchronized (ASTProvider.this) {
+				if (fInactiveASTs.isEmpty())
+					return;
+			}
+			List<ITypeRoot> changed= new ArrayList<ITypeRoot>();
+			if (!collectBodyChanges(event.getDelta(), changed))
+				clearInactiveASTs();
+			else if (!changed.isEmpty())
+				removeInactiveASTs(changed);
+		}
+
+		/*
+		 * Collects the compilation units whose bodies have changed. Returns false if the delta
+		 * contains a change that is not local to the bodies of compilation units.
+		 */
+		private boolean collectBodyChanges(IJavaElementDelta delta, List<ITypeRoot> changed) {
+			IJavaElement element= delta.getElement();
+			int kind= delta.getKind();
+			int flags= delta.getFlags();
+			switch (element.getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+				case IJavaElement.JAVA_PROJECT:
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				case IJavaElement.PACKAGE_FRAGMENT:
+					// F_CONTENT reports changed non-Java resources
+					if (kind != IJavaElementDelta.CHANGED || (flags & ~(IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT)) != 0)
+						return false;
+					IJavaElementDelta[] children= delta.getAffectedChildren();
+					for (int i= 0; i < children.length; i++) {
+						if (!collectBodyChanges(children[i], changed))
+							return false;
+					}
+					return true;
+				case IJavaElement.COMPILATION_UNIT:
+					if (kind != IJavaElementDelta.CHANGED || (flags & ~BODY_CHANGE_FLAGS) != 0)
+						return false;
+					if ((flags & IJavaElementDelta.F_CONTENT) != 0) {
+						// a fine-grained delta without children only changes bodies
+						if ((flags & IJavaElementDelta.F_FINE_GRAINED) == 0 || delta.getAffectedChildren().length > 0)
+							return false;
+						changed.add((ITypeRoot) element);
+					}
+					return true;
+				default:
+					return false;
+			}
+		}
+	}
+
 	public static final int SHARED_AST_LEVEL= AST.JLS4;
 	public static final boolean SHARED_AST_STATEMENT_RECOVERY= true;
 	public static final boolean SHARED_BINDING_RECOVERY= true;
 
 	private static final String DEBUG_PREFIX= "ASTProvider > "; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of ASTs of inactive editors that are kept.
+	 * @since 3.8
+	 */
+	private static final int INACTIVE_AST_CACHE_SIZE= 8;
 
 	private ITypeRoot fReconcilingJavaElement;
 	private ITypeRoot fActiveJavaElement;
@@ -217,6 +334,42 @@ public final class ASTProvider {
 	private Object fWaitLock= new Object();
 	private volatile boolean fIsReconciling;
 	private IWorkbenchPart fActiveEditor;
+	private IElementChangedListener fElementChangedListener;
+
+	/**
+	 * The modification stamp of the contents from which {@link #fAST} has been built.
+	 * @since 3.8
+	 */
+	private long fASTModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
+	/**
+	 * The modification stamp of the contents of the element being reconciled, guarded by
+	 * <code>fReconcileLock</code>.
+	 * @since 3.8
+	 */
+	private long fReconcilingModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
+	/**
+	 * The ASTs of formerly active editors, guarded by <code>this</code>.
+	 * @since 3.8
+	 */
+	private final Map<ITypeRoot, InactiveAST> fInactiveASTs= new LRUMap<ITypeRoot, InactiveAST>(INACTIVE_AST_CACHE_SIZE) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ITypeRoot, InactiveAST> eldest) {
+			boolean remove= super.removeEldestEntry(eldest);
+			if (remove) {
+				fInactiveASTEvictions++;
+				if (DEBUG)
+					System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "evicting inactive AST for: " + ASTProvider.this.toString(eldest.getKey())); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return remove;
+		}
+	};
+	private int fInactiveASTHits;
+	private int fInactiveASTMisses;
+	private int fInactiveASTEvictions;
 
 
 	/**
@@ -248,6 +401,9 @@ public final class ASTProvider {
 		IWorkbenchWindow[] windows= PlatformUI.getWorkbench().getWorkbenchWindows();
 		for (int i= 0, length= windows.length; i < length; i++)
 			windows[i].getPartService().addPartListener(fActivationListener);
+
+		fElementChangedListener= new ElementChangedListener();
+		JavaCore.addElementChangedListener(fElementChangedListener, ElementChangedEvent.POST_CHANGE);
 	}
 
 	void activeJavaEditorChanged(IWorkbenchPart editor) {
@@ -257,9 +413,18 @@ public final class ASTProvider {
 			javaElement= ((JavaEditor)editor).getInputJavaElement();
 
 		synchronized (this) {
+			if (fAST != null && fActiveJavaElement != null && !fActiveJavaElement.equals(javaElement) && !isReconciling(fActiveJavaElement))
+				putInactiveAST(fActiveJavaElement, fAST, fASTModificationStamp);
+
 			fActiveEditor= editor;
 			fActiveJavaElement= javaElement;
-			cache(null, javaElement);
+			cache(null, javaElement, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
+
+			if (javaElement != null) {
+				CompilationUnit ast= takeInactiveAST(javaElement);
+				if (ast != null)
+					cache(ast, javaElement, getModificationStamp(javaElement));
+			}
 		}
 
 		if (DEBUG)
@@ -284,7 +449,176 @@ public final class ASTProvider {
 	 * @return <code>true</code> if the given AST is the cached one
 	 */
 	public boolean isCached(CompilationUnit ast) {
-		return ast != null && fAST == ast;
+		if (ast == null)
+			return false;
+		if (fAST == ast)
+			return true;
+
+		synchronized (this) {
+			for (Iterator<InactiveAST> iter= fInactiveASTs.values().iterator(); iter.hasNext();) {
+				if (iter.next().fAST.get() == ast)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of requests that have been served from the
+	 * cache of inactive editor ASTs.
+	 *
+	 * @return the number of cache hits
+	 * @since 3.8
+	 */
+	public synchronized int getInactiveASTCacheHits() {
+		return fInactiveASTHits;
+	}
+
+	/**
+	 * Returns the number of requests that could not be served from the
+	 * cache of inactive editor ASTs.
+	 *
+	 * @return the number of cache misses
+	 * @since 3.8
+	 */
+	public synchronized int getInactiveASTCacheMisses() {
+		return fInactiveASTMisses;
+	}
+
+	/**
+	 * Returns the number of ASTs that have been evicted from the cache
+	 * of inactive editor ASTs because the cache was full.
+	 *
+	 * @return the number of cache evictions
+	 * @since 3.8
+	 */
+	public synchronized int getInactiveASTCacheEvictions() {
+		return fInactiveASTEvictions;
+	}
+
+	/**
+	 * Remembers the AST of an editor that is no longer active. Nothing is remembered if the AST
+	 * is older than the current contents of the Java element.
+	 *
+	 * @param javaElement the Java element of the AST
+	 * @param ast the AST
+	 * @param stamp the modification stamp of the contents from which the AST has been built
+	 * @since 3.8
+	 */
+	private synchronized void putInactiveAST(ITypeRoot javaElement, CompilationUnit ast, long stamp) {
+		if (stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP || stamp != getModificationStamp(javaElement)) {
+			if (DEBUG)
+				System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "not keeping out-dated AST: " + toString(ast) + " for: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			return;
+		}
+
+		if (DEBUG)
+			System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "keeping inactive AST: " + toString(ast) + " for: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		fInactiveASTs.put(javaElement, new InactiveAST(ast, stamp));
+	}
+
+	/**
+	 * Returns the AST kept for the given inactive Java element if it is
+	 * still up to date.
+	 *
+	 * @param javaElement the Java element
+	 * @param remove <code>true</code> if the AST should be removed from the cache
+	 * @return the AST or <code>null</code> if none is available
+	 * @since 3.8
+	 */
+	private synchronized CompilationUnit getInactiveAST(ITypeRoot javaElement, boolean remove) {
+		InactiveAST entry= remove ? fInactiveASTs.remove(javaElement) : fInactiveASTs.get(javaElement);
+		CompilationUnit ast= null;
+		if (entry != null) {
+			ast= entry.fAST.get();
+			if (ast != null && entry.fModificationStamp != getModificationStamp(javaElement))
+				ast= null;
+			if (ast == null && !remove)
+				fInactiveASTs.remove(javaElement);
+		}
+
+		if (ast != null) {
+			fInactiveASTHits++;
+			if (DEBUG)
+				System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "returning inactive AST: " + toString(ast) + " for: " + toString(javaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} else
+			fInactiveASTMisses++;
+
+		return ast;
+	}
+
+	/**
+	 * Removes and returns the AST kept for the given Java element
+	 * if it is still up to date.
+	 *
+	 * @param javaElement the Java element
+	 * @return the AST or <code>null</code> if none is available
+	 * @since 3.8
+	 */
+	private CompilationUnit takeInactiveAST(ITypeRoot javaElement) {
+		return getInactiveAST(javaElement, true);
+	}
+
+	/**
+	 * Drops the ASTs kept for the given type roots.
+	 *
+	 * @param typeRoots the changed type roots
+	 * @since 3.8
+	 */
+	private synchronized void removeInactiveASTs(List<ITypeRoot> typeRoots) {
+		for (int i= 0; i < typeRoots.size(); i++) {
+			ITypeRoot typeRoot= typeRoots.get(i);
+			if (fInactiveASTs.remove(typeRoot) != null && DEBUG)
+				System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "dropping changed inactive AST for: " + toString(typeRoot)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Drops all ASTs kept for inactive editors.
+	 *
+	 * @since 3.8
+	 */
+	private synchronized void clearInactiveASTs() {
+		if (fInactiveASTs.isEmpty())
+			return;
+
+		if (DEBUG)
+			System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "dropping " + fInactiveASTs.size() + " inactive AST(s)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		fInactiveASTs.clear();
+	}
+
+	/**
+	 * Returns the modification stamp of the given Java element's contents.
+	 * <p>
+	 * For a compilation unit that is connected to a file buffer, this is the
+	 * stamp of the buffer's document, otherwise the stamp of the underlying
+	 * resource. Elements without a resource, e.g. class files from external
+	 * archives, never change and get a constant stamp.
+	 * </p>
+	 *
+	 * @param javaElement the Java element
+	 * @return the modification stamp or {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP}
+	 * @since 3.8
+	 */
+	private static long getModificationStamp(ITypeRoot javaElement) {
+		IResource resource= javaElement.getResource();
+		if (resource == null)
+			return 0;
+
+		if (javaElement instanceof ICompilationUnit && resource instanceof IFile) {
+			IPath path= resource.getFullPath();
+			ITextFileBuffer buffer= FileBuffers.getTextFileBufferManager().getTextFileBuffer(path, LocationKind.IFILE);
+			if (buffer != null) {
+				IDocument document= buffer.getDocument();
+				if (document instanceof IDocumentExtension4)
+					return ((IDocumentExtension4)document).getModificationStamp();
+				return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+			}
+		}
+		long stamp= resource.getModificationStamp();
+		return stamp == IResource.NULL_STAMP ? IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP : stamp;
 	}
 
 	/**
@@ -315,9 +649,10 @@ public final class ASTProvider {
 
 		synchronized (fReconcileLock) {
 			fReconcilingJavaElement= javaElement;
+			fReconcilingModificationStamp= getModificationStamp(javaElement);
 			fIsReconciling= true;
 		}
-		cache(null, javaElement);
+		cache(null, javaElement, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
 	}
 
 	/**
@@ -332,8 +667,9 @@ public final class ASTProvider {
 			System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "disposing AST: " + toString(fAST) + " for: " + toString(fActiveJavaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
 		fAST= null;
+		fASTModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
-		cache(null, null);
+		cache(null, null, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
 	}
 
 	/**
@@ -372,8 +708,9 @@ public final class ASTProvider {
 	 *
 	 * @param ast the ast
 	 * @param javaElement the java element
+	 * @param stamp the modification stamp of the contents from which the AST has been built
 	 */
-	private synchronized void cache(CompilationUnit ast, ITypeRoot javaElement) {
+	private synchronized void cache(CompilationUnit ast, ITypeRoot javaElement, long stamp) {
 
 		if (fActiveJavaElement != null && !fActiveJavaElement.equals(javaElement)) {
 			if (DEBUG && javaElement != null) // don't report call from disposeAST()
@@ -388,6 +725,7 @@ public final class ASTProvider {
 			disposeAST();
 
 		fAST= ast;
+		fASTModificationStamp= stamp;
 
 		// Signal AST change
 		synchronized (fWaitLock) {
@@ -417,6 +755,11 @@ public final class ASTProvider {
 		boolean isActiveElement;
 		synchronized (this) {
 			isActiveElement= input.equals(fActiveJavaElement);
+			if (!isActiveElement && !fInactiveASTs.isEmpty()) {
+				CompilationUnit ast= getInactiveAST(input, false);
+				if (ast != null)
+					return ast;
+			}
 			if (isActiveElement) {
 				if (fAST != null) {
 					if (DEBUG)
@@ -586,7 +929,11 @@ public final class ASTProvider {
 		PlatformUI.getWorkbench().removeWindowListener(fActivationListener);
 		fActivationListener= null;
 
+		JavaCore.removeElementChangedListener(fElementChangedListener);
+		fElementChangedListener= null;
+
 		disposeAST();
+		clearInactiveASTs();
 
 		synchronized (fWaitLock) {
 			fWaitLock.notifyAll();
@@ -621,7 +968,7 @@ public final class ASTProvider {
 
 				return;
 			}
-			cache(ast, javaElement);
+			cache(ast, javaElement, fReconcilingModificationStamp);
 		}
 	}
 
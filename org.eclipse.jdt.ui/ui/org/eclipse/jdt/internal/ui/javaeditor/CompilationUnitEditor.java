@@ -135,9 +135,11 @@ import org.eclipse.jdt.internal.ui.compare.LocalHistoryActionGroup;
 import org.eclipse.jdt.internal.ui.preferences.SaveParticipantPreferencePage;
 import org.eclipse.jdt.internal.ui.text.ContentAssistPreference;
 import org.eclipse.jdt.internal.ui.text.JavaHeuristicScanner;
+import org.eclipse.jdt.internal.ui.text.ReconcileTrace;
 import org.eclipse.jdt.internal.ui.text.SmartBackspaceManager;
 import org.eclipse.jdt.internal.ui.text.Symbols;
 import org.eclipse.jdt.internal.ui.text.correction.CorrectionCommandInstaller;
+import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant;
 import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener;
 import org.eclipse.jdt.internal.ui.text.java.JavaFormattingContext;
 
@@ -1009,6 +1011,12 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 	 */
 	private final ListenerList fReconcilingListeners= new ListenerList(ListenerList.IDENTITY);
 
+	/**
+	 * Dispatcher of the reconciled AST to the reconciling AST participants.
+	 * @since 3.8
+	 */
+	private final ReconcilingASTDispatcher fReconcilingASTDispatcher= new ReconcilingASTDispatcher();
+
 	/**
 	 * Mutex for the reconciler. See https://bugs.eclipse.org/bugs/show_bug.cgi?id=63898
 	 * for a description of the problem.
@@ -1409,7 +1417,7 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 		if (fOverrideIndicatorManager == null)
 			return;
 
-		addReconcileListener(fOverrideIndicatorManager);
+		addReconcileParticipant(fOverrideIndicatorManager);
 	}
 
 	/*
@@ -1419,7 +1427,7 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 	@Override
 	protected void uninstallOverrideIndicator() {
 		if (fOverrideIndicatorManager != null)
-			removeReconcileListener(fOverrideIndicatorManager);
+			removeReconcileParticipant(fOverrideIndicatorManager);
 		super.uninstallOverrideIndicator();
 	}
 
@@ -1640,8 +1648,13 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 
 		// Notify listeners
 		Object[] listeners = fReconcilingListeners.getListeners();
-		for (int i = 0, length= listeners.length; i < length; ++i)
+		for (int i = 0, length= listeners.length; i < length; ++i) {
+			long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 			((IJavaReconcilingListener)listeners[i]).aboutToBeReconciled();
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_ABOUT_TO_BE_RECONCILED, listeners[i].getClass().getName(), start);
+		}
+		fReconcilingASTDispatcher.aboutToBeReconciled();
 	}
 
 	/*
@@ -1656,12 +1669,22 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 			return;
 
 		// Always notify AST provider
+		long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 		javaPlugin.getASTProvider().reconciled(ast, getInputJavaElement(), progressMonitor);
+		if (ReconcileTrace.ENABLED)
+			ReconcileTrace.record(ReconcileTrace.PHASE_AST_PROVIDER, null, start);
 
 		// Notify listeners
 		Object[] listeners = fReconcilingListeners.getListeners();
-		for (int i = 0, length= listeners.length; i < length; ++i)
+		for (int i = 0, length= listeners.length; i < length; ++i) {
+			start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 			((IJavaReconcilingListener)listeners[i]).reconciled(ast, forced, progressMonitor);
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_RECONCILED, listeners[i].getClass().getName(), start);
+		}
+
+		// Traverse the AST once for all participants
+		fReconcilingASTDispatcher.reconciled(ast, forced, progressMonitor);
 
 		// Update Java Outline page selection
 		if (!forced && !progressMonitor.isCanceled()) {
@@ -1717,6 +1740,28 @@ public class CompilationUnitEditor extends JavaEditor implements IJavaReconcilin
 		}
 	}
 
+	/**
+	 * Adds the given participant to the shared traversal of the reconciled AST.
+	 * Has no effect if an identical participant is already registered.
+	 *
+	 * @param participant the reconciling AST participant to be added
+	 * @since 3.8
+	 */
+	final void addReconcileParticipant(IJavaReconcilingASTParticipant participant) {
+		fReconcilingASTDispatcher.addParticipant(participant);
+	}
+
+	/**
+	 * Removes the given participant from the shared traversal of the reconciled AST.
+	 * Has no effect if an identical participant was not already registered.
+	 *
+	 * @param participant the reconciling AST participant to be removed
+	 * @since 3.8
+	 */
+	final void removeReconcileParticipant(IJavaReconcilingASTParticipant participant) {
+		fReconcilingASTDispatcher.removeParticipant(participant);
+	}
+
 	/*
 	 * @see AbstractTextEditor#rememberSelection()
 	 */
@@ -113,6 +113,7 @@ final class JavaEditorMessages extends NLS {
 	public static String OverrideIndicatorManager_open_error_title;
 	public static String OverrideIndicatorManager_open_error_message;
 	public static String OverrideIndicatorManager_open_error_messageHasLogEntry;
+	public static String ReconcilingASTDispatcher_job;
 	public static String SemanticHighlighting_job;
 	public static String SemanticHighlighting_field;
 	public static String SemanticHighlighting_staticField;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,10 @@
 
 package org.eclipse.jdt.internal.ui.javaeditor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -47,6 +49,7 @@ import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.SharedASTProvider;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant;
 import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener;
 import org.eclipse.jdt.internal.ui.util.ExceptionHandler;
 import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
@@ -57,7 +60,30 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
  *
  * @since 3.0
  */
-class OverrideIndicatorManager implements IJavaReconcilingListener {
+class OverrideIndicatorManager implements IJavaReconcilingListener, IJavaReconcilingASTParticipant {
+
+	/**
+	 * Collects the method declarations of an AST.
+	 *
+	 * @since 3.8
+	 */
+	private static class MethodDeclarationCollector extends ASTVisitor {
+
+		private final List<MethodDeclaration> fMethodDeclarations= new ArrayList<MethodDeclaration>();
+
+		public MethodDeclarationCollector() {
+			super(false);
+		}
+
+		/*
+		 * @see org.eclipse.jdt.core.dom.ASTVisitor#visit(org.eclipse.jdt.core.dom.MethodDeclaration)
+		 */
+		@Override
+		public boolean visit(MethodDeclaration node) {
+			fMethodDeclarations.add(node);
+			return true;
+		}
+	}
 
 	/**
 	 * Overwrite and override indicator annotation.
@@ -129,6 +155,11 @@ class OverrideIndicatorManager implements IJavaReconcilingListener {
 	private Object fAnnotationModelLockObject;
 	private Annotation[] fOverrideAnnotations;
 	private ITypeRoot fJavaElement;
+	/**
+	 * The collector of the current shared AST traversal.
+	 * @since 3.8
+	 */
+	private volatile MethodDeclarationCollector fCollector;
 
 
 	public OverrideIndicatorManager(IAnnotationModel annotationModel, ITypeRoot javaElement, CompilationUnit ast) {
@@ -171,41 +202,50 @@ class OverrideIndicatorManager implements IJavaReconcilingListener {
 		if (ast == null || progressMonitor.isCanceled())
 			return;
 
+		MethodDeclarationCollector collector= new MethodDeclarationCollector();
+		ast.accept(collector);
+		updateAnnotations(collector.fMethodDeclarations, progressMonitor);
+	}
+
+	/**
+	 * Updates the override and implements annotations based
+	 * on the given method declarations.
+	 *
+	 * @param methodDeclarations the method declarations of the compilation unit AST
+	 * @param progressMonitor the progress monitor
+	 * @since 3.8
+	 */
+	private void updateAnnotations(List<MethodDeclaration> methodDeclarations, IProgressMonitor progressMonitor) {
+
 		final Map<Annotation, Position> annotationMap= new HashMap<Annotation, Position>(50);
 
-		ast.accept(new ASTVisitor(false) {
-			/*
-			 * @see org.eclipse.jdt.core.dom.ASTVisitor#visit(org.eclipse.jdt.core.dom.MethodDeclaration)
-			 */
-			@Override
-			public boolean visit(MethodDeclaration node) {
-				IMethodBinding binding= node.resolveBinding();
-				if (binding != null) {
-					IMethodBinding definingMethod= Bindings.findOverriddenMethod(binding, true);
-					if (definingMethod != null) {
-
-						ITypeBinding definingType= definingMethod.getDeclaringClass();
-						String qualifiedMethodName= definingType.getQualifiedName() + "." + binding.getName(); //$NON-NLS-1$
-
-						boolean isImplements= JdtFlags.isAbstract(definingMethod);
-						String text;
-						if (isImplements)
-							text= Messages.format(JavaEditorMessages.OverrideIndicatorManager_implements, BasicElementLabels.getJavaElementName(qualifiedMethodName));
-						else
-							text= Messages.format(JavaEditorMessages.OverrideIndicatorManager_overrides, BasicElementLabels.getJavaElementName(qualifiedMethodName));
-
-						SimpleName name= node.getName();
-						Position position= new Position(name.getStartPosition(), name.getLength());
-
-						annotationMap.put(
-								new OverrideIndicator(isImplements, text, binding.getKey()),
-								position);
+		for (int i= 0, size= methodDeclarations.size(); i < size; i++) {
+			MethodDeclaration node= methodDeclarations.get(i);
+			IMethodBinding binding= node.resolveBinding();
+			if (binding != null) {
+				IMethodBinding definingMethod= Bindings.findOverriddenMethod(binding, true);
+				if (definingMethod != null) {
+
+					ITypeBinding definingType= definingMethod.getDeclaringClass();
+					String qualifiedMethodName= definingType.getQualifiedName() + "." + binding.getName(); //$NON-NLS-1$
+
+					boolean isImplements= JdtFlags.isAbstract(definingMethod);
+					String text;
+					if (isImplements)
+						text= Messages.format(JavaEditorMessages.OverrideIndicatorManager_implements, BasicElementLabels.getJavaElementName(qualifiedMethodName));
+					else
+						text= Messages.format(JavaEditorMessages.OverrideIndicatorManager_overrides, BasicElementLabels.getJavaElementName(qualifiedMethodName));
+
+					SimpleName name= node.getName();
+					Position position= new Position(name.getStartPosition(), name.getLength());
+
+					annotationMap.put(
+							new OverrideIndicator(isImplements, text, binding.getKey()),
+							position);
 
-					}
 				}
-				return true;
 			}
-		});
+		}
 
 		if (progressMonitor.isCanceled())
 			return;
@@ -255,5 +295,28 @@ class OverrideIndicatorManager implements IJavaReconcilingListener {
 	public void reconciled(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor) {
 		updateAnnotations(ast, progressMonitor);
 	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant#prepareReconcile(org.eclipse.jdt.core.dom.CompilationUnit, boolean, org.eclipse.core.runtime.IProgressMonitor)
+	 * @since 3.8
+	 */
+	public ASTVisitor prepareReconcile(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor) {
+		if (ast == null || progressMonitor.isCanceled())
+			return null;
+
+		fCollector= new MethodDeclarationCollector();
+		return fCollector;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant#completeReconcile(org.eclipse.jdt.core.dom.CompilationUnit, boolean, boolean, org.eclipse.core.runtime.IProgressMonitor)
+	 * @since 3.8
+	 */
+	public void completeReconcile(CompilationUnit ast, boolean forced, boolean traversed, IProgressMonitor progressMonitor) {
+		MethodDeclarationCollector collector= fCollector;
+		fCollector= null;
+		if (collector != null && traversed && !progressMonitor.isCanceled())
+			updateAnnotations(collector.fMethodDeclarations, progressMonitor);
+	}
 }
 
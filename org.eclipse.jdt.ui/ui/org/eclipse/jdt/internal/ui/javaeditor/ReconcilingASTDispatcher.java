@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.corext.dom.CompositeASTVisitor;
+
+import org.eclipse.jdt.internal.ui.text.ReconcileTrace;
+import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant;
+import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener;
+
+
+/**
+ * Dispatches the reconciled AST to the {@link IJavaReconcilingASTParticipant}s of an editor.
+ * <p>
+ * The AST is traversed once with a {@link CompositeASTVisitor} that combines the visitors of
+ * all participants. Afterwards, the participants complete their work concurrently: all but
+ * the first participant complete in background jobs while the first one completes in the
+ * reconciler thread, which then waits for the jobs.
+ * </p>
+ *
+ * @since 3.8
+ */
+final class ReconcilingASTDispatcher implements IJavaReconcilingListener {
+
+	/** The participants */
+	private final ListenerList fParticipants= new ListenerList(ListenerList.IDENTITY);
+
+	/**
+	 * Adds the given participant. Has no effect if an identical participant is already registered.
+	 *
+	 * @param participant the participant to add
+	 */
+	public void addParticipant(IJavaReconcilingASTParticipant participant) {
+		fParticipants.add(participant);
+	}
+
+	/**
+	 * Removes the given participant. Has no effect if an identical participant is not registered.
+	 *
+	 * @param participant the participant to remove
+	 */
+	public void removeParticipant(IJavaReconcilingASTParticipant participant) {
+		fParticipants.remove(participant);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener#aboutToBeReconciled()
+	 */
+	public void aboutToBeReconciled() {
+		Object[] participants= fParticipants.getListeners();
+		for (int i= 0; i < participants.length; i++)
+			((IJavaReconcilingASTParticipant) participants[i]).aboutToBeReconciled();
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener#reconciled(org.eclipse.jdt.core.dom.CompilationUnit, boolean, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	public void reconciled(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor) {
+		Object[] participants= fParticipants.getListeners();
+		List<IJavaReconcilingASTParticipant> prepared= new ArrayList<IJavaReconcilingASTParticipant>(participants.length);
+		List<ASTVisitor> visitors= new ArrayList<ASTVisitor>(participants.length);
+		boolean traversed= false;
+		try {
+			for (int i= 0; i < participants.length; i++) {
+				IJavaReconcilingASTParticipant participant= (IJavaReconcilingASTParticipant) participants[i];
+				long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
+				ASTVisitor visitor= participant.prepareReconcile(ast, forced, progressMonitor);
+				if (ReconcileTrace.ENABLED)
+					ReconcileTrace.record(ReconcileTrace.PHASE_PREPARE, participant.getClass().getName(), start);
+				if (visitor != null) {
+					prepared.add(participant);
+					visitors.add(visitor);
+				}
+			}
+
+			if (ast == null || visitors.isEmpty() || progressMonitor.isCanceled())
+				return;
+
+			long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
+			if (visitors.size() == 1)
+				ast.accept(visitors.get(0));
+			else
+				ast.accept(new CompositeASTVisitor(visitors.toArray(new ASTVisitor[visitors.size()])));
+			traversed= true;
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_AST_TRAVERSAL, null, start);
+		} finally {
+			complete(prepared, ast, forced, traversed, progressMonitor);
+		}
+	}
+
+	/**
+	 * Completes the given participants, concurrently if there are several of them.
+	 *
+	 * @param participants the participants that have taken part in the traversal
+	 * @param ast the compilation unit AST
+	 * @param forced <code>true</code> iff this reconciliation was forced
+	 * @param traversed <code>true</code> iff the whole AST has been traversed
+	 * @param progressMonitor the progress monitor
+	 */
+	private void complete(List<IJavaReconcilingASTParticipant> participants, final CompilationUnit ast, final boolean forced, final boolean traversed, final IProgressMonitor progressMonitor) {
+		int size= participants.size();
+		if (size == 0)
+			return;
+
+		if (size == 1 || Runtime.getRuntime().availableProcessors() == 1) {
+			for (int i= 0; i < size; i++)
+				completeParticipant(participants.get(i), ast, forced, traversed, progressMonitor);
+			return;
+		}
+
+		Job[] jobs= new Job[size - 1];
+		for (int i= 1; i < size; i++) {
+			final IJavaReconcilingASTParticipant participant= participants.get(i);
+			Job job= new Job(JavaEditorMessages.ReconcilingASTDispatcher_job) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					completeParticipant(participant, ast, forced, traversed, progressMonitor);
+					return Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			job.setPriority(Job.SHORT);
+			job.schedule();
+			jobs[i - 1]= job;
+		}
+
+		try {
+			completeParticipant(participants.get(0), ast, forced, traversed, progressMonitor);
+		} finally {
+			boolean interrupted= false;
+			for (int i= 0; i < jobs.length; i++) {
+				while (true) {
+					try {
+						jobs[i].join();
+						break;
+					} catch (InterruptedException e) {
+						// the participants must have completed before the next reconcile starts
+						interrupted= true;
+					}
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Completes the given participant.
+	 *
+	 * @param participant the participant to complete
+	 * @param ast the compilation unit AST
+	 * @param forced <code>true</code> iff this reconciliation was forced
+	 * @param traversed <code>true</code> iff the whole AST has been traversed
+	 * @param progressMonitor the progress monitor
+	 */
+	private static void completeParticipant(IJavaReconcilingASTParticipant participant, CompilationUnit ast, boolean forced, boolean traversed, IProgressMonitor progressMonitor) {
+		long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
+		participant.completeReconcile(ast, forced, traversed, progressMonitor);
+		if (ReconcileTrace.ENABLED)
+			ReconcileTrace.record(ReconcileTrace.PHASE_COMPLETE, participant.getClass().getName(), start);
+	}
+}
@@ -35,6 +35,7 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager.HighlightedPosition;
 import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager.Highlighting;
 import org.eclipse.jdt.internal.ui.text.JavaPresentationReconciler;
+import org.eclipse.jdt.internal.ui.text.ViewportWindow;
 
 
 /**
@@ -241,6 +242,67 @@ public class SemanticHighlightingPresenter implements ITextPresentationListener,
 	/** <code>true</code> iff the current reconcile is canceled. */
 	private boolean fIsCanceled= false;
 
+	/**
+	 * Dirty region lock.
+	 * @since 3.8
+	 */
+	private final Object fDirtyRegionLock= new Object();
+	/**
+	 * Start offset of the document range changed since the last reconcile, <code>-1</code> if
+	 * unchanged.
+	 * @since 3.8
+	 */
+	private int fDirtyStart= -1;
+	/**
+	 * End offset (exclusive) of the document range changed since the last reconcile.
+	 * @since 3.8
+	 */
+	private int fDirtyEnd= -1;
+	/**
+	 * <code>true</code> iff the whole document has to be reconciled.
+	 * @since 3.8
+	 */
+	private boolean fIsFullyDirty= true;
+	/**
+	 * Start offset of the dirty range handed out to the running reconcile, <code>-1</code> if
+	 * none.
+	 * @since 3.8
+	 */
+	private int fPendingDirtyStart= -1;
+	/**
+	 * End offset (exclusive) of the dirty range handed out to the running reconcile.
+	 * @since 3.8
+	 */
+	private int fPendingDirtyEnd= -1;
+	/**
+	 * <code>true</code> iff the running reconcile covers the whole document.
+	 * @since 3.8
+	 */
+	private boolean fIsPendingFullyDirty= false;
+	/**
+	 * <code>true</code> iff the positions are only materialized in the window from
+	 * {@link #fWindowStart} to {@link #fWindowEnd}, <code>false</code> if they are
+	 * materialized in the whole document.
+	 * @since 3.8
+	 */
+	private boolean fHasWindow= false;
+	/**
+	 * Start offset of the window in which the positions are materialized.
+	 * @since 3.8
+	 */
+	private int fWindowStart= -1;
+	/**
+	 * End offset (exclusive) of the window in which the positions are materialized.
+	 * @since 3.8
+	 */
+	private int fWindowEnd= -1;
+	/**
+	 * The window around the visible lines in which the highlighted positions of documents with
+	 * more than {@link ViewportWindow#THRESHOLD} lines are materialized.
+	 * @since 3.8
+	 */
+	private final ViewportWindow fViewportWindow= new ViewportWindow();
+
 	/**
 	 * Creates and returns a new highlighted position with the given offset, length and highlighting.
 	 * <p>
@@ -271,6 +333,263 @@ public class SemanticHighlightingPresenter implements ITextPresentationListener,
 		}
 	}
 
+	/**
+	 * Adds all current positions that overlap the given range to the given list.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @param list The list
+	 * @param offset The range offset
+	 * @param length The range length
+	 * @since 3.8
+	 */
+	public void addAllPositions(List<Position> list, int offset, int length) {
+		int end= offset + length;
+		synchronized (fPositionLock) {
+			int i= computeIndexAtOffset(fPositions, offset);
+			if (i > 0) {
+				Position previous= fPositions.get(i - 1);
+				if (previous.getOffset() + previous.getLength() > offset)
+					list.add(previous);
+			}
+			for (int n= fPositions.size(); i < n; i++) {
+				Position position= fPositions.get(i);
+				if (position.getOffset() >= end)
+					break;
+				list.add(position);
+			}
+		}
+	}
+
+	/**
+	 * Returns the document range that changed since the last reconcile and hands it out to the
+	 * reconcile that is about to start. The caller must report the outcome of that reconcile with
+	 * {@link #dirtyRegionReconciled(boolean)}.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @return the changed range or <code>null</code> if the whole document has to be reconciled
+	 * @since 3.8
+	 */
+	public IRegion takeDirtyRegion() {
+		synchronized (fDirtyRegionLock) {
+			IRegion region= null;
+			if (!fIsFullyDirty && fDirtyStart != -1)
+				region= new Region(fDirtyStart, fDirtyEnd - fDirtyStart);
+
+			fIsPendingFullyDirty= region == null;
+			fPendingDirtyStart= fDirtyStart;
+			fPendingDirtyEnd= fDirtyEnd;
+			fIsFullyDirty= false;
+			fDirtyStart= -1;
+			fDirtyEnd= -1;
+			return region;
+		}
+	}
+
+	/**
+	 * Informs this presenter about the outcome of the reconcile that took the dirty region. If the
+	 * reconcile did not complete, the range is marked dirty again.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @param completed <code>true</code> iff the reconcile has updated the presentation
+	 * @since 3.8
+	 */
+	public void dirtyRegionReconciled(boolean completed) {
+		synchronized (fDirtyRegionLock) {
+			if (!completed) {
+				fIsFullyDirty|= fIsPendingFullyDirty;
+				if (fPendingDirtyStart != -1) {
+					if (fDirtyStart == -1) {
+						fDirtyStart= fPendingDirtyStart;
+						fDirtyEnd= fPendingDirtyEnd;
+					} else {
+						fDirtyStart= Math.min(fDirtyStart, fPendingDirtyStart);
+						fDirtyEnd= Math.max(fDirtyEnd, fPendingDirtyEnd);
+					}
+				}
+			}
+			fIsPendingFullyDirty= false;
+			fPendingDirtyStart= -1;
+			fPendingDirtyEnd= -1;
+		}
+	}
+
+	/**
+	 * Marks the whole document as dirty.
+	 *
+	 * @since 3.8
+	 */
+	private void markFullyDirty() {
+		synchronized (fDirtyRegionLock) {
+			fIsFullyDirty= true;
+			fDirtyStart= -1;
+			fDirtyEnd= -1;
+			fHasWindow= false;
+		}
+	}
+
+	/**
+	 * Updates the visible lines from the viewer.
+	 * <p>
+	 * NOTE: Called from UI thread.
+	 * </p>
+	 *
+	 * @since 3.8
+	 */
+	public void updateVisibleLines() {
+		JavaSourceViewer sourceViewer= fSourceViewer;
+		if (sourceViewer != null)
+			fViewportWindow.updateVisibleLines(sourceViewer);
+	}
+
+	/**
+	 * Computes the window in which the highlighted positions have to be materialized: the
+	 * visible lines extended by the given number of pages above and below.
+	 * <p>
+	 * NOTE: Also called from background thread.
+	 * </p>
+	 *
+	 * @param pages the number of pages to add above and below the visible lines
+	 * @return the window or <code>null</code> if the positions have to be materialized in the
+	 *         whole document
+	 * @since 3.8
+	 */
+	public IRegion computeWindow(int pages) {
+		JavaSourceViewer sourceViewer= fSourceViewer;
+		IDocument document= sourceViewer != null ? sourceViewer.getDocument() : null;
+		if (document == null)
+			return null;
+
+		return fViewportWindow.computeWindow(document, pages);
+	}
+
+	/**
+	 * Tells whether the highlighted positions are materialized in the given window.
+	 * <p>
+	 * NOTE: Also called from background thread.
+	 * </p>
+	 *
+	 * @param window the window or <code>null</code> for the whole document
+	 * @return <code>true</code> iff the positions are materialized in the given window
+	 * @since 3.8
+	 */
+	public boolean isMaterialized(IRegion window) {
+		synchronized (fDirtyRegionLock) {
+			if (window == null)
+				return !fHasWindow;
+			return fHasWindow && fWindowStart <= window.getOffset() && window.getOffset() + window.getLength() <= fWindowEnd;
+		}
+	}
+
+	/**
+	 * Sets the window in which the highlighted positions have been materialized by a complete
+	 * reconcile.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @param window the window or <code>null</code> for the whole document
+	 * @since 3.8
+	 */
+	public void setMaterializedWindow(IRegion window) {
+		synchronized (fDirtyRegionLock) {
+			fHasWindow= window != null;
+			fWindowStart= window != null ? window.getOffset() : -1;
+			fWindowEnd= window != null ? window.getOffset() + window.getLength() : -1;
+		}
+	}
+
+	/**
+	 * Marks the range spanned by the given positions as dirty, so that the next reconcile
+	 * recomputes them.
+	 *
+	 * @param addedPositions the added positions of a dropped update
+	 * @param removedPositions the removed positions of a dropped update
+	 * @since 3.8
+	 */
+	private void markDirty(HighlightedPosition[] addedPositions, HighlightedPosition[] removedPositions) {
+		int start= Integer.MAX_VALUE;
+		int end= Integer.MIN_VALUE;
+		for (int i= 0; i < addedPositions.length; i++) {
+			start= Math.min(start, addedPositions[i].getOffset());
+			end= Math.max(end, addedPositions[i].getOffset() + addedPositions[i].getLength());
+		}
+		for (int i= 0; i < removedPositions.length; i++) {
+			start= Math.min(start, removedPositions[i].getOffset());
+			end= Math.max(end, removedPositions[i].getOffset() + removedPositions[i].getLength());
+		}
+		if (start > end)
+			return;
+
+		synchronized (fDirtyRegionLock) {
+			if (fIsFullyDirty)
+				return;
+			if (fDirtyStart == -1) {
+				fDirtyStart= start;
+				fDirtyEnd= end;
+			} else {
+				fDirtyStart= Math.min(fDirtyStart, start);
+				fDirtyEnd= Math.max(fDirtyEnd, end);
+			}
+		}
+	}
+
+	/**
+	 * Updates the dirty ranges with the given document change.
+	 *
+	 * @param event the document event
+	 * @since 3.8
+	 */
+	private void updateDirtyRegion(DocumentEvent event) {
+		int offset= event.getOffset();
+		int oldEnd= offset + event.getLength();
+		int newLength= event.getText() == null ? 0 : event.getText().length();
+		int delta= newLength - event.getLength();
+
+		synchronized (fDirtyRegionLock) {
+			if (fHasWindow) {
+				fWindowStart= adjustDirtyOffset(fWindowStart, offset, oldEnd, delta);
+				fWindowEnd= adjustDirtyOffset(fWindowEnd, offset, oldEnd, delta);
+			}
+			if (fPendingDirtyStart != -1) {
+				fPendingDirtyStart= Math.min(adjustDirtyOffset(fPendingDirtyStart, offset, oldEnd, delta), offset);
+				fPendingDirtyEnd= Math.max(adjustDirtyOffset(fPendingDirtyEnd, offset, oldEnd, delta), offset + newLength);
+			}
+			if (fIsFullyDirty)
+				return;
+			if (fDirtyStart == -1) {
+				fDirtyStart= offset;
+				fDirtyEnd= offset + newLength;
+			} else {
+				fDirtyStart= Math.min(adjustDirtyOffset(fDirtyStart, offset, oldEnd, delta), offset);
+				fDirtyEnd= Math.max(adjustDirtyOffset(fDirtyEnd, offset, oldEnd, delta), offset + newLength);
+			}
+		}
+	}
+
+	/**
+	 * Maps an offset of a dirty range or the window over a document change.
+	 *
+	 * @param dirtyOffset the offset before the change
+	 * @param offset the offset of the change
+	 * @param oldEnd the end of the replaced range
+	 * @param delta the length difference caused by the change
+	 * @return the offset after the change
+	 * @since 3.8
+	 */
+	private static int adjustDirtyOffset(int dirtyOffset, int offset, int oldEnd, int delta) {
+		if (dirtyOffset <= offset)
+			return dirtyOffset;
+		if (dirtyOffset >= oldEnd)
+			return dirtyOffset + delta;
+		return offset;
+	}
+
 	/**
 	 * Create a text presentation in the background.
 	 * <p>
@@ -370,8 +689,10 @@ public class SemanticHighlightingPresenter implements ITextPresentationListener,
 
 		// TODO: double-check consistency with document.getPositions(...)
 		// TODO: reuse removed positions
-		if (isCanceled())
+		if (isCanceled()) {
+			markDirty(addedPositions, removedPositions);
 			return;
+		}
 
 		IDocument document= fSourceViewer.getDocument();
 		if (document == null)
@@ -570,6 +891,7 @@ public class SemanticHighlightingPresenter implements ITextPresentationListener,
 		setCanceled(true);
 		releaseDocument(oldInput);
 		resetState();
+		markFullyDirty();
 	}
 
 	/*
@@ -590,6 +912,7 @@ public class SemanticHighlightingPresenter implements ITextPresentationListener,
 	 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
 	 */
 	public void documentChanged(DocumentEvent event) {
+		updateDirtyRegion(event);
 	}
 
 	/**
@@ -654,6 +977,7 @@ public class SemanticHighlightingPresenter implements ITextPresentationListener,
 		fSourceViewer.prependTextPresentationListener(this);
 		fSourceViewer.addTextInputListener(this);
 		manageDocument(fSourceViewer.getDocument());
+		updateVisibleLines();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,7 +23,9 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextInputListener;
+import org.eclipse.jface.text.IViewportListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.jface.text.source.ISourceViewer;
@@ -31,13 +33,19 @@ import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.ui.IWorkbenchPartSite;
 
 import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CharacterLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
@@ -50,15 +58,21 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager.HighlightedPosition;
 import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager.Highlighting;
 import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings.DeprecatedMemberHighlighting;
+import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant;
 import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener;
 
 
 /**
  * Semantic highlighting reconciler - Background thread implementation.
+ * <p>
+ * In very large documents, the highlighted positions are only materialized in a window around
+ * the visible lines, see {@link SemanticHighlightingPresenter#computeWindow(int)}. When the
+ * viewer scrolls close to the end of the window, the positions are recomputed for the new window.
+ * </p>
  *
  * @since 3.0
  */
-public class SemanticHighlightingReconciler implements IJavaReconcilingListener, ITextInputListener {
+public class SemanticHighlightingReconciler implements IJavaReconcilingListener, IJavaReconcilingASTParticipant, ITextInputListener, IViewportListener {
 
 	/**
 	 * Collects positions from the AST.
@@ -73,6 +87,9 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		 */
 		@Override
 		protected boolean visitNode(ASTNode node) {
+			int offset= node.getStartPosition();
+			if (offset > fJobWindowEnd || offset + node.getLength() < fJobWindowStart)
+				return false;
 			if ((node.getFlags() & ASTNode.MALFORMED) == ASTNode.MALFORMED) {
 				retainPositions(node.getStartPosition(), node.getLength());
 				return false;
@@ -185,6 +202,9 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		 * @param highlighting The highlighting
 		 */
 		private void addPosition(int offset, int length, Highlighting highlighting) {
+			if (offset > fJobWindowEnd || offset + length < fJobWindowStart)
+				return;
+
 			boolean isExisting= false;
 			// TODO: use binary search
 			for (int i= 0, n= fRemovedPositions.size(); i < n; i++) {
@@ -222,6 +242,27 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		}
 	}
 
+	/**
+	 * The number of pages above and below the visible lines in which the highlighted positions
+	 * are materialized.
+	 * @since 3.8
+	 */
+	private static final int WINDOW_PAGES= 2;
+
+	/**
+	 * The number of pages above and below the visible lines that must stay inside the window,
+	 * otherwise the positions are recomputed for a new window.
+	 * @since 3.8
+	 */
+	private static final int PREFETCH_PAGES= 1;
+
+	/**
+	 * The delay in milliseconds after which the positions are recomputed when the viewer has
+	 * been scrolled out of the window.
+	 * @since 3.8
+	 */
+	private static final long WINDOW_UPDATE_DELAY= 100;
+
 	/** Position collector */
 	private PositionCollector fCollector= new PositionCollector();
 
@@ -272,6 +313,27 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 */
 	private Highlighting fJobDeprecatedMemberHighlighting;
 
+	/**
+	 * The window of the running reconcile or <code>null</code> if it covers the whole document.
+	 * @since 3.8
+	 */
+	private IRegion fJobWindow;
+	/**
+	 * Start offset of the window of the running reconcile.
+	 * @since 3.8
+	 */
+	private int fJobWindowStart= Integer.MIN_VALUE;
+	/**
+	 * End offset of the window of the running reconcile.
+	 * @since 3.8
+	 */
+	private int fJobWindowEnd= Integer.MAX_VALUE;
+	/**
+	 * <code>true</code> iff the running reconcile visits the whole AST.
+	 * @since 3.8
+	 */
+	private boolean fJobIsFull;
+
 	/*
 	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener#aboutToBeReconciled()
 	 */
@@ -283,10 +345,82 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener#reconciled(CompilationUnit, boolean, IProgressMonitor)
 	 */
 	public void reconciled(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor) {
+		reconcile(ast, forced, progressMonitor);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant#prepareReconcile(org.eclipse.jdt.core.dom.CompilationUnit, boolean, org.eclipse.core.runtime.IProgressMonitor)
+	 * @since 3.8
+	 */
+	public ASTVisitor prepareReconcile(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor) {
+		ASTNode[] subtrees= startReconcile(ast, forced, progressMonitor);
+		if (subtrees == null)
+			return null;
+
+		// take part in the shared traversal if the whole AST has to be visited anyway
+		if (subtrees.length == 1 && subtrees[0] == ast)
+			return fCollector;
+
+		boolean walked= false;
+		try {
+			walked= reconcilePositions(subtrees);
+		} finally {
+			finishReconcile(walked);
+		}
+		return null;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingASTParticipant#completeReconcile(org.eclipse.jdt.core.dom.CompilationUnit, boolean, boolean, org.eclipse.core.runtime.IProgressMonitor)
+	 * @since 3.8
+	 */
+	public void completeReconcile(CompilationUnit ast, boolean forced, boolean traversed, IProgressMonitor progressMonitor) {
+		if (progressMonitor.isCanceled())
+			fJobPresenter.setCanceled(true);
+		finishReconcile(traversed);
+	}
+
+	/**
+	 * Reconciles the semantic highlighting positions with the given AST.
+	 * <p>
+	 * Unless <code>full</code> is set, only the AST subtrees affected by the document changes
+	 * since the last reconcile are visited and only the positions inside them are replaced.
+	 * </p>
+	 *
+	 * @param ast the compilation unit AST or <code>null</code>
+	 * @param full <code>true</code> if all positions have to be recomputed
+	 * @param progressMonitor the progress monitor
+	 * @since 3.8
+	 */
+	private void reconcile(CompilationUnit ast, boolean full, IProgressMonitor progressMonitor) {
+		ASTNode[] subtrees= startReconcile(ast, full, progressMonitor);
+		if (subtrees == null)
+			return;
+
+		boolean walked= false;
+		try {
+			walked= reconcilePositions(subtrees);
+		} finally {
+			finishReconcile(walked);
+		}
+	}
+
+	/**
+	 * Starts reconciling the semantic highlighting positions with the given AST. If this method
+	 * returns subtrees, {@link #finishReconcile(boolean)} must be called after they have been
+	 * visited with {@link #fCollector}.
+	 *
+	 * @param ast the compilation unit AST or <code>null</code>
+	 * @param full <code>true</code> if all positions have to be recomputed
+	 * @param progressMonitor the progress monitor
+	 * @return the AST subtrees to visit, or <code>null</code> if there is nothing to reconcile
+	 * @since 3.8
+	 */
+	private ASTNode[] startReconcile(CompilationUnit ast, boolean full, IProgressMonitor progressMonitor) {
 		// ensure at most one thread can be reconciling at any time
 		synchronized (fReconcileLock) {
 			if (fIsReconciling)
-				return;
+				return null;
 			else
 				fIsReconciling= true;
 		}
@@ -294,66 +428,163 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		fJobSemanticHighlightings= fSemanticHighlightings;
 		fJobHighlightings= fHighlightings;
 
+		boolean started= false;
 		try {
 			if (fJobPresenter == null || fJobSemanticHighlightings == null || fJobHighlightings == null)
-				return;
+				return null;
+
+			IRegion dirtyRegion= fJobPresenter.takeDirtyRegion();
 
 			fJobPresenter.setCanceled(progressMonitor.isCanceled());
 
 			if (ast == null || fJobPresenter.isCanceled())
-				return;
+				return null;
 
-			ASTNode[] subtrees= getAffectedSubtrees(ast);
+			// the positions outside of the previous window have to be computed if it has moved
+			IRegion window= fJobPresenter.computeWindow(WINDOW_PAGES);
+			if (!fJobPresenter.isMaterialized(window))
+				full= true;
+			fJobWindow= window;
+			fJobWindowStart= window != null ? window.getOffset() : Integer.MIN_VALUE;
+			fJobWindowEnd= window != null ? window.getOffset() + window.getLength() : Integer.MAX_VALUE;
+
+			ASTNode[] subtrees= full ? new ASTNode[] { ast } : getAffectedSubtrees(ast, dirtyRegion);
 			if (subtrees.length == 0)
-				return;
+				return null;
+			fJobIsFull= subtrees.length == 1 && subtrees[0] == ast;
 
-			startReconcilingPositions();
+			startReconcilingPositions(subtrees);
 
-			if (!fJobPresenter.isCanceled()) {
-				fJobDeprecatedMemberHighlighting= null;
-				for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
-					SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
-					if (fJobHighlightings[i].isEnabled() && semanticHighlighting instanceof DeprecatedMemberHighlighting) {
-						fJobDeprecatedMemberHighlighting= fJobHighlightings[i];
-						break;
-					}
+			fJobDeprecatedMemberHighlighting= null;
+			for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
+				SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
+				if (fJobHighlightings[i].isEnabled() && semanticHighlighting instanceof DeprecatedMemberHighlighting) {
+					fJobDeprecatedMemberHighlighting= fJobHighlightings[i];
+					break;
 				}
-				reconcilePositions(subtrees);
 			}
+			started= true;
+			return subtrees;
+		} finally {
+			if (!started)
+				finishReconcile(false);
+		}
+	}
 
-			TextPresentation textPresentation= null;
-			if (!fJobPresenter.isCanceled())
-				textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
+	/**
+	 * Finishes reconciling: updates the presentation with the collected positions and
+	 * releases the reconcile lock.
+	 *
+	 * @param walked <code>true</code> if the AST subtrees have been visited with {@link #fCollector}
+	 * @since 3.8
+	 */
+	private void finishReconcile(boolean walked) {
+		SemanticHighlightingPresenter presenter= fJobPresenter;
+		IRegion window= fJobWindow;
+		boolean isFull= fJobIsFull;
+		boolean completed= false;
+		try {
+			if (walked && !fJobPresenter.isCanceled()) {
+				collectRemovedPositions();
 
-			if (!fJobPresenter.isCanceled())
-				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
+				TextPresentation textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
+
+				if (!fJobPresenter.isCanceled()) {
+					if (fAddedPositions.isEmpty() && fRemovedPositions.isEmpty())
+						completed= true;
+					else
+						completed= updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
+				}
+			}
 
 			stopReconcilingPositions();
 		} finally {
+			if (presenter != null) {
+				if (completed && isFull)
+					presenter.setMaterializedWindow(window);
+				presenter.dirtyRegionReconciled(completed);
+			}
 			fJobPresenter= null;
 			fJobSemanticHighlightings= null;
 			fJobHighlightings= null;
 			fJobDeprecatedMemberHighlighting= null;
+			fJobWindow= null;
+			fJobWindowStart= Integer.MIN_VALUE;
+			fJobWindowEnd= Integer.MAX_VALUE;
+			fJobIsFull= false;
 			synchronized (fReconcileLock) {
 				fIsReconciling= false;
 			}
 		}
+
+		// the viewer may have been scrolled out of the window while reconciling
+		if (walked && presenter != null && fEditor != null && !presenter.isMaterialized(presenter.computeWindow(PREFETCH_PAGES)))
+			scheduleJob(WINDOW_UPDATE_DELAY);
 	}
 
 	/**
-	 * @param node Root node
+	 * Returns the subtrees that may be affected by the document changes in the given region.
+	 * <p>
+	 * Changes inside a method or initializer body cannot affect bindings outside of it, hence
+	 * only the outermost such body that encloses the dirty region is returned. In all other cases,
+	 * and if the compilation unit has syntax errors outside of that body, the whole AST is
+	 * returned.
+	 * </p>
+	 *
+	 * @param ast the compilation unit AST
+	 * @param dirtyRegion the region changed since the last reconcile or <code>null</code> if unknown
 	 * @return Array of subtrees that may be affected by past document changes
 	 */
-	private ASTNode[] getAffectedSubtrees(ASTNode node) {
-		// TODO: only return nodes which are affected by document changes - would require an 'anchor' concept for taking distant effects into account
-		return new ASTNode[] { node };
+	private ASTNode[] getAffectedSubtrees(CompilationUnit ast, IRegion dirtyRegion) {
+		if (dirtyRegion == null)
+			return new ASTNode[] { ast };
+
+		int dirtyStart= dirtyRegion.getOffset();
+		int dirtyEnd= dirtyStart + dirtyRegion.getLength();
+
+		Block body= null;
+		ASTNode node= NodeFinder.perform(ast, dirtyStart, dirtyRegion.getLength());
+		while (node != null) {
+			if (node instanceof Block) {
+				ASTNode parent= node.getParent();
+				if (parent instanceof MethodDeclaration || parent instanceof Initializer)
+					body= (Block) node;
+			}
+			node= node.getParent();
+		}
+		if (body == null || (body.getFlags() & (ASTNode.MALFORMED | ASTNode.RECOVERED)) != 0)
+			return new ASTNode[] { ast };
+
+		int bodyStart= body.getStartPosition();
+		int bodyEnd= bodyStart + body.getLength();
+		if (dirtyStart <= bodyStart || dirtyEnd >= bodyEnd)
+			return new ASTNode[] { ast };
+
+		IProblem[] problems= ast.getProblems();
+		for (int i= 0; i < problems.length; i++) {
+			IProblem problem= problems[i];
+			if ((problem.getID() & IProblem.Syntax) != 0) {
+				int problemStart= problem.getSourceStart();
+				if (problemStart < bodyStart || problemStart >= bodyEnd)
+					return new ASTNode[] { ast };
+			}
+		}
+
+		return new ASTNode[] { body };
 	}
 
 	/**
 	 * Start reconciling positions.
+	 *
+	 * @param subtrees the AST subtrees to reconcile
 	 */
-	private void startReconcilingPositions() {
-		fJobPresenter.addAllPositions(fRemovedPositions);
+	private void startReconcilingPositions(ASTNode[] subtrees) {
+		if (subtrees.length == 1 && subtrees[0] instanceof CompilationUnit) {
+			fJobPresenter.addAllPositions(fRemovedPositions);
+		} else {
+			for (int i= 0; i < subtrees.length; i++)
+				fJobPresenter.addAllPositions(fRemovedPositions, subtrees[i].getStartPosition(), subtrees[i].getLength());
+		}
 		fNOfRemovedPositions= fRemovedPositions.size();
 	}
 
@@ -361,14 +592,23 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * Reconcile positions based on the AST subtrees
 	 *
 	 * @param subtrees the AST subtrees
+	 * @return <code>true</code> if the subtrees have been visited
 	 */
-	private void reconcilePositions(ASTNode[] subtrees) {
-		// FIXME: remove positions not covered by subtrees
-
-
-
+	private boolean reconcilePositions(ASTNode[] subtrees) {
+		if (fJobPresenter.isCanceled())
+			return false;
 		for (int i= 0, n= subtrees.length; i < n; i++)
 			subtrees[i].accept(fCollector);
+		return true;
+	}
+
+	/**
+	 * Removes the positions that have been retained by the position collector from the
+	 * removed positions.
+	 *
+	 * @since 3.8
+	 */
+	private void collectRemovedPositions() {
 		List<Position> oldPositions= fRemovedPositions;
 		List<Position> newPositions= new ArrayList<Position>(fNOfRemovedPositions);
 		for (int i= 0, n= oldPositions.size(); i < n; i ++) {
@@ -385,29 +625,31 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @param textPresentation the text presentation
 	 * @param addedPositions the added positions
 	 * @param removedPositions the removed positions
+	 * @return <code>true</code> iff the presentation update has been posted
 	 */
-	private void updatePresentation(TextPresentation textPresentation, List<Position> addedPositions, List<Position> removedPositions) {
+	private boolean updatePresentation(TextPresentation textPresentation, List<Position> addedPositions, List<Position> removedPositions) {
 		Runnable runnable= fJobPresenter.createUpdateRunnable(textPresentation, addedPositions, removedPositions);
 		if (runnable == null)
-			return;
+			return false;
 
 		JavaEditor editor= fEditor;
 		if (editor == null)
-			return;
+			return false;
 
 		IWorkbenchPartSite site= editor.getSite();
 		if (site == null)
-			return;
+			return false;
 
 		Shell shell= site.getShell();
 		if (shell == null || shell.isDisposed())
-			return;
+			return false;
 
 		Display display= shell.getDisplay();
 		if (display == null || display.isDisposed())
-			return;
+			return false;
 
 		display.asyncExec(runnable);
+		return true;
 	}
 
 	/**
@@ -434,9 +676,10 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 
 		fEditor= editor;
 		fSourceViewer= sourceViewer;
+		fSourceViewer.addViewportListener(this);
 
 		if (fEditor instanceof CompilationUnitEditor) {
-			((CompilationUnitEditor)fEditor).addReconcileListener(this);
+			((CompilationUnitEditor)fEditor).addReconcileParticipant(this);
 		} else if (fEditor == null) {
 			fSourceViewer.addTextInputListener(this);
 			scheduleJob();
@@ -452,12 +695,14 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 
 		if (fEditor != null) {
 			if (fEditor instanceof CompilationUnitEditor)
-				((CompilationUnitEditor)fEditor).removeReconcileListener(this);
+				((CompilationUnitEditor)fEditor).removeReconcileParticipant(this);
 			else
 				fSourceViewer.removeTextInputListener(this);
 			fEditor= null;
 		}
 
+		if (fSourceViewer != null)
+			fSourceViewer.removeViewportListener(this);
 		fSourceViewer= null;
 		fSemanticHighlightings= null;
 		fHighlightings= null;
@@ -468,6 +713,16 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * Schedule a background job for retrieving the AST and reconciling the Semantic Highlighting model.
 	 */
 	private void scheduleJob() {
+		scheduleJob(0);
+	}
+
+	/**
+	 * Schedule a background job for retrieving the AST and reconciling the Semantic Highlighting model.
+	 *
+	 * @param delay the delay in milliseconds before the job runs
+	 * @since 3.8
+	 */
+	private void scheduleJob(long delay) {
 		final ITypeRoot element= fEditor.getInputJavaElement();
 
 		synchronized (fJobLock) {
@@ -492,7 +747,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 						if (monitor.isCanceled())
 							return Status.CANCEL_STATUS;
 						CompilationUnit ast= SharedASTProvider.getAST(element, SharedASTProvider.WAIT_YES, monitor);
-						reconciled(ast, false, monitor);
+						reconcile(ast, true, monitor);
 						synchronized (fJobLock) {
 							// allow the job to be gc'ed
 							if (fJob == this)
@@ -503,7 +758,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 				};
 				fJob.setSystem(true);
 				fJob.setPriority(Job.DECORATE);
-				fJob.schedule();
+				fJob.schedule(delay);
 			}
 		}
 	}
@@ -528,6 +783,20 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			scheduleJob();
 	}
 
+	/*
+	 * @see org.eclipse.jface.text.IViewportListener#viewportChanged(int)
+	 * @since 3.8
+	 */
+	public void viewportChanged(int verticalOffset) {
+		SemanticHighlightingPresenter presenter= fPresenter;
+		if (presenter == null || fEditor == null)
+			return;
+
+		presenter.updateVisibleLines();
+		if (!presenter.isMaterialized(presenter.computeWindow(PREFETCH_PAGES)))
+			scheduleJob(WINDOW_UPDATE_DELAY);
+	}
+
 	/**
 	 * Refreshes the highlighting.
 	 *
@@ -384,6 +384,10 @@ final class CodeAssistAdvancedConfigurationBlock extends OptionsConfigurationBlo
 
 		createParameterTimeoutControl(composite, columns);
 
+		createFiller(composite, columns);
+
+		createStatisticsLink(composite, columns);
+
 		updateControls();
 		if (fModel.elements.size() > 0) {
 			fDefaultViewer.getTable().select(0);
@@ -483,6 +487,18 @@ final class CodeAssistAdvancedConfigurationBlock extends OptionsConfigurationBlo
 		link.setLayoutData(gd);
     }
 
+	private void createStatisticsLink(Composite composite, int h_span) {
+		Link link= new Link(composite, SWT.NONE | SWT.WRAP);
+		link.setText(PreferencesMessages.CodeAssistAdvancedConfigurationBlock_statistics_link);
+		link.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				new CompletionProposalComputerStatisticsDialog(getShell()).open();
+			}
+		});
+		link.setLayoutData(new GridData(GridData.FILL, GridData.FILL, false, false, h_span, 1));
+	}
+
 	private void createFiller(Composite composite, int h_span) {
 	    Label filler= new Label(composite, SWT.NONE);
 		filler.setVisible(false);
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.preferences;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+
+import org.eclipse.jdt.internal.corext.util.Messages;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerRegistry;
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerRegistry.ComputerStatistics;
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerStatistics;
+
+
+/**
+ * Shows the latency statistics of the contributed completion proposal computers and exports
+ * them as comma-separated values.
+ *
+ * @see CompletionProposalComputerStatistics
+ * @since 3.8
+ */
+public class CompletionProposalComputerStatisticsDialog extends Dialog {
+
+	private static final int RESET_ID= IDialogConstants.CLIENT_ID;
+	private static final int EXPORT_ID= IDialogConstants.CLIENT_ID + 1;
+
+	private static final int NAME= 0;
+	private static final int CATEGORY= 1;
+	private static final int COMPUTATIONS= 2;
+	private static final int P50= 3;
+	private static final int P95= 4;
+	private static final int P99= 5;
+	private static final int PROPOSALS= 6;
+	private static final int TIMEOUTS= 7;
+
+	private static final String CSV_SEPARATOR= ","; //$NON-NLS-1$
+	private static final String CSV_ENCODING= "UTF-8"; //$NON-NLS-1$
+
+	private final class StatisticsLabelProvider extends LabelProvider implements ITableLabelProvider {
+		/*
+		 * @see org.eclipse.jface.viewers.ITableLabelProvider#getColumnImage(java.lang.Object, int)
+		 */
+		public Image getColumnImage(Object element, int columnIndex) {
+			return null;
+		}
+
+		/*
+		 * @see org.eclipse.jface.viewers.ITableLabelProvider#getColumnText(java.lang.Object, int)
+		 */
+		public String getColumnText(Object element, int columnIndex) {
+			return getValue((ComputerStatistics) element, columnIndex);
+		}
+	}
+
+	private final List<ComputerStatistics> fStatistics;
+	private TableViewer fViewer;
+
+	/**
+	 * Creates a new dialog that shows the statistics of the computers of the default registry.
+	 *
+	 * @param parent the parent shell
+	 */
+	public CompletionProposalComputerStatisticsDialog(Shell parent) {
+		super(parent);
+		fStatistics= CompletionProposalComputerRegistry.getDefault().getStatistics();
+	}
+
+	/*
+	 * @see org.eclipse.jface.dialogs.Dialog#isResizable()
+	 */
+	@Override
+	protected boolean isResizable() {
+		return true;
+	}
+
+	/*
+	 * @see org.eclipse.jface.window.Window#configureShell(org.eclipse.swt.widgets.Shell)
+	 */
+	@Override
+	protected void configureShell(Shell newShell) {
+		super.configureShell(newShell);
+		newShell.setText(PreferencesMessages.CompletionProposalComputerStatisticsDialog_title);
+	}
+
+	/*
+	 * @see org.eclipse.jface.dialogs.Dialog#createDialogArea(org.eclipse.swt.widgets.Composite)
+	 */
+	@Override
+	protected Control createDialogArea(Composite parent) {
+		Composite composite= (Composite) super.createDialogArea(parent);
+
+		Label label= new Label(composite, SWT.WRAP);
+		label.setText(PreferencesMessages.CompletionProposalComputerStatisticsDialog_description);
+		GridData gd= new GridData(SWT.FILL, SWT.TOP, true, false);
+		gd.widthHint= convertWidthInCharsToPixels(80);
+		label.setLayoutData(gd);
+
+		fViewer= new TableViewer(composite, SWT.SINGLE | SWT.BORDER | SWT.FULL_SELECTION);
+		Table table= fViewer.getTable();
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		String[] titles= getColumnTitles();
+		for (int i= 0; i < titles.length; i++) {
+			TableColumn column= new TableColumn(table, i < COMPUTATIONS ? SWT.LEFT : SWT.RIGHT);
+			column.setText(titles[i]);
+			column.setWidth(convertWidthInCharsToPixels(i < COMPUTATIONS ? 30 : 12));
+		}
+		gd= new GridData(SWT.FILL, SWT.FILL, true, true);
+		gd.heightHint= convertHeightInCharsToPixels(15);
+		table.setLayoutData(gd);
+
+		fViewer.setContentProvider(new ArrayContentProvider());
+		fViewer.setLabelProvider(new StatisticsLabelProvider());
+		fViewer.setInput(fStatistics);
+
+		applyDialogFont(composite);
+		return composite;
+	}
+
+	/*
+	 * @see org.eclipse.jface.dialogs.Dialog#createButtonsForButtonBar(org.eclipse.swt.widgets.Composite)
+	 */
+	@Override
+	protected void createButtonsForButtonBar(Composite parent) {
+		createButton(parent, RESET_ID, PreferencesMessages.CompletionProposalComputerStatisticsDialog_reset_button, false);
+		createButton(parent, EXPORT_ID, PreferencesMessages.CompletionProposalComputerStatisticsDialog_export_button, false);
+		createButton(parent, IDialogConstants.CLOSE_ID, IDialogConstants.CLOSE_LABEL, true);
+	}
+
+	/*
+	 * @see org.eclipse.jface.dialogs.Dialog#buttonPressed(int)
+	 */
+	@Override
+	protected void buttonPressed(int buttonId) {
+		switch (buttonId) {
+			case RESET_ID:
+				for (int i= 0; i < fStatistics.size(); i++)
+					fStatistics.get(i).getStatistics().reset();
+				fViewer.refresh();
+				break;
+			case EXPORT_ID:
+				export();
+				break;
+			case IDialogConstants.CLOSE_ID:
+				close();
+				break;
+			default:
+				super.buttonPressed(buttonId);
+		}
+	}
+
+	private void export() {
+		FileDialog dialog= new FileDialog(getShell(), SWT.SAVE);
+		dialog.setText(PreferencesMessages.CompletionProposalComputerStatisticsDialog_export_title);
+		dialog.setFilterExtensions(new String[] { "*.csv" }); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		String path= dialog.open();
+		if (path == null)
+			return;
+
+		Writer writer= null;
+		try {
+			writer= new OutputStreamWriter(new FileOutputStream(path), CSV_ENCODING);
+			String[] titles= getColumnTitles();
+			writeRow(writer, titles);
+			for (int i= 0; i < fStatistics.size(); i++) {
+				String[] row= new String[titles.length];
+				for (int column= 0; column < row.length; column++)
+					row[column]= getValue(fStatistics.get(i), column);
+				writeRow(writer, row);
+			}
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+			String message= Messages.format(PreferencesMessages.CompletionProposalComputerStatisticsDialog_export_error, e.getLocalizedMessage());
+			MessageDialog.openError(getShell(), PreferencesMessages.CompletionProposalComputerStatisticsDialog_export_title, message);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private static void writeRow(Writer writer, String[] values) throws IOException {
+		for (int i= 0; i < values.length; i++) {
+			if (i > 0)
+				writer.write(CSV_SEPARATOR);
+			writer.write('"');
+			writer.write(values[i].replaceAll("\"", "\"\"")); //$NON-NLS-1$ //$NON-NLS-2$
+			writer.write('"');
+		}
+		writer.write('\n');
+	}
+
+	private static String[] getColumnTitles() {
+		return new String[] {
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_computer_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_category_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_computations_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_p50_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_p95_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_p99_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_proposals_column,
+				PreferencesMessages.CompletionProposalComputerStatisticsDialog_timeouts_column
+		};
+	}
+
+	private static String getValue(ComputerStatistics computer, int column) {
+		CompletionProposalComputerStatistics statistics= computer.getStatistics();
+		switch (column) {
+			case NAME:
+				return computer.getName() != null ? computer.getName() : computer.getId();
+			case CATEGORY:
+				return computer.getCategoryName();
+			case COMPUTATIONS:
+				return String.valueOf(statistics.getComputationCount());
+			case P50:
+				return formatLatency(statistics.getLatency(50));
+			case P95:
+				return formatLatency(statistics.getLatency(95));
+			case P99:
+				return formatLatency(statistics.getLatency(99));
+			case PROPOSALS:
+				return String.valueOf(statistics.getProposalCount());
+			case TIMEOUTS:
+				return String.valueOf(statistics.getTimeoutCount());
+			default:
+				return ""; //$NON-NLS-1$
+		}
+	}
+
+	private static String formatLatency(double millis) {
+		return String.format("%.1f", new Double(millis)); //$NON-NLS-1$
+	}
+}
@@ -56,6 +56,21 @@ public final class PreferencesMessages extends NLS {
 	public static String CodeAssistAdvancedConfigurationBlock_parameterNameFromAttachedJavadoc_timeout_emptyInput;
 	public static String CodeAssistAdvancedConfigurationBlock_parameterNameFromAttachedJavadoc_timeout_invalidInput;
 	public static String CodeAssistAdvancedConfigurationBlock_parameterNameFromAttachedJavadoc_timeout_invalidRange;
+	public static String CodeAssistAdvancedConfigurationBlock_statistics_link;
+	public static String CompletionProposalComputerStatisticsDialog_title;
+	public static String CompletionProposalComputerStatisticsDialog_description;
+	public static String CompletionProposalComputerStatisticsDialog_computer_column;
+	public static String CompletionProposalComputerStatisticsDialog_category_column;
+	public static String CompletionProposalComputerStatisticsDialog_computations_column;
+	public static String CompletionProposalComputerStatisticsDialog_p50_column;
+	public static String CompletionProposalComputerStatisticsDialog_p95_column;
+	public static String CompletionProposalComputerStatisticsDialog_p99_column;
+	public static String CompletionProposalComputerStatisticsDialog_proposals_column;
+	public static String CompletionProposalComputerStatisticsDialog_timeouts_column;
+	public static String CompletionProposalComputerStatisticsDialog_reset_button;
+	public static String CompletionProposalComputerStatisticsDialog_export_button;
+	public static String CompletionProposalComputerStatisticsDialog_export_title;
+	public static String CompletionProposalComputerStatisticsDialog_export_error;
 	public static String ImportOrganizePreferencePage_title;
 	public static String ImportOrganizeConfigurationBlock_order_label;
 	public static String ImportOrganizeConfigurationBlock_other_static;
@@ -71,8 +71,12 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 		if (fStrategies == null)
 			return;
 
-		for (int i= 0; i < fStrategies.length; i++)
+		for (int i= 0; i < fStrategies.length; i++) {
+			long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 			fStrategies[i].reconcile(dirtyRegion, subRegion);
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_STRATEGY, fStrategies[i].getClass().getName(), start);
+		}
 	}
 
 	/*
@@ -82,8 +86,12 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 		if (fStrategies == null)
 			return;
 
-		for (int i= 0; i < fStrategies.length; i++)
+		for (int i= 0; i < fStrategies.length; i++) {
+			long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 			fStrategies[i].reconcile(partition);
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_STRATEGY, fStrategies[i].getClass().getName(), start);
+		}
 	}
 
 	/*
@@ -111,7 +119,10 @@ public class CompositeReconcilingStrategy  implements IReconcilingStrategy, IRec
 		for (int i=0; i < fStrategies.length; i++) {
 			if (fStrategies[i] instanceof IReconcilingStrategyExtension) {
 				IReconcilingStrategyExtension extension= (IReconcilingStrategyExtension) fStrategies[i];
+				long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 				extension.initialReconcile();
+				if (ReconcileTrace.ENABLED)
+					ReconcileTrace.record(ReconcileTrace.PHASE_STRATEGY, extension.getClass().getName(), start);
 			}
 		}
 	}
@@ -74,6 +74,7 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	 */
 	@Override
 	public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
+		long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 		try {
 			IProblemRequestorExtension e= getProblemRequestorExtension();
 			if (e != null) {
@@ -88,6 +89,8 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 			}
 		} finally {
 			reconciled();
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_RECONCILE, fEditor.getTitle(), start);
 		}
 	}
 
@@ -96,6 +99,7 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	 */
 	@Override
 	public void reconcile(IRegion partition) {
+		long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 		try {
 			IProblemRequestorExtension e= getProblemRequestorExtension();
 			if (e != null) {
@@ -110,6 +114,8 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 			}
 		} finally {
 			reconciled();
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_RECONCILE, fEditor.getTitle(), start);
 		}
 	}
 
@@ -128,6 +134,7 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 	 */
 	@Override
 	public void initialReconcile() {
+		long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
 		try {
 			IProblemRequestorExtension e= getProblemRequestorExtension();
 			if (e != null) {
@@ -142,6 +149,8 @@ public class JavaCompositeReconcilingStrategy  extends CompositeReconcilingStrat
 			}
 		} finally {
 			reconciled();
+			if (ReconcileTrace.ENABLED)
+				ReconcileTrace.record(ReconcileTrace.PHASE_RECONCILE, fEditor.getTitle(), start);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,8 +31,11 @@ import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.MonoReconciler;
 
 import org.eclipse.ui.IEditorInput;
@@ -58,6 +61,10 @@ import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
 
 /**
  * A reconciler that is also activated on editor activation.
+ * <p>
+ * The delay before a reconcile is adapted to the duration of recent reconciles and to the
+ * typing cadence, see {@link ReconcileDelay}.
+ * </p>
  */
 public class JavaReconciler extends MonoReconciler {
 
@@ -188,6 +195,29 @@ public class JavaReconciler extends MonoReconciler {
 
 	}
 
+	/**
+	 * Internal document listener that tracks the typing cadence.
+	 *
+	 * @since 3.8
+	 */
+	private class DocumentListener implements IDocumentListener {
+
+		/*
+		 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+		 */
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		/*
+		 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+		 */
+		public void documentChanged(DocumentEvent event) {
+			String text= event.getText();
+			boolean isBurst= event.getLength() >= BURST_LENGTH || text != null && text.length() >= BURST_LENGTH;
+			documentModified(isBurst);
+		}
+	}
+
 	/**
 	 * Internal resource change listener.
 	 *
@@ -274,6 +304,58 @@ public class JavaReconciler extends MonoReconciler {
 	 */
 	private ITypeRoot fReconciledElement;
 
+	/**
+	 * The number of inserted or replaced characters that makes a change a burst edit.
+	 * @since 3.8
+	 */
+	private static final int BURST_LENGTH= 64;
+
+	/**
+	 * The document listener that tracks the typing cadence.
+	 * @since 3.8
+	 */
+	private final IDocumentListener fDocumentListener= new DocumentListener();
+	/**
+	 * The document that {@link #fDocumentListener} is registered with.
+	 * @since 3.8
+	 */
+	private IDocument fDocument;
+	/**
+	 * The lock for the scheduling state.
+	 * @since 3.8
+	 */
+	private final Object fSchedulingLock= new Object();
+	/**
+	 * The delay computation, guarded by {@link #fSchedulingLock}.
+	 * @since 3.8
+	 */
+	private final ReconcileDelay fDelay= new ReconcileDelay(500);
+	/**
+	 * The current reconcile delay in milliseconds.
+	 * @since 3.8
+	 */
+	private int fCurrentDelay= 500;
+	/**
+	 * Tells whether a reconcile is running in the reconciler thread.
+	 * @since 3.8
+	 */
+	private volatile boolean fIsReconciling;
+	/**
+	 * The number of started reconciles, only written by the reconciler thread.
+	 * @since 3.8
+	 */
+	private volatile int fStartedCount;
+	/**
+	 * The number of cancelled reconciles, only written by the reconciler thread.
+	 * @since 3.8
+	 */
+	private volatile int fCancelledCount;
+	/**
+	 * The number of completed reconciles, only written by the reconciler thread.
+	 * @since 3.8
+	 */
+	private volatile int fCompletedCount;
+
 	/**
 	 * Creates a new reconciler.
 	 *
@@ -341,6 +423,11 @@ public class JavaReconciler extends MonoReconciler {
 	@Override
 	public void uninstall() {
 
+		if (fDocument != null) {
+			fDocument.removeDocumentListener(fDocumentListener);
+			fDocument= null;
+		}
+
 		IWorkbenchPartSite site= fTextEditor.getSite();
 		IWorkbenchWindow window= site.getWorkbenchWindow();
 		window.getPartService().removePartListener(fPartListener);
@@ -397,6 +484,146 @@ public class JavaReconciler extends MonoReconciler {
 		strategy.notifyListeners(true);
 	}
 
+	/*
+	 * @see org.eclipse.jface.text.reconciler.MonoReconciler#reconcilerDocumentChanged(org.eclipse.jface.text.IDocument)
+	 * @since 3.8
+	 */
+	@Override
+	protected void reconcilerDocumentChanged(IDocument document) {
+		if (fDocument != null)
+			fDocument.removeDocumentListener(fDocumentListener);
+		fDocument= document;
+		if (fDocument != null)
+			fDocument.addDocumentListener(fDocumentListener);
+
+		synchronized (fSchedulingLock) {
+			fDelay.reset();
+			updateDelay();
+		}
+		super.reconcilerDocumentChanged(document);
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.reconciler.MonoReconciler#process(org.eclipse.jface.text.reconciler.DirtyRegion)
+	 * @since 3.8
+	 */
+	@Override
+	protected void process(DirtyRegion dirtyRegion) {
+		fStartedCount++;
+		fIsReconciling= true;
+		long start= System.nanoTime();
+		try {
+			super.process(dirtyRegion);
+		} finally {
+			fIsReconciling= false;
+			if (getProgressMonitor().isCanceled()) {
+				fCancelledCount++;
+			} else {
+				fCompletedCount++;
+				reconciled((System.nanoTime() - start) / 1000000);
+			}
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.reconciler.AbstractReconciler#setDelay(int)
+	 * @since 3.8
+	 */
+	@Override
+	public void setDelay(int delay) {
+		synchronized (fSchedulingLock) {
+			fDelay.setBaseDelay(delay);
+			updateDelay();
+		}
+	}
+
+	/**
+	 * Records a document change. Cancels a running reconcile since its result is outdated.
+	 *
+	 * @param isBurst <code>true</code> if the change inserted or replaced a large block of text
+	 * @since 3.8
+	 */
+	private void documentModified(boolean isBurst) {
+		if (fIsReconciling)
+			getProgressMonitor().setCanceled(true);
+
+		synchronized (fSchedulingLock) {
+			fDelay.modified(System.nanoTime() / 1000000, isBurst);
+			updateDelay();
+		}
+	}
+
+	/**
+	 * Records the duration of a completed reconcile.
+	 *
+	 * @param duration the duration in milliseconds
+	 * @since 3.8
+	 */
+	private void reconciled(long duration) {
+		synchronized (fSchedulingLock) {
+			fDelay.reconciled(duration);
+			updateDelay();
+		}
+	}
+
+	/**
+	 * Sets the delay of the reconciler thread to the delay computed by {@link #fDelay}.
+	 * <p>
+	 * Must be called while holding {@link #fSchedulingLock}.
+	 * </p>
+	 *
+	 * @since 3.8
+	 */
+	private void updateDelay() {
+		int delay= fDelay.getDelay();
+		if (delay != fCurrentDelay) {
+			fCurrentDelay= delay;
+			super.setDelay(delay);
+		}
+	}
+
+	/**
+	 * Returns the current reconcile delay.
+	 *
+	 * @return the delay in milliseconds
+	 * @since 3.8
+	 */
+	public int getCurrentDelay() {
+		synchronized (fSchedulingLock) {
+			return fCurrentDelay;
+		}
+	}
+
+	/**
+	 * Returns the number of reconciles that have been started by the reconciler thread.
+	 *
+	 * @return the number of started reconciles
+	 * @since 3.8
+	 */
+	public int getStartedReconcileCount() {
+		return fStartedCount;
+	}
+
+	/**
+	 * Returns the number of reconciles that have been cancelled because the document changed.
+	 *
+	 * @return the number of cancelled reconciles
+	 * @since 3.8
+	 */
+	public int getCancelledReconcileCount() {
+		return fCancelledCount;
+	}
+
+	/**
+	 * Returns the number of reconciles that have been completed.
+	 *
+	 * @return the number of completed reconciles
+	 * @since 3.8
+	 */
+	public int getCompletedReconcileCount() {
+		return fCompletedCount;
+	}
+
 	/*
 	 * @see org.eclipse.jface.text.reconciler.MonoReconciler#initialProcess()
 	 */
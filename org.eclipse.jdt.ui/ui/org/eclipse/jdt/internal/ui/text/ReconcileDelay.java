@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+
+/**
+ * Computes the delay before a reconcile from the measured reconcile cost and the typing
+ * cadence.
+ * <p>
+ * While the user types, the delay never drops below the configured base delay, so that fast
+ * typing does not start reconciles that the next keystroke makes stale. It grows with slow
+ * typing and with the average duration of recent reconciles, so that an expensive reconcile
+ * is not started for a text that is still being changed. After a burst edit such as a paste,
+ * the reconcile starts after the minimal delay.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class ReconcileDelay {
+
+	/**
+	 * The minimal reconcile delay in milliseconds.
+	 */
+	public static final int MIN_DELAY= 100;
+
+	/**
+	 * The maximal reconcile delay in milliseconds.
+	 */
+	public static final int MAX_DELAY= 2000;
+
+	/**
+	 * Pauses between two document changes that are longer than this (in milliseconds) do not
+	 * count as typing.
+	 */
+	public static final int TYPING_PAUSE= 1500;
+
+	/**
+	 * The delay configured by the client.
+	 */
+	private int fBaseDelay;
+	/**
+	 * The average interval between two document changes while typing, in milliseconds.
+	 */
+	private long fTypingInterval;
+	/**
+	 * The average duration of completed reconciles, in milliseconds.
+	 */
+	private long fReconcileDuration;
+	/**
+	 * The time of the last document change in milliseconds, or <code>-1</code>.
+	 */
+	private long fLastModification= -1;
+	/**
+	 * Tells whether the last document change was a burst edit.
+	 */
+	private boolean fIsBurst;
+
+	/**
+	 * Creates a new reconcile delay.
+	 *
+	 * @param baseDelay the delay configured by the client in milliseconds
+	 */
+	public ReconcileDelay(int baseDelay) {
+		setBaseDelay(baseDelay);
+	}
+
+	/**
+	 * Sets the delay configured by the client, which is the floor of the delay while the user
+	 * types.
+	 *
+	 * @param baseDelay the delay in milliseconds
+	 */
+	public void setBaseDelay(int baseDelay) {
+		fBaseDelay= baseDelay;
+		reset();
+	}
+
+	/**
+	 * Forgets the typing cadence, e.g. when the document is replaced. The reconcile cost is
+	 * kept.
+	 */
+	public void reset() {
+		fTypingInterval= fBaseDelay / 2;
+		fLastModification= -1;
+		fIsBurst= false;
+	}
+
+	/**
+	 * Records a document change.
+	 *
+	 * @param time the time of the change in milliseconds
+	 * @param isBurst <code>true</code> if the change inserted or replaced a large block of text
+	 */
+	public void modified(long time, boolean isBurst) {
+		fIsBurst= isBurst;
+		if (isBurst) {
+			fLastModification= -1;
+			return;
+		}
+		if (fLastModification != -1) {
+			long interval= time - fLastModification;
+			if (interval < TYPING_PAUSE)
+				fTypingInterval+= (interval - fTypingInterval) / 4;
+		}
+		fLastModification= time;
+	}
+
+	/**
+	 * Records the duration of a completed reconcile.
+	 *
+	 * @param duration the duration in milliseconds
+	 */
+	public void reconciled(long duration) {
+		fReconcileDuration+= (duration - fReconcileDuration) / 4;
+	}
+
+	/**
+	 * Returns the delay before the next reconcile.
+	 *
+	 * @return the delay in milliseconds, between {@link #MIN_DELAY} and {@link #MAX_DELAY}
+	 */
+	public int getDelay() {
+		if (fIsBurst)
+			return MIN_DELAY;
+		long delay= Math.max(fBaseDelay, Math.max(2 * fTypingInterval, fReconcileDuration));
+		return (int) Math.max(MIN_DELAY, Math.min(MAX_DELAY, delay));
+	}
+
+	/**
+	 * Returns the average duration of recent reconciles.
+	 *
+	 * @return the average duration in milliseconds
+	 */
+	public long getReconcileDuration() {
+		return fReconcileDuration;
+	}
+}
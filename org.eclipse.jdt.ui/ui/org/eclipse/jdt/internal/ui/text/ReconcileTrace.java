@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import org.eclipse.core.runtime.Platform;
+
+
+/**
+ * Records the nanosecond timings of the phases of the Java reconcile pipeline in a ring buffer.
+ * <p>
+ * Tracing is enabled with the <code>org.eclipse.jdt.ui/debug/ReconcileTrace</code> debug
+ * option. Clients must guard all calls with {@link #ENABLED}, so that the tracing code is
+ * removed by the JIT when tracing is disabled:
+ * <pre>
+ * long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
+ * ...
+ * if (ReconcileTrace.ENABLED)
+ *     ReconcileTrace.record(ReconcileTrace.PHASE_..., detail, start);
+ * </pre>
+ * The events can be dumped as JSON with {@link #toJSON()}.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class ReconcileTrace {
+
+	/** Tells whether reconcile tracing is enabled */
+	public static final boolean ENABLED= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.jdt.ui/debug/ReconcileTrace"));  //$NON-NLS-1$//$NON-NLS-2$
+
+	/** A complete reconcile of the Java reconciling strategy including the notification of the listeners */
+	public static final String PHASE_RECONCILE= "reconcile"; //$NON-NLS-1$
+	/** A single reconciling strategy, e.g. the Java model reconcile or spelling */
+	public static final String PHASE_STRATEGY= "strategy"; //$NON-NLS-1$
+	/** The notification of the AST provider */
+	public static final String PHASE_AST_PROVIDER= "astProvider"; //$NON-NLS-1$
+	/** The <code>aboutToBeReconciled</code> notification of a reconciling listener */
+	public static final String PHASE_ABOUT_TO_BE_RECONCILED= "aboutToBeReconciled"; //$NON-NLS-1$
+	/** The <code>reconciled</code> notification of a reconciling listener */
+	public static final String PHASE_RECONCILED= "reconciled"; //$NON-NLS-1$
+	/** The preparation of a reconciling AST participant */
+	public static final String PHASE_PREPARE= "prepare"; //$NON-NLS-1$
+	/** The shared traversal of the reconciled AST */
+	public static final String PHASE_AST_TRAVERSAL= "astTraversal"; //$NON-NLS-1$
+	/** The completion of a reconciling AST participant */
+	public static final String PHASE_COMPLETE= "complete"; //$NON-NLS-1$
+	/** The update of the folding structure */
+	public static final String PHASE_FOLDING= "folding"; //$NON-NLS-1$
+
+	/** The capacity of the ring buffer */
+	private static final int CAPACITY= 4096;
+
+	/** The phases of the recorded events */
+	private static final String[] fgPhases= new String[CAPACITY];
+	/** The details of the recorded events */
+	private static final String[] fgDetails= new String[CAPACITY];
+	/** The names of the threads of the recorded events */
+	private static final String[] fgThreads= new String[CAPACITY];
+	/** The start times of the recorded events in nanoseconds */
+	private static final long[] fgStarts= new long[CAPACITY];
+	/** The durations of the recorded events in nanoseconds */
+	private static final long[] fgDurations= new long[CAPACITY];
+
+	/** The number of events recorded since the last clear */
+	private static long fgRecorded;
+
+	private ReconcileTrace() {
+	}
+
+	/**
+	 * Records an event that started at the given time and ends now.
+	 *
+	 * @param phase the phase, one of the <code>PHASE_*</code> constants
+	 * @param detail the traced element, e.g. the class name of a listener, or <code>null</code>
+	 * @param start the start time as returned by {@link System#nanoTime()}
+	 */
+	public static void record(String phase, String detail, long start) {
+		long duration= System.nanoTime() - start;
+		String thread= Thread.currentThread().getName();
+		synchronized (ReconcileTrace.class) {
+			int index= (int) (fgRecorded % CAPACITY);
+			fgPhases[index]= phase;
+			fgDetails[index]= detail;
+			fgThreads[index]= thread;
+			fgStarts[index]= start;
+			fgDurations[index]= duration;
+			fgRecorded++;
+		}
+	}
+
+	/**
+	 * Removes all recorded events.
+	 */
+	public static synchronized void clear() {
+		for (int i= 0; i < CAPACITY; i++) {
+			fgPhases[i]= null;
+			fgDetails[i]= null;
+			fgThreads[i]= null;
+		}
+		fgRecorded= 0;
+	}
+
+	/**
+	 * Returns the recorded events as JSON object, the oldest event first.
+	 *
+	 * @return the JSON representation of the recorded events
+	 */
+	public static synchronized String toJSON() {
+		int count= (int) Math.min(fgRecorded, CAPACITY);
+		int first= (int) ((fgRecorded - count) % CAPACITY);
+
+		StringBuffer buffer= new StringBuffer(128 + count * 128);
+		buffer.append("{\"enabled\":").append(ENABLED); //$NON-NLS-1$
+		buffer.append(",\"capacity\":").append(CAPACITY); //$NON-NLS-1$
+		buffer.append(",\"recorded\":").append(fgRecorded); //$NON-NLS-1$
+		buffer.append(",\"events\":["); //$NON-NLS-1$
+		for (int i= 0; i < count; i++) {
+			int index= (first + i) % CAPACITY;
+			if (i > 0)
+				buffer.append(',');
+			buffer.append("\n{\"phase\":"); //$NON-NLS-1$
+			appendString(buffer, fgPhases[index]);
+			buffer.append(",\"detail\":"); //$NON-NLS-1$
+			appendString(buffer, fgDetails[index]);
+			buffer.append(",\"thread\":"); //$NON-NLS-1$
+			appendString(buffer, fgThreads[index]);
+			buffer.append(",\"startNanos\":").append(fgStarts[index]); //$NON-NLS-1$
+			buffer.append(",\"durationNanos\":").append(fgDurations[index]); //$NON-NLS-1$
+			buffer.append('}');
+		}
+		buffer.append("\n]}\n"); //$NON-NLS-1$
+		return buffer.toString();
+	}
+
+	/**
+	 * Appends the given string as JSON string literal.
+	 *
+	 * @param buffer the buffer to append to
+	 * @param string the string or <code>null</code>
+	 */
+	private static void appendString(StringBuffer buffer, String string) {
+		if (string == null) {
+			buffer.append("null"); //$NON-NLS-1$
+			return;
+		}
+
+		buffer.append('"');
+		for (int i= 0, length= string.length(); i < length; i++) {
+			char ch= string.charAt(i);
+			switch (ch) {
+				case '"':
+				case '\\':
+					buffer.append('\\').append(ch);
+					break;
+				case '\n':
+					buffer.append("\\n"); //$NON-NLS-1$
+					break;
+				case '\r':
+					buffer.append("\\r"); //$NON-NLS-1$
+					break;
+				case '\t':
+					buffer.append("\\t"); //$NON-NLS-1$
+					break;
+				default:
+					if (ch < 0x20) {
+						String hex= Integer.toHexString(ch);
+						buffer.append("\\u"); //$NON-NLS-1$
+						for (int j= hex.length(); j < 4; j++)
+							buffer.append('0');
+						buffer.append(hex);
+					} else {
+						buffer.append(ch);
+					}
+			}
+		}
+		buffer.append('"');
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.Region;
+
+
+/**
+ * Keeps track of the visible lines of a text viewer and computes the window around them in
+ * which information about huge documents is computed eagerly. Documents with at most
+ * {@link #THRESHOLD} lines are always handled as a whole.
+ * <p>
+ * The visible lines are updated from the UI thread, the window can be computed from any
+ * thread.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class ViewportWindow {
+
+	/**
+	 * The number of document lines above which information is only computed in a window
+	 * around the visible lines.
+	 */
+	public static final int THRESHOLD= 5000;
+
+	/**
+	 * The number of lines that are assumed to be visible before the viewer reports its viewport.
+	 */
+	private static final int DEFAULT_VISIBLE_LINES= 100;
+
+	/** The first and last visible line of the viewer, or <code>null</code> if unknown. */
+	private volatile int[] fVisibleLines;
+
+	/**
+	 * Updates the visible lines from the given viewer.
+	 * <p>
+	 * NOTE: Called from UI thread.
+	 * </p>
+	 *
+	 * @param viewer the viewer
+	 */
+	public void updateVisibleLines(ITextViewer viewer) {
+		setVisibleLines(viewer.getTopIndex(), viewer.getBottomIndex());
+	}
+
+	/**
+	 * Remembers the visible lines.
+	 *
+	 * @param topLine the first visible line, negative if unknown
+	 * @param bottomLine the last visible line
+	 */
+	public void setVisibleLines(int topLine, int bottomLine) {
+		if (topLine < 0)
+			return;
+		if (bottomLine < topLine)
+			bottomLine= topLine + DEFAULT_VISIBLE_LINES;
+		fVisibleLines= new int[] { topLine, bottomLine };
+	}
+
+	/**
+	 * Computes the window around the visible lines, extended by the given number of pages above
+	 * and below.
+	 *
+	 * @param document the document
+	 * @param pages the number of pages to add above and below the visible lines
+	 * @return the window or <code>null</code> if the whole document has to be handled
+	 */
+	public IRegion computeWindow(IDocument document, int pages) {
+		int lines= document.getNumberOfLines();
+		if (lines <= THRESHOLD)
+			return null;
+
+		int[] visibleLines= fVisibleLines;
+		int topLine= visibleLines != null ? visibleLines[0] : 0;
+		int bottomLine= visibleLines != null ? visibleLines[1] : DEFAULT_VISIBLE_LINES;
+		int band= (bottomLine - topLine + 1) * pages;
+		int endLine= Math.min(lines - 1, bottomLine + band);
+		int startLine= Math.min(endLine, Math.max(0, topLine - band));
+		try {
+			int start= document.getLineOffset(startLine);
+			int end= document.getLineOffset(endLine) + document.getLineLength(endLine);
+			return new Region(start, end - start);
+		} catch (BadLocationException e) {
+			// concurrent modification
+			return null;
+		}
+	}
+}
@@ -144,6 +144,13 @@ final class CompletionProposalComputerDescriptor {
 	 */
 	private boolean fNeedsSortingAfterFiltering;
 
+	/**
+	 * The latency statistics of the computer.
+	 *
+	 * @since 3.8
+	 */
+	private final CompletionProposalComputerStatistics fStatistics= new CompletionProposalComputerStatistics();
+
 
 	/**
 	 * Creates a new descriptor.
@@ -330,10 +337,15 @@ final class CompletionProposalComputerDescriptor {
 
 			try {
 				PerformanceStats stats= startMeter(context, computer);
+				long start= System.nanoTime();
 				List<ICompletionProposal> proposals= computer.computeCompletionProposals(context, monitor);
+				long duration= System.nanoTime() - start;
 				stopMeter(stats, COMPUTE_COMPLETION_PROPOSALS);
 
 				if (proposals != null) {
+					fStatistics.recordComputation(duration, proposals.size());
+					if (duration > MAX_DELAY * 1000000)
+						fStatistics.recordTimeout();
 					fLastError= computer.getErrorMessage();
 					return proposals;
 				}
@@ -588,4 +600,14 @@ final class CompletionProposalComputerDescriptor {
 	public boolean isSortingAfterFilteringNeeded() {
 		return fNeedsSortingAfterFiltering;
 	}
+
+	/**
+	 * Returns the latency statistics of the proposal computations of the described extension.
+	 *
+	 * @return the latency statistics
+	 * @since 3.8
+	 */
+	public CompletionProposalComputerStatistics getStatistics() {
+		return fStatistics;
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -67,6 +67,62 @@ public final class CompletionProposalComputerRegistry {
 	private static final String EXTENSION_POINT= "javaCompletionProposalComputer"; //$NON-NLS-1$
 	private static final String NUM_COMPUTERS_PREF_KEY= "content_assist_number_of_computers"; //$NON-NLS-1$
 
+	/**
+	 * The latency statistics of a contributed completion proposal computer.
+	 *
+	 * @see CompletionProposalComputerRegistry#getStatistics()
+	 * @since 3.8
+	 */
+	public static final class ComputerStatistics {
+
+		private final String fId;
+		private final String fName;
+		private final String fCategoryName;
+		private final CompletionProposalComputerStatistics fStatistics;
+
+		private ComputerStatistics(CompletionProposalComputerDescriptor descriptor) {
+			fId= descriptor.getId();
+			fName= descriptor.getName();
+			fCategoryName= descriptor.getCategory().getDisplayName();
+			fStatistics= descriptor.getStatistics();
+		}
+
+		/**
+		 * Returns the identifier of the computer extension.
+		 *
+		 * @return the identifier
+		 */
+		public String getId() {
+			return fId;
+		}
+
+		/**
+		 * Returns the name of the computer extension.
+		 *
+		 * @return the name, the identifier if the extension has no name
+		 */
+		public String getName() {
+			return fName;
+		}
+
+		/**
+		 * Returns the display name of the category of the computer.
+		 *
+		 * @return the display name of the category
+		 */
+		public String getCategoryName() {
+			return fCategoryName;
+		}
+
+		/**
+		 * Returns the latency statistics of the computer.
+		 *
+		 * @return the latency statistics
+		 */
+		public CompletionProposalComputerStatistics getStatistics() {
+			return fStatistics;
+		}
+	}
 
 	/** The singleton instance. */
 	private static CompletionProposalComputerRegistry fgSingleton= null;
@@ -212,6 +268,22 @@ public final class CompletionProposalComputerRegistry {
 		return fPublicDescriptors;
 	}
 
+	/**
+	 * Returns the latency statistics of all extensions to the
+	 * <code>javaCompletionProposalComputer</code> extension point, in the order that the
+	 * extensions were read in.
+	 *
+	 * @return the statistics of the contributed computers
+	 * @since 3.8
+	 */
+	public List<ComputerStatistics> getStatistics() {
+		List<CompletionProposalComputerDescriptor> descriptors= getProposalComputerDescriptors();
+		List<ComputerStatistics> statistics= new ArrayList<ComputerStatistics>(descriptors.size());
+		for (Iterator<CompletionProposalComputerDescriptor> it= descriptors.iterator(); it.hasNext();)
+			statistics.add(new ComputerStatistics(it.next()));
+		return statistics;
+	}
+
 	/**
 	 * Returns the list of proposal categories contributed to the
 	 * <code>javaCompletionProposalComputer</code> extension point.
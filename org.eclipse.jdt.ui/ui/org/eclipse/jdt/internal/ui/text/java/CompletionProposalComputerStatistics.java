@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * The latency statistics of a completion proposal computer since startup or the last
+ * {@link #reset()}: a histogram of the time the computer took to compute its proposals, the
+ * number of computed proposals and the number of computations that took longer than the
+ * content assist timeout.
+ * <p>
+ * The histogram has a fixed number of buckets whose bounds grow by a quarter, so a percentile
+ * is reported as the upper bound of its bucket and over-estimates the exact value by at most
+ * 25%.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @see CompletionProposalComputerRegistry#getStatistics()
+ * @since 3.8
+ */
+public final class CompletionProposalComputerStatistics {
+
+	/** The smallest bucket bound in microseconds */
+	private static final long MIN_BOUND= 100;
+	/** The largest bucket bound in microseconds, slower computations fall into the last bucket */
+	private static final long MAX_BOUND= 60 * 1000 * 1000;
+	/** The upper bounds of the buckets in microseconds */
+	private static final long[] BOUNDS;
+
+	static {
+		List<Long> bounds= new ArrayList<Long>();
+		for (long bound= MIN_BOUND; bound < MAX_BOUND; bound+= bound / 4)
+			bounds.add(new Long(bound));
+		bounds.add(new Long(MAX_BOUND));
+		BOUNDS= new long[bounds.size()];
+		for (int i= 0; i < BOUNDS.length; i++)
+			BOUNDS[i]= bounds.get(i).longValue();
+	}
+
+	/** The number of computations per bucket, the last bucket counts all computations above {@link #MAX_BOUND} */
+	private final long[] fBuckets= new long[BOUNDS.length + 1];
+	/** The number of computations */
+	private long fComputations;
+	/** The number of computed proposals */
+	private long fProposals;
+	/** The number of computations that took longer than the timeout */
+	private long fTimeouts;
+	/** The longest computation in microseconds */
+	private long fMaxLatency;
+
+	/**
+	 * Records a computation.
+	 *
+	 * @param nanos the duration of the computation in nanoseconds
+	 * @param proposals the number of computed proposals
+	 */
+	public synchronized void recordComputation(long nanos, int proposals) {
+		long micros= nanos / 1000;
+		int bucket= 0;
+		while (bucket < BOUNDS.length && micros > BOUNDS[bucket])
+			bucket++;
+		fBuckets[bucket]++;
+		fComputations++;
+		fProposals+= proposals;
+		fMaxLatency= Math.max(fMaxLatency, micros);
+	}
+
+	/**
+	 * Records a computation that has taken longer than the content assist timeout.
+	 */
+	public synchronized void recordTimeout() {
+		fTimeouts++;
+	}
+
+	/**
+	 * Discards all recorded computations.
+	 */
+	public synchronized void reset() {
+		for (int i= 0; i < fBuckets.length; i++)
+			fBuckets[i]= 0;
+		fComputations= 0;
+		fProposals= 0;
+		fTimeouts= 0;
+		fMaxLatency= 0;
+	}
+
+	/**
+	 * Returns the number of recorded computations.
+	 *
+	 * @return the number of computations
+	 */
+	public synchronized long getComputationCount() {
+		return fComputations;
+	}
+
+	/**
+	 * Returns the number of proposals of all recorded computations.
+	 *
+	 * @return the number of proposals
+	 */
+	public synchronized long getProposalCount() {
+		return fProposals;
+	}
+
+	/**
+	 * Returns the number of computations that have taken longer than the content assist
+	 * timeout.
+	 *
+	 * @return the number of timeouts
+	 */
+	public synchronized long getTimeoutCount() {
+		return fTimeouts;
+	}
+
+	/**
+	 * Returns the given percentile of the computation latency.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the latency in milliseconds that the given percentage of computations did not
+	 *         exceed, or 0 if no computation has been recorded
+	 */
+	public synchronized double getLatency(double percentile) {
+		if (fComputations == 0)
+			return 0;
+		long rank= (long) Math.ceil(fComputations * percentile / 100);
+		long count= 0;
+		for (int i= 0; i < BOUNDS.length; i++) {
+			count+= fBuckets[i];
+			if (count >= rank)
+				return Math.min(BOUNDS[i], fMaxLatency) / 1000.0;
+		}
+		return fMaxLatency / 1000.0;
+	}
+}
@@ -0,0 +1,518 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+
+import org.eclipse.jdt.core.CompletionContext;
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.core.CompletionRequestor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.compiler.IProblem;
+
+
+/**
+ * Caches the core completion proposals of a code assist session, so that narrowing the prefix
+ * while the session lasts does not run {@link ICompilationUnit#codeComplete(int, CompletionRequestor)}
+ * again.
+ * <p>
+ * The cache is keyed by the start of the completion prefix and stays valid as long as the
+ * document only changes inside the prefix. A lookup at the end of a prefix that extends the
+ * cached prefix filters the cached proposals in memory, the same way code completion filters
+ * them: by case-insensitive prefix and, if enabled, by camel case. The proposals are indexed by
+ * the lower case first character of the name they are matched against.
+ * </p>
+ * <p>
+ * The proposals and the context returned for a longer prefix are adjusted to it: the ranges
+ * behind the cached prefix are moved to the end of the current prefix and the relevance that
+ * code completion gives for matching the case of the prefix is recomputed.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class CompletionSessionCache implements IDocumentListener {
+
+	/**
+	 * The relevance code completion adds if the prefix matches the start of the name with the
+	 * same case.
+	 */
+	private static final int R_CASE= 10;
+	/** The relevance code completion adds if the prefix is the name, ignoring case. */
+	private static final int R_EXACT_NAME= 4;
+	/** The relevance code completion adds if the prefix matches the name by camel case. */
+	private static final int R_CAMEL_CASE= 5;
+
+	/**
+	 * A completion requestor that forwards to another requestor and records the proposals and
+	 * the context.
+	 */
+	public static final class RecordingRequestor extends CompletionRequestor {
+
+		private final CompletionRequestor fRequestor;
+		private final List<CompletionProposal> fProposals= new ArrayList<CompletionProposal>();
+		private CompletionContext fContext;
+		private boolean fHasFailed;
+
+		public RecordingRequestor(CompletionRequestor requestor) {
+			super(true);
+			fRequestor= requestor;
+		}
+
+		@Override
+		public boolean isIgnored(int completionProposalKind) {
+			return fRequestor.isIgnored(completionProposalKind);
+		}
+
+		@Override
+		public boolean isAllowingRequiredProposals(int proposalKind, int requiredProposalKind) {
+			return fRequestor.isAllowingRequiredProposals(proposalKind, requiredProposalKind);
+		}
+
+		@Override
+		public String[] getFavoriteReferences() {
+			return fRequestor.getFavoriteReferences();
+		}
+
+		@Override
+		public boolean isExtendedContextRequired() {
+			return fRequestor.isExtendedContextRequired();
+		}
+
+		@Override
+		public void acceptContext(CompletionContext context) {
+			fContext= context;
+			fRequestor.acceptContext(context);
+		}
+
+		@Override
+		public void beginReporting() {
+			fProposals.clear();
+			fHasFailed= false;
+			fRequestor.beginReporting();
+		}
+
+		@Override
+		public void accept(CompletionProposal proposal) {
+			fProposals.add(proposal);
+			fRequestor.accept(proposal);
+		}
+
+		@Override
+		public void completionFailure(IProblem problem) {
+			fHasFailed= true;
+			fRequestor.completionFailure(problem);
+		}
+
+		@Override
+		public void endReporting() {
+			fRequestor.endReporting();
+		}
+	}
+
+	/** The document */
+	private final IDocument fDocument;
+	/** The compilation unit */
+	private final ICompilationUnit fUnit;
+	/** The core context of the cached completion */
+	private final CompletionContext fContext;
+	/** The invocation offset of the cached completion */
+	private final int fOffset;
+	/** The start offset of the completion prefix */
+	private final int fPrefixStart;
+	/** The cached completion prefix */
+	private final char[] fPrefix;
+	/** The cached proposals */
+	private final CompletionProposal[] fProposals;
+	/** The names against which the cached proposals are matched */
+	private final char[][] fNames;
+	/** The indices of the cached proposals by the lower case first character of their name */
+	private final Map<Character, int[]> fIndex;
+	/** The indices of the cached proposals with an empty name */
+	private final int[] fUnnamed;
+	/** The relevance of the cached proposals for the cached prefix */
+	private final int[] fRelevances;
+	/** The amount by which the ranges of the cached proposals have been moved */
+	private final int[] fShifts;
+	/** Tells whether camel case matching is enabled */
+	private final boolean fIsCamelCase;
+
+	/** The end offset of the completion prefix in the current document */
+	private int fPrefixEnd;
+	/** <code>false</code> once the document has been changed outside the prefix */
+	private boolean fIsValid= true;
+	/** The core context for the prefix of the last lookup */
+	private CompletionContext fPrefixContext;
+
+	/**
+	 * The core context of the cached completion, reporting the token and offsets of the prefix
+	 * of the last lookup.
+	 */
+	private static final class PrefixContext extends CompletionContext {
+
+		private final CompletionContext fContext;
+		private final char[] fToken;
+		private final int fShift;
+
+		PrefixContext(CompletionContext context, char[] token, int shift) {
+			fContext= context;
+			fToken= token;
+			fShift= shift;
+		}
+
+		@Override
+		public char[] getToken() {
+			return fToken;
+		}
+
+		@Override
+		public int getTokenEnd() {
+			return fContext.getTokenEnd() + fShift;
+		}
+
+		@Override
+		public int getOffset() {
+			return fContext.getOffset() + fShift;
+		}
+
+		@Override
+		public int getTokenStart() {
+			return fContext.getTokenStart();
+		}
+
+		@Override
+		public int getTokenKind() {
+			return fContext.getTokenKind();
+		}
+
+		@Override
+		public int getTokenLocation() {
+			return fContext.getTokenLocation();
+		}
+
+		@Override
+		public char[][] getExpectedTypesSignatures() {
+			return fContext.getExpectedTypesSignatures();
+		}
+
+		@Override
+		public char[][] getExpectedTypesKeys() {
+			return fContext.getExpectedTypesKeys();
+		}
+
+		@Override
+		public boolean isInJavadoc() {
+			return fContext.isInJavadoc();
+		}
+
+		@Override
+		public boolean isInJavadocFormalReference() {
+			return fContext.isInJavadocFormalReference();
+		}
+
+		@Override
+		public boolean isInJavadocText() {
+			return fContext.isInJavadocText();
+		}
+
+		@Override
+		public boolean isExtended() {
+			return fContext.isExtended();
+		}
+
+		@Override
+		public IJavaElement getEnclosingElement() {
+			return fContext.getEnclosingElement();
+		}
+
+		@Override
+		public IJavaElement[] getVisibleElements(String typeSignature) {
+			return fContext.getVisibleElements(typeSignature);
+		}
+
+		@Override
+		public String toString() {
+			return fContext.toString();
+		}
+	}
+
+	/**
+	 * Creates a cache for the proposals recorded by the given requestor and starts to listen to
+	 * the document.
+	 *
+	 * @param document the document
+	 * @param unit the compilation unit
+	 * @param offset the invocation offset
+	 * @param requestor the requestor that has recorded the completion at the given offset
+	 */
+	private CompletionSessionCache(IDocument document, ICompilationUnit unit, int offset, RecordingRequestor requestor) {
+		fDocument= document;
+		fUnit= unit;
+		fContext= requestor.fContext;
+		fPrefixContext= fContext;
+		fPrefix= fContext.getToken();
+		fOffset= offset;
+		fPrefixStart= offset - fPrefix.length;
+		fPrefixEnd= offset;
+		fIsCamelCase= JavaCore.ENABLED.equals(unit.getJavaProject().getOption(JavaCore.CODEASSIST_CAMEL_CASE_MATCH, true));
+
+		fProposals= requestor.fProposals.toArray(new CompletionProposal[requestor.fProposals.size()]);
+		fNames= new char[fProposals.length][];
+		fRelevances= new int[fProposals.length];
+		fShifts= new int[fProposals.length];
+		Map<Character, List<Integer>> buckets= new HashMap<Character, List<Integer>>();
+		List<Integer> unnamed= new ArrayList<Integer>();
+		for (int i= 0; i < fProposals.length; i++) {
+			char[] name= getName(fProposals[i]);
+			fNames[i]= name;
+			fRelevances[i]= fProposals[i].getRelevance();
+			if (name.length == 0) {
+				unnamed.add(new Integer(i));
+			} else {
+				Character key= new Character(Character.toLowerCase(name[0]));
+				List<Integer> bucket= buckets.get(key);
+				if (bucket == null) {
+					bucket= new ArrayList<Integer>();
+					buckets.put(key, bucket);
+				}
+				bucket.add(new Integer(i));
+			}
+		}
+		fIndex= new HashMap<Character, int[]>(buckets.size() * 2);
+		for (Map.Entry<Character, List<Integer>> entry : buckets.entrySet())
+			fIndex.put(entry.getKey(), toArray(entry.getValue()));
+		fUnnamed= toArray(unnamed);
+
+		fDocument.addDocumentListener(this);
+	}
+
+	/**
+	 * Creates a cache for the completion recorded by the given requestor. Completions with an
+	 * empty prefix are not cached since the core leaves out the type and package proposals for
+	 * them, which are needed once the prefix is longer.
+	 *
+	 * @param document the document
+	 * @param unit the compilation unit
+	 * @param offset the invocation offset
+	 * @param requestor the requestor that has recorded the completion at the given offset
+	 * @return the cache, or <code>null</code> if the completion cannot be cached
+	 */
+	public static CompletionSessionCache create(IDocument document, ICompilationUnit unit, int offset, RecordingRequestor requestor) {
+		CompletionContext context= requestor.fContext;
+		if (document == null || requestor.fHasFailed || context == null || context.isInJavadoc())
+			return null;
+		if (context.getTokenKind() != CompletionContext.TOKEN_KIND_NAME || context.getToken() == null || context.getToken().length == 0)
+			return null;
+		return new CompletionSessionCache(document, unit, offset, requestor);
+	}
+
+	/**
+	 * Stops listening to the document and invalidates the cache.
+	 */
+	public void dispose() {
+		if (fIsValid) {
+			fIsValid= false;
+			fDocument.removeDocumentListener(this);
+		}
+	}
+
+	/**
+	 * Returns the core context of the cached completion for the prefix of the last successful
+	 * {@link #lookup(IDocument, ICompilationUnit, int) lookup}.
+	 *
+	 * @return the core context
+	 */
+	public CompletionContext getContext() {
+		return fPrefixContext;
+	}
+
+	/**
+	 * Returns the cached proposals that match the prefix at the given offset if the prefix
+	 * extends the cached prefix and the document has not changed outside the prefix. The
+	 * replacement and token ranges and the relevance of the returned proposals are adjusted to
+	 * the prefix.
+	 *
+	 * @param document the document
+	 * @param unit the compilation unit
+	 * @param offset the invocation offset
+	 * @return the matching proposals, or <code>null</code> if the cache cannot answer the
+	 *         completion at the given offset
+	 */
+	public List<CompletionProposal> lookup(IDocument document, ICompilationUnit unit, int offset) {
+		if (!fIsValid || fPrefix.length == 0 || document != fDocument || !fUnit.equals(unit) || offset != fPrefixEnd)
+			return null;
+
+		char[] prefix;
+		try {
+			prefix= document.get(fPrefixStart, offset - fPrefixStart).toCharArray();
+		} catch (BadLocationException e) {
+			return null;
+		}
+		if (!CharOperation.prefixEquals(fPrefix, prefix))
+			return null;
+		for (int i= fPrefix.length; i < prefix.length; i++) {
+			if (!Character.isJavaIdentifierPart(prefix[i]))
+				return null;
+		}
+
+		int shift= offset - fOffset;
+		fPrefixContext= shift == 0 ? fContext : new PrefixContext(fContext, prefix, shift);
+
+		List<CompletionProposal> result= new ArrayList<CompletionProposal>();
+		int[] candidates= fIndex.get(new Character(Character.toLowerCase(prefix[0])));
+		if (candidates != null) {
+			for (int i= 0; i < candidates.length; i++) {
+				int index= candidates[i];
+				char[] name= fNames[index];
+				if (CharOperation.prefixEquals(prefix, name, false) || fIsCamelCase && CharOperation.camelCaseMatch(prefix, name)) {
+					CompletionProposal proposal= fProposals[index];
+					proposal.setRelevance(fRelevances[index] - getCaseRelevance(fPrefix, name) + getCaseRelevance(prefix, name));
+					moveRanges(index, shift);
+					result.add(proposal);
+				}
+			}
+		}
+		for (int i= 0; i < fUnnamed.length; i++) {
+			moveRanges(fUnnamed[i], shift);
+			result.add(fProposals[fUnnamed[i]]);
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the ranges of the cached proposal with the given index and of its required proposals
+	 * that start or end behind the cached prefix by the given amount.
+	 *
+	 * @param index the index of the proposal
+	 * @param shift the difference between the current and the cached end of the prefix
+	 */
+	private void moveRanges(int index, int shift) {
+		int delta= shift - fShifts[index];
+		if (delta == 0)
+			return;
+		int end= fOffset + fShifts[index];
+		fShifts[index]= shift;
+
+		CompletionProposal proposal= fProposals[index];
+		moveRanges(proposal, end, delta);
+		CompletionProposal[] requiredProposals= proposal.getRequiredProposals();
+		if (requiredProposals != null) {
+			for (int i= 0; i < requiredProposals.length; i++)
+				moveRanges(requiredProposals[i], end, delta);
+		}
+	}
+
+	private static void moveRanges(CompletionProposal proposal, int end, int delta) {
+		int replaceStart= proposal.getReplaceStart();
+		int replaceEnd= proposal.getReplaceEnd();
+		proposal.setReplaceRange(move(replaceStart, end, delta), move(replaceEnd, end, delta));
+		int tokenStart= proposal.getTokenStart();
+		int tokenEnd= proposal.getTokenEnd();
+		proposal.setTokenRange(move(tokenStart, end, delta), move(tokenEnd, end, delta));
+	}
+
+	private static int move(int position, int end, int delta) {
+		return position >= end ? position + delta : position;
+	}
+
+	/**
+	 * Returns the relevance code completion gives for how the given prefix matches the given name.
+	 *
+	 * @param prefix the prefix
+	 * @param name the name
+	 * @return the relevance
+	 */
+	private int getCaseRelevance(char[] prefix, char[] name) {
+		if (CharOperation.equals(prefix, name, true))
+			return R_CASE + R_EXACT_NAME;
+		if (CharOperation.prefixEquals(prefix, name, true))
+			return R_CASE;
+		if (fIsCamelCase && CharOperation.camelCaseMatch(prefix, name))
+			return R_CAMEL_CASE;
+		if (CharOperation.equals(prefix, name, false))
+			return R_EXACT_NAME;
+		return 0;
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public void documentAboutToBeChanged(DocumentEvent event) {
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public void documentChanged(DocumentEvent event) {
+		int offset= event.getOffset();
+		int length= event.getLength();
+		if (offset < fPrefixStart || offset + length > fPrefixEnd) {
+			dispose();
+			return;
+		}
+		String text= event.getText();
+		fPrefixEnd+= (text == null ? 0 : text.length()) - length;
+	}
+
+	/**
+	 * Returns the name against which code completion matches the prefix for the given proposal.
+	 *
+	 * @param proposal the proposal
+	 * @return the name, may be empty
+	 */
+	private static char[] getName(CompletionProposal proposal) {
+		switch (proposal.getKind()) {
+			case CompletionProposal.TYPE_REF:
+				return simpleName(proposal.getSignature());
+			case CompletionProposal.PACKAGE_REF:
+				return nonNull(proposal.getDeclarationSignature());
+			case CompletionProposal.ANONYMOUS_CLASS_DECLARATION:
+			case CompletionProposal.ANONYMOUS_CLASS_CONSTRUCTOR_INVOCATION:
+			case CompletionProposal.CONSTRUCTOR_INVOCATION:
+				return simpleName(proposal.getDeclarationSignature());
+			default:
+				char[] name= proposal.getName();
+				if (name != null && name.length > 0)
+					return name;
+				return nonNull(proposal.getCompletion());
+		}
+	}
+
+	private static char[] simpleName(char[] signature) {
+		if (signature == null)
+			return CharOperation.NO_CHAR;
+		char[] name= Signature.getSignatureSimpleName(signature);
+		int typeArguments= CharOperation.indexOf('<', name);
+		return typeArguments == -1 ? name : CharOperation.subarray(name, 0, typeArguments);
+	}
+
+	private static char[] nonNull(char[] chars) {
+		return chars == null ? CharOperation.NO_CHAR : chars;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array= new int[list.size()];
+		for (int i= 0; i < array.length; i++)
+			array[i]= list.get(i).intValue();
+		return array;
+	}
+}
@@ -10,6 +10,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
@@ -19,7 +26,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -62,6 +68,12 @@ import org.eclipse.jdt.internal.ui.JavaUIStatus;
 
 /**
  * An LRU cache for code assist.
+ * <p>
+ * Every remembered right hand side carries a use count that decays with a half-life of
+ * {@link #HALF_LIFE} milliseconds. The ranks of the right hand sides of a left hand side are
+ * computed once per change of the history, so that {@link RHSHistory#getRank(String)} is a single
+ * map lookup. The history is persisted in a binary file, see {@link #store(ContentAssistHistory, File)}.
+ * </p>
  *
  * @since 3.2
  */
@@ -97,8 +109,8 @@ public final class ContentAssistHistory {
 					lhsElement.setAttribute(ATTRIBUTE_NAME, lhs);
 					rootElement.appendChild(lhsElement);
 
-					MRUSet<String> rightHandSides= history.fLHSCache.get(lhs);
-					for (Iterator<String> rhsIterator= rightHandSides.iterator(); rhsIterator.hasNext();) {
+					RHSCache rightHandSides= history.fLHSCache.get(lhs);
+					for (Iterator<String> rhsIterator= rightHandSides.keySet().iterator(); rhsIterator.hasNext();) {
 						String rhs= rhsIterator.next();
 						Element rhsElement= document.createElement(NODE_RHS);
 						rhsElement.setAttribute(ATTRIBUTE_NAME, rhs);
@@ -141,6 +153,7 @@ public final class ContentAssistHistory {
 			int maxRHS= parseNaturalInt(root.getAttribute(ATTRIBUTE_MAX_RHS), DEFAULT_TRACKED_RHS);
 
 			ContentAssistHistory history= new ContentAssistHistory(maxLHS, maxRHS);
+			long now= System.currentTimeMillis();
 
 			NodeList list= root.getChildNodes();
 			int length= list.getLength();
@@ -151,7 +164,7 @@ public final class ContentAssistHistory {
 					if (lhsElement.getNodeName().equalsIgnoreCase(NODE_LHS)) {
 						String lhs= lhsElement.getAttribute(ATTRIBUTE_NAME);
 						if (lhs != null) {
-							Set<String> cache= history.getCache(lhs);
+							RHSCache cache= history.getCache(lhs);
 							NodeList children= lhsElement.getChildNodes();
 							int nRHS= children.getLength();
 							for (int j= 0; j < nRHS; j++) {
@@ -161,7 +174,7 @@ public final class ContentAssistHistory {
 									if (rhsElement.getNodeName().equalsIgnoreCase(NODE_RHS)) {
 										String rhs= rhsElement.getAttribute(ATTRIBUTE_NAME);
 										if (rhs != null) {
-											cache.add(rhs);
+											cache.use(rhs, now);
 										}
 									}
 								}
@@ -185,8 +198,62 @@ public final class ContentAssistHistory {
 			}
 		}
 
-		private JavaUIException createException(Exception e, String message) {
-			return new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, message, e));
+	}
+
+	/**
+	 * Binary persistence implementation.
+	 *
+	 * @since 3.8
+	 */
+	private static final class BinaryReaderWriter {
+
+		private static final int MAGIC= 0x4A434148;
+		private static final int VERSION= 1;
+
+		public void store(ContentAssistHistory history, DataOutputStream out) throws IOException {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(history.fMaxLHS);
+			out.writeInt(history.fMaxRHS);
+			out.writeInt(history.fLHSCache.size());
+			for (Iterator<Entry<String, RHSCache>> leftHandSides= history.fLHSCache.entrySet().iterator(); leftHandSides.hasNext();) {
+				Entry<String, RHSCache> lhsEntry= leftHandSides.next();
+				out.writeUTF(lhsEntry.getKey());
+				RHSCache rightHandSides= lhsEntry.getValue();
+				out.writeInt(rightHandSides.size());
+				for (Iterator<Entry<String, Usage>> rhsIterator= rightHandSides.entrySet().iterator(); rhsIterator.hasNext();) {
+					Entry<String, Usage> rhsEntry= rhsIterator.next();
+					out.writeUTF(rhsEntry.getKey());
+					out.writeFloat(rhsEntry.getValue().fCount);
+					out.writeLong(rhsEntry.getValue().fLastUse);
+				}
+			}
+		}
+
+		public ContentAssistHistory load(DataInputStream in) throws IOException {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				return null;
+
+			int maxLHS= in.readInt();
+			int maxRHS= in.readInt();
+			if (maxLHS <= 0)
+				maxLHS= DEFAULT_TRACKED_LHS;
+			if (maxRHS <= 0)
+				maxRHS= DEFAULT_TRACKED_RHS;
+
+			ContentAssistHistory history= new ContentAssistHistory(maxLHS, maxRHS);
+			int nLHS= in.readInt();
+			for (int i= 0; i < nLHS; i++) {
+				RHSCache cache= history.getCache(in.readUTF());
+				int nRHS= in.readInt();
+				for (int j= 0; j < nRHS; j++) {
+					String rhs= in.readUTF();
+					float count= in.readFloat();
+					long lastUse= in.readLong();
+					cache.put(rhs, new Usage(count, lastUse));
+				}
+			}
+			return history;
 		}
 	}
 
@@ -231,68 +298,103 @@ public final class ContentAssistHistory {
 	}
 
 	/**
-	 * Most recently used variant with capped size that orders the elements by addition.
-	 * This is implemented by always removing an element before it gets added back.
+	 * The use of a right hand side: a count that decays with a half-life of {@link #HALF_LIFE}
+	 * milliseconds, and the time of the last use.
 	 *
-	 * @since 3.2
+	 * @since 3.8
 	 */
-	private static final class MRUSet<E> extends LinkedHashSet<E> {
+	private static final class Usage {
+		/** The decayed count at the time of the last use */
+		final float fCount;
+		/** The time of the last use, see {@link System#currentTimeMillis()} */
+		final long fLastUse;
+
+		Usage(float count, long lastUse) {
+			fCount= count;
+			fLastUse= lastUse;
+		}
+
+		/**
+		 * Returns the count decayed until the given time.
+		 *
+		 * @param now the current time, see {@link System#currentTimeMillis()}
+		 * @return the decayed count
+		 */
+		float getCount(long now) {
+			if (now <= fLastUse)
+				return fCount;
+			return (float) (fCount * Math.pow(0.5, (double) (now - fLastUse) / HALF_LIFE));
+		}
+	}
+
+	/**
+	 * Most recently used map from right hand sides to their {@link Usage} with capped size that
+	 * orders the elements by their last use. This is implemented by always removing an element
+	 * before it gets put back.
+	 *
+	 * @since 3.8
+	 */
+	private static final class RHSCache extends LinkedHashMap<String, Usage> {
 		private static final long serialVersionUID= 1L;
 		private final int fMaxSize;
 
 		/**
-		 * Creates a new <code>MRUSet</code> with the given size.
+		 * Creates a new <code>RHSCache</code> with the given size.
 		 *
 		 * @param maxSize the maximum size of the cache, must be &gt; 0
 		 */
-		public MRUSet(int maxSize) {
+		public RHSCache(int maxSize) {
 			Assert.isLegal(maxSize > 0);
 			fMaxSize= maxSize;
 		}
 
+		/**
+		 * Records a use of the given right hand side.
+		 *
+		 * @param rhs the right hand side
+		 * @param now the current time, see {@link System#currentTimeMillis()}
+		 */
+		public void use(String rhs, long now) {
+			Usage usage= remove(rhs);
+			float count= usage == null ? 0.0F : usage.getCount(now);
+			put(rhs, new Usage(count + 1.0F, now));
+		}
+
 		/*
-		 * @see java.util.HashSet#add(java.lang.Object)
+		 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
 		 */
 		@Override
-		public boolean add(E o) {
-			if (remove(o)) {
-				super.add(o);
-				return false;
-			}
-
-			if (size() >= fMaxSize)
-				remove(this.iterator().next());
-
-			super.add(o);
-			return true;
+		protected boolean removeEldestEntry(Entry<String, Usage> eldest) {
+			return size() > fMaxSize;
 		}
 	}
 
 	/**
-	 * A ranking of the most recently selected types.
+	 * A ranking of the most recently and most frequently selected types.
 	 *
 	 * @since 3.2
 	 */
 	public static final class RHSHistory {
-		private final LinkedHashMap<String, Integer> fHistory;
-		private List<String> fList;
+		private final Map<String, Float> fRanks;
+		private final List<String> fList;
 
-		RHSHistory(LinkedHashMap<String, Integer> history) {
-			fHistory= history;
+		RHSHistory(Map<String, Float> ranks, List<String> list) {
+			fRanks= ranks;
+			fList= list;
 		}
 
 		/**
-		 * Returns the rank of a type in the history in [0.0,&nbsp;1.0]. The rank of the most
-		 * recently selected type is 1.0, the rank of any type that is not remembered is zero.
+		 * Returns the rank of a type in the history in [0.0,&nbsp;1.0]. The rank is the average of
+		 * the recency and the decayed frequency of the selections of the type. The rank of the
+		 * most recently and most frequently selected type is 1.0, the rank of any type that is not
+		 * remembered is zero.
 		 *
 		 * @param type the fully qualified type name to get the rank for
 		 * @return the rank of <code>type</code>
 		 */
 		public float getRank(String type) {
-			if (fHistory == null)
-				return 0.0F;
-			Integer integer= fHistory.get(type);
-			return integer == null ? 0.0F : integer.floatValue() / fHistory.size();
+			Float rank= fRanks.get(type);
+			return rank == null ? 0.0F : rank.floatValue();
 		}
 
 		/**
@@ -301,7 +403,7 @@ public final class ContentAssistHistory {
 		 * @return the size of the history
 		 */
 		public int size() {
-			return fHistory == null ? 0 : fHistory.size();
+			return fList.size();
 		}
 
 		/**
@@ -311,18 +413,15 @@ public final class ContentAssistHistory {
 		 * @return the list of remembered types as fully qualified type names
 		 */
 		public List<String> getTypes() {
-			if (fHistory == null)
-				return Collections.emptyList();
-			if (fList == null) {
-				fList= Collections.unmodifiableList(new ArrayList<String>(fHistory.keySet()));
-			}
 			return fList;
 		}
 	}
 
-	private static final RHSHistory EMPTY_HISTORY= new RHSHistory(null);
+	private static final RHSHistory EMPTY_HISTORY= new RHSHistory(Collections.<String, Float>emptyMap(), Collections.<String>emptyList());
 	private static final int DEFAULT_TRACKED_LHS= 100;
 	private static final int DEFAULT_TRACKED_RHS= 10;
+	/** The half-life of the use counts in milliseconds: 30 days */
+	private static final long HALF_LIFE= 30L * 24 * 60 * 60 * 1000;
 
 	private static final Set<String> UNCACHEABLE;
 	static {
@@ -334,7 +433,9 @@ public final class ContentAssistHistory {
 		UNCACHEABLE= Collections.unmodifiableSet(uncacheable);
 	}
 
-	private final LinkedHashMap<String, MRUSet<String>> fLHSCache;
+	private final LinkedHashMap<String, RHSCache> fLHSCache;
+	/** The ranked histories by left hand side, computed on demand and cleared on every change */
+	private final Map<String, RHSHistory> fHistories= new HashMap<String, RHSHistory>();
 	private final int fMaxLHS;
 	private final int fMaxRHS;
 
@@ -349,7 +450,7 @@ public final class ContentAssistHistory {
 		Assert.isLegal(maxRHS > 0);
 		fMaxLHS= maxLHS;
 		fMaxRHS= maxRHS;
-		fLHSCache= new MRUMap<String, MRUSet<String>>(fMaxLHS);
+		fLHSCache= new MRUMap<String, RHSCache>(fMaxLHS);
 	}
 
 	/**
@@ -379,9 +480,13 @@ public final class ContentAssistHistory {
 				// TODO remember for every member of the LHS hierarchy or not? Yes for now.
 				IType[] allLHSides= hierarchy.getAllSupertypes(lhs);
 				String rhsQualifiedName= rhs.getFullyQualifiedName();
-				for (int i= 0; i < allLHSides.length; i++)
-					rememberInternal(allLHSides[i], rhsQualifiedName);
-				rememberInternal(lhs, rhsQualifiedName);
+				long now= System.currentTimeMillis();
+				synchronized (this) {
+					for (int i= 0; i < allLHSides.length; i++)
+						rememberInternal(allLHSides[i], rhsQualifiedName, now);
+					rememberInternal(lhs, rhsQualifiedName, now);
+					fHistories.clear();
+				}
 			}
 		} catch (JavaModelException x) {
 			JavaPlugin.log(x);
@@ -396,19 +501,47 @@ public final class ContentAssistHistory {
 	 *        requested, or <code>null</code>
 	 * @return the right hand side history for the given type
 	 */
-	public RHSHistory getHistory(String lhs) {
-		MRUSet<String> rhsCache= fLHSCache.get(lhs);
-		if (rhsCache != null) {
-			int count= rhsCache.size();
-			LinkedHashMap<String, Integer> history= new LinkedHashMap<String, Integer>((int) (count / 0.75));
-			int rank= 1;
-			for (Iterator<String> it= rhsCache.iterator(); it.hasNext(); rank++) {
-				String type= it.next();
-				history.put(type, new Integer(rank));
-			}
-			return new RHSHistory(history);
+	public synchronized RHSHistory getHistory(String lhs) {
+		RHSHistory history= fHistories.get(lhs);
+		if (history == null) {
+			RHSCache rhsCache= fLHSCache.get(lhs);
+			if (rhsCache == null)
+				return EMPTY_HISTORY;
+			history= createHistory(rhsCache, System.currentTimeMillis());
+			fHistories.put(lhs, history);
+		}
+		return history;
+	}
+
+	/**
+	 * Ranks the right hand sides of the given cache.
+	 *
+	 * @param rhsCache the right hand sides of a left hand side
+	 * @param now the current time, see {@link System#currentTimeMillis()}
+	 * @return the ranked history
+	 * @since 3.8
+	 */
+	private static RHSHistory createHistory(RHSCache rhsCache, long now) {
+		int size= rhsCache.size();
+		float[] counts= new float[size];
+		float maxCount= 0.0F;
+		int i= 0;
+		for (Iterator<Usage> it= rhsCache.values().iterator(); it.hasNext(); i++) {
+			counts[i]= it.next().getCount(now);
+			maxCount= Math.max(maxCount, counts[i]);
+		}
+
+		Map<String, Float> ranks= new HashMap<String, Float>((int) (size / 0.75) + 1);
+		List<String> types= new ArrayList<String>(size);
+		i= 0;
+		for (Iterator<String> it= rhsCache.keySet().iterator(); it.hasNext(); i++) {
+			String type= it.next();
+			float recency= (float) (i + 1) / size;
+			float frequency= maxCount > 0.0F ? counts[i] / maxCount : 0.0F;
+			ranks.put(type, new Float((recency + frequency) / 2));
+			types.add(type);
 		}
-		return EMPTY_HISTORY;
+		return new RHSHistory(ranks, Collections.unmodifiableList(types));
 	}
 
 	/**
@@ -417,20 +550,20 @@ public final class ContentAssistHistory {
 	 *
 	 * @return the set of remembered right hand sides ordered by least recent selection
 	 */
-	public Map<String, RHSHistory> getEntireHistory() {
+	public synchronized Map<String, RHSHistory> getEntireHistory() {
 		HashMap<String, RHSHistory> map= new HashMap<String, RHSHistory>((int) (fLHSCache.size() / 0.75));
-		for ( Iterator<Entry<String, MRUSet<String>>> it= fLHSCache.entrySet().iterator(); it.hasNext();) {
-			Entry<String, MRUSet<String>> entry= it.next();
+		for ( Iterator<Entry<String, RHSCache>> it= fLHSCache.entrySet().iterator(); it.hasNext();) {
+			Entry<String, RHSCache> entry= it.next();
 			String lhs= entry.getKey();
 			map.put(lhs, getHistory(lhs));
 		}
 		return Collections.unmodifiableMap(map);
 	}
 
-	private void rememberInternal(IType lhs, String rhsQualifiedName) throws JavaModelException {
+	private void rememberInternal(IType lhs, String rhsQualifiedName, long now) throws JavaModelException {
 		String lhsQualifiedName= lhs.getFullyQualifiedName();
 		if (isCacheableLHS(lhs, lhsQualifiedName))
-			getCache(lhsQualifiedName).add(rhsQualifiedName);
+			getCache(lhsQualifiedName).use(rhsQualifiedName, now);
 	}
 
 	private boolean isCacheableLHS(IType type, String qualifiedName) throws JavaModelException {
@@ -441,10 +574,10 @@ public final class ContentAssistHistory {
 		return !type.isInterface() && !Flags.isAbstract(type.getFlags());
 	}
 
-	private Set<String> getCache(String lhs) {
-		MRUSet<String> rhsCache= fLHSCache.get(lhs);
+	private RHSCache getCache(String lhs) {
+		RHSCache rhsCache= fLHSCache.get(lhs);
 		if (rhsCache == null) {
-			rhsCache= new MRUSet<String>(fMaxRHS);
+			rhsCache= new RHSCache(fMaxRHS);
 			fLHSCache.put(lhs, rhsCache);
 		}
 
@@ -466,7 +599,9 @@ public final class ContentAssistHistory {
 	 */
 	public static void store(ContentAssistHistory history, Preferences preferences, String key) throws CoreException {
 		StringWriter writer= new StringWriter();
-		new ReaderWriter().store(history, new StreamResult(writer));
+		synchronized (history) {
+			new ReaderWriter().store(history, new StreamResult(writer));
+		}
 		preferences.setValue(key, writer.toString());
 	}
 
@@ -488,4 +623,69 @@ public final class ContentAssistHistory {
 		}
 		return null;
 	}
+
+	/**
+	 * Stores the history into the given binary file.
+	 *
+	 * @param history the history to store
+	 * @param file the file to store the history into
+	 * @throws CoreException if writing the file fails
+	 * @see #load(File) on how to restore a history stored by this method
+	 * @since 3.8
+	 */
+	public static void store(ContentAssistHistory history, File file) throws CoreException {
+		DataOutputStream out= null;
+		try {
+			out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			synchronized (history) {
+				new BinaryReaderWriter().store(history, out);
+			}
+			out.close();
+			out= null;
+		} catch (IOException e) {
+			throw createException(e, JavaTextMessages.ContentAssistHistory_write_error);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads a history from a binary file.
+	 *
+	 * @param file the file to load the history from
+	 * @return the loaded history, or <code>null</code> if the file does not exist or has an
+	 *         unknown format
+	 * @throws CoreException if reading the file fails
+	 * @see #store(ContentAssistHistory, File) on how to store a history such that it can be read
+	 *      by this method
+	 * @since 3.8
+	 */
+	public static ContentAssistHistory load(File file) throws CoreException {
+		if (!file.isFile())
+			return null;
+
+		DataInputStream in= null;
+		try {
+			in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			return new BinaryReaderWriter().load(in);
+		} catch (IOException e) {
+			throw createException(e, JavaTextMessages.ContentAssistHistory_read_error);
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	private static JavaUIException createException(Exception e, String message) {
+		return new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, message, e));
+	}
 }
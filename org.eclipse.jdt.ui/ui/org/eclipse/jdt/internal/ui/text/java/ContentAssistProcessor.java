@@ -150,6 +150,8 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 				cat.sessionEnded();
 			}
 
+			fPrefetcher.clear();
+
 			fCategoryIteration= null;
 			fRepetition= -1;
 			fIterationGesture= null;
@@ -169,6 +171,8 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		 * @see org.eclipse.jface.text.contentassist.ICompletionListener#selectionChanged(org.eclipse.jface.text.contentassist.ICompletionProposal, boolean)
 		 */
 		public void selectionChanged(ICompletionProposal proposal, boolean smartToggle) {
+			if (proposal != null)
+				fPrefetcher.prefetch(proposal);
 		}
 
 		/*
@@ -211,6 +215,13 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 	private int fNumberOfComputedResults= 0;
 	private String fErrorMessage;
 
+	/**
+	 * Resolves the Javadoc of the selected proposal and its neighbours in the background.
+	 *
+	 * @since 3.8
+	 */
+	private final ProposalInfoPrefetcher fPrefetcher= new ProposalInfoPrefetcher();
+
 	/**
 	 * The completion proposal registry.
 	 *
@@ -262,6 +273,7 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		else
 			proposals= sortProposals(proposals, monitor, context);
 		fNumberOfComputedResults= proposals.size();
+		fPrefetcher.setProposals(viewer, proposals, !fNeedsSortingAfterFiltering);
 		long filter= DEBUG ? System.currentTimeMillis() : 0;
 
 		ICompletionProposal[] result= proposals.toArray(new ICompletionProposal[proposals.size()]);
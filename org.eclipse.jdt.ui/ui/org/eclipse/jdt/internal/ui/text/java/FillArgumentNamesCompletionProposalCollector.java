@@ -38,6 +38,8 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 public final class FillArgumentNamesCompletionProposalCollector extends CompletionProposalCollector {
 
 	private final boolean fIsGuessArguments;
+	/** The visible variables shared by the parameter guessing proposals, created on demand */
+	private ParameterGuesser.VisibleVariables fVisibleVariables;
 
 	public FillArgumentNamesCompletionProposalCollector(JavaContentAssistInvocationContext context) {
 		super(context.getCompilationUnit(), true);
@@ -74,7 +76,9 @@ public final class FillArgumentNamesCompletionProposalCollector extends Completi
 			return super.createJavaCompletionProposal(methodProposal);
 
 		LazyJavaCompletionProposal proposal= null;
-		proposal= ParameterGuessingProposal.createProposal(methodProposal, getInvocationContext(), fIsGuessArguments);
+		if (fVisibleVariables == null && getContext().isExtended())
+			fVisibleVariables= new ParameterGuesser.VisibleVariables(getContext());
+		proposal= ParameterGuessingProposal.createProposal(methodProposal, getInvocationContext(), fIsGuessArguments, fVisibleVariables);
 		if (proposal == null) {
 			proposal= new FilledArgumentNamesMethodProposal(methodProposal, getInvocationContext());
 		}
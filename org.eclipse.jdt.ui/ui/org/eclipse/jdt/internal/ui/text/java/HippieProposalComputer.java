@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,28 +10,53 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.contentassist.IContextInformation;
 
-import org.eclipse.ui.texteditor.HippieProposalProcessor;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
+
+import org.eclipse.ui.texteditor.IDocumentProvider;
+import org.eclipse.ui.texteditor.ITextEditor;
 
 import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
 import org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer;
 
 
 /**
- * A computer wrapper for the hippie processor.
+ * A computer for hippie word completions: completes the prefix at the invocation offset to the
+ * words of the document and of the documents of the other open editors.
+ * <p>
+ * The words near the invocation offset rank first, closest first, before the remaining words
+ * of the document and then the words of the other documents, the words of the most recent
+ * changes first. Apart from the text near the invocation offset, the words are looked up in
+ * the {@link HippieWordIndex} of each document, so that the documents are not rescanned on
+ * every invocation.
+ * </p>
  *
  * @since 3.2
  */
 public final class HippieProposalComputer implements IJavaCompletionProposalComputer {
-	/** The wrapped processor. */
-	private final HippieProposalProcessor fProcessor= new HippieProposalProcessor();
+
+	/** The number of characters before and after the invocation offset whose words rank first */
+	private static final int NEARBY_RANGE= 2000;
 
 	/**
 	 * Default ctor to make it instantiatable via the extension mechanism.
@@ -43,21 +68,122 @@ public final class HippieProposalComputer implements IJavaCompletionProposalComp
 	 * @see org.eclipse.jface.text.contentassist.ICompletionProposalComputer#computeCompletionProposals(org.eclipse.jface.text.contentassist.TextContentAssistInvocationContext, org.eclipse.core.runtime.IProgressMonitor)
 	 */
 	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
-		return Arrays.asList(fProcessor.computeCompletionProposals(context.getViewer(), context.getInvocationOffset()));
+		IDocument document= context.getDocument();
+		if (document == null)
+			return Collections.emptyList();
+
+		int offset= context.getInvocationOffset();
+		Set<String> words= new LinkedHashSet<String>();
+		String prefix;
+		try {
+			int prefixStart= HippieWordIndex.getWordStart(document, offset);
+			prefix= document.get(prefixStart, offset - prefixStart);
+			if (prefix.length() == 0)
+				return Collections.emptyList();
+
+			addNearbyWords(document, prefixStart, offset, prefix, words);
+		} catch (BadLocationException e) {
+			return Collections.emptyList();
+		}
+
+		List<IDocument> openDocuments= getOpenDocuments();
+		if (openDocuments != null) {
+			// drop the indexes of the documents of closed editors
+			Set<IDocument> indexed= new HashSet<IDocument>(openDocuments);
+			indexed.add(document);
+			HippieWordIndex.retainIndexes(indexed);
+		}
+
+		words.addAll(HippieWordIndex.getIndex(document).getWords(prefix));
+		if (openDocuments != null) {
+			for (Iterator<IDocument> iter= openDocuments.iterator(); iter.hasNext();) {
+				IDocument other= iter.next();
+				if (other != document)
+					words.addAll(HippieWordIndex.getIndex(other).getWords(prefix));
+			}
+		}
+
+		// the relevance keeps the rank, the sorter would otherwise order the words alphabetically
+		List<ICompletionProposal> proposals= new ArrayList<ICompletionProposal>(words.size());
+		int relevance= 0;
+		for (Iterator<String> iter= words.iterator(); iter.hasNext();) {
+			String word= iter.next();
+			proposals.add(new JavaCompletionProposal(word, offset - prefix.length(), prefix.length(), null, word, relevance--));
+		}
+		return proposals;
+	}
+
+	/**
+	 * Adds the words that start with the given prefix in the text before the prefix, closest
+	 * first, and then in the text after the invocation offset, closest first.
+	 *
+	 * @param document the document
+	 * @param prefixStart the start offset of the prefix
+	 * @param offset the invocation offset
+	 * @param prefix the prefix
+	 * @param words the words to add to
+	 * @throws BadLocationException if the offsets are invalid in the document
+	 */
+	private static void addNearbyWords(IDocument document, int prefixStart, int offset, String prefix, Set<String> words) throws BadLocationException {
+		int start= HippieWordIndex.getWordStart(document, Math.max(0, prefixStart - NEARBY_RANGE));
+		List<String> before= HippieWordIndex.getWords(document.get(start, prefixStart - start));
+		for (int i= before.size() - 1; i >= 0; i--)
+			addIfMatches(before.get(i), prefix, words);
+
+		int end= HippieWordIndex.getWordEnd(document, Math.min(document.getLength(), offset + NEARBY_RANGE));
+		List<String> after= HippieWordIndex.getWords(document.get(offset, end - offset));
+		for (int i= 0; i < after.size(); i++)
+			addIfMatches(after.get(i), prefix, words);
+	}
+
+	private static void addIfMatches(String word, String prefix, Set<String> words) {
+		if (word.length() > prefix.length() && word.startsWith(prefix))
+			words.add(word);
+	}
+
+	/**
+	 * Returns the documents of the open text editors.
+	 *
+	 * @return the documents of the open text editors, or <code>null</code> if not called in the
+	 *         UI thread
+	 */
+	private static List<IDocument> getOpenDocuments() {
+		if (Display.getCurrent() == null || !PlatformUI.isWorkbenchRunning())
+			return null;
+
+		List<IDocument> documents= new ArrayList<IDocument>();
+
+		IWorkbenchWindow[] windows= PlatformUI.getWorkbench().getWorkbenchWindows();
+		for (int i= 0; i < windows.length; i++) {
+			IWorkbenchPage[] pages= windows[i].getPages();
+			for (int j= 0; j < pages.length; j++) {
+				IEditorReference[] references= pages[j].getEditorReferences();
+				for (int k= 0; k < references.length; k++) {
+					IEditorPart editor= references[k].getEditor(false);
+					if (editor instanceof ITextEditor) {
+						IDocumentProvider provider= ((ITextEditor) editor).getDocumentProvider();
+						IDocument document= provider == null ? null : provider.getDocument(editor.getEditorInput());
+						if (document != null && !documents.contains(document))
+							documents.add(document);
+					}
+				}
+			}
+		}
+		return documents;
 	}
 
 	/*
 	 * @see org.eclipse.jface.text.contentassist.ICompletionProposalComputer#computeContextInformation(org.eclipse.jface.text.contentassist.TextContentAssistInvocationContext, org.eclipse.core.runtime.IProgressMonitor)
 	 */
 	public List<IContextInformation> computeContextInformation(ContentAssistInvocationContext context, IProgressMonitor monitor) {
-		return Arrays.asList(fProcessor.computeContextInformation(context.getViewer(), context.getInvocationOffset()));
+		return Collections.emptyList();
 	}
 
 	/*
 	 * @see org.eclipse.jface.text.contentassist.ICompletionProposalComputer#getErrorMessage()
 	 */
 	public String getErrorMessage() {
-		return fProcessor.getErrorMessage();
+		return null;
 	}
 
 	/*
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+
+
+/**
+ * The words of a document for hippie completion, kept up to date from the changes of the
+ * document.
+ * <p>
+ * A document is scanned completely once, when its index is first requested. After that, a
+ * change of the document only rescans the words that touch the changed region. Every word
+ * remembers when it was last added, so that the words of the most recent changes rank first;
+ * the unchanged words next to the changed region keep their stamp.
+ * </p>
+ * <p>
+ * There is one index per document, shared by all editors on the document. At most
+ * {@link #MAX_INDEXES} documents are indexed: the index of the least recently used document is
+ * dropped when another document is indexed, and hippie completion drops the indexes of the
+ * documents that are no longer open in an editor. A dropped index stops listening to its
+ * document.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class HippieWordIndex implements IDocumentListener {
+
+	/**
+	 * The occurrences of a word.
+	 */
+	private static final class Word {
+		/** The number of occurrences in the document */
+		private int fCount;
+		/** The stamp of the last change that added an occurrence */
+		private long fStamp;
+	}
+
+	/** Orders words by descending stamp, then by descending count */
+	private static final Comparator<Map.Entry<String, Word>> RECENT_FIRST= new Comparator<Map.Entry<String, Word>>() {
+		public int compare(Map.Entry<String, Word> e1, Map.Entry<String, Word> e2) {
+			Word w1= e1.getValue();
+			Word w2= e2.getValue();
+			if (w1.fStamp != w2.fStamp)
+				return w1.fStamp > w2.fStamp ? -1 : 1;
+			return w2.fCount - w1.fCount;
+		}
+	};
+
+	/** The maximum number of indexed documents */
+	private static final int MAX_INDEXES= 20;
+
+	/** The indexes by document, the least recently used first */
+	private static final Map<IDocument, HippieWordIndex> fgIndexes= new LinkedHashMap<IDocument, HippieWordIndex>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IDocument, HippieWordIndex> eldest) {
+			if (size() <= MAX_INDEXES)
+				return false;
+			eldest.getKey().removeDocumentListener(eldest.getValue());
+			return true;
+		}
+	};
+	/** The stamp of the last change, shared by all indexes */
+	private static long fgStamp;
+
+	/**
+	 * Returns the index of the given document, scanning the document if it has no index yet.
+	 *
+	 * @param document the document
+	 * @return the index of the document
+	 */
+	public static HippieWordIndex getIndex(IDocument document) {
+		synchronized (fgIndexes) {
+			HippieWordIndex index= fgIndexes.get(document);
+			if (index == null) {
+				index= new HippieWordIndex();
+				// listen first, so that changes made while scanning are not lost
+				document.addDocumentListener(index);
+				index.build(document);
+				fgIndexes.put(document, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Drops the indexes of all documents except the given ones.
+	 *
+	 * @param documents the documents whose indexes are kept
+	 */
+	public static void retainIndexes(Collection<IDocument> documents) {
+		synchronized (fgIndexes) {
+			for (Iterator<Map.Entry<IDocument, HippieWordIndex>> iter= fgIndexes.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<IDocument, HippieWordIndex> entry= iter.next();
+				if (!documents.contains(entry.getKey())) {
+					entry.getKey().removeDocumentListener(entry.getValue());
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the given character is part of a word.
+	 *
+	 * @param c the character
+	 * @return <code>true</code> if the character is part of a word
+	 */
+	public static boolean isWordPart(char c) {
+		return Character.isJavaIdentifierPart(c);
+	}
+
+	/**
+	 * Returns the words of the given text that are long enough to complete a prefix, in the
+	 * order in which they appear.
+	 *
+	 * @param text the text
+	 * @return the words of the text
+	 */
+	public static List<String> getWords(String text) {
+		List<String> words= new ArrayList<String>();
+		int length= text.length();
+		int i= 0;
+		while (i < length) {
+			if (!isWordPart(text.charAt(i))) {
+				i++;
+				continue;
+			}
+			int start= i;
+			while (i < length && isWordPart(text.charAt(i)))
+				i++;
+			if (i - start > 1)
+				words.add(text.substring(start, i));
+		}
+		return words;
+	}
+
+	private static synchronized long nextStamp() {
+		return ++fgStamp;
+	}
+
+	/** The words of the document */
+	private final TreeMap<String, Word> fWords= new TreeMap<String, Word>();
+	/** The stamps of the words removed before the current change */
+	private final Map<String, Long> fRemoved= new HashMap<String, Long>();
+	/** <code>false</code> if the words must be rescanned after the current change */
+	private boolean fIsValid;
+
+	private HippieWordIndex() {
+	}
+
+	/**
+	 * Returns the words of the document that are longer than the given prefix and start with
+	 * it, case-sensitive.
+	 *
+	 * @param prefix the prefix
+	 * @return the matching words, the words of recent changes first
+	 */
+	public synchronized List<String> getWords(String prefix) {
+		SortedMap<String, Word> matches= fWords.subMap(prefix, prefix + Character.MAX_VALUE);
+		List<Map.Entry<String, Word>> entries= new ArrayList<Map.Entry<String, Word>>(matches.size());
+		for (Map.Entry<String, Word> entry : matches.entrySet()) {
+			if (entry.getKey().length() > prefix.length())
+				entries.add(entry);
+		}
+		Collections.sort(entries, RECENT_FIRST);
+
+		List<String> words= new ArrayList<String>(entries.size());
+		for (int i= 0; i < entries.size(); i++)
+			words.add(entries.get(i).getKey());
+		return words;
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+		if (!fIsValid)
+			return;
+		IDocument document= event.getDocument();
+		try {
+			int start= getWordStart(document, event.getOffset());
+			int end= getWordEnd(document, event.getOffset() + event.getLength());
+			List<String> words= getWords(document.get(start, end - start));
+			fRemoved.clear();
+			for (int i= 0; i < words.size(); i++)
+				remove(words.get(i));
+		} catch (BadLocationException e) {
+			fIsValid= false;
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public synchronized void documentChanged(DocumentEvent event) {
+		IDocument document= event.getDocument();
+		if (!fIsValid) {
+			build(document);
+			return;
+		}
+		String text= event.getText();
+		try {
+			int start= getWordStart(document, event.getOffset());
+			int end= getWordEnd(document, event.getOffset() + (text == null ? 0 : text.length()));
+			List<String> words= getWords(document.get(start, end - start));
+			long stamp= nextStamp();
+			for (int i= 0; i < words.size(); i++) {
+				String key= words.get(i);
+				Long removed= fRemoved.remove(key);
+				add(key, removed == null ? stamp : removed.longValue());
+			}
+		} catch (BadLocationException e) {
+			build(document);
+		} finally {
+			fRemoved.clear();
+		}
+	}
+
+	private synchronized void build(IDocument document) {
+		fWords.clear();
+		List<String> words= getWords(document.get());
+		long stamp= nextStamp();
+		for (int i= 0; i < words.size(); i++)
+			add(words.get(i), stamp);
+		fIsValid= true;
+	}
+
+	private void add(String key, long stamp) {
+		Word word= fWords.get(key);
+		if (word == null) {
+			word= new Word();
+			fWords.put(key, word);
+		}
+		word.fCount++;
+		word.fStamp= Math.max(word.fStamp, stamp);
+	}
+
+	private void remove(String key) {
+		Word word= fWords.get(key);
+		if (word == null)
+			return;
+		fRemoved.put(key, new Long(word.fStamp));
+		if (--word.fCount == 0)
+			fWords.remove(key);
+	}
+
+	/**
+	 * Returns the start of the word that ends at the given offset.
+	 *
+	 * @param document the document
+	 * @param offset the offset
+	 * @return the start offset of the word, or the given offset if no word ends there
+	 * @throws BadLocationException if the offset is invalid in the document
+	 */
+	public static int getWordStart(IDocument document, int offset) throws BadLocationException {
+		while (offset > 0 && isWordPart(document.getChar(offset - 1)))
+			offset--;
+		return offset;
+	}
+
+	/**
+	 * Returns the end of the word that starts at the given offset.
+	 *
+	 * @param document the document
+	 * @param offset the offset
+	 * @return the end offset of the word, or the given offset if no word starts there
+	 * @throws BadLocationException if the offset is invalid in the document
+	 */
+	public static int getWordEnd(IDocument document, int offset) throws BadLocationException {
+		int length= document.getLength();
+		while (offset < length && isWordPart(document.getChar(offset)))
+			offset++;
+		return offset;
+	}
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+
+/**
+ * Interface of an editor feature that computes its state from the reconciled AST.
+ * <p>
+ * After each reconcile, the AST is traversed once for all participants: each participant
+ * contributes a visitor to the shared traversal and is notified when the traversal has
+ * finished. The completion of independent participants may run concurrently.
+ * </p>
+ *
+ * @since 3.8
+ */
+public interface IJavaReconcilingASTParticipant {
+
+	/**
+	 * Called before reconciling is started.
+	 */
+	void aboutToBeReconciled();
+
+	/**
+	 * Called after reconciling has been finished, before the AST is traversed.
+	 *
+	 * @param ast the compilation unit AST or <code>null</code> if the working copy was
+	 *            consistent or reconciliation has been cancelled
+	 * @param forced <code>true</code> iff this reconciliation was forced
+	 * @param progressMonitor the progress monitor
+	 * @return the visitor to run in the shared traversal, or <code>null</code> if this
+	 *         participant does not take part in the traversal; in that case
+	 *         {@link #completeReconcile(CompilationUnit, boolean, boolean, IProgressMonitor)} is not called
+	 */
+	ASTVisitor prepareReconcile(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor);
+
+	/**
+	 * Called after the shared traversal, also if it has been cancelled or has failed. May be
+	 * called in a different thread than {@link #prepareReconcile(CompilationUnit, boolean, IProgressMonitor)}
+	 * and concurrently with other participants.
+	 *
+	 * @param ast the compilation unit AST
+	 * @param forced <code>true</code> iff this reconciliation was forced
+	 * @param traversed <code>true</code> iff the visitor has seen the whole AST
+	 * @param progressMonitor the progress monitor
+	 */
+	void completeReconcile(CompilationUnit ast, boolean forced, boolean traversed, IProgressMonitor progressMonitor);
+}
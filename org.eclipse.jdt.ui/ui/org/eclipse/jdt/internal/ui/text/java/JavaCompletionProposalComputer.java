@@ -127,6 +127,13 @@ public class JavaCompletionProposalComputer implements IJavaCompletionProposalCo
 
 	private final IProgressMonitor fTimeoutProgressMonitor;
 
+	/**
+	 * The proposals of the current code assist session, or <code>null</code>.
+	 *
+	 * @since 3.8
+	 */
+	private CompletionSessionCache fSessionCache;
+
 	public JavaCompletionProposalComputer() {
 		fTimeoutProgressMonitor= createTimeoutProgressMonitor(JAVA_CODE_ASSIST_TIMEOUT);
 	}
@@ -241,7 +248,19 @@ public class JavaCompletionProposalComputer implements IJavaCompletionProposalCo
 			Point selection= viewer.getSelectedRange();
 			if (selection.y > 0)
 				collector.setReplacementLength(selection.y);
-			unit.codeComplete(offset, collector, fTimeoutProgressMonitor);
+			List<CompletionProposal> cached= fSessionCache == null || selection.y > 0 ? null : fSessionCache.lookup(context.getDocument(), unit, offset);
+			if (cached != null) {
+				collector.acceptContext(fSessionCache.getContext());
+				collector.beginReporting();
+				for (Iterator<CompletionProposal> it= cached.iterator(); it.hasNext();)
+					collector.accept(it.next());
+				collector.endReporting();
+			} else {
+				disposeSessionCache();
+				CompletionSessionCache.RecordingRequestor requestor= new CompletionSessionCache.RecordingRequestor(collector);
+				unit.codeComplete(offset, requestor, fTimeoutProgressMonitor);
+				fSessionCache= CompletionSessionCache.create(context.getDocument(), unit, offset, requestor);
+			}
 		} catch (OperationCanceledException x) {
 			IBindingService bindingSvc= (IBindingService)PlatformUI.getWorkbench().getAdapter(IBindingService.class);
 			String keyBinding= bindingSvc.getBestActiveBindingFormattedFor(IWorkbenchCommandConstants.EDIT_CONTENT_ASSIST);
@@ -352,5 +371,13 @@ public class JavaCompletionProposalComputer implements IJavaCompletionProposalCo
 	 */
 	public void sessionEnded() {
 		fErrorMessage= null;
+		disposeSessionCache();
+	}
+
+	private void disposeSessionCache() {
+		if (fSessionCache != null) {
+			fSessionCache.dispose();
+			fSessionCache= null;
+		}
 	}
 }
@@ -45,6 +45,7 @@ final class JavaTextMessages extends NLS {
 	}
 
 	public static String ContentAssistProcessor_computing_proposals;
+	public static String ProposalInfoPrefetcher_job_name;
 	public static String ContentAssistProcessor_collecting_proposals;
 	public static String ContentAssistProcessor_sorting_proposals;
 	public static String ContentAssistProcessor_computing_contexts;
@@ -66,5 +67,7 @@ final class JavaTextMessages extends NLS {
 	public static String ContentAssistProcessor_empty_message;
 	public static String ContentAssistHistory_serialize_error;
 	public static String ContentAssistHistory_deserialize_error;
+	public static String ContentAssistHistory_write_error;
+	public static String ContentAssistHistory_read_error;
 	public static String ProposalSorterHandle_blame;
 }
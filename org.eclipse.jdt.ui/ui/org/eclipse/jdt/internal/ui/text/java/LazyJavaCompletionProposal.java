@@ -91,17 +91,20 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 		}
 	}
 
-	private boolean fDisplayStringComputed;
-	private boolean fReplacementStringComputed;
-	private boolean fReplacementOffsetComputed;
-	private boolean fReplacementLengthComputed;
-	private boolean fCursorPositionComputed;
-	private boolean fImageComputed;
-	private boolean fContextInformationComputed;
-	private boolean fProposalInfoComputed;
-	private boolean fTriggerCharactersComputed;
-	private boolean fSortStringComputed;
-	private boolean fRelevanceComputed;
+	/* Bits of fComputed, one per lazily computed property */
+	private static final int DISPLAY_STRING= 1 << 0;
+	private static final int REPLACEMENT_STRING= 1 << 1;
+	private static final int REPLACEMENT_OFFSET= 1 << 2;
+	private static final int REPLACEMENT_LENGTH= 1 << 3;
+	private static final int CURSOR_POSITION= 1 << 4;
+	private static final int IMAGE= 1 << 5;
+	private static final int CONTEXT_INFORMATION= 1 << 6;
+	private static final int PROPOSAL_INFO= 1 << 7;
+	private static final int TRIGGER_CHARACTERS= 1 << 8;
+	private static final int SORT_STRING= 1 << 9;
+	private static final int RELEVANCE= 1 << 10;
+
+	private int fComputed;
 	private FormatterPrefs fFormatterPrefs;
 
 	/**
@@ -127,7 +130,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final char[] getTriggerCharacters() {
-		if (!fTriggerCharactersComputed)
+		if ((fComputed & TRIGGER_CHARACTERS) == 0)
 			setTriggerCharacters(computeTriggerCharacters());
 		return super.getTriggerCharacters();
 	}
@@ -142,7 +145,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setTriggerCharacters(char[] triggerCharacters) {
-		fTriggerCharactersComputed= true;
+		fComputed|= TRIGGER_CHARACTERS;
 		super.setTriggerCharacters(triggerCharacters);
 	}
 
@@ -152,7 +155,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setProposalInfo(ProposalInfo proposalInfo) {
-		fProposalInfoComputed= true;
+		fComputed|= PROPOSAL_INFO;
 		super.setProposalInfo(proposalInfo);
 	}
 
@@ -165,7 +168,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	protected final ProposalInfo getProposalInfo() {
-		if (!fProposalInfoComputed)
+		if ((fComputed & PROPOSAL_INFO) == 0)
 			setProposalInfo(computeProposalInfo());
 		return super.getProposalInfo();
 	}
@@ -181,13 +184,13 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setCursorPosition(int cursorPosition) {
-		fCursorPositionComputed= true;
+		fComputed|= CURSOR_POSITION;
 		super.setCursorPosition(cursorPosition);
 	}
 
 	@Override
 	protected final int getCursorPosition() {
-		if (!fCursorPositionComputed)
+		if ((fComputed & CURSOR_POSITION) == 0)
 			setCursorPosition(computeCursorPosition());
 		return super.getCursorPosition();
 	}
@@ -209,7 +212,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final IContextInformation getContextInformation() {
-		if (!fContextInformationComputed)
+		if ((fComputed & CONTEXT_INFORMATION) == 0)
 			setContextInformation(computeContextInformation());
 		return super.getContextInformation();
 	}
@@ -224,7 +227,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setContextInformation(IContextInformation contextInformation) {
-		fContextInformationComputed= true;
+		fComputed|= CONTEXT_INFORMATION;
 		super.setContextInformation(contextInformation);
 	}
 
@@ -234,27 +237,27 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public StyledString getStyledDisplayString() {
-		if (!fDisplayStringComputed)
+		if ((fComputed & DISPLAY_STRING) == 0)
 			setStyledDisplayString(computeDisplayString());
 		return super.getStyledDisplayString();
 	}
 
 	@Override
 	public String getDisplayString() {
-		if (!fDisplayStringComputed)
+		if ((fComputed & DISPLAY_STRING) == 0)
 			setStyledDisplayString(computeDisplayString());
 		return super.getDisplayString();
 	}
 
 	@Override
 	protected final void setDisplayString(String string) {
-		fDisplayStringComputed= true;
+		fComputed|= DISPLAY_STRING;
 		super.setDisplayString(string);
 	}
 
 	@Override
 	public void setStyledDisplayString(StyledString text) {
-		fDisplayStringComputed= true;
+		fComputed|= DISPLAY_STRING;
 		super.setStyledDisplayString(text);
 	}
 
@@ -276,7 +279,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final int getReplacementOffset() {
-		if (!fReplacementOffsetComputed)
+		if ((fComputed & REPLACEMENT_OFFSET) == 0)
 			setReplacementOffset(fProposal.getReplaceStart());
 		return super.getReplacementOffset();
 	}
@@ -287,7 +290,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setReplacementOffset(int replacementOffset) {
-		fReplacementOffsetComputed= true;
+		fComputed|= REPLACEMENT_OFFSET;
 		super.setReplacementOffset(replacementOffset);
 	}
 
@@ -305,7 +308,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final int getReplacementLength() {
-		if (!fReplacementLengthComputed)
+		if ((fComputed & REPLACEMENT_LENGTH) == 0)
 			setReplacementLength(fProposal.getReplaceEnd() - fProposal.getReplaceStart());
 		return super.getReplacementLength();
 	}
@@ -316,7 +319,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setReplacementLength(int replacementLength) {
-		fReplacementLengthComputed= true;
+		fComputed|= REPLACEMENT_LENGTH;
 		super.setReplacementLength(replacementLength);
 	}
 
@@ -326,7 +329,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final String getReplacementString() {
-		if (!fReplacementStringComputed)
+		if ((fComputed & REPLACEMENT_STRING) == 0)
 			setReplacementString(computeReplacementString());
 		return super.getReplacementString();
 	}
@@ -341,7 +344,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setReplacementString(String replacementString) {
-		fReplacementStringComputed= true;
+		fComputed|= REPLACEMENT_STRING;
 		super.setReplacementString(replacementString);
 	}
 
@@ -350,7 +353,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final Image getImage() {
-		if (!fImageComputed)
+		if ((fComputed & IMAGE) == 0)
 			setImage(computeImage());
 		return super.getImage();
 	}
@@ -365,7 +368,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setImage(Image image) {
-		fImageComputed= true;
+		fComputed|= IMAGE;
 		super.setImage(image);
 	}
 
@@ -395,7 +398,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final int getRelevance() {
-		if (!fRelevanceComputed)
+		if ((fComputed & RELEVANCE) == 0)
 			setRelevance(computeRelevance());
 		return super.getRelevance();
 	}
@@ -406,7 +409,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 */
 	@Override
 	public final void setRelevance(int relevance) {
-		fRelevanceComputed= true;
+		fComputed|= RELEVANCE;
 		super.setRelevance(relevance);
 	}
 
@@ -443,14 +446,14 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 
 	@Override
 	public final String getSortString() {
-		if (!fSortStringComputed)
+		if ((fComputed & SORT_STRING) == 0)
 			setSortString(computeSortString());
 		return super.getSortString();
 	}
 
 	@Override
 	protected final void setSortString(String string) {
-		fSortStringComputed= true;
+		fComputed|= SORT_STRING;
 		super.setSortString(string);
 	}
 
@@ -484,7 +487,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 		Point selection= viewer.getSelectedRange();
 		boolean smartToggle= (stateMask & SWT.CTRL) != 0;
 		if (!(insertCompletion() ^ smartToggle) && selection.y > 0)
-			fReplacementLengthComputed= false;
+			fComputed&= ~REPLACEMENT_LENGTH;
 		super.apply(viewer, trigger, stateMask, offset);
 	}
 
@@ -496,7 +499,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	public void selected(ITextViewer viewer, boolean smartToggle) {
 		Point selection= viewer.getSelectedRange();
 		if (!(insertCompletion() ^ smartToggle) && selection.y > 0)
-			fReplacementLengthComputed= false;
+			fComputed&= ~REPLACEMENT_LENGTH;
 		super.selected(viewer, smartToggle);
 	}
 }
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import org.eclipse.osgi.util.TextProcessor;
+
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
+
+
+/**
+ * A lazy proposal for a field or local variable outside of Javadoc.
+ * <p>
+ * Label, image and proposal info are only computed when the proposal is shown, so that the
+ * many variable proposals of a completion only hold on to their core proposal until then.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class LazyJavaVariableCompletionProposal extends LazyJavaCompletionProposal {
+
+	/** Triggers for variables. Do not modify. */
+	private static final char[] VAR_TRIGGER= new char[] { '\t', ' ', '=', ';', '.' };
+	/** The qualifier that core completion prepends to shadowed fields */
+	private static final String THIS_PREFIX= "this."; //$NON-NLS-1$
+
+	public LazyJavaVariableCompletionProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context) {
+		super(proposal, context);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.LazyJavaCompletionProposal#computeTriggerCharacters()
+	 */
+	@Override
+	protected char[] computeTriggerCharacters() {
+		return VAR_TRIGGER;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.LazyJavaCompletionProposal#computeProposalInfo()
+	 */
+	@Override
+	protected ProposalInfo computeProposalInfo() {
+		if (fProposal.getKind() != CompletionProposal.FIELD_REF)
+			return null;
+		IJavaProject project= fInvocationContext.getProject();
+		if (project == null)
+			return null;
+		return new FieldProposalInfo(project, fProposal);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.LazyJavaCompletionProposal#isValidPrefix(java.lang.String)
+	 */
+	@Override
+	protected boolean isValidPrefix(String prefix) {
+		String word= TextProcessor.deprocess(getDisplayString());
+		int index= word.indexOf(THIS_PREFIX);
+		if (index != -1)
+			word= word.substring(index + THIS_PREFIX.length());
+		return isPrefix(prefix, word);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.internal.ui.text.java.AbstractJavaCompletionProposal#getPrefixCompletionText(org.eclipse.jface.text.IDocument, int)
+	 */
+	@Override
+	public CharSequence getPrefixCompletionText(IDocument document, int completionOffset) {
+		String string= getReplacementString();
+		if (string.startsWith(THIS_PREFIX))
+			return string.substring(THIS_PREFIX.length());
+		return string;
+	}
+}
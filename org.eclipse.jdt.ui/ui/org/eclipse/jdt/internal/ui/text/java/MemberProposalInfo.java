@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -51,7 +51,7 @@ public abstract class MemberProposalInfo extends ProposalInfo {
 	 * @throws JavaModelException if accessing the java model fails
 	 */
 	@Override
-	public IJavaElement getJavaElement() throws JavaModelException {
+	public synchronized IJavaElement getJavaElement() throws JavaModelException {
 		if (!fJavaElementResolved) {
 			fJavaElementResolved= true;
 			fElement= resolveMember();
@@ -13,9 +13,11 @@ package org.eclipse.jdt.internal.ui.text.java;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.swt.graphics.Image;
@@ -26,6 +28,7 @@ import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 
 import org.eclipse.jdt.core.BindingKey;
+import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
@@ -44,7 +47,6 @@ import org.eclipse.jdt.ui.JavaElementImageDescriptor;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.JavaPluginImages;
 import org.eclipse.jdt.internal.ui.text.template.contentassist.PositionBasedCompletionProposal;
-import org.eclipse.jdt.internal.ui.util.StringMatcher;
 import org.eclipse.jdt.internal.ui.viewsupport.JavaElementImageProvider;
 
 
@@ -78,6 +80,11 @@ public class ParameterGuesser {
 
 		public boolean alreadyMatched;
 
+		/**
+		 * The match score, computed before the matches are ordered.
+		 */
+		public int score;
+
 		public Variable(String qualifiedTypeName, String name, int variableType, boolean isAutoboxMatch, int positionScore, char[] triggerChars, ImageDescriptor descriptor) {
 			this.qualifiedTypeName= qualifiedTypeName;
 			this.name= name;
@@ -107,10 +114,68 @@ public class ParameterGuesser {
 		}
 	}
 
+	/**
+	 * The variables that are visible at the offset of a code assist invocation. They are shared
+	 * by the parameter guessing of all method proposals of the invocation: the visible elements
+	 * are requested from the core context once per parameter type, and the type, name and image
+	 * of a visible element are computed once.
+	 *
+	 * @since 3.8
+	 */
+	static final class VisibleVariables {
+
+		private final CompletionContext fCoreContext;
+		private final Map<String, IJavaElement[]> fElementsByType= new HashMap<String, IJavaElement[]>();
+		private final Map<IJavaElement, Variable> fVariables= new HashMap<IJavaElement, Variable>();
+
+		/**
+		 * Creates the visible variables of the given extended core context.
+		 *
+		 * @param coreContext the extended core context of the invocation
+		 */
+		VisibleVariables(CompletionContext coreContext) {
+			fCoreContext= coreContext;
+		}
+
+		/**
+		 * Returns the visible elements that are assignable to the given type.
+		 *
+		 * @param typeSignature the type signature
+		 * @return the visible elements that are assignable to the given type
+		 * @see CompletionContext#getVisibleElements(String)
+		 */
+		IJavaElement[] getVisibleElements(String typeSignature) {
+			IJavaElement[] elements= fElementsByType.get(typeSignature);
+			if (elements == null) {
+				elements= fCoreContext.getVisibleElements(typeSignature);
+				fElementsByType.put(typeSignature, elements);
+			}
+			return elements;
+		}
+
+		/**
+		 * Returns the variable for the given visible element. Position and autoboxing of the
+		 * returned variable are not set.
+		 *
+		 * @param element the visible element
+		 * @param enclosingType the enclosing type, or <code>null</code>
+		 * @return the variable, or <code>null</code> if the element is not suggested
+		 * @throws JavaModelException if accessing the element fails
+		 */
+		Variable getVariable(IJavaElement element, IType enclosingType) throws JavaModelException {
+			if (fVariables.containsKey(element))
+				return fVariables.get(element);
+			Variable variable= createVariable(element, enclosingType, null, 0);
+			fVariables.put(element, variable);
+			return variable;
+		}
+	}
+
 	private static final char[] NO_TRIGGERS= new char[0];
 
 	private final Set<String> fAlreadyMatchedNames;
 	private final IJavaElement fEnclosingElement;
+	private final VisibleVariables fVisibleVariables;
 
 	/**
 	 * Creates a parameter guesser
@@ -118,7 +183,20 @@ public class ParameterGuesser {
 	 * @param enclosingElement the enclosing Java element
 	 */
 	public ParameterGuesser(IJavaElement enclosingElement) {
+		this(enclosingElement, null);
+	}
+
+	/**
+	 * Creates a parameter guesser that shares the visible variables with other guessers of the
+	 * same code assist invocation.
+	 *
+	 * @param enclosingElement the enclosing Java element
+	 * @param visibleVariables the visible variables of the invocation, or <code>null</code>
+	 * @since 3.8
+	 */
+	ParameterGuesser(IJavaElement enclosingElement, VisibleVariables visibleVariables) {
 		fEnclosingElement= enclosingElement;
+		fVisibleVariables= visibleVariables;
 		fAlreadyMatchedNames= new HashSet<String>();
 	}
 
@@ -130,7 +208,7 @@ public class ParameterGuesser {
 
 		ArrayList<Variable> res= new ArrayList<Variable>();
 		for (int i= 0; i < suggestions.length; i++) {
-			Variable variable= createVariable(suggestions[i], currentType, expectedType, i);
+			Variable variable= getVariable(suggestions[i], currentType, expectedType, i);
 			if (variable != null) {
 				if (fAlreadyMatchedNames.contains(variable.name)) {
 					variable.alreadyMatched= true;
@@ -167,7 +245,18 @@ public class ParameterGuesser {
 		return res;
 	}
 
-	public Variable createVariable(IJavaElement element, IType enclosingType, String expectedType, int positionScore) throws JavaModelException {
+	private Variable getVariable(IJavaElement element, IType enclosingType, String expectedType, int positionScore) throws JavaModelException {
+		if (fVisibleVariables == null)
+			return createVariable(element, enclosingType, expectedType, positionScore);
+
+		Variable variable= fVisibleVariables.getVariable(element, enclosingType);
+		if (variable == null)
+			return null;
+		boolean isAutoboxMatch= isPrimitiveType(expectedType) != isPrimitiveType(variable.qualifiedTypeName);
+		return new Variable(variable.qualifiedTypeName, variable.name, variable.variableType, isAutoboxMatch, positionScore, NO_TRIGGERS, variable.descriptor);
+	}
+
+	public static Variable createVariable(IJavaElement element, IType enclosingType, String expectedType, int positionScore) throws JavaModelException {
 		int variableType;
 		int elementType= element.getElementType();
 		String elementName= element.getElementName();
@@ -222,15 +311,15 @@ public class ParameterGuesser {
 		return new Variable(type, elementName, variableType, isAutoboxMatch, positionScore, NO_TRIGGERS, getImageDescriptor(element));
 	}
 
-	private ImageDescriptor getImageDescriptor(IJavaElement elem) {
+	private static ImageDescriptor getImageDescriptor(IJavaElement elem) {
 		JavaElementImageProvider imageProvider= new JavaElementImageProvider();
 		ImageDescriptor desc= imageProvider.getBaseImageDescriptor(elem, JavaElementImageProvider.OVERLAY_ICONS);
 		imageProvider.dispose();
 		return desc;
 	}
 
-	private boolean isPrimitiveType(String type) {
-		return PrimitiveType.toCode(type) != null;
+	private static boolean isPrimitiveType(String type) {
+		return type != null && PrimitiveType.toCode(type) != null;
 	}
 
 	private PrimitiveType.Code getPrimitiveTypeCode(String type) {
@@ -272,7 +361,7 @@ public class ParameterGuesser {
 		return null;
 	}
 
-	private boolean isMethodToSuggest(IMethod method) {
+	private static boolean isMethodToSuggest(IMethod method) {
 		try {
 			String methodName= method.getElementName();
 			return method.getNumberOfParameters() == 0 && !Signature.SIG_VOID.equals(method.getReturnType())
@@ -340,7 +429,7 @@ public class ParameterGuesser {
 			fParamName= paramName;
 		}
 		public int compare(Variable one, Variable two) {
-			return score(two) - score(one);
+			return two.score - one.score;
 		}
 
 		/**
@@ -350,9 +439,9 @@ public class ParameterGuesser {
 		 * @param v the variable
 		 * @return the score for <code>v</code>
 		 */
-		private int score(Variable v) {
+		int score(Variable v) {
 			int variableScore= 100 - v.variableType; // since these are increasing with distance
-			int subStringScore= getLongestCommonSubstring(v.name, fParamName).length();
+			int subStringScore= getLongestCommonSubstringLength(v.name, fParamName);
 			// substring scores under 60% are not considered
 			// this prevents marginal matches like a - ba and false - isBool that will
 			// destroy the sort order
@@ -390,44 +479,45 @@ public class ParameterGuesser {
 	 * @param paramName the parameter name
 	 */
 	private static void orderMatches(List<Variable> typeMatches, String paramName) {
-		if (typeMatches != null) Collections.sort(typeMatches, new MatchComparator(paramName));
+		if (typeMatches != null) {
+			MatchComparator comparator= new MatchComparator(paramName);
+			for (Iterator<Variable> it= typeMatches.iterator(); it.hasNext();) {
+				Variable v= it.next();
+				v.score= comparator.score(v);
+			}
+			Collections.sort(typeMatches, comparator);
+		}
 	}
 
 	/**
-	 * Returns the longest common substring of two strings.
+	 * Returns the length of the longest case insensitive common substring of two strings.
 	 *
 	 * @param first the first string
 	 * @param second the second string
-	 * @return the longest common substring
+	 * @return the length of the longest common substring
 	 */
-	private static String getLongestCommonSubstring(String first, String second) {
-
-		String shorter= (first.length() <= second.length()) ? first : second;
-		String longer= shorter == first ? second : first;
-
-		int minLength= shorter.length();
-
-		StringBuffer pattern= new StringBuffer(shorter.length() + 2);
-		String longestCommonSubstring= ""; //$NON-NLS-1$
-
-		for (int i= 0; i < minLength; i++) {
-			for (int j= i + 1; j <= minLength; j++) {
-				if (j - i < longestCommonSubstring.length())
-					continue;
-
-				String substring= shorter.substring(i, j);
-				pattern.setLength(0);
-				pattern.append('*');
-				pattern.append(substring);
-				pattern.append('*');
-
-				StringMatcher matcher= new StringMatcher(pattern.toString(), true, false);
-				if (matcher.match(longer))
-					longestCommonSubstring= substring;
+	private static int getLongestCommonSubstringLength(String first, String second) {
+		int secondLength= second.length();
+		// lengths of the common suffixes of the prefixes of first and second, row by row
+		int[] previous= new int[secondLength + 1];
+		int[] current= new int[secondLength + 1];
+		int longest= 0;
+		for (int i= 0; i < first.length(); i++) {
+			char ch= Character.toLowerCase(first.charAt(i));
+			for (int j= 0; j < secondLength; j++) {
+				if (ch == Character.toLowerCase(second.charAt(j))) {
+					current[j + 1]= previous[j] + 1;
+					if (current[j + 1] > longest)
+						longest= current[j + 1];
+				} else {
+					current[j + 1]= 0;
+				}
 			}
+			int[] swap= previous;
+			previous= current;
+			current= swap;
 		}
-
-		return longestCommonSubstring;
+		return longest;
 	}
 
 	private Image getImage(ImageDescriptor descriptor) {
@@ -74,11 +74,34 @@ public final class ParameterGuessingProposal extends JavaMethodCompletionProposa
 	public static ParameterGuessingProposal createProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, boolean fillBestGuess) {
 		CompletionContext coreContext= context.getCoreContext();
  		if (coreContext != null && coreContext.isExtended()) {
-			return new ParameterGuessingProposal(proposal, context, coreContext, fillBestGuess);
+			return new ParameterGuessingProposal(proposal, context, coreContext, fillBestGuess, new ParameterGuesser.VisibleVariables(coreContext));
  		}
  		return null;
 	}
 
+	/**
+	 * Creates a {@link ParameterGuessingProposal} that shares the given visible variables with
+	 * the other proposals of the same invocation, or <code>null</code> if the core context isn't
+	 * available or extended.
+	 *
+	 * @param proposal the original completion proposal
+	 * @param context the current context
+	 * @param fillBestGuess if set, the best guess will be filled in
+	 * @param visibleVariables the visible variables of the invocation, or <code>null</code> to
+	 *            create them for the extended core context of the given context
+	 * @return a proposal or <code>null</code>
+	 * @since 3.8
+	 */
+	static ParameterGuessingProposal createProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, boolean fillBestGuess, ParameterGuesser.VisibleVariables visibleVariables) {
+		CompletionContext coreContext= context.getCoreContext();
+		if (coreContext != null && coreContext.isExtended()) {
+			if (visibleVariables == null)
+				visibleVariables= new ParameterGuesser.VisibleVariables(coreContext);
+			return new ParameterGuessingProposal(proposal, context, coreContext, fillBestGuess, visibleVariables);
+		}
+		return null;
+	}
+
 
 
 	/** Tells whether this class is in debug mode. */
@@ -94,10 +117,13 @@ public final class ParameterGuessingProposal extends JavaMethodCompletionProposa
 
 	private final CompletionContext fCoreContext;
 
- 	private ParameterGuessingProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, CompletionContext coreContext, boolean fillBestGuess) {
+	private final ParameterGuesser.VisibleVariables fVisibleVariables;
+
+ 	private ParameterGuessingProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, CompletionContext coreContext, boolean fillBestGuess, ParameterGuesser.VisibleVariables visibleVariables) {
  		super(proposal, context);
 		fCoreContext= coreContext;
 		fFillBestGuess= fillBestGuess;
+		fVisibleVariables= visibleVariables;
  	}
 
 	private IJavaElement getEnclosingElement() {
@@ -110,7 +136,7 @@ public final class ParameterGuessingProposal extends JavaMethodCompletionProposa
 
 		IJavaElement[][] assignableElements= new IJavaElement[types.length][];
 		for (int i= 0; i < types.length; i++) {
-			assignableElements[i]= fCoreContext.getVisibleElements(new String(types[i]));
+			assignableElements[i]= fVisibleVariables.getVisibleElements(new String(types[i]));
 		}
 		return assignableElements;
 	}
@@ -307,7 +333,7 @@ public final class ParameterGuessingProposal extends JavaMethodCompletionProposa
 		fChoices= new ICompletionProposal[count][];
 
 		String[] parameterTypes= getParameterTypes();
-		ParameterGuesser guesser= new ParameterGuesser(getEnclosingElement());
+		ParameterGuesser guesser= new ParameterGuesser(getEnclosingElement(), fVisibleVariables);
 		IJavaElement[][] assignableElements= getAssignableElements();
 
 		for (int i= count - 1; i >= 0; i--) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,18 +10,117 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.text.javadoc.JavadocContentAccess2;
 
 
+/**
+ * The additional info of a proposal: the Javadoc of its Java element.
+ * <p>
+ * The Javadoc is computed once per proposal info, either by the information popup or in advance
+ * by the {@link ProposalInfoPrefetcher}. The Javadoc of binary members, which may have to be
+ * fetched from an attached Javadoc location, is also kept in a bounded cache shared by all
+ * proposal infos and keyed by the handle identifier of the member. The cache is cleared when a
+ * classpath, a library or its attached source changes.
+ * </p>
+ */
 public class ProposalInfo {
 
+	/**
+	 * Clears the Javadoc cache when a change may affect the Javadoc of binary members.
+	 *
+	 * @since 3.8
+	 */
+	private static final class JavadocCacheInvalidator implements IElementChangedListener {
+
+		private static final int PROJECT_FLAGS= IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+		private static final int ROOT_FLAGS= IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+				| IJavaElementDelta.F_SOURCEATTACHED | IJavaElementDelta.F_SOURCEDETACHED;
+
+		/*
+		 * @see org.eclipse.jdt.core.IElementChangedListener#elementChanged(org.eclipse.jdt.core.ElementChangedEvent)
+		 */
+		public void elementChanged(ElementChangedEvent event) {
+			if (affectsLibraries(event.getDelta())) {
+				synchronized (fgJavadocCache) {
+					fgJavadocCache.clear();
+				}
+			}
+		}
+
+		private boolean affectsLibraries(IJavaElementDelta delta) {
+			switch (delta.getElement().getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+					break;
+				case IJavaElement.JAVA_PROJECT:
+					if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & PROJECT_FLAGS) != 0)
+						return true;
+					break;
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+					return delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ROOT_FLAGS) != 0;
+				default:
+					return false;
+			}
+			IJavaElementDelta[] children= delta.getAffectedChildren();
+			for (int i= 0; i < children.length; i++) {
+				if (affectsLibraries(children[i]))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The maximal number of binary members whose Javadoc is cached.
+	 *
+	 * @since 3.8
+	 */
+	private static final int CACHE_SIZE= 200;
+
+	/**
+	 * The Javadoc of recently resolved binary members by handle identifier.
+	 *
+	 * @since 3.8
+	 */
+	private static final Map<String, String> fgJavadocCache= new LinkedHashMap<String, String>(CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * The listener that clears {@link #fgJavadocCache}, or <code>null</code> if nothing has been
+	 * cached yet.
+	 *
+	 * @since 3.8
+	 */
+	private static JavadocCacheInvalidator fgInvalidator;
+
+	/**
+	 * Guards the computation of the Javadoc, separate from the lock of the proposal info so that
+	 * resolving the Java element does not wait for the Javadoc.
+	 *
+	 * @since 3.8
+	 */
+	private final Object fJavadocLock= new Object();
+
 	private boolean fJavadocResolved= false;
 	private String fJavadoc= null;
 
@@ -48,16 +147,27 @@ public class ProposalInfo {
 	/**
 	 * Gets the text for this proposal info formatted as HTML, or
 	 * <code>null</code> if no text is available.
+	 * <p>
+	 * May be called from any thread. If the text is being computed in another thread, waits for
+	 * that computation instead of computing it again.
+	 * </p>
 	 *
 	 * @param monitor a progress monitor
 	 * @return the additional info text
 	 */
 	public final String getInfo(IProgressMonitor monitor) {
-		if (!fJavadocResolved) {
-			fJavadocResolved= true;
-			fJavadoc= computeInfo(monitor);
+		synchronized (fJavadocLock) {
+			if (!fJavadocResolved) {
+				if (monitor == null)
+					monitor= new NullProgressMonitor();
+				String javadoc= computeInfo(monitor);
+				if (monitor.isCanceled())
+					return javadoc;
+				fJavadocResolved= true;
+				fJavadoc= javadoc;
+			}
+			return fJavadoc;
 		}
-		return fJavadoc;
 	}
 
 	/**
@@ -72,7 +182,20 @@ public class ProposalInfo {
 			final IJavaElement javaElement= getJavaElement();
 			if (javaElement instanceof IMember) {
 				IMember member= (IMember) javaElement;
-				return extractJavadoc(member, monitor);
+				if (!member.isBinary())
+					return extractJavadoc(member, monitor);
+
+				String key= member.getHandleIdentifier();
+				String javadoc;
+				synchronized (fgJavadocCache) {
+					javadoc= fgJavadocCache.get(key);
+				}
+				if (javadoc == null) {
+					javadoc= extractJavadoc(member, monitor);
+					if (javadoc != null && !monitor.isCanceled())
+						cacheJavadoc(key, javadoc);
+				}
+				return javadoc;
 			}
 		} catch (JavaModelException e) {
 			JavaPlugin.log(e);
@@ -80,6 +203,24 @@ public class ProposalInfo {
 		return null;
 	}
 
+	/**
+	 * Caches the Javadoc of a binary member and starts to listen for changes that invalidate the
+	 * cache.
+	 *
+	 * @param key the handle identifier of the member
+	 * @param javadoc the Javadoc of the member
+	 * @since 3.8
+	 */
+	private static void cacheJavadoc(String key, String javadoc) {
+		synchronized (fgJavadocCache) {
+			if (fgInvalidator == null) {
+				fgInvalidator= new JavadocCacheInvalidator();
+				JavaCore.addElementChangedListener(fgInvalidator, ElementChangedEvent.POST_CHANGE);
+			}
+			fgJavadocCache.put(key, javadoc);
+		}
+	}
+
 	/**
 	 * Extracts the javadoc for the given <code>IMember</code> and returns it
 	 * as HTML.
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension2;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+
+/**
+ * A job that resolves the Javadoc of the proposal selected in the proposal popup and of its
+ * neighbours in the background, so that the information popup does not have to wait for it when
+ * the user moves through the proposals.
+ * <p>
+ * The neighbours are the proposals next to the selected one that the popup still shows for the
+ * current offset, found from the index of the selected proposal in the proposals returned to the
+ * popup. If the popup sorts the proposals after filtering, only the selected proposal is
+ * prefetched. Each prefetch request replaces the pending requests, since the selection has moved
+ * on.
+ * </p>
+ *
+ * @see ProposalInfo#getInfo(IProgressMonitor)
+ * @since 3.8
+ */
+final class ProposalInfoPrefetcher extends Job {
+
+	/** The number of proposals before and after the selected proposal whose info is prefetched */
+	private static final int NEIGHBOURS= 2;
+
+	/** The proposal infos to resolve, the most wanted first */
+	private final LinkedList<ProposalInfo> fQueue= new LinkedList<ProposalInfo>();
+
+	/** The viewer of the proposals, or <code>null</code> */
+	private ITextViewer fViewer;
+	/** The proposals returned to the popup, or <code>null</code> */
+	private List<ICompletionProposal> fProposals;
+	/** The indices of the proposals in {@link #fProposals} */
+	private final Map<ICompletionProposal, Integer> fIndices= new IdentityHashMap<ICompletionProposal, Integer>();
+	/** <code>true</code> if the popup shows the proposals in the order of {@link #fProposals} */
+	private boolean fIsShownInOrder;
+
+	public ProposalInfoPrefetcher() {
+		super(JavaTextMessages.ProposalInfoPrefetcher_job_name);
+		setSystem(true);
+		setPriority(Job.SHORT);
+	}
+
+	/**
+	 * Sets the proposals returned to the popup.
+	 * <p>
+	 * NOTE: Called from UI thread.
+	 * </p>
+	 *
+	 * @param viewer the viewer in which the popup is shown
+	 * @param proposals the proposals returned to the popup
+	 * @param isShownInOrder <code>true</code> if the popup shows the proposals in the given order,
+	 *            <code>false</code> if it sorts them after filtering
+	 */
+	public void setProposals(ITextViewer viewer, List<ICompletionProposal> proposals, boolean isShownInOrder) {
+		fViewer= viewer;
+		fProposals= proposals;
+		fIsShownInOrder= isShownInOrder;
+		fIndices.clear();
+		if (isShownInOrder) {
+			for (int i= 0; i < proposals.size(); i++)
+				fIndices.put(proposals.get(i), new Integer(i));
+		}
+	}
+
+	/**
+	 * Resolves the infos of the selected proposal and of its neighbours in the background.
+	 * <p>
+	 * NOTE: Called from UI thread.
+	 * </p>
+	 *
+	 * @param selected the selected proposal
+	 */
+	public void prefetch(ICompletionProposal selected) {
+		if (fProposals == null)
+			return;
+
+		LinkedList<ProposalInfo> infos= new LinkedList<ProposalInfo>();
+		addInfo(selected, infos);
+		Integer index= fIndices.get(selected);
+		if (fIsShownInOrder && index != null) {
+			IDocument document= fViewer.getDocument();
+			int offset= fViewer.getSelectedRange().x;
+			List<ICompletionProposal> after= getShownNeighbours(index.intValue(), 1, document, offset);
+			List<ICompletionProposal> before= getShownNeighbours(index.intValue(), -1, document, offset);
+			for (int i= 0; i < NEIGHBOURS; i++) {
+				if (i < after.size())
+					addInfo(after.get(i), infos);
+				if (i < before.size())
+					addInfo(before.get(i), infos);
+			}
+		}
+		synchronized (fQueue) {
+			fQueue.clear();
+			fQueue.addAll(infos);
+		}
+		if (!infos.isEmpty())
+			schedule();
+	}
+
+	/**
+	 * Forgets the proposals, discards the pending requests and cancels the running resolution.
+	 */
+	public void clear() {
+		fViewer= null;
+		fProposals= null;
+		fIndices.clear();
+		synchronized (fQueue) {
+			fQueue.clear();
+		}
+		cancel();
+	}
+
+	/**
+	 * Returns the proposals next to the proposal with the given index that the popup shows for
+	 * the given offset, closest first.
+	 *
+	 * @param index the index of the selected proposal
+	 * @param direction <code>1</code> for the proposals after the selected one, <code>-1</code>
+	 *            for the proposals before it
+	 * @param document the document
+	 * @param offset the offset for which the popup filters the proposals
+	 * @return at most {@link #NEIGHBOURS} proposals
+	 */
+	private List<ICompletionProposal> getShownNeighbours(int index, int direction, IDocument document, int offset) {
+		List<ICompletionProposal> neighbours= new LinkedList<ICompletionProposal>();
+		for (int i= index + direction; i >= 0 && i < fProposals.size() && neighbours.size() < NEIGHBOURS; i+= direction) {
+			ICompletionProposal proposal= fProposals.get(i);
+			if (isShown(proposal, document, offset))
+				neighbours.add(proposal);
+		}
+		return neighbours;
+	}
+
+	/**
+	 * Tells whether the popup shows the given proposal for the given offset, validating it the
+	 * same way the popup filters its proposals.
+	 *
+	 * @param proposal the proposal
+	 * @param document the document
+	 * @param offset the offset
+	 * @return <code>true</code> if the proposal is shown
+	 */
+	private static boolean isShown(ICompletionProposal proposal, IDocument document, int offset) {
+		if (proposal instanceof ICompletionProposalExtension2)
+			return ((ICompletionProposalExtension2) proposal).validate(document, offset, null);
+		if (proposal instanceof ICompletionProposalExtension)
+			return ((ICompletionProposalExtension) proposal).isValidFor(document, offset);
+		return true;
+	}
+
+	private static void addInfo(ICompletionProposal proposal, List<ProposalInfo> infos) {
+		if (proposal instanceof AbstractJavaCompletionProposal) {
+			ProposalInfo info= ((AbstractJavaCompletionProposal) proposal).getProposalInfo();
+			if (info != null)
+				infos.add(info);
+		}
+	}
+
+	/*
+	 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		while (!monitor.isCanceled()) {
+			ProposalInfo info;
+			synchronized (fQueue) {
+				if (fQueue.isEmpty())
+					return Status.OK_STATUS;
+				info= fQueue.removeFirst();
+			}
+			try {
+				info.getInfo(monitor);
+			} catch (RuntimeException e) {
+				JavaPlugin.log(e);
+			}
+		}
+		return Status.CANCEL_STATUS;
+	}
+}
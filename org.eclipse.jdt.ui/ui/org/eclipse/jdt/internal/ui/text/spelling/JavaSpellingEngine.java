@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.spelling;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.runtime.AssertionFailedException;
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -24,6 +27,7 @@ import org.eclipse.ui.texteditor.spelling.ISpellingProblemCollector;
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.text.IJavaPartitions;
 
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellCheckIterator;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker;
 
 
@@ -43,6 +47,7 @@ public class JavaSpellingEngine extends SpellingEngine {
 		SpellEventListener listener= new SpellEventListener(collector, document);
 		boolean isIgnoringJavaStrings= PreferenceConstants.getPreferenceStore().getBoolean(PreferenceConstants.SPELLING_IGNORE_JAVA_STRINGS);
 		try {
+			List<ISpellCheckIterator> iterators= new ArrayList<ISpellCheckIterator>();
 			for (int i= 0; i < regions.length; i++) {
 				IRegion region= regions[i];
 				ITypedRegion[] partitions= TextUtilities.computePartitioning(document, IJavaPartitions.JAVA_PARTITIONING, region.getOffset(), region.getLength(), false);
@@ -50,9 +55,6 @@ public class JavaSpellingEngine extends SpellingEngine {
 					if (monitor != null && monitor.isCanceled())
 						return;
 
-					if (listener.isProblemsThresholdReached())
-						return;
-
 					ITypedRegion partition= partitions[index];
 					final String type= partition.getType();
 
@@ -60,9 +62,10 @@ public class JavaSpellingEngine extends SpellingEngine {
 						continue;
 
 					if (!type.equals(IDocument.DEFAULT_CONTENT_TYPE) && !type.equals(IJavaPartitions.JAVA_CHARACTER))
-						checker.execute(listener, new SpellCheckIterator(document, partition, checker.getLocale()));
+						iterators.add(new SpellCheckIterator(document, partition, checker.getLocale()));
 				}
 			}
+			check(checker, iterators, listener, monitor);
 		} catch (BadLocationException x) {
 			// ignore: the document has been changed in another thread and will be checked again
 		} catch (AssertionFailedException x) {
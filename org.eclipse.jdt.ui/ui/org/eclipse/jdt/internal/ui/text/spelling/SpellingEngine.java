@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.spelling;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
@@ -21,7 +29,9 @@ import org.eclipse.ui.texteditor.spelling.SpellingContext;
 
 import org.eclipse.jdt.ui.PreferenceConstants;
 
+import org.eclipse.jdt.internal.ui.JavaUIMessages;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellCheckIterator;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEvent;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEventListener;
@@ -34,6 +44,18 @@ import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEventListener;
  */
 public abstract class SpellingEngine implements ISpellingEngine {
 
+	/**
+	 * Minimal number of partitions that are checked in parallel.
+	 * @since 3.8
+	 */
+	private static final int PARALLEL_THRESHOLD= 16;
+
+	/**
+	 * Maximal number of worker jobs per check, the calling thread checks as well.
+	 * @since 3.8
+	 */
+	private static final int MAX_WORKERS= 4;
+
 	/**
 	 * {@link ISpellEvent}listener that forwards events as
 	 * {@link org.eclipse.ui.texteditor.spelling.SpellingProblem}.
@@ -77,6 +99,116 @@ public abstract class SpellingEngine implements ISpellingEngine {
 		boolean isProblemsThresholdReached() {
 			return fProblemCount >= fProblemsThreshold;
 		}
+
+		/**
+		 * Returns the number of problems that will still be accepted.
+		 *
+		 * @return the number of remaining problems
+		 * @since 3.8
+		 */
+		int getRemainingProblems() {
+			return fProblemsThreshold - fProblemCount;
+		}
+	}
+
+	/**
+	 * Checks a list of partitions with a bounded number of workers and collects the
+	 * {@link ISpellEvent}s per partition, so that they can be reported in document order.
+	 *
+	 * @since 3.8
+	 */
+	private static final class ParallelCheck implements ISpellEventListener {
+
+		private final ISpellChecker fChecker;
+		private final List<ISpellCheckIterator> fIterators;
+		private final IProgressMonitor fMonitor;
+		private final int fProblemsThreshold;
+
+		/** The index of the next partition to check */
+		private final AtomicInteger fNext= new AtomicInteger();
+		/** The events of the checked partitions, <code>null</code> for unchecked partitions */
+		private final AtomicReferenceArray<List<ISpellEvent>> fEvents;
+
+		/** Lock for the completed prefix */
+		private final Object fLock= new Object();
+		/** The number of leading partitions that have been checked */
+		private int fCompleted;
+		/** The number of problems in the leading checked partitions */
+		private int fCompletedProblems;
+		/** Set when no more partitions need to be checked */
+		private volatile boolean fStopped;
+
+		/** The events of the partition checked by the current thread */
+		private final ThreadLocal<List<ISpellEvent>> fCurrentEvents= new ThreadLocal<List<ISpellEvent>>();
+
+		public ParallelCheck(ISpellChecker checker, List<ISpellCheckIterator> iterators, int problemsThreshold, IProgressMonitor monitor) {
+			fChecker= checker;
+			fIterators= iterators;
+			fProblemsThreshold= problemsThreshold;
+			fMonitor= monitor;
+			fEvents= new AtomicReferenceArray<List<ISpellEvent>>(iterators.size());
+		}
+
+		/**
+		 * Checks partitions until all partitions are taken or the check is stopped.
+		 */
+		public void work() {
+			int index;
+			while (!isStopped() && (index= fNext.getAndIncrement()) < fIterators.size()) {
+				List<ISpellEvent> events= new ArrayList<ISpellEvent>();
+				fCurrentEvents.set(events);
+				try {
+					fChecker.execute(this, fIterators.get(index));
+				} finally {
+					fCurrentEvents.set(null);
+				}
+				fEvents.set(index, events);
+				completed();
+			}
+		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEventListener#handle(org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEvent)
+		 */
+		public void handle(ISpellEvent event) {
+			fCurrentEvents.get().add(event);
+		}
+
+		/**
+		 * Advances the completed prefix and stops the check once the prefix alone
+		 * reaches the problems threshold.
+		 */
+		private void completed() {
+			synchronized (fLock) {
+				List<ISpellEvent> events;
+				while (fCompleted < fIterators.size() && (events= fEvents.get(fCompleted)) != null) {
+					fCompletedProblems+= events.size();
+					fCompleted++;
+				}
+				if (fCompletedProblems >= fProblemsThreshold)
+					fStopped= true;
+			}
+		}
+
+		private boolean isStopped() {
+			return fStopped || fMonitor != null && fMonitor.isCanceled();
+		}
+
+		/**
+		 * Reports the collected events in document order, up to the first partition that
+		 * has not been checked.
+		 *
+		 * @param listener the listener to report to
+		 */
+		public void report(ISpellEventListener listener) {
+			for (int index= 0; index < fIterators.size(); index++) {
+				List<ISpellEvent> events= fEvents.get(index);
+				if (events == null)
+					return;
+				for (int event= 0; event < events.size(); event++)
+					listener.handle(events.get(event));
+			}
+		}
 	}
 
 	/*
@@ -102,4 +234,69 @@ public abstract class SpellingEngine implements ISpellingEngine {
 	 */
 	protected abstract void check(IDocument document, IRegion[] regions, ISpellChecker checker, ISpellingProblemCollector collector, IProgressMonitor monitor);
 
+	/**
+	 * Spell checks the given partitions and reports the problems to the given listener in
+	 * the order of the partitions. Large numbers of partitions are checked by a bounded number
+	 * of background jobs together with the calling thread.
+	 * <p>
+	 * The iterators must have been created by the calling thread, since their creation reads
+	 * the document.
+	 * </p>
+	 *
+	 * @param checker the spell checker
+	 * @param iterators the iterators of the partitions to check
+	 * @param listener the listener
+	 * @param monitor the progress monitor, can be <code>null</code>
+	 * @since 3.8
+	 */
+	protected void check(ISpellChecker checker, List<ISpellCheckIterator> iterators, SpellEventListener listener, IProgressMonitor monitor) {
+		int workers= Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1);
+		if (iterators.size() < PARALLEL_THRESHOLD || workers < 1) {
+			for (int index= 0; index < iterators.size(); index++) {
+				if (monitor != null && monitor.isCanceled())
+					return;
+
+				if (listener.isProblemsThresholdReached())
+					return;
+
+				checker.execute(listener, iterators.get(index));
+			}
+			return;
+		}
+
+		final ParallelCheck check= new ParallelCheck(checker, iterators, listener.getRemainingProblems(), monitor);
+		workers= Math.min(workers, iterators.size() / PARALLEL_THRESHOLD);
+		Job[] jobs= new Job[workers];
+		for (int index= 0; index < workers; index++) {
+			jobs[index]= new Job(JavaUIMessages.Spelling_check_job) {
+				@Override
+				protected IStatus run(IProgressMonitor jobMonitor) {
+					check.work();
+					return Status.OK_STATUS;
+				}
+			};
+			jobs[index].setSystem(true);
+			jobs[index].setPriority(Job.SHORT);
+			jobs[index].schedule();
+		}
+
+		check.work();
+
+		try {
+			for (int index= 0; index < workers; index++) {
+				// workers that have not started yet are no longer needed
+				jobs[index].cancel();
+				jobs[index].join();
+			}
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		if (monitor != null && monitor.isCanceled())
+			return;
+
+		check.report(listener);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,23 +11,21 @@
 package org.eclipse.jdt.internal.ui.text.spelling.engine;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.MalformedInputException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IStatus;
@@ -52,58 +50,6 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
  */
 public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
-	/**
-	 * Byte array wrapper
-	 * @since 3.6
-	 */
-	private static class ByteArrayWrapper {
-
-		private static int hashCode(byte[] array) {
-			int prime= 31;
-			if (array == null)
-				return 0;
-			int result= 1;
-			for (int index= 0; index < array.length; index++) {
-				result= prime * result + array[index];
-			}
-			return result;
-		}
-
-		private byte[] byteArray;
-
-		public ByteArrayWrapper(byte[] byteArray) {
-			this.byteArray= byteArray;
-		}
-		@Override
-		public int hashCode() {
-			final int prime= 31;
-			int result= 1;
-			result= prime * result + ByteArrayWrapper.hashCode(byteArray);
-			return result;
-		}
-
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (!(obj instanceof ByteArrayWrapper))
-				return false;
-			ByteArrayWrapper other= (ByteArrayWrapper)obj;
-			if (!Arrays.equals(byteArray, other.byteArray))
-				return false;
-			return true;
-		}
-	}
-
-	
-	/**
-	 * Canonical name for UTF-8 encoding
-	 * @since 3.6
-	 */
-	private static final String UTF_8= "UTF-8"; //$NON-NLS-1$
-
 	/** The bucket capacity */
 	protected static final int BUCKET_CAPACITY= 4;
 
@@ -122,14 +68,17 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	/** The phonetic distance algorithm */
 	private IPhoneticDistanceAlgorithm fDistanceAlgorithm= new DefaultPhoneticDistanceAlgorithm();
 
-	/** The mapping from phonetic hashes to word lists */
-	private final Map<ByteArrayWrapper, Object> fHashBuckets= new HashMap<ByteArrayWrapper, Object>(getInitialSize(), LOAD_FACTOR);
+	/**
+	 * The mapping from phonetic hashes to word lists
+	 * @since 3.8
+	 */
+	private final CompactWordStore fWords= new CompactWordStore(getInitialSize());
 
 	/** The phonetic hash provider */
 	private IPhoneticHashProvider fHashProvider= new DefaultPhoneticHashProvider();
 
-	/** Is the dictionary already loaded? */
-	private boolean fLoaded= false;
+	/** Is the dictionary already loaded? Volatile, since lookups do not lock. */
+	private volatile boolean fLoaded= false;
 	/**
 	 * Must the dictionary be loaded?
 	 * @since 3.2
@@ -152,24 +101,6 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		return 32;
 	}
 
-	/**
-	 * Returns all candidates with the same phonetic hash.
-	 *
-	 * @param hash
-	 *                   The hash to retrieve the candidates of
-	 * @return Array of candidates for the phonetic hash
-	 */
-	protected final Object getCandidates(final String hash) {
-		ByteArrayWrapper hashBytes;
-		try {
-			hashBytes= new ByteArrayWrapper(hash.getBytes(UTF_8));
-		} catch (UnsupportedEncodingException e) {
-			JavaPlugin.log(e);
-			return null;
-		}
-		return fHashBuckets.get(hashBytes);
-	}
-
 	/**
 	 * Returns all candidates that have a phonetic hash within a bounded
 	 * distance to the specified word.
@@ -190,45 +121,20 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 		final StringBuffer buffer= new StringBuffer(BUFFER_CAPACITY);
 		final HashSet<RankedWordProposal> result= new HashSet<RankedWordProposal>(BUCKET_CAPACITY * hashs.size());
+		final CompactWordStore.Tables words= fWords.getTables();
 
 		for (int index= 0; index < hashs.size(); index++) {
 
 			hash= hashs.get(index);
 
-			final Object candidates= getCandidates(hash);
-			if (candidates == null)
+			final int bucket= words.find(hash);
+			if (bucket == CompactWordStore.NONE)
 				continue;
-			else if (candidates instanceof byte[]) {
-				String candidate;
-				try {
-					candidate= new String((byte[])candidates, UTF_8);
-				} catch (UnsupportedEncodingException e) {
-					JavaPlugin.log(e);
-					return result;
-				}
-				distance= fDistanceAlgorithm.getDistance(word, candidate);
-				if (distance < DISTANCE_THRESHOLD) {
-					buffer.setLength(0);
-					buffer.append(candidate);
-					if (sentence)
-						buffer.setCharAt(0, Character.toUpperCase(buffer.charAt(0)));
-					result.add(new RankedWordProposal(buffer.toString(), -distance));
-				}
-				continue;
-			}
 
-			@SuppressWarnings("unchecked")
-			final ArrayList<byte[]> candidateList= (ArrayList<byte[]>)candidates;
-			int candidateSize= Math.min(500, candidateList.size()); // see https://bugs.eclipse.org/bugs/show_bug.cgi?id=195357
-			for (int offset= 0; offset < candidateSize; offset++) {
+			int candidateCount= 0; // see https://bugs.eclipse.org/bugs/show_bug.cgi?id=195357
+			for (int candidateIndex= words.getFirstWord(bucket); candidateIndex != CompactWordStore.NONE && candidateCount < 500; candidateIndex= words.getNextWord(candidateIndex), candidateCount++) {
 
-				String candidate;
-				try {
-					candidate= new String(candidateList.get(offset), UTF_8);
-				} catch (UnsupportedEncodingException e) {
-					JavaPlugin.log(e);
-					return result;
-				}
+				final String candidate= words.getWord(candidateIndex);
 				distance= fDistanceAlgorithm.getDistance(word, candidate);
 
 				if (distance < DISTANCE_THRESHOLD) {
@@ -266,37 +172,15 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 		StringBuffer buffer= new StringBuffer(BUFFER_CAPACITY);
 
-		final Object candidates= getCandidates(fHashProvider.getHash(word));
-		if (candidates == null)
-			return;
-		else if (candidates instanceof byte[]) {
-			String candidate;
-			try {
-				candidate= new String((byte[])candidates, UTF_8);
-			} catch (UnsupportedEncodingException e) {
-				JavaPlugin.log(e);
-				return;
-			}
-			distance= fDistanceAlgorithm.getDistance(word, candidate);
-			buffer.append(candidate);
-			if (sentence)
-				buffer.setCharAt(0, Character.toUpperCase(buffer.charAt(0)));
-			result.add(new RankedWordProposal(buffer.toString(), -distance));
+		final CompactWordStore.Tables words= fWords.getTables();
+		final int bucket= words.find(fHashProvider.getHash(word));
+		if (bucket == CompactWordStore.NONE)
 			return;
-		}
 
-		@SuppressWarnings("unchecked")
-		final ArrayList<byte[]> candidateList= (ArrayList<byte[]>)candidates;
-		final ArrayList<RankedWordProposal> matches= new ArrayList<RankedWordProposal>(candidateList.size());
+		final ArrayList<RankedWordProposal> matches= new ArrayList<RankedWordProposal>(BUCKET_CAPACITY);
 
-		for (int index= 0; index < candidateList.size(); index++) {
-			String candidate;
-			try {
-				candidate= new String(candidateList.get(index), UTF_8);
-			} catch (UnsupportedEncodingException e) {
-				JavaPlugin.log(e);
-				return;
-			}
+		for (int index= words.getFirstWord(bucket); index != CompactWordStore.NONE; index= words.getNextWord(index)) {
+			final String candidate= words.getWord(index);
 			distance= fDistanceAlgorithm.getDistance(word, candidate);
 
 			if (distance <= minimum) {
@@ -325,7 +209,27 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 * @since 3.3
 	 */
 	protected boolean isEmpty() {
-		return fHashBuckets.size() == 0;
+		return fWords.isEmpty();
+	}
+
+	/**
+	 * Returns the number of words in this dictionary.
+	 *
+	 * @return the number of words
+	 * @since 3.8
+	 */
+	public synchronized int getWordCount() {
+		return fWords.getWordCount();
+	}
+
+	/**
+	 * Returns the approximate number of bytes used to store the words of this dictionary.
+	 *
+	 * @return the memory size in bytes
+	 * @since 3.8
+	 */
+	public synchronized long getMemorySize() {
+		return fWords.getMemorySize();
 	}
 
 	/**
@@ -474,33 +378,9 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 * @param word
 	 *                   The word to hash in the dictionary
 	 */
-	protected final void hashWord(final String word) {
-
-		final String hash= fHashProvider.getHash(word);
-		ByteArrayWrapper hashBytes;
-		byte[] wordBytes;
-		try {
-			hashBytes= new ByteArrayWrapper(hash.getBytes(UTF_8));
-			wordBytes= word.getBytes(UTF_8);
-		} catch (UnsupportedEncodingException e) {
-			JavaPlugin.log(e);
-			return;
-		}
-
-		Object bucket= fHashBuckets.get(hashBytes);
-
-		if (bucket == null) {
-			fHashBuckets.put(hashBytes, wordBytes);
-		} else if (bucket instanceof ArrayList) {
-			@SuppressWarnings("unchecked")
-			ArrayList<byte[]> bucketList= (ArrayList<byte[]>)bucket;
-			bucketList.add(wordBytes);
-		} else {
-			ArrayList<Object> list= new ArrayList<Object>(BUCKET_CAPACITY);
-			list.add(bucket);
-			list.add(wordBytes);
-			fHashBuckets.put(hashBytes, list);
-		}
+	protected synchronized final void hashWord(final String word) {
+		fWords.add(fHashProvider.getHash(word), word);
+		fWords.publish();
 	}
 
 	/*
@@ -522,37 +402,19 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			// Do nothing
 		}
 
-		final Object candidates= getCandidates(fHashProvider.getHash(word));
-		if (candidates == null)
+		final CompactWordStore.Tables words= fWords.getTables();
+		final int bucket= words.find(fHashProvider.getHash(word));
+		if (bucket == CompactWordStore.NONE)
 			return false;
-		else if (candidates instanceof byte[]) {
-			String candidate;
-			try {
-				candidate= new String((byte[])candidates, UTF_8);
-			} catch (UnsupportedEncodingException e) {
-				JavaPlugin.log(e);
-				return false;
-			}
-			if (candidate.equals(word) || candidate.equals(word.toLowerCase()))
+
+		String lowercaseWord= null;
+		for (int index= words.getFirstWord(bucket); index != CompactWordStore.NONE; index= words.getNextWord(index)) {
+			if (words.wordEquals(index, word))
 				return true;
-			return false;
-		}
-		@SuppressWarnings("unchecked")
-		final ArrayList<byte[]> candidateList= (ArrayList<byte[]>)candidates;
-		byte[] wordBytes;
-		byte[] lowercaseWordBytes;
-		try {
-			wordBytes= word.getBytes(UTF_8);
-			lowercaseWordBytes= word.toLowerCase().getBytes(UTF_8);
-		} catch (UnsupportedEncodingException e) {
-			JavaPlugin.log(e);
-			return false;
-		}
-		for (int index= 0; index < candidateList.size(); index++) {
-			byte[] candidate= candidateList.get(index);
-			if (Arrays.equals(candidate, wordBytes) || Arrays.equals(candidate, lowercaseWordBytes)) {
+			if (lowercaseWord == null)
+				lowercaseWord= word.toLowerCase();
+			if (words.wordEquals(index, lowercaseWord))
 				return true;
-			}
 		}
 		return false;
 	}
@@ -596,7 +458,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 * @see org.eclipse.jdt.ui.text.spelling.engine.ISpellDictionary#isLoaded()
 	 */
 	public synchronized final boolean isLoaded() {
-		return fLoaded || fHashBuckets.size() > 0;
+		return fLoaded || !fWords.isEmpty();
 	}
 
 	/**
@@ -615,15 +477,30 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			InputStream stream= null;
 			int line= 0;
 			try {
-				stream= url.openStream();
+				URLConnection connection= url.openConnection();
+				stream= connection.getInputStream();
+				final String encoding= getEncoding();
+
+				// Use the binary snapshot if it has been built from the same source
+				DictionarySnapshot snapshot= null;
+				long length= connection.getContentLength();
+				long timeStamp= connection.getLastModified();
+				if (isEmpty() && length >= 0 && timeStamp != 0) {
+					snapshot= DictionarySnapshot.create(url.toExternalForm(), encoding, fHashProvider);
+					if (snapshot != null && snapshot.read(fWords, length, timeStamp))
+						return true;
+				}
+
 				if (stream != null) {
+					final byte[] contents= readContents(stream);
+
 					String word= null;
 
 					// Setup a reader with a decoder in order to read over malformed input if needed.
-					CharsetDecoder decoder= Charset.forName(getEncoding()).newDecoder();
+					CharsetDecoder decoder= Charset.forName(encoding).newDecoder();
 					decoder.onMalformedInput(CodingErrorAction.REPORT);
 					decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-					final BufferedReader reader= new BufferedReader(new InputStreamReader(stream, decoder));
+					final BufferedReader reader= new BufferedReader(new InputStreamReader(new ByteArrayInputStream(contents), decoder));
 
 					boolean doRead= true;
 					while (doRead) {
@@ -645,8 +522,12 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 						}
 						doRead= word != null;
 						if (doRead)
-							hashWord(word);
+							fWords.add(fHashProvider.getHash(word), word);
 					}
+					fWords.publish();
+
+					if (snapshot != null)
+						snapshot.write(fWords, length, timeStamp);
 					return true;
 				}
 			} catch (FileNotFoundException ex) {
@@ -679,18 +560,30 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		return false;
 	}
 
+	/**
+	 * Reads the given stream to the end.
+	 *
+	 * @param stream the stream to read
+	 * @return the contents of the stream
+	 * @throws IOException if reading fails
+	 * @since 3.8
+	 */
+	private static byte[] readContents(InputStream stream) throws IOException {
+		ByteArrayOutputStream contents= new ByteArrayOutputStream(64 * 1024);
+		byte[] buffer= new byte[8192];
+		int read;
+		while ((read= stream.read(buffer)) != -1)
+			contents.write(buffer, 0, read);
+		return contents.toByteArray();
+	}
+
 	/**
 	 * Compacts the dictionary.
 	 *
 	 * @since 3.3.
 	 */
 	private void compact() {
-		Iterator<Object> iter= fHashBuckets.values().iterator();
-		while (iter.hasNext()) {
-			Object element= iter.next();
-			if (element instanceof ArrayList)
-				((ArrayList<?>)element).trimToSize();
-		}
+		fWords.compact();
 	}
 
 	/**
@@ -719,7 +612,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	public synchronized void unload() {
 		fLoaded= false;
 		fMustLoad= true;
-		fHashBuckets.clear();
+		fWords.clear();
 	}
 
 	/*
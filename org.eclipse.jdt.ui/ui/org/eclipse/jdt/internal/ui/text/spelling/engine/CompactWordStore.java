@@ -0,0 +1,540 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Word store of a spell dictionary that maps phonetic hashes to buckets of words.
+ * <p>
+ * All words and hashes live in a single character pool, and buckets and words are
+ * described by offset tables into that pool. Buckets are found through an open
+ * addressing hash table of bucket indices, and the words of a bucket form a linked
+ * list in insertion order. This keeps the number of objects independent of the
+ * number of words.
+ * </p>
+ * <p>
+ * Buckets and words are identified by their index. Lookups go through the {@link Tables}
+ * returned by {@link #getTables()}, where the word indices of a bucket are enumerated with
+ * {@link Tables#getFirstWord(int)} and {@link Tables#getNextWord(int)}.
+ * </p>
+ * <p>
+ * Modifications must be serialized by the client, lookups need no locking: they go through
+ * the tables last published by {@link #publish()}, {@link #compact()}, {@link #read(ByteBuffer)}
+ * or {@link #clear()}, which are never written again. The first addition after a publication
+ * copies all arrays, so lookups never see partially added words, and additions only become
+ * visible to lookups once the tables are published again.
+ * </p>
+ *
+ * @since 3.8
+ */
+final class CompactWordStore {
+
+	/** The end marker of a word list */
+	public static final int NONE= -1;
+
+	/** The maximal load of the hash table */
+	private static final float TABLE_LOAD_FACTOR= 0.75f;
+
+	/**
+	 * The tables of a word store. Arrays are never replaced in a set of tables, and the arrays
+	 * of published tables are never written again.
+	 */
+	static final class Tables {
+
+		/** The character pool of words and hashes */
+		final char[] fChars;
+
+		/** The pool offsets of the words */
+		final int[] fWordOffsets;
+		/** The lengths of the words */
+		final int[] fWordLengths;
+		/** The index of the next word in the same bucket, or {@link CompactWordStore#NONE} */
+		final int[] fWordNext;
+
+		/** The pool offsets of the bucket hashes */
+		final int[] fBucketOffsets;
+		/** The lengths of the bucket hashes */
+		final int[] fBucketLengths;
+		/** The hash codes of the bucket hashes */
+		final int[] fBucketHashCodes;
+		/** The index of the first word in the bucket */
+		final int[] fBucketFirstWords;
+		/** The index of the last word in the bucket */
+		final int[] fBucketLastWords;
+
+		/** The hash table, holds bucket indices plus one, <code>0</code> marks a free slot */
+		final int[] fTable;
+
+		Tables(char[] chars, int[] wordOffsets, int[] wordLengths, int[] wordNext, int[] bucketOffsets, int[] bucketLengths, int[] bucketHashCodes, int[] bucketFirstWords, int[] bucketLastWords, int[] table) {
+			fChars= chars;
+			fWordOffsets= wordOffsets;
+			fWordLengths= wordLengths;
+			fWordNext= wordNext;
+			fBucketOffsets= bucketOffsets;
+			fBucketLengths= bucketLengths;
+			fBucketHashCodes= bucketHashCodes;
+			fBucketFirstWords= bucketFirstWords;
+			fBucketLastWords= bucketLastWords;
+			fTable= table;
+		}
+
+		/**
+		 * Returns the bucket of the given hash.
+		 *
+		 * @param hash the phonetic hash
+		 * @return the bucket index or {@link CompactWordStore#NONE} if there is no bucket for the hash
+		 */
+		public int find(String hash) {
+			int hashCode= hash.hashCode();
+			int mask= fTable.length - 1;
+			int slot= mix(hashCode) & mask;
+			while (true) {
+				int entry= fTable[slot];
+				if (entry == 0)
+					return NONE;
+				int bucket= entry - 1;
+				if (fBucketHashCodes[bucket] == hashCode && regionEquals(fBucketOffsets[bucket], fBucketLengths[bucket], hash))
+					return bucket;
+				slot= (slot + 1) & mask;
+			}
+		}
+
+		/**
+		 * Returns the first word of the given bucket.
+		 *
+		 * @param bucket the bucket index
+		 * @return the word index or {@link CompactWordStore#NONE} if the bucket is empty
+		 */
+		public int getFirstWord(int bucket) {
+			return fBucketFirstWords[bucket];
+		}
+
+		/**
+		 * Returns the word following the given word in its bucket.
+		 *
+		 * @param word the word index
+		 * @return the word index or {@link CompactWordStore#NONE} if this was the last word
+		 */
+		public int getNextWord(int word) {
+			return fWordNext[word];
+		}
+
+		/**
+		 * Returns the given word.
+		 *
+		 * @param word the word index
+		 * @return the word
+		 */
+		public String getWord(int word) {
+			return new String(fChars, fWordOffsets[word], fWordLengths[word]);
+		}
+
+		/**
+		 * Tells whether the given word equals the given string.
+		 *
+		 * @param word the word index
+		 * @param string the string to compare with
+		 * @return <code>true</code> iff the word equals the string
+		 */
+		public boolean wordEquals(int word, String string) {
+			return regionEquals(fWordOffsets[word], fWordLengths[word], string);
+		}
+
+		/**
+		 * Tells whether the given pool region equals the given string.
+		 *
+		 * @param offset the pool offset
+		 * @param length the region length
+		 * @param string the string
+		 * @return <code>true</code> iff the region equals the string
+		 */
+		private boolean regionEquals(int offset, int length, String string) {
+			if (length != string.length())
+				return false;
+			for (int index= 0; index < length; index++) {
+				if (fChars[offset + index] != string.charAt(index))
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Returns a copy of these tables with the given capacities. All arrays are copied, so
+		 * that writes to the copy never reach readers of these tables.
+		 *
+		 * @param chars the capacity of the character pool
+		 * @param words the word capacity
+		 * @param buckets the bucket capacity
+		 * @return the new tables
+		 */
+		Tables copy(int chars, int words, int buckets) {
+			return new Tables(CompactWordStore.copy(fChars, chars),
+					CompactWordStore.copy(fWordOffsets, words), CompactWordStore.copy(fWordLengths, words), CompactWordStore.copy(fWordNext, words),
+					CompactWordStore.copy(fBucketOffsets, buckets), CompactWordStore.copy(fBucketLengths, buckets), CompactWordStore.copy(fBucketHashCodes, buckets),
+					CompactWordStore.copy(fBucketFirstWords, buckets), CompactWordStore.copy(fBucketLastWords, buckets), CompactWordStore.copy(fTable, fTable.length));
+		}
+	}
+
+	/** The tables that are modified by additions */
+	private Tables fTables;
+	/** Tells whether {@link #fTables} have been published and must be copied before a write */
+	private boolean fIsShared;
+	/** The published tables for lookups */
+	private volatile Tables fPublishedTables;
+
+	/** The number of used characters in the pool */
+	private int fCharCount;
+	/** The number of words */
+	private int fWordCount;
+	/** The number of buckets */
+	private int fBucketCount;
+
+	/**
+	 * Creates a new word store.
+	 *
+	 * @param initialSize the expected number of buckets
+	 */
+	public CompactWordStore(int initialSize) {
+		initialize(Math.max(initialSize, 4));
+	}
+
+	/**
+	 * Allocates the tables for the given number of buckets.
+	 *
+	 * @param size the expected number of buckets
+	 */
+	private void initialize(int size) {
+		fCharCount= 0;
+		fWordCount= 0;
+		fBucketCount= 0;
+		fTables= new Tables(new char[size * 8], new int[size], new int[size], new int[size], new int[size], new int[size], new int[size], new int[size], new int[size], new int[getTableSize(size)]);
+		publish();
+	}
+
+	/**
+	 * Returns the smallest power of two table size that holds the given number of buckets.
+	 *
+	 * @param buckets the number of buckets
+	 * @return the table size
+	 */
+	private static int getTableSize(int buckets) {
+		int size= 16;
+		while (size * TABLE_LOAD_FACTOR < buckets)
+			size<<= 1;
+		return size;
+	}
+
+	/**
+	 * Returns the published tables for lookups. Clients must use the same tables for all
+	 * lookups that pass bucket or word indices.
+	 *
+	 * @return the published tables
+	 */
+	public Tables getTables() {
+		return fPublishedTables;
+	}
+
+	/**
+	 * Publishes the current tables for lookups. The tables are copied before the next
+	 * addition, so publishing after every addition costs a copy of all words.
+	 */
+	public void publish() {
+		fIsShared= true;
+		fPublishedTables= fTables;
+	}
+
+	/**
+	 * Adds a word to the bucket of the given hash. The word is not visible to lookups before
+	 * the tables are published.
+	 *
+	 * @param hash the phonetic hash of the word
+	 * @param word the word
+	 */
+	public void add(String hash, String word) {
+		Tables tables= fTables;
+		if (fIsShared) {
+			tables= tables.copy(tables.fChars.length, tables.fWordOffsets.length, tables.fBucketOffsets.length);
+			fIsShared= false;
+		}
+		int bucket= tables.find(hash);
+		if (bucket == NONE) {
+			tables= addBucket(tables, hash);
+			bucket= fBucketCount - 1;
+		}
+
+		int index= fWordCount;
+		int length= word.length();
+		if (index == tables.fWordOffsets.length || fCharCount + length > tables.fChars.length)
+			tables= tables.copy(getCharCapacity(tables, length), index == tables.fWordOffsets.length ? grow(index) : tables.fWordOffsets.length, tables.fBucketOffsets.length);
+
+		tables.fWordOffsets[index]= append(tables, word);
+		tables.fWordLengths[index]= length;
+		tables.fWordNext[index]= NONE;
+		fWordCount++;
+
+		if (tables.fBucketFirstWords[bucket] == NONE)
+			tables.fBucketFirstWords[bucket]= index;
+		else
+			tables.fWordNext[tables.fBucketLastWords[bucket]]= index;
+		tables.fBucketLastWords[bucket]= index;
+		fTables= tables;
+	}
+
+	/**
+	 * Returns the bucket of the given hash in the published tables.
+	 *
+	 * @param hash the phonetic hash
+	 * @return the bucket index or {@link #NONE} if there is no bucket for the hash
+	 */
+	public int find(String hash) {
+		return fPublishedTables.find(hash);
+	}
+
+	/**
+	 * Returns the number of buckets.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getBucketCount() {
+		return fBucketCount;
+	}
+
+	/**
+	 * Returns the number of words.
+	 *
+	 * @return the number of words
+	 */
+	public int getWordCount() {
+		return fWordCount;
+	}
+
+	/**
+	 * Tells whether this store is empty.
+	 *
+	 * @return <code>true</code> iff the store contains no word
+	 */
+	public boolean isEmpty() {
+		return fWordCount == 0;
+	}
+
+	/**
+	 * Returns the approximate number of bytes held by the tables of this store.
+	 *
+	 * @return the memory size in bytes
+	 */
+	public long getMemorySize() {
+		Tables tables= fTables;
+		return 2L * tables.fChars.length + 4L * (3 * tables.fWordOffsets.length + 5 * tables.fBucketOffsets.length + tables.fTable.length);
+	}
+
+	/**
+	 * Trims the tables to their used size and publishes them.
+	 */
+	public void compact() {
+		fTables= fTables.copy(fCharCount, fWordCount, fBucketCount);
+		publish();
+	}
+
+	/**
+	 * Returns the number of bytes needed by {@link #write(ByteBuffer)}.
+	 *
+	 * @return the serialized size in bytes
+	 */
+	public int getSerializedSize() {
+		return 4 * 4 + 2 * fCharCount + 4 * (3 * fWordCount + 5 * fBucketCount + fTables.fTable.length);
+	}
+
+	/**
+	 * Writes the used part of the tables to the given buffer.
+	 *
+	 * @param buffer the buffer, must have {@link #getSerializedSize()} bytes remaining
+	 */
+	public void write(ByteBuffer buffer) {
+		Tables tables= fTables;
+		buffer.putInt(fCharCount);
+		buffer.putInt(fWordCount);
+		buffer.putInt(fBucketCount);
+		buffer.putInt(tables.fTable.length);
+
+		buffer.asCharBuffer().put(tables.fChars, 0, fCharCount);
+		buffer.position(buffer.position() + 2 * fCharCount);
+
+		IntBuffer ints= buffer.asIntBuffer();
+		ints.put(tables.fWordOffsets, 0, fWordCount);
+		ints.put(tables.fWordLengths, 0, fWordCount);
+		ints.put(tables.fWordNext, 0, fWordCount);
+		ints.put(tables.fBucketOffsets, 0, fBucketCount);
+		ints.put(tables.fBucketLengths, 0, fBucketCount);
+		ints.put(tables.fBucketHashCodes, 0, fBucketCount);
+		ints.put(tables.fBucketFirstWords, 0, fBucketCount);
+		ints.put(tables.fBucketLastWords, 0, fBucketCount);
+		ints.put(tables.fTable);
+		buffer.position(buffer.position() + 4 * ints.position());
+	}
+
+	/**
+	 * Replaces the contents of this store with the tables read from the given buffer and
+	 * publishes them.
+	 *
+	 * @param buffer the buffer positioned at data written by {@link #write(ByteBuffer)}
+	 * @throws IllegalArgumentException if the buffer does not contain valid tables
+	 */
+	public void read(ByteBuffer buffer) {
+		int charCount= buffer.getInt();
+		int wordCount= buffer.getInt();
+		int bucketCount= buffer.getInt();
+		int tableLength= buffer.getInt();
+		if (charCount < 0 || wordCount < 0 || bucketCount < 0 || bucketCount > wordCount || tableLength < 16 || (tableLength & (tableLength - 1)) != 0 || bucketCount > tableLength * TABLE_LOAD_FACTOR)
+			throw new IllegalArgumentException();
+		if (buffer.remaining() != 2L * charCount + 4L * (3L * wordCount + 5L * bucketCount + tableLength))
+			throw new IllegalArgumentException();
+
+		char[] chars= new char[charCount];
+		CharBuffer charBuffer= buffer.asCharBuffer();
+		charBuffer.get(chars);
+		buffer.position(buffer.position() + 2 * charCount);
+
+		IntBuffer ints= buffer.asIntBuffer();
+		int[] wordOffsets= get(ints, wordCount);
+		int[] wordLengths= get(ints, wordCount);
+		int[] wordNext= get(ints, wordCount);
+		int[] bucketOffsets= get(ints, bucketCount);
+		int[] bucketLengths= get(ints, bucketCount);
+		int[] bucketHashCodes= get(ints, bucketCount);
+		int[] bucketFirstWords= get(ints, bucketCount);
+		int[] bucketLastWords= get(ints, bucketCount);
+		int[] table= get(ints, tableLength);
+		buffer.position(buffer.position() + 4 * ints.position());
+
+		fCharCount= charCount;
+		fWordCount= wordCount;
+		fBucketCount= bucketCount;
+		fTables= new Tables(chars, wordOffsets, wordLengths, wordNext, bucketOffsets, bucketLengths, bucketHashCodes, bucketFirstWords, bucketLastWords, table);
+		publish();
+	}
+
+	private static int[] get(IntBuffer buffer, int length) {
+		int[] result= new int[length];
+		buffer.get(result);
+		return result;
+	}
+
+	/**
+	 * Removes all words, releases the tables and publishes the empty tables.
+	 */
+	public void clear() {
+		initialize(4);
+	}
+
+	/**
+	 * Adds a new, empty bucket for the given hash.
+	 *
+	 * @param tables the current tables, not published
+	 * @param hash the phonetic hash
+	 * @return the tables that hold the new bucket
+	 */
+	private Tables addBucket(Tables tables, String hash) {
+		int bucket= fBucketCount;
+		int length= hash.length();
+		if (bucket == tables.fBucketOffsets.length || fCharCount + length > tables.fChars.length)
+			tables= tables.copy(getCharCapacity(tables, length), tables.fWordOffsets.length, bucket == tables.fBucketOffsets.length ? grow(bucket) : tables.fBucketOffsets.length);
+
+		tables.fBucketOffsets[bucket]= append(tables, hash);
+		tables.fBucketLengths[bucket]= length;
+		tables.fBucketHashCodes[bucket]= hash.hashCode();
+		tables.fBucketFirstWords[bucket]= NONE;
+		tables.fBucketLastWords[bucket]= NONE;
+		fBucketCount++;
+
+		if (fBucketCount > tables.fTable.length * TABLE_LOAD_FACTOR) {
+			int[] table= new int[tables.fTable.length << 1];
+			for (int index= 0; index < fBucketCount; index++)
+				insert(tables, table, index);
+			tables= new Tables(tables.fChars, tables.fWordOffsets, tables.fWordLengths, tables.fWordNext, tables.fBucketOffsets, tables.fBucketLengths, tables.fBucketHashCodes, tables.fBucketFirstWords, tables.fBucketLastWords, table);
+		} else {
+			insert(tables, tables.fTable, bucket);
+		}
+		return tables;
+	}
+
+	/**
+	 * Inserts the given bucket into the given hash table.
+	 *
+	 * @param tables the tables holding the bucket
+	 * @param table the hash table
+	 * @param bucket the bucket index
+	 */
+	private static void insert(Tables tables, int[] table, int bucket) {
+		int mask= table.length - 1;
+		int slot= mix(tables.fBucketHashCodes[bucket]) & mask;
+		while (table[slot] != 0)
+			slot= (slot + 1) & mask;
+		table[slot]= bucket + 1;
+	}
+
+	/**
+	 * Returns the capacity of the character pool needed to append the given number of characters.
+	 *
+	 * @param tables the current tables
+	 * @param length the number of characters to append
+	 * @return the pool capacity
+	 */
+	private int getCharCapacity(Tables tables, int length) {
+		if (fCharCount + length <= tables.fChars.length)
+			return tables.fChars.length;
+		return Math.max(grow(tables.fChars.length), fCharCount + length);
+	}
+
+	/**
+	 * Appends the given string to the character pool, which must have enough room.
+	 *
+	 * @param tables the tables holding the pool
+	 * @param string the string to append
+	 * @return the pool offset of the string
+	 */
+	private int append(Tables tables, String string) {
+		int length= string.length();
+		string.getChars(0, length, tables.fChars, fCharCount);
+		int offset= fCharCount;
+		fCharCount+= length;
+		return offset;
+	}
+
+	/**
+	 * Spreads the bits of the given hash code, since the table size is a power of two.
+	 *
+	 * @param hashCode the hash code
+	 * @return the spread hash code
+	 */
+	private static int mix(int hashCode) {
+		hashCode^= (hashCode >>> 20) ^ (hashCode >>> 12);
+		return hashCode ^ (hashCode >>> 7) ^ (hashCode >>> 4);
+	}
+
+	private static int grow(int capacity) {
+		return Math.max(16, capacity + (capacity >> 1));
+	}
+
+	private static int[] copy(int[] array, int length) {
+		int[] result= new int[length];
+		System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+		return result;
+	}
+
+	private static char[] copy(char[] array, int length) {
+		char[] result= new char[length];
+		System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+		return result;
+	}
+}
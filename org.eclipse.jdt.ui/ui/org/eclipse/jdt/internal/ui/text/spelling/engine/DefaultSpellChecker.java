@@ -10,11 +10,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.spelling.engine;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -121,15 +122,16 @@ public class DefaultSpellChecker implements ISpellChecker {
 	}
 
 	/**
-	 * The dictionaries to use for spell checking. Synchronized to avoid
-	 * concurrent modifications.
+	 * The dictionaries to use for spell checking. Copied on write, so that
+	 * lookups can iterate without locking.
 	 */
-	private final Set<ISpellDictionary> fDictionaries= Collections.synchronizedSet(new HashSet<ISpellDictionary>());
+	private final Set<ISpellDictionary> fDictionaries= new CopyOnWriteArraySet<ISpellDictionary>();
 
 	/**
-	 * The words to be ignored. Synchronized to avoid concurrent modifications.
+	 * The words to be ignored, mapped to {@link Boolean#TRUE}. A concurrent map,
+	 * so that lookups do not lock.
 	 */
-	private final Set<String> fIgnored= Collections.synchronizedSet(new HashSet<String>());
+	private final ConcurrentHashMap<String, Boolean> fIgnored= new ConcurrentHashMap<String, Boolean>();
 
 	/**
 	 * The preference store. Assumes the <code>IPreferenceStore</code>
@@ -161,7 +163,6 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 * @see org.eclipse.spelling.done.ISpellChecker#addDictionary(org.eclipse.spelling.done.ISpellDictionary)
 	 */
 	public final void addDictionary(final ISpellDictionary dictionary) {
-		// synchronizing is necessary as this is a write access
 		fDictionaries.add(dictionary);
 	}
 
@@ -169,16 +170,8 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 * @see org.eclipse.jdt.ui.text.spelling.engine.ISpellChecker#acceptsWords()
 	 */
 	public boolean acceptsWords() {
-		// synchronizing might not be needed here since acceptWords is
-		// a read-only access and only called in the same thread as
-		// the modifying methods add/checkWord (?)
-		Set<ISpellDictionary> copy;
-		synchronized (fDictionaries) {
-			copy= new HashSet<ISpellDictionary>(fDictionaries);
-		}
-
 		ISpellDictionary dictionary= null;
-		for (final Iterator<ISpellDictionary> iterator= copy.iterator(); iterator.hasNext();) {
+		for (final Iterator<ISpellDictionary> iterator= fDictionaries.iterator(); iterator.hasNext();) {
 
 			dictionary= iterator.next();
 			if (dictionary.acceptsWords())
@@ -191,14 +184,8 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 * @see org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker#addWord(java.lang.String)
 	 */
 	public void addWord(final String word) {
-		// synchronizing is necessary as this is a write access
-		Set<ISpellDictionary> copy;
-		synchronized (fDictionaries) {
-			copy= new HashSet<ISpellDictionary>(fDictionaries);
-		}
-
 		final String addable= word.toLowerCase();
-		for (final Iterator<ISpellDictionary> iterator= copy.iterator(); iterator.hasNext();) {
+		for (final Iterator<ISpellDictionary> iterator= fDictionaries.iterator(); iterator.hasNext();) {
 			ISpellDictionary dictionary= iterator.next();
 			if (dictionary.acceptsWords())
 				dictionary.addWord(addable);
@@ -210,7 +197,6 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 * @see org.eclipse.jdt.ui.text.spelling.engine.ISpellChecker#checkWord(java.lang.String)
 	 */
 	public final void checkWord(final String word) {
-		// synchronizing is necessary as this is a write access
 		fIgnored.remove(word.toLowerCase());
 	}
 
@@ -243,8 +229,7 @@ public class DefaultSpellChecker implements ISpellChecker {
 			word= iterator.next();
 			if (word != null) {
 
-				// synchronizing is necessary as this is called inside the reconciler
-				if (!fIgnored.contains(word)) {
+				if (!fIgnored.containsKey(word)) {
 
 					starts= iterator.startsSentence();
 					if (!isCorrect(word)) {
@@ -276,18 +261,10 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 */
 	public Set<RankedWordProposal> getProposals(final String word, final boolean sentence) {
 
-		// synchronizing might not be needed here since getProposals is
-		// a read-only access and only called in the same thread as
-		// the modifing methods add/removeDictionary (?)
-		Set<ISpellDictionary> copy;
-		synchronized (fDictionaries) {
-			copy= new HashSet<ISpellDictionary>(fDictionaries);
-		}
-
 		ISpellDictionary dictionary= null;
 		final HashSet<RankedWordProposal> proposals= new HashSet<RankedWordProposal>();
 
-		for (final Iterator<ISpellDictionary> iterator= copy.iterator(); iterator.hasNext();) {
+		for (final Iterator<ISpellDictionary> iterator= fDictionaries.iterator(); iterator.hasNext();) {
 
 			dictionary= iterator.next();
 			proposals.addAll(dictionary.getProposals(word, sentence));
@@ -299,25 +276,18 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 * @see org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker#ignoreWord(java.lang.String)
 	 */
 	public final void ignoreWord(final String word) {
-		// synchronizing is necessary as this is a write access
-		fIgnored.add(word.toLowerCase());
+		fIgnored.put(word.toLowerCase(), Boolean.TRUE);
 	}
 
 	/*
 	 * @see org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker#isCorrect(java.lang.String)
 	 */
 	public final boolean isCorrect(final String word) {
-		// synchronizing is necessary as this is called from execute
-		Set<ISpellDictionary> copy;
-		synchronized (fDictionaries) {
-			copy= new HashSet<ISpellDictionary>(fDictionaries);
-		}
-
-		if (fIgnored.contains(word.toLowerCase()))
+		if (fIgnored.containsKey(word.toLowerCase()))
 			return true;
 
 		ISpellDictionary dictionary= null;
-		for (final Iterator<ISpellDictionary> iterator= copy.iterator(); iterator.hasNext();) {
+		for (final Iterator<ISpellDictionary> iterator= fDictionaries.iterator(); iterator.hasNext();) {
 
 			dictionary= iterator.next();
 			if (dictionary.isCorrect(word))
@@ -330,7 +300,6 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 * @see org.eclipse.spelling.done.ISpellChecker#removeDictionary(org.eclipse.spelling.done.ISpellDictionary)
 	 */
 	public final void removeDictionary(final ISpellDictionary dictionary) {
-		// synchronizing is necessary as this is a write access
 		fDictionaries.remove(dictionary);
 	}
 
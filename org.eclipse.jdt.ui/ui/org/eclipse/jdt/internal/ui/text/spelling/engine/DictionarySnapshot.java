@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+
+/**
+ * Binary snapshot of the word store of a dictionary, kept in the plug-in's state location.
+ * <p>
+ * A snapshot is identified by the dictionary's source URL, encoding and phonetic hash
+ * provider and is only valid for the source it has been built from, which is verified with
+ * the length and the modification time stamp of the source. Snapshots are read into a heap
+ * buffer so that the snapshot file is not kept open and can be replaced.
+ * </p>
+ *
+ * @since 3.8
+ */
+final class DictionarySnapshot {
+
+	/** The snapshot directory in the state location */
+	private static final String SNAPSHOT_DIR= "dictionaries"; //$NON-NLS-1$
+
+	/** The snapshot file extension */
+	private static final String SNAPSHOT_EXTENSION= ".snapshot"; //$NON-NLS-1$
+
+	/** Magic number of snapshot files */
+	private static final int MAGIC= 0x4A445344;
+
+	/** Format version, must be increased whenever the format of the snapshot or the store changes */
+	private static final int VERSION= 2;
+
+	/** The snapshot file */
+	private final File fFile;
+
+	/** The key that identifies the dictionary */
+	private final String fKey;
+
+	/**
+	 * Creates a snapshot handle for the given dictionary source.
+	 *
+	 * @param file the snapshot file
+	 * @param key the key that identifies the dictionary source
+	 */
+	private DictionarySnapshot(File file, String key) {
+		fFile= file;
+		fKey= key;
+	}
+
+	/**
+	 * Returns the snapshot handle for the given dictionary source.
+	 *
+	 * @param url the URL of the word list
+	 * @param encoding the encoding of the word list
+	 * @param hashProvider the phonetic hash provider of the dictionary
+	 * @return the snapshot or <code>null</code> if snapshots are not available
+	 */
+	public static DictionarySnapshot create(String url, String encoding, IPhoneticHashProvider hashProvider) {
+		JavaPlugin plugin= JavaPlugin.getDefault();
+		if (plugin == null)
+			return null;
+
+		String key= url + '\n' + encoding + '\n' + hashProvider.getClass().getName();
+		File directory= plugin.getStateLocation().append(SNAPSHOT_DIR).toFile();
+		String name= Integer.toHexString(url.hashCode()) + '_' + Integer.toHexString(key.hashCode()) + SNAPSHOT_EXTENSION;
+		return new DictionarySnapshot(new File(directory, name), key);
+	}
+
+	/**
+	 * Reads the snapshot into the given store if it has been built from the given source.
+	 *
+	 * @param store the store to fill
+	 * @param sourceLength the length of the source contents
+	 * @param sourceTimeStamp the modification time stamp of the source
+	 * @return <code>true</code> iff the snapshot was valid and has been read
+	 */
+	public boolean read(CompactWordStore store, long sourceLength, long sourceTimeStamp) {
+		if (!fFile.isFile())
+			return false;
+
+		FileInputStream stream= null;
+		try {
+			stream= new FileInputStream(fFile);
+			FileChannel channel= stream.getChannel();
+			long size= channel.size();
+			if (size < 28 || size > Integer.MAX_VALUE)
+				return false;
+
+			ByteBuffer buffer= ByteBuffer.allocate((int)size);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) == -1)
+					return false;
+			}
+			buffer.flip();
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceLength || buffer.getLong() != sourceTimeStamp)
+				return false;
+
+			int keyLength= buffer.getInt();
+			if (keyLength < 0 || keyLength > buffer.remaining())
+				return false;
+			byte[] key= new byte[keyLength];
+			buffer.get(key);
+			if (!fKey.equals(new String(key, "UTF-8"))) //$NON-NLS-1$
+				return false;
+
+			store.read(buffer);
+			return true;
+		} catch (IOException e) {
+			return false;
+		} catch (RuntimeException e) {
+			// invalid snapshot, will be rewritten
+			store.clear();
+			return false;
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the given store as snapshot for the given source.
+	 *
+	 * @param store the store to write
+	 * @param sourceLength the length of the source contents
+	 * @param sourceTimeStamp the modification time stamp of the source
+	 */
+	public void write(CompactWordStore store, long sourceLength, long sourceTimeStamp) {
+		byte[] key;
+		try {
+			key= fKey.getBytes("UTF-8"); //$NON-NLS-1$
+		} catch (UnsupportedEncodingException e) {
+			JavaPlugin.log(e);
+			return;
+		}
+
+		ByteBuffer buffer= ByteBuffer.allocate(28 + key.length + store.getSerializedSize());
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putLong(sourceLength);
+		buffer.putLong(sourceTimeStamp);
+		buffer.putInt(key.length);
+		buffer.put(key);
+		store.write(buffer);
+		buffer.flip();
+
+		File directory= fFile.getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+			return;
+
+		File temp= new File(directory, fFile.getName() + ".tmp"); //$NON-NLS-1$
+		FileOutputStream stream= null;
+		try {
+			stream= new FileOutputStream(temp);
+			FileChannel channel= stream.getChannel();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			stream.close();
+			stream= null;
+
+			fFile.delete();
+			if (!temp.renameTo(fFile))
+				temp.delete();
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+			temp.delete();
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+}
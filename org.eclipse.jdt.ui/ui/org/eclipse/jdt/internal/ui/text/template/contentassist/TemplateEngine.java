@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -121,9 +121,13 @@ public class TemplateEngine {
 		int end= context.getEnd();
 		IRegion region= new Region(start, end - start);
 
-		Template[] templates= JavaPlugin.getDefault().getTemplateStore().getTemplates();
+		TemplateIndex index= JavaPlugin.getDefault().getTemplateIndex();
+		String[] contextTypeIds= context.getCompatibleContextTypeIds();
 
 		if (selection.y == 0) {
+			// without a key, templates are only evaluated if there is a selection
+			String key= context.getKey();
+			Template[] templates= key.length() == 0 ? new Template[0] : index.getTemplates(contextTypeIds, key);
 			for (int i= 0; i != templates.length; i++) {
 				Template template= templates[i];
 				if (context.canEvaluate(template)) {
@@ -132,8 +136,15 @@ public class TemplateEngine {
 			}
 		} else {
 
-			if (context.getKey().length() == 0)
+			// a forced evaluation considers the templates of all context types
+			String key= context.getKey();
+			Template[] templates;
+			if (key.length() == 0) {
 				context.setForceEvaluation(true);
+				templates= index.getTemplates();
+			} else {
+				templates= index.getTemplates(contextTypeIds, key);
+			}
 
 			boolean multipleLinesSelected= areMultipleLinesSelected(viewer);
 
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.template.contentassist;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+import org.eclipse.jface.text.templates.Template;
+import org.eclipse.jface.text.templates.persistence.TemplateStore;
+
+
+/**
+ * An index of the enabled templates of a template store: one prefix trie over the lower case
+ * template names per context type.
+ * <p>
+ * Looking up the templates with a name prefix costs time proportional to the length of the
+ * prefix and the number of matching templates, independent of the number of templates in the
+ * store. The index is rebuilt on the next lookup after the preference that persists the
+ * templates of the store has changed.
+ * </p>
+ *
+ * @since 3.8
+ */
+public final class TemplateIndex implements IPropertyChangeListener {
+
+	/**
+	 * A node of a prefix trie.
+	 */
+	private static final class Node {
+		private static final char[] NO_KEYS= new char[0];
+		private static final Node[] NO_CHILDREN= new Node[0];
+		private static final int[] NO_TEMPLATES= new int[0];
+
+		/** The characters of the edges to the children, parallel to <code>fChildren</code> */
+		private char[] fKeys= NO_KEYS;
+		/** The children */
+		private Node[] fChildren= NO_CHILDREN;
+		/** The ordinals of the templates whose name ends at this node */
+		private int[] fTemplates= NO_TEMPLATES;
+
+		Node getChild(char key) {
+			for (int i= 0; i < fKeys.length; i++) {
+				if (fKeys[i] == key)
+					return fChildren[i];
+			}
+			return null;
+		}
+
+		Node addChild(char key) {
+			Node child= getChild(key);
+			if (child == null) {
+				int length= fKeys.length;
+				char[] keys= new char[length + 1];
+				System.arraycopy(fKeys, 0, keys, 0, length);
+				Node[] children= new Node[length + 1];
+				System.arraycopy(fChildren, 0, children, 0, length);
+				child= new Node();
+				keys[length]= key;
+				children[length]= child;
+				fKeys= keys;
+				fChildren= children;
+			}
+			return child;
+		}
+
+		void addTemplate(int ordinal) {
+			int length= fTemplates.length;
+			int[] templates= new int[length + 1];
+			System.arraycopy(fTemplates, 0, templates, 0, length);
+			templates[length]= ordinal;
+			fTemplates= templates;
+		}
+
+		void collect(BitSet ordinals) {
+			for (int i= 0; i < fTemplates.length; i++)
+				ordinals.set(fTemplates[i]);
+			for (int i= 0; i < fChildren.length; i++)
+				fChildren[i].collect(ordinals);
+		}
+	}
+
+	private final TemplateStore fStore;
+	private final IPreferenceStore fPreferenceStore;
+	private final String fKey;
+
+	/** The indexed templates, <code>null</code> if the index must be rebuilt */
+	private Template[] fTemplates;
+	/** The trie roots by context type id */
+	private Map<String, Node> fRoots;
+
+	/**
+	 * Creates an index of the given template store and starts to listen for changes of the
+	 * preference that persists the templates.
+	 *
+	 * @param store the template store
+	 * @param preferenceStore the preference store that persists the templates
+	 * @param key the key of the preference that persists the templates
+	 */
+	public TemplateIndex(TemplateStore store, IPreferenceStore preferenceStore, String key) {
+		fStore= store;
+		fPreferenceStore= preferenceStore;
+		fKey= key;
+		fPreferenceStore.addPropertyChangeListener(this);
+	}
+
+	/**
+	 * Stops listening for changes of the templates.
+	 */
+	public void dispose() {
+		fPreferenceStore.removePropertyChangeListener(this);
+	}
+
+	/*
+	 * @see org.eclipse.jface.util.IPropertyChangeListener#propertyChange(org.eclipse.jface.util.PropertyChangeEvent)
+	 */
+	public void propertyChange(PropertyChangeEvent event) {
+		if (fKey.equals(event.getProperty()))
+			invalidate();
+	}
+
+	/**
+	 * Discards the index, it is rebuilt on the next lookup.
+	 */
+	public synchronized void invalidate() {
+		fTemplates= null;
+		fRoots= null;
+	}
+
+	/**
+	 * Returns all enabled templates of the store, regardless of their context type.
+	 *
+	 * @return the templates in the order of the template store
+	 */
+	public synchronized Template[] getTemplates() {
+		if (fRoots == null)
+			build();
+		return fTemplates.clone();
+	}
+
+	/**
+	 * Returns the enabled templates of the given context types whose name starts with the given
+	 * prefix, ignoring case.
+	 *
+	 * @param contextTypeIds the ids of the context types
+	 * @param prefix the name prefix, may be empty
+	 * @return the matching templates in the order of the template store
+	 */
+	public synchronized Template[] getTemplates(String[] contextTypeIds, String prefix) {
+		if (fRoots == null)
+			build();
+
+		String lowerCasePrefix= prefix.toLowerCase();
+		BitSet ordinals= new BitSet(fTemplates.length);
+		for (int i= 0; i < contextTypeIds.length; i++) {
+			Node node= fRoots.get(contextTypeIds[i]);
+			for (int j= 0; node != null && j < lowerCasePrefix.length(); j++)
+				node= node.getChild(lowerCasePrefix.charAt(j));
+			if (node != null)
+				node.collect(ordinals);
+		}
+
+		List<Template> templates= new ArrayList<Template>(ordinals.cardinality());
+		for (int ordinal= ordinals.nextSetBit(0); ordinal >= 0; ordinal= ordinals.nextSetBit(ordinal + 1))
+			templates.add(fTemplates[ordinal]);
+		return templates.toArray(new Template[templates.size()]);
+	}
+
+	private void build() {
+		fTemplates= fStore.getTemplates();
+		fRoots= new HashMap<String, Node>();
+		for (int i= 0; i < fTemplates.length; i++) {
+			Template template= fTemplates[i];
+			String contextTypeId= template.getContextTypeId();
+			Node node= fRoots.get(contextTypeId);
+			if (node == null) {
+				node= new Node();
+				fRoots.put(contextTypeId, node);
+			}
+			String name= template.getName().toLowerCase();
+			for (int j= 0; j < name.length(); j++)
+				node= node.addChild(name.charAt(j));
+			node.addTemplate(i);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IAction;
+
+
+/**
+ * Toggles whether the type hierarchy is updated with the changed types instead of being
+ * computed again.
+ *
+ * @see TypeHierarchyLifeCycle#setIncrementalRefresh(boolean)
+ * @since 3.8
+ */
+class IncrementalRefreshAction extends Action {
+
+	private final TypeHierarchyViewPart fView;
+
+	/**
+	 * Creates the action.
+	 *
+	 * @param view the type hierarchy view
+	 */
+	public IncrementalRefreshAction(TypeHierarchyViewPart view) {
+		super(TypeHierarchyMessages.IncrementalRefreshAction_label, IAction.AS_CHECK_BOX);
+		setDescription(TypeHierarchyMessages.IncrementalRefreshAction_description);
+		fView= view;
+	}
+
+	/*
+	 * @see org.eclipse.jface.action.Action#run()
+	 */
+	@Override
+	public void run() {
+		fView.setIncrementalRefresh(isChecked());
+	}
+}
@@ -0,0 +1,663 @@
+/*******************************************************************************
+ * Copyright (c) 2012 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubProgressMonitor;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+
+
+/**
+ * A type hierarchy on a single type that is patched with the changes of compilation units
+ * instead of being recomputed.
+ * <p>
+ * The hierarchy is a copy of the hierarchy computed by the Java model. {@link #patch(ICompilationUnit[], IProgressMonitor)}
+ * resolves the super types of the types declared in changed compilation units and updates the
+ * subtypes of the focus type accordingly. The super types of the focus type are not patched:
+ * if they change, or if a super type cannot be resolved, the listeners are notified that the
+ * hierarchy has changed and must be refreshed.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @see TypeHierarchyLifeCycle#setIncrementalRefresh(boolean)
+ * @since 3.8
+ */
+class IncrementalTypeHierarchy implements ITypeHierarchy {
+
+	private static final IType[] NO_TYPES= new IType[0];
+
+	/**
+	 * A type with its flags and its resolved direct super types.
+	 */
+	private static final class Declaration {
+		final IType fType;
+		final int fFlags;
+		final IType fSuperclass;
+		final IType[] fSuperInterfaces;
+		final boolean fIsNamed;
+
+		Declaration(IType type, int flags, IType superclass, IType[] superInterfaces, boolean isNamed) {
+			fType= type;
+			fFlags= flags;
+			fSuperclass= superclass;
+			fSuperInterfaces= superInterfaces;
+			fIsNamed= isNamed;
+		}
+
+		boolean hasSupertypes(IType superclass, IType[] superInterfaces) {
+			return (fSuperclass == null ? superclass == null : fSuperclass.equals(superclass))
+					&& new HashSet<IType>(Arrays.asList(fSuperInterfaces)).equals(new HashSet<IType>(Arrays.asList(superInterfaces)));
+		}
+
+		boolean extendsAny(Set<IType> types) {
+			if (fSuperclass != null && types.contains(fSuperclass))
+				return true;
+			for (int i= 0; i < fSuperInterfaces.length; i++) {
+				if (types.contains(fSuperInterfaces[i]))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	private final IType fFocus;
+	private final ListenerList fListeners= new ListenerList(ListenerList.IDENTITY);
+
+	/** The flags of all types in the hierarchy */
+	private Map<IType, Integer> fFlags= new HashMap<IType, Integer>();
+	private Map<IType, IType> fSuperclasses= new HashMap<IType, IType>();
+	private Map<IType, IType[]> fSuperInterfaces= new HashMap<IType, IType[]>();
+	/** The direct subtypes, classes and interfaces */
+	private Map<IType, List<IType>> fSubtypes= new HashMap<IType, List<IType>>();
+
+	/**
+	 * Creates an empty hierarchy. {@link #refresh(IProgressMonitor)} computes its types.
+	 *
+	 * @param focus the focus type
+	 */
+	IncrementalTypeHierarchy(IType focus) {
+		fFocus= focus;
+	}
+
+	/**
+	 * Applies the changes of the given compilation units to this hierarchy. If the changes
+	 * cannot be applied, the listeners are notified that the hierarchy needs a refresh.
+	 *
+	 * @param units the changed primary compilation units, including removed ones
+	 * @param monitor the progress monitor
+	 * @return the types that have been added or removed or whose super types have changed, or
+	 *         <code>null</code> if the changes could not be applied
+	 * @throws JavaModelException if the types of a compilation unit cannot be accessed
+	 */
+	IType[] patch(ICompilationUnit[] units, IProgressMonitor monitor) throws JavaModelException {
+		monitor.beginTask("", units.length + 1); //$NON-NLS-1$
+		try {
+			List<Declaration> declarations= new ArrayList<Declaration>();
+			for (int i= 0; i < units.length; i++) {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				if (units[i].exists() && !addDeclarations(units[i].getChildren(), declarations)) {
+					fireTypeHierarchyChanged();
+					return null;
+				}
+				monitor.worked(1);
+			}
+
+			Set<IType> changed= new LinkedHashSet<IType>();
+			List<IType> joined= new ArrayList<IType>();
+			synchronized (this) {
+				if (!apply(new HashSet<ICompilationUnit>(Arrays.asList(units)), declarations, changed, joined)) {
+					changed= null;
+				}
+			}
+			if (changed == null) {
+				fireTypeHierarchyChanged();
+				return null;
+			}
+
+			// named types that have joined the hierarchy may bring existing subtypes along
+			IProgressMonitor subMonitor= new SubProgressMonitor(monitor, 1);
+			subMonitor.beginTask("", joined.size()); //$NON-NLS-1$
+			try {
+				for (int i= 0; i < joined.size(); i++) {
+					IType type= joined.get(i);
+					ITypeHierarchy hierarchy= type.newTypeHierarchy(new SubProgressMonitor(subMonitor, 1));
+					synchronized (this) {
+						if (fFlags.containsKey(type))
+							merge(hierarchy, hierarchy.getAllSubtypes(type), changed);
+					}
+				}
+			} finally {
+				subMonitor.done();
+			}
+			return changed.toArray(new IType[changed.size()]);
+		} finally {
+			monitor.done();
+		}
+	}
+
+	private boolean apply(Set<ICompilationUnit> units, List<Declaration> declarations, Set<IType> changed, List<IType> joined) {
+		Set<IType> superRegion= new HashSet<IType>(Arrays.asList(getAllSupertypes(fFocus)));
+		superRegion.add(fFocus);
+
+		Map<IType, Declaration> declared= new HashMap<IType, Declaration>();
+		for (int i= 0; i < declarations.size(); i++) {
+			Declaration declaration= declarations.get(i);
+			declared.put(declaration.fType, declaration);
+		}
+
+		// the super types of the focus type are not patched
+		for (Iterator<IType> iter= superRegion.iterator(); iter.hasNext();) {
+			IType type= iter.next();
+			if (units.contains(type.getCompilationUnit())) {
+				Declaration declaration= declared.get(type);
+				if (declaration == null || !declaration.hasSupertypes(getSuperclass(type), getSuperInterfaces(type)))
+					return false;
+			}
+		}
+
+		// remove the previous declarations of the compilation units, but keep the links from their subtypes
+		Map<IType, Declaration> previous= new HashMap<IType, Declaration>();
+		for (Iterator<IType> iter= fFlags.keySet().iterator(); iter.hasNext();) {
+			IType type= iter.next();
+			if (!superRegion.contains(type) && units.contains(type.getCompilationUnit()))
+				previous.put(type, new Declaration(type, getCachedFlags(type), getSuperclass(type), getSuperInterfaces(type), false));
+		}
+		for (Iterator<IType> iter= previous.keySet().iterator(); iter.hasNext();) {
+			removeType(iter.next());
+		}
+
+		// add the declarations that extend a type below the focus type, until no more are added
+		Set<IType> subRegion= collectSubtypeRegion();
+		List<Declaration> pending= new ArrayList<Declaration>(declarations);
+		boolean added;
+		do {
+			added= false;
+			for (Iterator<Declaration> iter= pending.iterator(); iter.hasNext();) {
+				Declaration declaration= iter.next();
+				IType type= declaration.fType;
+				if (superRegion.contains(type)) {
+					fFlags.put(type, new Integer(declaration.fFlags));
+					iter.remove();
+				} else if (declaration.extendsAny(subRegion)) {
+					fFlags.put(type, new Integer(declaration.fFlags));
+					addSupertypes(type, declaration.fSuperclass, declaration.fSuperInterfaces);
+					subRegion.add(type);
+					Declaration old= previous.remove(type);
+					if (old == null) {
+						changed.add(type);
+						if (declaration.fIsNamed)
+							joined.add(type);
+					} else if (!declaration.hasSupertypes(old.fSuperclass, old.fSuperInterfaces)) {
+						changed.add(type);
+					}
+					iter.remove();
+					added= true;
+				}
+			}
+		} while (added);
+		changed.addAll(previous.keySet());
+
+		// remove the types that are no longer below the focus type
+		Set<IType> reachable= collectSubtypeRegion();
+		reachable.addAll(superRegion);
+		List<IType> types= new ArrayList<IType>(fFlags.keySet());
+		for (int i= 0; i < types.size(); i++) {
+			IType type= types.get(i);
+			if (!reachable.contains(type)) {
+				removeType(type);
+				changed.add(type);
+			}
+		}
+		fSubtypes.keySet().retainAll(fFlags.keySet());
+		return true;
+	}
+
+	private void merge(ITypeHierarchy hierarchy, IType[] types, Set<IType> changed) {
+		for (int i= 0; i < types.length; i++) {
+			IType type= types[i];
+			if (fFlags.containsKey(type))
+				removeType(type);
+			else
+				changed.add(type);
+			fFlags.put(type, new Integer(hierarchy.getCachedFlags(type)));
+			addSupertypes(type, hierarchy.getSuperclass(type), hierarchy.getSuperInterfaces(type));
+		}
+	}
+
+	private Set<IType> collectSubtypeRegion() {
+		Set<IType> region= new HashSet<IType>();
+		List<IType> queue= new ArrayList<IType>();
+		if (fFlags.containsKey(fFocus)) {
+			region.add(fFocus);
+			queue.add(fFocus);
+		}
+		for (int i= 0; i < queue.size(); i++) {
+			List<IType> subtypes= fSubtypes.get(queue.get(i));
+			if (subtypes == null)
+				continue;
+			for (int k= 0; k < subtypes.size(); k++) {
+				IType subtype= subtypes.get(k);
+				if (fFlags.containsKey(subtype) && region.add(subtype))
+					queue.add(subtype);
+			}
+		}
+		return region;
+	}
+
+	private void addSupertypes(IType type, IType superclass, IType[] superInterfaces) {
+		if (superclass != null) {
+			fSuperclasses.put(type, superclass);
+			addSubtype(superclass, type);
+		}
+		fSuperInterfaces.put(type, superInterfaces);
+		for (int i= 0; i < superInterfaces.length; i++) {
+			addSubtype(superInterfaces[i], type);
+		}
+	}
+
+	private void addSubtype(IType type, IType subtype) {
+		List<IType> subtypes= fSubtypes.get(type);
+		if (subtypes == null) {
+			subtypes= new ArrayList<IType>(2);
+			fSubtypes.put(type, subtypes);
+		}
+		if (!subtypes.contains(subtype))
+			subtypes.add(subtype);
+	}
+
+	/*
+	 * Removes the type and its links to its super types. The links from its subtypes are kept.
+	 */
+	private void removeType(IType type) {
+		IType superclass= fSuperclasses.remove(type);
+		if (superclass != null)
+			removeSubtype(superclass, type);
+		IType[] superInterfaces= fSuperInterfaces.remove(type);
+		if (superInterfaces != null) {
+			for (int i= 0; i < superInterfaces.length; i++) {
+				removeSubtype(superInterfaces[i], type);
+			}
+		}
+		fFlags.remove(type);
+	}
+
+	private void removeSubtype(IType type, IType subtype) {
+		List<IType> subtypes= fSubtypes.get(type);
+		if (subtypes != null)
+			subtypes.remove(subtype);
+	}
+
+	private static boolean addDeclarations(IJavaElement[] elements, List<Declaration> declarations) throws JavaModelException {
+		for (int i= 0; i < elements.length; i++) {
+			IJavaElement element= elements[i];
+			if (element instanceof IType) {
+				Declaration declaration= resolveDeclaration((IType) element);
+				if (declaration == null)
+					return false;
+				declarations.add(declaration);
+			}
+			// local and anonymous types are children of members
+			if (element instanceof IParent && !addDeclarations(((IParent) element).getChildren(), declarations))
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Resolves the super types the way the Java model does for a type hierarchy. Returns null if
+	 * a super type cannot be resolved.
+	 */
+	private static Declaration resolveDeclaration(IType type) throws JavaModelException {
+		IType superclass= null;
+		List<IType> superInterfaces= new ArrayList<IType>();
+		if (type.isAnonymous()) {
+			// the instantiated type may be a class or an interface
+			IType instantiated= resolveType(type, type.getSuperclassName());
+			if (instantiated == null)
+				return null;
+			if (instantiated.isInterface()) {
+				superclass= findType(type, "java.lang.Object"); //$NON-NLS-1$
+				superInterfaces.add(instantiated);
+			} else {
+				superclass= instantiated;
+			}
+		} else {
+			if (type.isInterface()) {
+				if (type.isAnnotation())
+					superInterfaces.add(findType(type, "java.lang.annotation.Annotation")); //$NON-NLS-1$
+			} else if (!"java.lang.Object".equals(type.getFullyQualifiedName())) { //$NON-NLS-1$
+				String superclassName= type.getSuperclassName();
+				if (type.isEnum())
+					superclass= findType(type, "java.lang.Enum"); //$NON-NLS-1$
+				else if (superclassName != null)
+					superclass= resolveType(type, superclassName);
+				else
+					superclass= findType(type, "java.lang.Object"); //$NON-NLS-1$
+				if (superclass == null)
+					return null;
+			}
+			String[] names= type.getSuperInterfaceNames();
+			for (int i= 0; i < names.length; i++) {
+				superInterfaces.add(resolveType(type, names[i]));
+			}
+			if (superInterfaces.contains(null))
+				return null;
+		}
+		boolean isNamed= !type.isAnonymous() && !type.isLocal();
+		return new Declaration(type, type.getFlags(), superclass, superInterfaces.toArray(new IType[superInterfaces.size()]), isNamed);
+	}
+
+	private static IType resolveType(IType context, String name) throws JavaModelException {
+		if (name == null)
+			return null;
+		String[][] resolved= context.resolveType(Signature.getTypeErasure(name));
+		if (resolved == null || resolved.length != 1)
+			return null;
+		return context.getJavaProject().findType(resolved[0][0], resolved[0][1]);
+	}
+
+	private static IType findType(IType context, String fullyQualifiedName) throws JavaModelException {
+		return context.getJavaProject().findType(fullyQualifiedName);
+	}
+
+	private void fireTypeHierarchyChanged() {
+		Object[] listeners= fListeners.getListeners();
+		for (int i= 0; i < listeners.length; i++) {
+			((ITypeHierarchyChangedListener) listeners[i]).typeHierarchyChanged(this);
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#refresh(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	public void refresh(IProgressMonitor monitor) throws JavaModelException {
+		ITypeHierarchy hierarchy= fFocus.newTypeHierarchy(monitor);
+		synchronized (this) {
+			fFlags= new HashMap<IType, Integer>();
+			fSuperclasses= new HashMap<IType, IType>();
+			fSuperInterfaces= new HashMap<IType, IType[]>();
+			fSubtypes= new HashMap<IType, List<IType>>();
+			merge(hierarchy, hierarchy.getAllTypes(), new HashSet<IType>());
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#store(java.io.OutputStream, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	public void store(OutputStream outputStream, IProgressMonitor monitor) throws JavaModelException {
+		// patches cannot be stored, store an up-to-date hierarchy of the Java model instead
+		fFocus.newTypeHierarchy(monitor).store(outputStream, null);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#addTypeHierarchyChangedListener(org.eclipse.jdt.core.ITypeHierarchyChangedListener)
+	 */
+	public void addTypeHierarchyChangedListener(ITypeHierarchyChangedListener listener) {
+		fListeners.add(listener);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#removeTypeHierarchyChangedListener(org.eclipse.jdt.core.ITypeHierarchyChangedListener)
+	 */
+	public void removeTypeHierarchyChangedListener(ITypeHierarchyChangedListener listener) {
+		fListeners.remove(listener);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#contains(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized boolean contains(IType type) {
+		return fFlags.containsKey(type);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#exists()
+	 */
+	public boolean exists() {
+		return fFocus.exists();
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getType()
+	 */
+	public IType getType() {
+		return fFocus;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getCachedFlags(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized int getCachedFlags(IType type) {
+		Integer flags= fFlags.get(type);
+		return flags != null ? flags.intValue() : -1;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllTypes()
+	 */
+	public synchronized IType[] getAllTypes() {
+		return fFlags.keySet().toArray(new IType[fFlags.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllClasses()
+	 */
+	public synchronized IType[] getAllClasses() {
+		return filter(fFlags.keySet(), false);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllInterfaces()
+	 */
+	public synchronized IType[] getAllInterfaces() {
+		return filter(fFlags.keySet(), true);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getRootClasses()
+	 */
+	public synchronized IType[] getRootClasses() {
+		List<IType> roots= new ArrayList<IType>();
+		for (Iterator<IType> iter= fFlags.keySet().iterator(); iter.hasNext();) {
+			IType type= iter.next();
+			if (!isInterface(type) && fSuperclasses.get(type) == null)
+				roots.add(type);
+		}
+		return roots.toArray(new IType[roots.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getRootInterfaces()
+	 */
+	public synchronized IType[] getRootInterfaces() {
+		List<IType> roots= new ArrayList<IType>();
+		for (Iterator<IType> iter= fFlags.keySet().iterator(); iter.hasNext();) {
+			IType type= iter.next();
+			if (isInterface(type) && getSuperInterfaces(type).length == 0)
+				roots.add(type);
+		}
+		return roots.toArray(new IType[roots.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getSuperclass(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType getSuperclass(IType type) {
+		return fSuperclasses.get(type);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getSuperInterfaces(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getSuperInterfaces(IType type) {
+		IType[] superInterfaces= fSuperInterfaces.get(type);
+		return superInterfaces != null ? (IType[]) superInterfaces.clone() : NO_TYPES;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getSupertypes(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getSupertypes(IType type) {
+		List<IType> supertypes= new ArrayList<IType>();
+		IType superclass= fSuperclasses.get(type);
+		if (superclass != null)
+			supertypes.add(superclass);
+		supertypes.addAll(Arrays.asList(getSuperInterfaces(type)));
+		return supertypes.toArray(new IType[supertypes.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllSuperclasses(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getAllSuperclasses(IType type) {
+		Set<IType> superclasses= new LinkedHashSet<IType>();
+		IType superclass= fSuperclasses.get(type);
+		while (superclass != null && superclasses.add(superclass)) {
+			superclass= fSuperclasses.get(superclass);
+		}
+		return superclasses.toArray(new IType[superclasses.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllSuperInterfaces(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getAllSuperInterfaces(IType type) {
+		Set<IType> superInterfaces= new LinkedHashSet<IType>();
+		IType[] supertypes= getAllSupertypes(type);
+		for (int i= -1; i < supertypes.length; i++) {
+			superInterfaces.addAll(Arrays.asList(getSuperInterfaces(i < 0 ? type : supertypes[i])));
+		}
+		return superInterfaces.toArray(new IType[superInterfaces.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllSupertypes(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getAllSupertypes(IType type) {
+		List<IType> supertypes= new ArrayList<IType>();
+		Set<IType> visited= new HashSet<IType>();
+		visited.add(type);
+		supertypes.add(type);
+		for (int i= 0; i < supertypes.size(); i++) {
+			IType[] direct= getSupertypes(supertypes.get(i));
+			for (int k= 0; k < direct.length; k++) {
+				if (visited.add(direct[k]))
+					supertypes.add(direct[k]);
+			}
+		}
+		supertypes.remove(0);
+		return supertypes.toArray(new IType[supertypes.size()]);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getSubtypes(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getSubtypes(IType type) {
+		List<IType> subtypes= fSubtypes.get(type);
+		return subtypes != null ? subtypes.toArray(new IType[subtypes.size()]) : NO_TYPES;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getSubclasses(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getSubclasses(IType type) {
+		if (isInterface(type))
+			return NO_TYPES;
+		return filter(Arrays.asList(getSubtypes(type)), false);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getImplementingClasses(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getImplementingClasses(IType type) {
+		if (!isInterface(type))
+			return NO_TYPES;
+		return filter(Arrays.asList(getSubtypes(type)), false);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getExtendingInterfaces(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getExtendingInterfaces(IType type) {
+		if (!isInterface(type))
+			return NO_TYPES;
+		return filter(Arrays.asList(getSubtypes(type)), true);
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.ITypeHierarchy#getAllSubtypes(org.eclipse.jdt.core.IType)
+	 */
+	public synchronized IType[] getAllSubtypes(IType type) {
+		List<IType> subtypes= new ArrayList<IType>();
+		Set<IType> visited= new HashSet<IType>();
+		visited.add(type);
+		subtypes.add(type);
+		for (int i= 0; i < subtypes.size(); i++) {
+			List<IType> direct= fSubtypes.get(subtypes.get(i));
+			if (direct == null)
+				continue;
+			for (int k= 0; k < direct.size(); k++) {
+				if (visited.add(direct.get(k)))
+					subtypes.add(direct.get(k));
+			}
+		}
+		subtypes.remove(0);
+		return subtypes.toArray(new IType[subtypes.size()]);
+	}
+
+	private IType[] filter(Iterable<IType> types, boolean interfaces) {
+		List<IType> result= new ArrayList<IType>();
+		for (Iterator<IType> iter= types.iterator(); iter.hasNext();) {
+			IType type= iter.next();
+			if (isInterface(type) == interfaces)
+				result.add(type);
+		}
+		return result.toArray(new IType[result.size()]);
+	}
+
+	private boolean isInterface(IType type) {
+		Integer flags= fFlags.get(type);
+		return flags != null && Flags.isInterface(flags.intValue());
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "Incremental hierarchy of: " + fFocus.getElementName() + " (" + fFlags.size() + " types)"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
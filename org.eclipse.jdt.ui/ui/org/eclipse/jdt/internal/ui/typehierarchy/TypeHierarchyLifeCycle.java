@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,7 @@ import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IRegion;
 import org.eclipse.jdt.core.IType;
@@ -53,6 +54,74 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
  */
 public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IElementChangedListener {
 
+	/**
+	 * The delay in milliseconds before the changes of saved compilation units are applied to an
+	 * incremental hierarchy, so that the changes of several saves are applied together.
+	 *
+	 * @since 3.8
+	 */
+	private static final long PATCH_DELAY= 200;
+
+	/**
+	 * The family of the jobs that apply the changes of saved compilation units to incremental
+	 * hierarchies.
+	 *
+	 * @since 3.8
+	 */
+	public static final Object PATCH_FAMILY= PatchHierarchyJob.class;
+
+	/**
+	 * Applies the changes of the pending compilation units to the incremental hierarchy.
+	 *
+	 * @since 3.8
+	 */
+	private final class PatchHierarchyJob extends Job {
+
+		public PatchHierarchyJob() {
+			super(TypeHierarchyMessages.TypeHierarchyLifeCycle_patchHierarchy);
+			setSystem(true);
+		}
+
+		/*
+		 * @see org.eclipse.core.runtime.jobs.Job#belongsTo(java.lang.Object)
+		 */
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == PATCH_FAMILY;
+		}
+
+		/*
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor pm) {
+			ICompilationUnit[] units;
+			synchronized (fPendingUnits) {
+				units= fPendingUnits.toArray(new ICompilationUnit[fPendingUnits.size()]);
+				fPendingUnits.clear();
+			}
+			ITypeHierarchy hierarchy= fHierarchy;
+			if (units.length == 0 || !(hierarchy instanceof IncrementalTypeHierarchy) || fHierarchyRefreshNeeded)
+				return Status.OK_STATUS;
+
+			try {
+				IType[] changedTypes= ((IncrementalTypeHierarchy) hierarchy).patch(units, pm);
+				if (changedTypes != null && changedTypes.length > 0 && hierarchy == fHierarchy)
+					fireChange(null);
+			} catch (JavaModelException e) {
+				JavaPlugin.log(e);
+				if (hierarchy == fHierarchy)
+					typeHierarchyChanged(hierarchy);
+			} catch (OperationCanceledException e) {
+				// the changes are lost, compute the hierarchy again when it is needed
+				if (hierarchy == fHierarchy)
+					typeHierarchyChanged(hierarchy);
+				return Status.CANCEL_STATUS;
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	private boolean fHierarchyRefreshNeeded;
 	private ITypeHierarchy fHierarchy;
 	private IJavaElement[] fInputElements;
@@ -81,6 +150,29 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	private boolean fRefreshJobCanceledExplicitly= true;
 
+	/**
+	 * Indicates whether hierarchies on a single type are patched with the changes of compilation
+	 * units instead of being computed again.
+	 *
+	 * @since 3.8
+	 */
+	private boolean fIsIncrementalRefresh;
+
+	/**
+	 * The primary compilation units whose changes have not yet been applied to the incremental
+	 * hierarchy.
+	 *
+	 * @since 3.8
+	 */
+	private final List<ICompilationUnit> fPendingUnits= new ArrayList<ICompilationUnit>();
+
+	/**
+	 * The job that applies the changes of the pending compilation units.
+	 *
+	 * @since 3.8
+	 */
+	private final Job fPatchHierarchyJob= new PatchHierarchyJob();
+
 	/**
 	 * Creates the type hierarchy life cycle.
 	 *
@@ -104,6 +196,31 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		return fHierarchy;
 	}
 
+	/**
+	 * Sets whether hierarchies on a single type are patched with the super type changes of saved
+	 * compilation units instead of being computed again. The hierarchy is only computed again if
+	 * the changes cannot be patched, e.g. if the super types of the focus type change or the
+	 * class path of a project changes. The mode applies from the next computation of the
+	 * hierarchy.
+	 *
+	 * @param enabled <code>true</code> to patch hierarchies
+	 * @since 3.8
+	 */
+	public void setIncrementalRefresh(boolean enabled) {
+		fIsIncrementalRefresh= enabled;
+	}
+
+	/**
+	 * Returns whether hierarchies on a single type are patched with the changes of compilation
+	 * units.
+	 *
+	 * @return <code>true</code> if hierarchies are patched
+	 * @since 3.8
+	 */
+	public boolean isIncrementalRefresh() {
+		return fIsIncrementalRefresh;
+	}
+
 	/**
 	 * Returns the array of input elements.
 	 * 
@@ -127,6 +244,10 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 				fRefreshHierarchyJob= null;
 			}
 		}
+		fPatchHierarchyJob.cancel();
+		synchronized (fPendingUnits) {
+			fPendingUnits.clear();
+		}
 	}
 
 	public void removeChangedListener(ITypeHierarchyLifeCycleListener listener) {
@@ -192,7 +313,7 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 				return;
 			}
 		}
-		boolean hierachyCreationNeeded= (fHierarchy == null || !Arrays.equals(elements, fInputElements));
+		boolean hierachyCreationNeeded= isHierarchyCreationNeeded(elements);
 
 		if (hierachyCreationNeeded || fHierarchyRefreshNeeded) {
 			if (fTypeHierarchyViewPart == null) {
@@ -290,8 +411,21 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 	}
 
+	private boolean isHierarchyCreationNeeded(IJavaElement[] elements) {
+		return fHierarchy == null || !Arrays.equals(elements, fInputElements)
+				|| (fHierarchy instanceof IncrementalTypeHierarchy) != isIncrementalHierarchy(elements);
+	}
+
+	private boolean isIncrementalHierarchy(IJavaElement[] elements) {
+		return fIsIncrementalRefresh && !fIsSuperTypesOnly && elements.length == 1 && elements[0].getElementType() == IJavaElement.TYPE;
+	}
+
 	private ITypeHierarchy createTypeHierarchy(IJavaElement[] elements, IProgressMonitor pm) throws JavaModelException {
-		if (elements.length == 1 && elements[0].getElementType() == IJavaElement.TYPE) {
+		if (isIncrementalHierarchy(elements)) {
+			IncrementalTypeHierarchy hierarchy= new IncrementalTypeHierarchy((IType)elements[0]);
+			hierarchy.refresh(pm);
+			return hierarchy;
+		} else if (elements.length == 1 && elements[0].getElementType() == IJavaElement.TYPE) {
 			IType type= (IType)elements[0];
 			if (fIsSuperTypesOnly) {
 				return type.newSupertypeHierarchy(pm);
@@ -319,7 +453,7 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 
 
 	public void doHierarchyRefresh(IJavaElement[] elements, IProgressMonitor pm) throws JavaModelException {
-		boolean hierachyCreationNeeded= (fHierarchy == null || !Arrays.equals(elements, fInputElements));
+		boolean hierachyCreationNeeded= isHierarchyCreationNeeded(elements);
 		// to ensure the order of the two listeners always remove / add listeners on operations
 		// on type hierarchies
 		if (fHierarchy != null) {
@@ -361,6 +495,23 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		if (fHierarchyRefreshNeeded) {
 			return;
 		} else {
+			ITypeHierarchy hierarchy= fHierarchy;
+			if (hierarchy instanceof IncrementalTypeHierarchy && event.getType() == ElementChangedEvent.POST_CHANGE) {
+				ArrayList<ICompilationUnit> units= new ArrayList<ICompilationUnit>();
+				if (!collectChangedUnits(event.getDelta(), units)) {
+					typeHierarchyChanged(hierarchy);
+					return;
+				}
+				if (!units.isEmpty()) {
+					synchronized (fPendingUnits) {
+						for (int i= 0; i < units.size(); i++) {
+							if (!fPendingUnits.contains(units.get(i)))
+								fPendingUnits.add(units.get(i));
+						}
+					}
+					fPatchHierarchyJob.schedule(PATCH_DELAY);
+				}
+			}
 			ArrayList<IType> changedTypes= new ArrayList<IType>();
 			processDelta(event.getDelta(), changedTypes);
 			if (changedTypes.size() > 0) {
@@ -417,6 +568,63 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 	}
 
+	/*
+	 * Collects the changed primary compilation units for an incremental hierarchy. Returns false
+	 * if the delta cannot be patched and the hierarchy must be computed again.
+	 */
+	private boolean collectChangedUnits(IJavaElementDelta delta, ArrayList<ICompilationUnit> units) {
+		IJavaElement element= delta.getElement();
+		int kind= delta.getKind();
+		int flags= delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_PROJECT:
+				if (kind != IJavaElementDelta.CHANGED
+						|| (flags & (IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+					return false;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (kind != IJavaElementDelta.CHANGED
+						|| (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_REORDER)) != 0) {
+					return false;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				// the compilation units of added and removed packages are not in the delta
+				if (kind == IJavaElementDelta.ADDED) {
+					try {
+						return ((IPackageFragment) element).getCompilationUnits().length == 0;
+					} catch (JavaModelException e) {
+						return false;
+					}
+				} else if (kind == IJavaElementDelta.REMOVED) {
+					IType[] types= getHierarchy().getAllTypes();
+					for (int i= 0; i < types.length; i++) {
+						if (element.equals(types[i].getPackageFragment()))
+							return false;
+					}
+					return true;
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				if (JavaModelUtil.isPrimary((ICompilationUnit) element) && !units.contains(element)) {
+					units.add((ICompilationUnit) element);
+				}
+				return true;
+			case IJavaElement.CLASS_FILE:
+				return false;
+			default:
+				break;
+		}
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (!collectChangedUnits(children[i], units)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private boolean isPossibleStructuralChange(int flags) {
 		return (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2012 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -60,6 +60,8 @@ public final class TypeHierarchyMessages extends NLS {
 	public static String ShowQualifiedTypeNamesAction_label;
 	public static String ShowQualifiedTypeNamesAction_tooltip;
 	public static String ShowQualifiedTypeNamesAction_description;
+	public static String IncrementalRefreshAction_label;
+	public static String IncrementalRefreshAction_description;
 	public static String SortByDefiningTypeAction_label;
 	public static String SortByDefiningTypeAction_tooltip;
 	public static String SortByDefiningTypeAction_description;
@@ -82,6 +84,7 @@ public final class TypeHierarchyMessages extends NLS {
 	public static String TypeHierarchyViewPart_restoreinput;
 	public static String TypeHierarchyViewPart_layout_submenu;
 	public static String TypeHierarchyLifeCycle_computeInput;
+	public static String TypeHierarchyLifeCycle_patchHierarchy;
 	public static String ToggleViewAction_subtypes_label;
 	public static String ToggleViewAction_subtypes_tooltip;
 	public static String ToggleViewAction_subtypes_description;
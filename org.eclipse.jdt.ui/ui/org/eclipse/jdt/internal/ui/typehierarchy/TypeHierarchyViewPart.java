@@ -154,6 +154,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 	private static final String DIALOGSTORE_VIEWLAYOUT= "TypeHierarchyViewPart.orientation";	 //$NON-NLS-1$
 	private static final String DIALOGSTORE_QUALIFIED_NAMES= "TypeHierarchyViewPart.qualifiednames";	 //$NON-NLS-1$
 	private static final String DIALOGSTORE_LINKEDITORS= "TypeHierarchyViewPart.linkeditors";	 //$NON-NLS-1$
+	private static final String DIALOGSTORE_INCREMENTAL_REFRESH= "TypeHierarchyViewPart.incrementalrefresh";	 //$NON-NLS-1$
 
 	private static final String TAG_INPUT= "input"; //$NON-NLS-1$
 	private static final String TAG_VIEW= "view"; //$NON-NLS-1$
@@ -199,6 +200,12 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 	private boolean fNeedRefresh;
 	private boolean fIsEnableMemberFilter;
 	private boolean fIsRefreshRunnablePosted;
+	/**
+	 * Indicates whether the whole hierarchy changed since the refresh runnable was posted.
+	 *
+	 * @since 3.8
+	 */
+	private volatile boolean fIsHierarchyRefreshPending;
 
 	private int fCurrentViewerIndex;
 	private TypeHierarchyViewer[] fAllViewers;
@@ -221,6 +228,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 
 	private ToggleViewAction[] fViewActions;
 	private ToggleLinkingAction fToggleLinkingAction;
+	private IncrementalRefreshAction fIncrementalRefreshAction;
 	private HistoryDropDownAction fHistoryDropDownAction;
 	private ToggleOrientationAction[] fToggleOrientationActions;
 	private EnableMemberFilterAction fEnableMemberFilterAction;
@@ -312,6 +320,8 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 		fToggleLinkingAction= new ToggleLinkingAction(this);
 		fToggleLinkingAction.setActionDefinitionId(IWorkbenchCommandConstants.NAVIGATE_TOGGLE_LINK_WITH_EDITOR);
 
+		fIncrementalRefreshAction= new IncrementalRefreshAction(this);
+
 		fPaneLabelProvider= new JavaUILabelProvider();
 
 		fFocusOnSelectionAction= new FocusOnSelectionAction(this);
@@ -956,6 +966,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 
 		showQualifiedTypeNames(fDialogSettings.getBoolean(DIALOGSTORE_QUALIFIED_NAMES));
 		setLinkingEnabled(fDialogSettings.getBoolean(DIALOGSTORE_LINKEDITORS));
+		setIncrementalRefresh(fDialogSettings.getBoolean(DIALOGSTORE_INCREMENTAL_REFRESH));
 
 		// set the filter menu items
 		IActionBars actionBars= getViewSite().getActionBars();
@@ -979,6 +990,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 		viewMenu.add(new Separator(IWorkbenchActionConstants.MB_ADDITIONS));
 		viewMenu.add(fShowQualifiedTypeNamesAction);
 		viewMenu.add(fToggleLinkingAction);
+		viewMenu.add(fIncrementalRefreshAction);
 
 
 		// fill the method viewer tool bar
@@ -1563,6 +1575,10 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 			fNeedRefresh= true;
 			return;
 		}
+		if (changedTypes == null) {
+			// merged into the posted runnable, must not be dropped
+			fIsHierarchyRefreshPending= true;
+		}
 		if (fIsRefreshRunnablePosted) {
 			return;
 		}
@@ -1572,12 +1588,11 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 			fIsRefreshRunnablePosted= true;
 			display.asyncExec(new Runnable() {
 				public void run() {
-					try {
-						if (fPagebook != null && !fPagebook.isDisposed()) {
-							doTypeHierarchyChangedOnViewers(changedTypes);
-						}
-					} finally {
-						fIsRefreshRunnablePosted= false;
+					fIsRefreshRunnablePosted= false;
+					boolean isHierarchyRefresh= fIsHierarchyRefreshPending;
+					fIsHierarchyRefreshPending= false;
+					if (fPagebook != null && !fPagebook.isDisposed()) {
+						doTypeHierarchyChangedOnViewers(isHierarchyRefresh ? null : changedTypes);
 					}
 				}
 			});
@@ -1862,6 +1877,19 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 		return fLinkingEnabled;
 	}
 
+	/**
+	 * Sets whether hierarchies on a single type are updated with the changed types instead of
+	 * being computed again. The mode applies from the next computation of the hierarchy.
+	 *
+	 * @param enabled <code>true</code> to update hierarchies incrementally
+	 * @since 3.8
+	 */
+	public void setIncrementalRefresh(boolean enabled) {
+		fHierarchyLifeCycle.setIncrementalRefresh(enabled);
+		fIncrementalRefreshAction.setChecked(enabled);
+		fDialogSettings.put(DIALOGSTORE_INCREMENTAL_REFRESH, enabled);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.jdt.ui.ITypeHierarchyViewPart#setLinkingEnabled(boolean)
 	 */
@@ -3594,6 +3594,10 @@ public class PreferenceConstants {
 	 * <p>
 	 * Value is an XML encoded version of the history.
 	 * </p>
+	 * <p>
+	 * <strong>Note:</strong> Since 3.8 the history is stored in a file in the state location of
+	 * the plug-in. The preference is only read to migrate the history of earlier versions.
+	 * </p>
 	 *
 	 * @see org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory#load(org.eclipse.core.runtime.Preferences, String)
 	 * @since 3.2
@@ -24,12 +24,17 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jface.preference.IPreferenceStore;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.IViewportListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextSelection;
@@ -69,14 +74,22 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.ui.PreferenceConstants;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.JavaUIMessages;
 import org.eclipse.jdt.internal.ui.actions.SelectionConverter;
 import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
 import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
 import org.eclipse.jdt.internal.ui.text.DocumentCharacterIterator;
+import org.eclipse.jdt.internal.ui.text.ReconcileTrace;
+import org.eclipse.jdt.internal.ui.text.ViewportWindow;
 
 /**
  * Updates the projection model of a class file or compilation unit.
  * <p>
+ * In very large documents, exact folding regions are only computed for the members around the
+ * visible lines. The other members get a placeholder region that spans the whole member and
+ * is replaced with the exact regions when the member is scrolled into view.
+ * </p>
+ * <p>
  * Clients may instantiate or subclass. Subclasses must make sure to always call the superclass'
  * code when overriding methods that are marked with "subclasses may extend".
  * </p>
@@ -102,6 +115,23 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		private LinkedHashMap<JavaProjectionAnnotation, Position> fMap= new LinkedHashMap<JavaProjectionAnnotation, Position>();
 		private IScanner fScanner;
 
+		/**
+		 * The start offset of the window in which exact folding regions are computed, or
+		 * <code>-1</code> if the folding structure of the whole input is computed.
+		 * @since 3.8
+		 */
+		private int fWindowStart= -1;
+		/**
+		 * The end offset of the window in which exact folding regions are computed.
+		 * @since 3.8
+		 */
+		private int fWindowEnd;
+		/**
+		 * The members that are computed exactly also outside the window.
+		 * @since 3.8
+		 */
+		private Set<IJavaElement> fExactMembers= Collections.emptySet();
+
 		private FoldingStructureComputationContext(IDocument document, ProjectionAnnotationModel model, boolean allowCollapsing, IScanner scanner) {
 			Assert.isNotNull(document);
 			Assert.isNotNull(model);
@@ -111,6 +141,35 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			fScanner= scanner;
 		}
 
+		private void setWindow(int start, int end) {
+			fWindowStart= start;
+			fWindowEnd= end;
+		}
+
+		private boolean isLazy() {
+			return fWindowStart != -1;
+		}
+
+		private void setExactMembers(Set<IJavaElement> members) {
+			fExactMembers= members;
+		}
+
+		/**
+		 * Tells whether the exact folding regions of the given member have to be computed.
+		 *
+		 * @param member the member
+		 * @return <code>true</code> if the member is inside the window or has to be kept exact
+		 * @throws JavaModelException if the source range of the member cannot be accessed
+		 */
+		private boolean isExact(IMember member) throws JavaModelException {
+			if (!isLazy() || member.getDeclaringType() == null || fExactMembers.contains(member))
+				return true;
+			ISourceRange range= member.getSourceRange();
+			if (!SourceRange.isAvailable(range))
+				return true;
+			return range.getOffset() <= fWindowEnd && range.getOffset() + range.getLength() >= fWindowStart;
+		}
+
 		private void setFirstType(IType type) {
 			if (hasFirstType())
 				throw new IllegalStateException();
@@ -230,6 +289,7 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 		private IJavaElement fJavaElement;
 		private boolean fIsComment;
+		private boolean fIsPlaceholder;
 
 		/**
 		 * Creates a new projection annotation.
@@ -262,6 +322,21 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			fIsComment= isComment;
 		}
 
+		/**
+		 * Tells whether this annotation is a placeholder that spans the whole member, including
+		 * its comments, instead of the exact folding region of the member's code.
+		 *
+		 * @return <code>true</code> if this is a placeholder
+		 * @since 3.8
+		 */
+		boolean isPlaceholder() {
+			return fIsPlaceholder;
+		}
+
+		void setIsPlaceholder(boolean isPlaceholder) {
+			fIsPlaceholder= isPlaceholder;
+		}
+
 		/*
 		 * @see java.lang.Object#toString()
 		 */
@@ -689,11 +764,93 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		}
 	}
 
+	/**
+	 * Internal viewport listener that keeps track of the visible lines.
+	 *
+	 * @since 3.8
+	 */
+	private final class ViewportListener implements IViewportListener {
+		private ProjectionViewer fViewer;
+
+		/**
+		 * Registers the listener with the viewer.
+		 *
+		 * @param viewer the viewer to register a listener with
+		 */
+		public ViewportListener(ProjectionViewer viewer) {
+			Assert.isLegal(viewer != null);
+			fViewer= viewer;
+			fViewer.addViewportListener(this);
+		}
+
+		/**
+		 * Disposes of this listener and removes the viewport listener from the viewer.
+		 */
+		public void dispose() {
+			if (fViewer != null) {
+				fViewer.removeViewportListener(this);
+				fViewer= null;
+			}
+		}
+
+		/**
+		 * Updates the visible lines from the viewer.
+		 */
+		public void updateVisibleLines() {
+			if (fViewer != null)
+				fViewportWindow.updateVisibleLines(fViewer);
+		}
+
+		/*
+		 * @see org.eclipse.jface.text.IViewportListener#viewportChanged(int)
+		 */
+		public void viewportChanged(int verticalOffset) {
+			if (fViewer != null) {
+				updateVisibleLines();
+				handleViewportChanged();
+			}
+		}
+	}
+
+	/**
+	 * Job that fills in the placeholders that have been scrolled into the window.
+	 *
+	 * @since 3.8
+	 */
+	private final class FillInJob extends Job {
+
+		public FillInJob() {
+			super(JavaUIMessages.DefaultJavaFoldingStructureProvider_fillIn_job);
+			setSystem(true);
+			setPriority(Job.SHORT);
+		}
+
+		/*
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			if (isInstalled() && !monitor.isCanceled())
+				update(createContext(false));
+			return Status.OK_STATUS;
+		}
+	}
+
+	/**
+	 * The delay in milliseconds after which placeholders that have been scrolled into the
+	 * window are filled in.
+	 *
+	 * @since 3.8
+	 */
+	private static final long FILL_IN_DELAY= 100;
+
 	/* context and listeners */
 	private JavaEditor fEditor;
 	private ProjectionListener fProjectionListener;
 	private IJavaElement fInput;
 	private IElementChangedListener fElementListener;
+	/** @since 3.8 */
+	private ViewportListener fViewportListener;
 
 	/* preferences */
 	private boolean fCollapseJavadoc= false;
@@ -716,6 +873,33 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 	private volatile int fUpdatingCount= 0;
 
+	/**
+	 * Serializes the updates of the folding structure.
+	 * @since 3.8
+	 */
+	private final Object fUpdateLock= new Object();
+
+	/**
+	 * The window around the visible lines in which exact folding regions are computed. Members
+	 * outside the window of a document with more than {@link ViewportWindow#THRESHOLD} lines get
+	 * a placeholder that spans the whole member and is replaced by the exact folding regions once
+	 * the member is scrolled into the window.
+	 * @since 3.8
+	 */
+	private final ViewportWindow fViewportWindow= new ViewportWindow();
+
+	/**
+	 * The positions of the placeholder annotations in the projection annotation model.
+	 * @since 3.8
+	 */
+	private volatile Position[] fPlaceholders= new Position[0];
+
+	/**
+	 * The job that fills in placeholders.
+	 * @since 3.8
+	 */
+	private final Job fFillInJob= new FillInJob();
+
 	/**
 	 * Creates a new folding provider. It must be
 	 * {@link #install(ITextEditor, ProjectionViewer) installed} on an editor/viewer pair before it
@@ -744,6 +928,7 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 		if (editor instanceof JavaEditor) {
 			fProjectionListener= new ProjectionListener(viewer);
+			fViewportListener= new ViewportListener(viewer);
 			fEditor= (JavaEditor)editor;
 		}
 	}
@@ -766,6 +951,8 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			handleProjectionDisabled();
 			fProjectionListener.dispose();
 			fProjectionListener= null;
+			fViewportListener.dispose();
+			fViewportListener= null;
 			fEditor= null;
 		}
 	}
@@ -797,6 +984,7 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		handleProjectionDisabled();
 
 		if (isInstalled()) {
+			fViewportListener.updateVisibleLines();
 			initialize();
 			fElementListener= new ElementChangedListener();
 			JavaCore.addElementChangedListener(fElementListener);
@@ -818,6 +1006,8 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			JavaCore.removeElementChangedListener(fElementListener);
 			fElementListener= null;
 		}
+		fFillInJob.cancel();
+		fPlaceholders= new Position[0];
 	}
 
 	/*
@@ -855,7 +1045,41 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		if (fUpdatingCount == 1)
 			scanner= fSharedScanner; // reuse scanner
 
-		return new FoldingStructureComputationContext(doc, model, allowCollapse, scanner);
+		FoldingStructureComputationContext ctx= new FoldingStructureComputationContext(doc, model, allowCollapse, scanner);
+		IRegion window= fViewportWindow.computeWindow(doc, 1);
+		if (window != null)
+			ctx.setWindow(window.getOffset(), window.getOffset() + window.getLength());
+		return ctx;
+	}
+
+	/**
+	 * Schedules the fill-in job if a placeholder has been scrolled into the window.
+	 *
+	 * @since 3.8
+	 */
+	private void handleViewportChanged() {
+		Position[] placeholders= fPlaceholders;
+		if (placeholders.length == 0)
+			return;
+
+		IDocument document= getDocument();
+		if (document == null)
+			return;
+
+		IRegion window= fViewportWindow.computeWindow(document, 1);
+		if (window == null) {
+			// the document has shrunk, compute the complete structure
+			fFillInJob.schedule(FILL_IN_DELAY);
+			return;
+		}
+
+		for (int i= 0; i < placeholders.length; i++) {
+			Position placeholder= placeholders[i];
+			if (!placeholder.isDeleted() && placeholder.overlapsWith(window.getOffset(), window.getLength())) {
+				fFillInJob.schedule(FILL_IN_DELAY);
+				return;
+			}
+		}
 	}
 
 	private IJavaElement getInputElement() {
@@ -877,13 +1101,27 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		if (ctx == null)
 			return;
 
+		long start= ReconcileTrace.ENABLED ? System.nanoTime() : 0;
+		synchronized (fUpdateLock) {
+			updateFoldingStructure(ctx);
+		}
+		if (ReconcileTrace.ENABLED) {
+			JavaEditor editor= fEditor;
+			ReconcileTrace.record(ReconcileTrace.PHASE_FOLDING, editor != null ? editor.getTitle() : null, start);
+		}
+	}
+
+	private void updateFoldingStructure(FoldingStructureComputationContext ctx) {
 		Map<JavaProjectionAnnotation, Position> additions= new HashMap<JavaProjectionAnnotation, Position>();
 		List<JavaProjectionAnnotation> deletions= new ArrayList<JavaProjectionAnnotation>();
 		List<JavaProjectionAnnotation> updates= new ArrayList<JavaProjectionAnnotation>();
+		List<Position> placeholders= new ArrayList<Position>();
 
+		Map<IJavaElement, List<Tuple>> oldStructure= computeCurrentStructure(ctx);
+		if (ctx.isLazy())
+			ctx.setExactMembers(computeCollapsedMembers(oldStructure));
 		computeFoldingStructure(ctx);
 		Map<JavaProjectionAnnotation, Position> newStructure= ctx.fMap;
-		Map<IJavaElement, List<Tuple>> oldStructure= computeCurrentStructure(ctx);
 
 		Iterator<JavaProjectionAnnotation> e= newStructure.keySet().iterator();
 		while (e.hasNext()) {
@@ -903,8 +1141,11 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			boolean isMalformedAnonymousType= newPosition.getOffset() == 0 && element.getElementType() == IJavaElement.TYPE && isInnerType((IType) element);
 			List<Tuple> annotations= oldStructure.get(element);
 			if (annotations == null) {
-				if (!isMalformedAnonymousType)
+				if (!isMalformedAnonymousType) {
 					additions.put(newAnnotation, newPosition);
+					if (newAnnotation.isPlaceholder())
+						placeholders.add(newPosition);
+				}
 			} else {
 				Iterator<Tuple> x= annotations.iterator();
 				boolean matched= false;
@@ -914,7 +1155,8 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 					Position existingPosition= tuple.position;
 					if (newAnnotation.isComment() == existingAnnotation.isComment()) {
 						boolean updateCollapsedState= ctx.allowCollapsing() && existingAnnotation.isCollapsed() != newAnnotation.isCollapsed();
-						if (!isMalformedAnonymousType && existingPosition != null && (!newPosition.equals(existingPosition) || updateCollapsedState)) {
+						boolean updatePlaceholder= existingAnnotation.isPlaceholder() != newAnnotation.isPlaceholder();
+						if (!isMalformedAnonymousType && existingPosition != null && (!newPosition.equals(existingPosition) || updateCollapsedState || updatePlaceholder)) {
 							existingPosition.setOffset(newPosition.getOffset());
 							existingPosition.setLength(newPosition.getLength());
 							if (updateCollapsedState)
@@ -922,15 +1164,21 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 									existingAnnotation.markCollapsed();
 								else
 									existingAnnotation.markExpanded();
+							existingAnnotation.setIsPlaceholder(newAnnotation.isPlaceholder());
 							updates.add(existingAnnotation);
 						}
+						if (existingAnnotation.isPlaceholder() && existingPosition != null)
+							placeholders.add(existingPosition);
 						matched= true;
 						x.remove();
 						break;
 					}
 				}
-				if (!matched)
+				if (!matched) {
 					additions.put(newAnnotation, newPosition);
+					if (newAnnotation.isPlaceholder())
+						placeholders.add(newPosition);
+				}
 
 				if (annotations.isEmpty())
 					oldStructure.remove(element);
@@ -945,11 +1193,12 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 				deletions.add(list.get(i).annotation);
 		}
 
-		match(deletions, additions, updates, ctx);
+		match(deletions, additions, updates, placeholders, ctx);
 
 		Annotation[] deletedArray= deletions.toArray(new Annotation[deletions.size()]);
 		Annotation[] changedArray= updates.toArray(new Annotation[updates.size()]);
 		ctx.getModel().modifyAnnotations(deletedArray, additions, changedArray);
+		fPlaceholders= placeholders.toArray(new Position[placeholders.size()]);
 
 		ctx.fScanner.setSource(null);
     }
@@ -973,6 +1222,11 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		for (int i= 0; i < elements.length; i++) {
 			IJavaElement element= elements[i];
 
+			if (element instanceof IMember && !ctx.isExact((IMember) element)) {
+				computePlaceholder((IMember) element, ctx);
+				continue;
+			}
+
 			computeFoldingStructure(element, ctx);
 
 			if (element instanceof IParent) {
@@ -1053,6 +1307,69 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		}
 	}
 
+	/**
+	 * Adds a placeholder for a member outside the window that spans the whole member including
+	 * its comments. The member's children are not computed.
+	 *
+	 * @param member the member
+	 * @param ctx the computation context
+	 * @throws JavaModelException if the source range of the member cannot be accessed
+	 * @since 3.8
+	 */
+	private void computePlaceholder(IMember member, FoldingStructureComputationContext ctx) throws JavaModelException {
+		boolean collapse;
+		switch (member.getElementType()) {
+			case IJavaElement.TYPE:
+				collapse= ctx.collapseInnerTypes() && !isAnonymousEnum((IType) member);
+				break;
+			case IJavaElement.METHOD:
+			case IJavaElement.FIELD:
+			case IJavaElement.INITIALIZER:
+				collapse= ctx.collapseMembers();
+				break;
+			default:
+				return;
+		}
+
+		ISourceRange range= member.getSourceRange();
+		if (!SourceRange.isAvailable(range))
+			return;
+
+		IRegion normalized= alignRegion(new Region(range.getOffset(), range.getLength()), ctx);
+		if (normalized != null) {
+			JavaProjectionAnnotation annotation= new JavaProjectionAnnotation(collapse, member, false);
+			annotation.setIsPlaceholder(true);
+			ctx.addProjectionRange(annotation, createMemberPosition(normalized, member));
+		}
+	}
+
+	/**
+	 * Returns the elements that have a collapsed exact annotation in the given structure,
+	 * together with their ancestors. These elements are kept exact outside the window
+	 * so that their collapsed state is preserved.
+	 *
+	 * @param structure the current structure
+	 * @return the elements that have to be computed exactly
+	 * @since 3.8
+	 */
+	private Set<IJavaElement> computeCollapsedMembers(Map<IJavaElement, List<Tuple>> structure) {
+		Set<IJavaElement> members= new HashSet<IJavaElement>();
+		for (Iterator<Map.Entry<IJavaElement, List<Tuple>>> it= structure.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<IJavaElement, List<Tuple>> entry= it.next();
+			List<Tuple> tuples= entry.getValue();
+			for (int i= 0, size= tuples.size(); i < size; i++) {
+				JavaProjectionAnnotation annotation= tuples.get(i).annotation;
+				if (annotation.isCollapsed() && !annotation.isPlaceholder()) {
+					IJavaElement element= entry.getKey();
+					while (element != null && members.add(element))
+						element= element.getParent();
+					break;
+				}
+			}
+		}
+		return members;
+	}
+
 	/**
 	 * Returns <code>true</code> if <code>type</code> is an anonymous enum declaration,
 	 * <code>false</code> otherwise. See also https://bugs.eclipse.org/bugs/show_bug.cgi?id=143276
@@ -1287,9 +1604,10 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 	 * @param deletions list with deleted annotations
 	 * @param additions map with position to annotation mappings
 	 * @param changes list with changed annotations
+	 * @param placeholders list with the positions of the placeholders
 	 * @param ctx	the context
 	 */
-	private void match(List<JavaProjectionAnnotation> deletions, Map<JavaProjectionAnnotation, Position> additions, List<JavaProjectionAnnotation> changes, FoldingStructureComputationContext ctx) {
+	private void match(List<JavaProjectionAnnotation> deletions, Map<JavaProjectionAnnotation, Position> additions, List<JavaProjectionAnnotation> changes, List<Position> placeholders, FoldingStructureComputationContext ctx) {
 		if (deletions.isEmpty() || (additions.isEmpty() && changes.isEmpty()))
 			return;
 
@@ -1316,6 +1634,16 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 				IJavaElement element= match.annotation.getElement();
 				deleted.setElement(element);
 				deletedPosition.setLength(match.position.getLength());
+				deleted.setIsPlaceholder(match.annotation.isPlaceholder());
+				if (match.annotation.isPlaceholder()) {
+					for (Iterator<Position> it= placeholders.iterator(); it.hasNext();) {
+						if (it.next() == match.position) {
+							it.remove();
+							break;
+						}
+					}
+					placeholders.add(deletedPosition);
+				}
 				if (deletedPosition instanceof JavaElementPosition && element instanceof IMember) {
 					JavaElementPosition jep= (JavaElementPosition) deletedPosition;
 					jep.setMember((IMember) element);
@@ -55,6 +55,7 @@ import org.eclipse.jdt.internal.ui.text.java.JavaFieldWithCastedReceiverCompleti
 import org.eclipse.jdt.internal.ui.text.java.JavaMethodCompletionProposal;
 import org.eclipse.jdt.internal.ui.text.java.LazyJavaCompletionProposal;
 import org.eclipse.jdt.internal.ui.text.java.LazyJavaTypeCompletionProposal;
+import org.eclipse.jdt.internal.ui.text.java.LazyJavaVariableCompletionProposal;
 import org.eclipse.jdt.internal.ui.text.java.MethodDeclarationCompletionProposal;
 import org.eclipse.jdt.internal.ui.text.java.MethodProposalInfo;
 import org.eclipse.jdt.internal.ui.text.java.OverrideCompletionProposal;
@@ -703,6 +704,9 @@ public class CompletionProposalCollector extends CompletionRequestor {
 	}
 
 	private IJavaCompletionProposal createFieldProposal(CompletionProposal proposal) {
+		if (proposal.getKind() == CompletionProposal.FIELD_REF && !getContext().isInJavadoc())
+			return createLazyVariableProposal(proposal);
+
 		String completion= String.valueOf(proposal.getCompletion());
 		int start= proposal.getReplaceStart();
 		int length= getLength(proposal);
@@ -792,14 +796,21 @@ public class CompletionProposalCollector extends CompletionRequestor {
 	}
 
 	private IJavaCompletionProposal createLocalVariableProposal(CompletionProposal proposal) {
-		String completion= String.valueOf(proposal.getCompletion());
-		int start= proposal.getReplaceStart();
-		int length= getLength(proposal);
-		Image image= getImage(fLabelProvider.createLocalImageDescriptor(proposal));
-		StyledString label= fLabelProvider.createSimpleLabelWithType(proposal);
-		int relevance= computeRelevance(proposal);
-		final JavaCompletionProposal javaProposal= new JavaCompletionProposal(completion, start, length, image, label, relevance);
-		javaProposal.setTriggerCharacters(VAR_TRIGGER);
+		return createLazyVariableProposal(proposal);
+	}
+
+	/**
+	 * Creates a lazy proposal for a field or local variable. Only the relevance is computed
+	 * eagerly, since it is needed to sort the proposals and may be customized by subclasses.
+	 *
+	 * @param proposal the JDT Core proposal
+	 * @return the Java completion proposal
+	 * @since 3.8
+	 */
+	private IJavaCompletionProposal createLazyVariableProposal(CompletionProposal proposal) {
+		LazyJavaCompletionProposal javaProposal= new LazyJavaVariableCompletionProposal(proposal, getInvocationContext());
+		javaProposal.setRelevance(computeRelevance(proposal));
+		adaptLength(javaProposal, proposal);
 		return javaProposal;
 	}
 